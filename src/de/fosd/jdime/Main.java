@@ -30,6 +30,10 @@
 import de.fosd.jdime.config.merge.MergeContext;
 import de.fosd.jdime.config.merge.MergeScenario;
 import de.fosd.jdime.execption.AbortException;
+import de.fosd.jdime.git.CommitMerge;
+import de.fosd.jdime.git.GitRepository;
+import de.fosd.jdime.job.BatchRunner;
+import de.fosd.jdime.job.MergeDaemon;
 import de.fosd.jdime.matcher.Matcher;
 import de.fosd.jdime.matcher.matching.Color;
 import de.fosd.jdime.matcher.matching.Matching;
@@ -55,6 +59,9 @@
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_BATCH;
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_DAEMON;
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_DAEMON_PORT;
 import static de.fosd.jdime.config.CommandLineConfigSource.CLI_HELP;
 import static de.fosd.jdime.config.CommandLineConfigSource.CLI_VERSION;
 import static de.fosd.jdime.config.JDimeConfig.*;
@@ -139,6 +146,7 @@ public static void main(String[] args) {
                 exitCode = run(args);
             } finally {
                 System.setSecurityManager(SYS_SEC_MANAGER);
+                GitRepository.closeAll();
             }
 
             System.exit(exitCode);
@@ -198,6 +206,14 @@ public static int run(String[] args) {
             return EXIT_SUCCESS;
         }
 
+        if (config.getBoolean(CLI_DAEMON).orElse(false) || config.get(CLI_DAEMON_PORT).isPresent()) {
+            return MergeDaemon.run(config);
+        }
+
+        if (config.get(CLI_BATCH).isPresent()) {
+            return BatchRunner.run(config);
+        }
+
         context.configureFrom(config);
 
         List<FileArtifact> inputFiles = context.getInputFiles();
@@ -243,6 +259,18 @@ public static int run(String[] args) {
             }
         }
 
+        return exitCode(context);
+    }
+
+    /**
+     * Returns the exit code for a finished merge.
+     *
+     * @param context
+     *         the <code>MergeContext</code> of the merge
+     * @return the number of conflicts (truncated to 127) if statistics are enabled, {@value EXIT_SUCCESS} otherwise
+     */
+    public static int exitCode(MergeContext context) {
+
         if (context.hasStatistics()) {
             long conflicts = context.getStatistics().getConflictStatistics().getSum();
             final int MAX_CONFLICTS = 127;
@@ -454,6 +482,17 @@ public static void merge(MergeContext context) {
         List<FileArtifact> inFiles = context.getInputFiles();
         FileArtifact outFile = context.getOutputFile();
 
+        if (context.getInputCommits() != null) {
+            CommitMerge.merge(context);
+            return;
+        }
+
+        if (context.isIdenticalInputs()) {
+            LOG.fine("All input files are the same git blob, skipping the merge.");
+            outFile.setContent(inFiles.get(0).getContent());
+            return;
+        }
+
         if (context.isFilterInputDirectories() && !context.isAcceptNonJava()) {
             inFiles.forEach(FileArtifact::filterNonJavaFiles);
         }
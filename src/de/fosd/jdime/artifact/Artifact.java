@@ -62,6 +62,10 @@
 
     private static final Logger LOG = Logger.getLogger(Artifact.class.getCanonicalName());
 
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long FAST_HASH_PRIME = 0x9e3779b97f4a7c15L;
+
     /**
      * Children of the artifact.
      */
@@ -120,6 +124,9 @@
     private boolean hashValid;
     private String hash;
 
+    private boolean fastHashValid;
+    private long fastHash;
+
     /**
      * Constructs a new <code>Artifact</code>.
      *
@@ -135,6 +142,8 @@ protected Artifact(Revision rev, int number) {
         this.number = number;
         this.hashValid = false;
         this.hash = null;
+        this.fastHashValid = false;
+        this.fastHash = 0;
     }
 
     /**
@@ -231,6 +240,23 @@ public void clearAllMatches() {
         }
     }
 
+    /**
+     * Clears the merged flag recursively, including the variants of choice nodes.
+     */
+    public void clearAllMerged() {
+        merged = false;
+
+        if (variants != null) {
+            for (T variant : variants.values()) {
+                variant.clearAllMerged();
+            }
+        }
+
+        for (T child : getChildren()) {
+            child.clearAllMerged();
+        }
+    }
+
     /**
      * Returns an <code>Artifact</code> that represents a merge conflict.
      * A conflict contains two alternative <code>Artifact</code> (left and right) and is handled in a special way
@@ -479,6 +505,57 @@ public String getTreeHash() {
         return hash;
     }
 
+    /**
+     * Returns a 64 bit hash of the tree rooted in this {@code Artifact}. This is a cheaper alternative to
+     * {@link #getTreeHash()} that is computed bottom-up from {@link #fastHashId()} and the hashes of the children.
+     * Unlike {@link #getTreeHash()} it allocates no {@code String}s beyond those built by {@link #fastHashId()}.
+     * As with any 64 bit hash, collisions are possible (albeit unlikely).
+     *
+     * @return the 64 bit tree hash
+     */
+    public long getFastTreeHash() {
+
+        if (fastHashValid) {
+            return fastHash;
+        }
+
+        long h = fastHashId();
+
+        for (T child : children) {
+            h = h * FAST_HASH_PRIME + child.getFastTreeHash();
+        }
+
+        fastHash = mix(h ^ children.size());
+        fastHashValid = true;
+        return fastHash;
+    }
+
+    /**
+     * Sets the {@link #getFastTreeHash() 64 bit tree hash} of this {@code Artifact} to a value computed earlier for an
+     * equal tree, e.g. one restored from a snapshot. The hash is invalidated as usual when the tree changes.
+     *
+     * @param fastHash
+     *         the 64 bit tree hash
+     */
+    protected void setFastTreeHash(long fastHash) {
+        this.fastHash = fastHash;
+        this.fastHashValid = true;
+    }
+
+    /**
+     * Returns whether the trees rooted in this {@code Artifact} and {@code other} have equal tree hashes.
+     *
+     * @param other
+     *         the {@code Artifact} to compare to
+     * @param fast
+     *         whether to compare the {@link #getFastTreeHash() 64 bit hashes} instead of the
+     *         {@link #getTreeHash() SHA-256 hashes}
+     * @return true iff the tree hashes are equal
+     */
+    public boolean treeHashEquals(T other, boolean fast) {
+        return fast ? getFastTreeHash() == other.getFastTreeHash() : getTreeHash().equals(other.getTreeHash());
+    }
+
     /**
      * Returns the {@code String} identifying this {@code Artifact} for the purposes of calculating the tree hash in
      * {@link #getTreeHash()};
@@ -487,12 +564,46 @@ public String getTreeHash() {
      */
     protected abstract String hashId();
 
+    /**
+     * Returns the 64 bit value identifying this {@code Artifact} for the purposes of calculating the tree hash in
+     * {@link #getFastTreeHash()}. The default implementation is the 64 bit FNV-1a hash of {@link #hashId()} and
+     * therefore builds the {@code String} returned by {@link #hashId()}. Subclasses that can compute the value from
+     * data they already store should override this method.
+     *
+     * @return the identifying 64 bit value
+     */
+    protected long fastHashId() {
+        String id = hashId();
+        long h = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= FNV_PRIME;
+        }
+
+        return h;
+    }
+
+    /**
+     * Scrambles the bits of the given value (the finalizer of the SplitMix64 generator).
+     *
+     * @param h
+     *         the value to scramble
+     * @return the scrambled value
+     */
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
     /**
      * Invalidates the hashes of this {@code Artifact} and all its parents.
      */
     protected void invalidateHash() {
         hashValid = false;
         hash = null;
+        fastHashValid = false;
 
         if (parent != null) {
             parent.invalidateHash();
@@ -621,6 +732,19 @@ public int getTreeSize() {
      *         the given {@link Revision}
      */
     public boolean hasChanges(Revision revision) {
+        return hasChanges(revision, false);
+    }
+
+    /**
+     * Returns whether the subtree rooted in this {@link Artifact} has changes compared to the given {@link Revision}.
+     * Returns {@code false} if {@code revision} is the {@link Revision} of this {@link Artifact}.
+     *
+     * @param revision the opposite {@link Revision}
+     * @param fastHash whether to compare the trees using {@link #getFastTreeHash()}
+     * @return true iff any {@link Artifact} in the tree under this {@link Artifact} represents a changed compared to
+     *         the given {@link Revision}
+     */
+    public boolean hasChanges(Revision revision, boolean fastHash) {
 
         if (this.revision.equals(revision)) {
             return false;
@@ -632,7 +756,7 @@ public boolean hasChanges(Revision revision) {
 
         T match = getMatching(revision).getMatchingArtifact(this);
 
-        return getTreeSize() != match.getTreeSize() || !getTreeHash().equals(match.getTreeHash());
+        return getTreeSize() != match.getTreeSize() || !treeHashEquals(match, fastHash);
     }
 
     /**
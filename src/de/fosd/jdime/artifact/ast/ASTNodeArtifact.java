@@ -47,14 +47,17 @@
 import org.extendj.ast.ASTNode;
 import org.extendj.ast.Block;
 import org.extendj.ast.ClassDecl;
+import org.extendj.ast.ClassSource;
 import org.extendj.ast.CompilationUnit;
 import org.extendj.ast.ConstructorDecl;
+import org.extendj.ast.FileClassSource;
 import org.extendj.ast.ImportDecl;
 import org.extendj.ast.InterfaceDecl;
 import org.extendj.ast.Literal;
 import org.extendj.ast.MethodDecl;
 import org.extendj.ast.Problem;
 import org.extendj.ast.Program;
+import org.extendj.ast.SourceFilePath;
 import org.extendj.ast.TryStmt;
 
 import static de.fosd.jdime.strdump.DumpMode.PLAINTEXT_TREE;
@@ -67,6 +70,14 @@ public class ASTNodeArtifact extends Artifact<ASTNodeArtifact> {
 
     private static final Logger LOG = Logger.getLogger(ASTNodeArtifact.class.getCanonicalName());
 
+    /**
+     * ExtendJ keeps the state of its attribute evaluation in a static field of {@link ASTNode}. Every access to the
+     * encapsulated <code>ASTNode</code>s that may evaluate attributes or rewrite the AST (parsing, wrapping, cloning,
+     * building matching representations and pretty-printing) synchronizes on this lock so that multiple files may be
+     * merged concurrently. The matching representation is therefore computed once while wrapping and cached.
+     */
+    static final Object EXTENDJ_LOCK = new Object();
+
     /**
      * Parses the content of the given <code>FileArtifact</code> to an AST. If the <code>artifact</code> is empty,
      * an empty <code>ASTNode</code> obtained via {@link ASTNode#ASTNode()} will be returned.
@@ -76,6 +87,19 @@ public class ASTNodeArtifact extends Artifact<ASTNodeArtifact> {
      * @return the root of the resulting AST
      */
     private static ASTNode<?> parse(FileArtifact artifact) {
+        synchronized (EXTENDJ_LOCK) {
+            return parseAST(artifact);
+        }
+    }
+
+    /**
+     * Implements {@link #parse(FileArtifact)}. The caller must hold the {@link #EXTENDJ_LOCK}.
+     *
+     * @param artifact
+     *         the <code>FileArtifact</code> to parse
+     * @return the root of the resulting AST
+     */
+    private static ASTNode<?> parseAST(FileArtifact artifact) {
         ASTNode<?> astNode;
 
         if (artifact.isEmpty()) {
@@ -85,7 +109,14 @@ private static ASTNode<?> parse(FileArtifact artifact) {
 
             try {
                 String path = artifact.getFile().getPath();
-                CompilationUnit cu = p.addSourceFile(path);
+                CompilationUnit cu;
+
+                if (artifact.isInMemory()) {
+                    cu = new ContentClassSource(path, artifact.getContent()).parseCompilationUnit(p);
+                    p.addCompilationUnit(cu);
+                } else {
+                    cu = p.addSourceFile(path);
+                }
 
                 // abort if there were parse errors
                 Collection<Problem> parseErrors = cu.parseErrors();
@@ -112,6 +143,11 @@ private static ASTNode<?> parse(FileArtifact artifact) {
      */
     protected ASTNode<?> astnode;
 
+    /**
+     * The matching representation of the {@link #astnode}, <code>null</code> if it has to be recomputed.
+     */
+    private Label label;
+
     /**
      * Constructs a new <code>ASTNodeArtifact</code> (tree) representing the AST of the code in <code>artifact</code>.
      * All members of the tree will be in the same <code>Revision</code> as <code>artifact</code>.
@@ -162,7 +198,45 @@ private ASTNodeArtifact(Revision revision, Supplier<Integer> number, ASTNode<?>
         super(revision, number.get());
 
         this.astnode = astNode;
-        initializeChildren(number);
+
+        synchronized (EXTENDJ_LOCK) {
+            this.label = new Label(astNode.getMatchingRepresentation());
+            initializeChildren(number);
+        }
+    }
+
+    /**
+     * Constructs a new <code>ASTNodeArtifact</code> encapsulating the given <code>ASTNode</code> with the given
+     * children. Used by the {@link ASTSnapshotStore} that restores the label and the tree hash from a snapshot
+     * instead of computing them from <code>astNode</code>. The <code>ASTNode</code>s of the children are not
+     * added to <code>astNode</code>, {@link #relinkAST()} must be called on the root of the finished tree.
+     *
+     * @param revision
+     *         the <code>Revision</code> for this <code>ASTNodeArtifact</code>
+     * @param number
+     *         the DFS index of this <code>ASTNodeArtifact</code> in its tree
+     * @param astNode
+     *         the <code>ASTNode</code> to encapsulate
+     * @param label
+     *         the matching representation of <code>astNode</code>
+     * @param children
+     *         the children of this <code>ASTNodeArtifact</code>
+     * @param fastHash
+     *         the {@link #getFastTreeHash() 64 bit tree hash} of the resulting tree
+     */
+    ASTNodeArtifact(Revision revision, int number, ASTNode<?> astNode, Label label, List<ASTNodeArtifact> children,
+                    long fastHash) {
+        super(revision, number);
+
+        this.astnode = astNode;
+        this.label = label;
+
+        for (ASTNodeArtifact child : children) {
+            child.setParent(this);
+        }
+
+        setChildren(children);
+        setFastTreeHash(fastHash);
     }
 
     /**
@@ -175,11 +249,63 @@ private ASTNodeArtifact(Revision revision, Supplier<Integer> number, ASTNode<?>
     protected ASTNodeArtifact(ASTNodeArtifact toCopy) {
         super(toCopy);
 
-        try {
-            this.astnode = toCopy.astnode.clone();
-        } catch (CloneNotSupportedException e) {
-            throw new RuntimeException(e);
+        this.astnode = cloneAST(toCopy.astnode);
+        this.label = toCopy.label;
+    }
+
+    /**
+     * Clones the given <code>ASTNode</code> while holding the {@link #EXTENDJ_LOCK}.
+     *
+     * @param astNode
+     *         the <code>ASTNode</code> to clone
+     * @return the clone
+     */
+    private static ASTNode<?> cloneAST(ASTNode<?> astNode) {
+
+        synchronized (EXTENDJ_LOCK) {
+            try {
+                return astNode.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the matching representation of the encapsulated {@link ASTNode}. It is computed when the
+     * {@link ASTNode} is wrapped and recomputed on demand after {@link #invalidateLabel()} was called.
+     *
+     * @return the matching representation
+     */
+    String getLabel() {
+        return label().getText();
+    }
+
+    /**
+     * Returns the <code>Label</code> of the encapsulated {@link ASTNode}, recomputing it if necessary.
+     *
+     * @return the <code>Label</code>
+     */
+    Label label() {
+        Label current = label;
+
+        if (current == null) {
+            synchronized (EXTENDJ_LOCK) {
+                current = new Label(astnode.getMatchingRepresentation());
+            }
+
+            label = current;
         }
+
+        return current;
+    }
+
+    /**
+     * Invalidates the matching representation of this {@link ASTNodeArtifact}. Must be called whenever the
+     * encapsulated {@link ASTNode} is replaced or its matching representation changes.
+     */
+    protected void invalidateLabel() {
+        label = null;
     }
 
     /**
@@ -230,6 +356,69 @@ public ASTNodeArtifact copy() {
         return new ASTNodeArtifact(this);
     }
 
+    /**
+     * Copies the tree rooted in this <code>ASTNodeArtifact</code> for use as the tree of <code>file</code> that has
+     * the same content as the file this tree was parsed from. Unlike {@link Artifacts#copyTree(Artifact)}, the
+     * children of the copied <code>ASTNode</code>s are the copies of the original children, modifying the copy
+     * therefore does not affect the <code>ASTNode</code>s of this tree.
+     *
+     * @param file
+     *         the <code>FileArtifact</code> whose <code>Revision</code> and source file to use for the copy
+     * @return the root of the copied tree
+     */
+    ASTNodeArtifact copyAST(FileArtifact file) {
+        ASTNodeArtifact copy = Artifacts.copyTree(this);
+
+        copy.relinkAST();
+        copy.setRevision(file.getRevision(), true);
+        copy.setSourceFile(file);
+        return copy;
+    }
+
+    /**
+     * Sets the source of the <code>CompilationUnit</code>s in the tree rooted in this <code>ASTNodeArtifact</code>
+     * to the file of the given <code>FileArtifact</code>. Used for trees that were parsed from a different file with
+     * the same content.
+     *
+     * @param file
+     *         the <code>FileArtifact</code> whose file to use
+     */
+    void setSourceFile(FileArtifact file) {
+        String path = file.getFile().getPath();
+
+        synchronized (EXTENDJ_LOCK) {
+            setClassSource(new FileClassSource(new SourceFilePath(path), path));
+        }
+    }
+
+    /**
+     * Implements {@link #setSourceFile(FileArtifact)}. The caller must hold the {@link #EXTENDJ_LOCK}.
+     *
+     * @param source
+     *         the <code>ClassSource</code> to set
+     */
+    private void setClassSource(ClassSource source) {
+
+        if (astnode instanceof CompilationUnit) {
+            ((CompilationUnit) astnode).setClassSource(source);
+            return;
+        }
+
+        for (ASTNodeArtifact child : getChildren()) {
+            child.setClassSource(source);
+        }
+    }
+
+    /**
+     * Sets the children of the <code>ASTNode</code>s in the tree rooted in this <code>ASTNodeArtifact</code> to the
+     * <code>ASTNode</code>s of the children <code>ASTNodeArtifact</code>s. Must only be called on the root of a tree.
+     */
+    void relinkAST() {
+        synchronized (EXTENDJ_LOCK) {
+            rebuildAST();
+        }
+    }
+
     @Override
     public ASTNodeArtifact createEmptyArtifact(Revision revision) {
         return new ASTNodeArtifact(revision);
@@ -239,6 +428,18 @@ public ASTNodeArtifact createEmptyArtifact(Revision revision) {
     public String prettyPrint() {
         assert (astnode != null);
 
+        synchronized (EXTENDJ_LOCK) {
+            return prettyPrintAST();
+        }
+    }
+
+    /**
+     * Implements {@link #prettyPrint()}. The caller must hold the {@link #EXTENDJ_LOCK}.
+     *
+     * @return the pretty-printed AST
+     */
+    private String prettyPrintAST() {
+
         try {
             rebuildAST();
             astnode.flushTreeCache();
@@ -266,7 +467,12 @@ public final String getId() {
 
     @Override
     protected String hashId() {
-        return astnode.getMatchingRepresentation();
+        return getLabel();
+    }
+
+    @Override
+    protected long fastHashId() {
+        return label().getHash();
     }
 
     @Override
@@ -384,7 +590,7 @@ public Optional<Supplier<String>> getUniqueLabel() {
         boolean hasLabel = ImportDecl.class.isAssignableFrom(astnode.getClass())
                             || Literal.class.isAssignableFrom(astnode.getClass());
 
-        return hasLabel ? Optional.of(() -> astnode.getMatchingRepresentation()) : Optional.empty();
+        return hasLabel ? Optional.of(this::getLabel) : Optional.empty();
     }
 
     @Override
@@ -417,18 +623,15 @@ public final boolean matches(final ASTNodeArtifact other) {
 
         LOG.finest(() -> "match(" + getId() + ", " + other.getId() + ")");
 
-        LOG.finest(() -> {
-            String matchingRep = astnode.getMatchingRepresentation();
-            String otherMatchingRep = other.astnode.getMatchingRepresentation();
-            return String.format("Try Matching: {%s} and {%s}", matchingRep, otherMatchingRep);
-        });
+        LOG.finest(() -> String.format("Try Matching: {%s} and {%s}", getLabel(), other.getLabel()));
 
-        return astnode.matches(other.astnode);
+        // equivalent to astnode.matches(other.astnode) without building the matching representations
+        return categoryMatches(other) && label().equals(other.label());
     }
 
     @Override
     public final boolean categoryMatches(ASTNodeArtifact other) {
-        return astnode.getClass().equals(other.astnode.getClass());
+        return astnode.getClass() == other.astnode.getClass();
     }
 
     @Override
@@ -578,7 +781,7 @@ private void rebuildAST() {
 
     @Override
     public final String toString() {
-        return astnode.getMatchingRepresentation();
+        return getLabel();
     }
 
     @Override
@@ -592,17 +795,7 @@ public ASTNodeArtifact createConflictArtifact(ASTNodeArtifact left, ASTNodeArtif
          * prettyPrint() method the fact that it is virtual will be detected and handled by printing
          * conflict markers or ifdefs in the case of choice nodes.
          */
-        ASTNode<?> typeNode;
-
-        try {
-            if (left != null) {
-                typeNode = left.astnode.clone();
-            } else {
-                typeNode = right.astnode.clone();
-            }
-        } catch (CloneNotSupportedException e) {
-            throw new RuntimeException("Failed to clone an ASTNode for a conflict artifact.", e);
-        }
+        ASTNode<?> typeNode = cloneAST(left != null ? left.astnode : right.astnode);
 
         ASTNodeArtifact conflict = new ASTNodeArtifact(MergeScenario.CONFLICT, typeNode);
         conflict.setConflict(left, right);
@@ -617,13 +810,7 @@ public ASTNodeArtifact createChoiceArtifact(String condition, ASTNodeArtifact ar
         /*
          * See above in createConflictArtifact().
          */
-        ASTNode<?> typeNode;
-
-        try {
-            typeNode = artifact.astnode.clone();
-        } catch (CloneNotSupportedException e) {
-            throw new RuntimeException("Failed to clone an ASTNode for a choice artifact.", e);
-        }
+        ASTNode<?> typeNode = cloneAST(artifact.astnode);
 
         ASTNodeArtifact choice = new ASTNodeArtifact(MergeScenario.CHOICE, typeNode);
         choice.setChoice(condition, artifact);
@@ -0,0 +1,514 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.artifact.ast;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.fosd.jdime.artifact.ArtifactList;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.merge.Revision;
+import org.extendj.ast.ASTNode;
+import org.extendj.ast.CompilationUnit;
+
+/**
+ * A directory of binary snapshots of parsed <code>ASTNodeArtifact</code> trees keyed by the
+ * {@link FileArtifact#getContentHash() content hash} of the parsed files. Loading a snapshot rebuilds the
+ * ExtendJ AST without lexing, parsing or rewriting the code again and restores the matching labels and tree hashes
+ * without evaluating any attributes.
+ * <p>
+ * A snapshot stores a table of all strings followed by the nodes of the tree in DFS order. For every node it
+ * stores the ExtendJ class, the matching representation, whether the node is ordered, its 64 bit tree hash, its
+ * source positions, its <code>String</code> tokens and its number of children. Snapshots are written to a
+ * temporary file that is then moved to its final name, concurrent writers of the same snapshot therefore do not
+ * interfere. Snapshots are read through a memory-mapped buffer.
+ */
+public final class ASTSnapshotStore {
+
+    private static final Logger LOG = Logger.getLogger(ASTSnapshotStore.class.getCanonicalName());
+
+    private static final int MAGIC = 0x4A44_4153; // "JDAS"
+    private static final int VERSION = 2;
+    private static final String SUFFIX = ".ast";
+
+    private static final int NULL_STRING = -1;
+    private static final byte ORDERED = 0x1;
+
+    /**
+     * The <code>String</code> token fields (by name) of the <code>ASTNode</code> classes.
+     */
+    private static final ClassValue<Map<String, Field>> TOKENS = new ClassValue<Map<String, Field>>() {
+
+        @Override
+        protected Map<String, Field> computeValue(Class<?> type) {
+            Map<String, Field> tokens = new LinkedHashMap<>();
+
+            for (Class<?> c = type; c != null && c != ASTNode.class; c = c.getSuperclass()) {
+
+                for (Field field : c.getDeclaredFields()) {
+
+                    if (!field.getName().startsWith("token") || Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+
+                    field.setAccessible(true);
+                    tokens.putIfAbsent(field.getName(), field);
+                }
+            }
+
+            return Collections.unmodifiableMap(tokens);
+        }
+    };
+
+    private static final Map<String, Constructor<? extends ASTNode<?>>> CONSTRUCTORS = new ConcurrentHashMap<>();
+
+    private final File directory;
+
+    /**
+     * Constructs a new <code>ASTSnapshotStore</code> keeping its snapshots in the given directory. The directory
+     * will be created if necessary.
+     *
+     * @param directory
+     *         the directory to store the snapshots in
+     */
+    public ASTSnapshotStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the directory the snapshots are stored in.
+     *
+     * @return the snapshot directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns an <code>ASTNodeArtifact</code> tree representing the AST of the code in <code>file</code>. If a
+     * snapshot of a file with the same content exists, the tree is loaded from it. Otherwise the file is parsed
+     * and a snapshot of the resulting tree is stored. All members of the tree will be in the same
+     * <code>Revision</code> as <code>file</code>.
+     *
+     * @param file
+     *         the <code>FileArtifact</code> containing the code to be parsed
+     * @return the <code>ASTNodeArtifact</code> tree
+     */
+    public ASTNodeArtifact get(FileArtifact file) {
+
+        if (file.isEmpty()) {
+            return new ASTNodeArtifact(file);
+        }
+
+        Path snapshot = new File(directory, file.getContentHash() + SUFFIX).toPath();
+
+        if (Files.isRegularFile(snapshot)) {
+
+            try {
+                ASTNodeArtifact tree = read(snapshot, file);
+                LOG.fine(() -> String.format("Loaded the AST of %s from %s.", file, snapshot));
+                return tree;
+            } catch (IOException | ReflectiveOperationException e) {
+                LOG.log(Level.WARNING, e, () -> "Ignoring the invalid AST snapshot " + snapshot);
+            }
+        }
+
+        ASTNodeArtifact tree = new ASTNodeArtifact(file);
+
+        try {
+            write(tree, snapshot);
+        } catch (IOException | ReflectiveOperationException e) {
+            LOG.log(Level.WARNING, e, () -> "Could not store the AST snapshot " + snapshot);
+        }
+
+        return tree;
+    }
+
+    /**
+     * Writes a snapshot of the tree rooted in <code>root</code> to the given file.
+     *
+     * @param root
+     *         the root of the tree to write
+     * @param snapshot
+     *         the file to write to
+     * @throws IOException
+     *         if writing the file fails or the tree can not be stored in a snapshot
+     * @throws ReflectiveOperationException
+     *         if the tokens of an <code>ASTNode</code> can not be read
+     */
+    static void write(ASTNodeArtifact root, Path snapshot) throws IOException, ReflectiveOperationException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        List<ASTNodeArtifact> nodes = new ArrayList<>(root.getTreeSize());
+        List<String> labels = new ArrayList<>(root.getTreeSize());
+
+        synchronized (ASTNodeArtifact.EXTENDJ_LOCK) {
+            collect(root, nodes, labels);
+        }
+
+        Files.createDirectories(snapshot.getParent());
+        Path tmp = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+
+        try {
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                ByteBuffer nodeBuffer = encodeNodes(nodes, labels, strings);
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(strings.size());
+
+                for (String string : strings.keySet()) {
+                    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+
+                out.writeInt(nodes.size());
+                out.write(nodeBuffer.array(), 0, nodeBuffer.position());
+            }
+
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Collects the nodes of the tree rooted in <code>artifact</code> and their matching representations in DFS
+     * order. The caller must hold the {@link ASTNodeArtifact#EXTENDJ_LOCK}.
+     *
+     * @param artifact
+     *         the root of the tree
+     * @param nodes
+     *         the <code>List</code> to add the nodes to
+     * @param labels
+     *         the <code>List</code> to add the matching representations to
+     */
+    private static void collect(ASTNodeArtifact artifact, List<ASTNodeArtifact> nodes, List<String> labels) {
+        nodes.add(artifact);
+        labels.add(artifact.getLabel());
+
+        for (ASTNodeArtifact child : artifact.getChildren()) {
+            collect(child, nodes, labels);
+        }
+    }
+
+    /**
+     * Encodes the given nodes, adding all <code>String</code>s they reference to <code>strings</code>.
+     *
+     * @param nodes
+     *         the nodes in DFS order
+     * @param labels
+     *         the matching representations of the nodes
+     * @param strings
+     *         the table of <code>String</code>s mapping to their index
+     * @return the buffer containing the encoded nodes from index 0 to its position
+     * @throws IOException
+     *         if a node has tokens that are not <code>String</code>s
+     * @throws ReflectiveOperationException
+     *         if the tokens of a node can not be read
+     */
+    private static ByteBuffer encodeNodes(List<ASTNodeArtifact> nodes, List<String> labels,
+                                          Map<String, Integer> strings)
+            throws IOException, ReflectiveOperationException {
+        ByteBuffer buf = ByteBuffer.allocate(nodes.size() * 64);
+
+        for (int i = 0; i < nodes.size(); i++) {
+            ASTNodeArtifact artifact = nodes.get(i);
+            ASTNode<?> astNode = artifact.getASTNode();
+            Map<String, Field> tokens = TOKENS.get(astNode.getClass());
+            List<int[]> tokenValues = new ArrayList<>(tokens.size());
+
+            for (Field field : tokens.values()) {
+                Object value = field.get(astNode);
+
+                if (value == null) {
+                    continue;
+                }
+
+                if (!(value instanceof String)) {
+                    throw new IOException(String.format("The token %s of %s is not a String.", field.getName(),
+                                                        astNode.getClass()));
+                }
+
+                tokenValues.add(new int[] {intern(field.getName(), strings), intern((String) value, strings)});
+            }
+
+            buf = ensureRemaining(buf, 33 + tokenValues.size() * 8);
+
+            buf.putInt(intern(astNode.getClass().getName(), strings));
+            buf.putInt(intern(labels.get(i), strings));
+            buf.put(artifact.isOrdered() ? ORDERED : 0);
+            buf.putLong(artifact.getFastTreeHash());
+            buf.putInt(astNode.getStart());
+            buf.putInt(astNode.getEnd());
+            buf.putInt(tokenValues.size());
+
+            for (int[] token : tokenValues) {
+                buf.putInt(token[0]);
+                buf.putInt(token[1]);
+            }
+
+            buf.putInt(artifact.getNumChildren());
+        }
+
+        return buf;
+    }
+
+    /**
+     * Returns the index of the given <code>String</code> in the table of <code>String</code>s, adding it if
+     * necessary.
+     *
+     * @param string
+     *         the <code>String</code> to look up
+     * @param strings
+     *         the table of <code>String</code>s mapping to their index
+     * @return the index of <code>string</code>
+     */
+    private static int intern(String string, Map<String, Integer> strings) {
+        return string == null ? NULL_STRING : strings.computeIfAbsent(string, s -> strings.size());
+    }
+
+    /**
+     * Returns a buffer with at least <code>bytes</code> bytes remaining that contains the contents of
+     * <code>buf</code>.
+     *
+     * @param buf
+     *         the buffer to grow
+     * @param bytes
+     *         the number of bytes needed
+     * @return <code>buf</code> or a larger copy of it
+     */
+    private static ByteBuffer ensureRemaining(ByteBuffer buf, int bytes) {
+
+        if (buf.remaining() >= bytes) {
+            return buf;
+        }
+
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + bytes));
+
+        buf.flip();
+        grown.put(buf);
+        return grown;
+    }
+
+    /**
+     * Reads the snapshot from the given file.
+     *
+     * @param snapshot
+     *         the file to read
+     * @param file
+     *         the <code>FileArtifact</code> whose <code>Revision</code> and source file to use for the tree
+     * @return the root of the tree
+     * @throws IOException
+     *         if reading the file fails or it is not a valid snapshot
+     * @throws ReflectiveOperationException
+     *         if an <code>ASTNode</code> can not be constructed
+     */
+    static ASTNodeArtifact read(Path snapshot, FileArtifact file)
+            throws IOException, ReflectiveOperationException {
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException(snapshot + " is not an AST snapshot of version " + VERSION);
+            }
+
+            String[] strings = new String[buf.getInt()];
+
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buf.getInt()];
+
+                buf.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int size = buf.getInt();
+            int[] number = {0};
+            Map<String, Label> labels = new HashMap<>();
+            BitSet ordered = new BitSet(size);
+            ASTNodeArtifact root;
+
+            synchronized (ASTNodeArtifact.EXTENDJ_LOCK) {
+                root = readNode(buf, strings, labels, ordered, file.getRevision(), number);
+            }
+
+            if (number[0] != size || buf.hasRemaining()) {
+                throw new IOException(snapshot + " contains " + size + " nodes, but " + number[0] + " were read.");
+            }
+
+            root.relinkAST();
+            root.setSourceFile(file);
+
+            synchronized (ASTNodeArtifact.EXTENDJ_LOCK) {
+                verifyOrdering(root, ordered);
+            }
+
+            return root;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException(snapshot + " is truncated or corrupt.", e);
+        }
+    }
+
+    /**
+     * Checks that the restored nodes agree with their snapshot on whether they are ordered. A disagreement means
+     * that the snapshot was taken with a different version of ExtendJ. The caller must hold the
+     * {@link ASTNodeArtifact#EXTENDJ_LOCK}.
+     *
+     * @param artifact
+     *         the root of the restored tree
+     * @param ordered
+     *         the DFS indices of the nodes that were ordered when the snapshot was taken
+     * @throws IOException
+     *         if a node disagrees with the snapshot
+     */
+    private static void verifyOrdering(ASTNodeArtifact artifact, BitSet ordered) throws IOException {
+
+        if (artifact.isOrdered() != ordered.get(artifact.getNumber())) {
+            throw new IOException("The ordering of " + artifact.getASTNode().getClass() + " changed.");
+        }
+
+        for (ASTNodeArtifact child : artifact.getChildren()) {
+            verifyOrdering(child, ordered);
+        }
+    }
+
+    /**
+     * Reads the next node and (recursively) its children from the given buffer. The caller must hold the
+     * {@link ASTNodeArtifact#EXTENDJ_LOCK}.
+     *
+     * @param buf
+     *         the buffer to read from
+     * @param strings
+     *         the table of <code>String</code>s of the snapshot
+     * @param labels
+     *         the <code>Label</code>s of the matching representations read so far
+     * @param ordered
+     *         the DFS indices of the nodes that are ordered, the index of the node will be added if it is ordered
+     * @param revision
+     *         the <code>Revision</code> for the node
+     * @param number
+     *         the DFS index of the node, will be incremented
+     * @return the node
+     * @throws IOException
+     *         if the node is invalid
+     * @throws ReflectiveOperationException
+     *         if the <code>ASTNode</code> can not be constructed
+     */
+    private static ASTNodeArtifact readNode(ByteBuffer buf, String[] strings, Map<String, Label> labels,
+                                            BitSet ordered, Revision revision, int[] number)
+            throws IOException, ReflectiveOperationException {
+
+        ASTNode<?> astNode = constructor(strings[buf.getInt()]).newInstance();
+        Label label = labels.computeIfAbsent(strings[buf.getInt()], Label::new);
+        byte flags = buf.get();
+        long fastHash = buf.getLong();
+
+        astNode.setStart(buf.getInt());
+        astNode.setEnd(buf.getInt());
+
+        Map<String, Field> tokens = TOKENS.get(astNode.getClass());
+        int numTokens = buf.getInt();
+
+        for (int i = 0; i < numTokens; i++) {
+            Field field = tokens.get(strings[buf.getInt()]);
+            int value = buf.getInt();
+
+            if (field == null) {
+                throw new IOException("Unknown token of " + astNode.getClass());
+            }
+
+            field.set(astNode, value == NULL_STRING ? null : strings[value]);
+        }
+
+        if (astNode instanceof CompilationUnit) {
+            // snapshots are only taken of ASTs parsed from source files
+            ((CompilationUnit) astNode).setFromSource(true);
+        }
+
+        int nodeNumber = number[0]++;
+
+        ordered.set(nodeNumber, (flags & ORDERED) != 0);
+        int numChildren = buf.getInt();
+        List<ASTNodeArtifact> children = new ArtifactList<>();
+
+        for (int i = 0; i < numChildren; i++) {
+            children.add(readNode(buf, strings, labels, ordered, revision, number));
+        }
+
+        return new ASTNodeArtifact(revision, nodeNumber, astNode, label, children, fastHash);
+    }
+
+    /**
+     * Returns the public no-argument constructor of the <code>ASTNode</code> class with the given name.
+     *
+     * @param className
+     *         the name of the class
+     * @return the constructor
+     * @throws ReflectiveOperationException
+     *         if there is no such class or constructor
+     */
+    @SuppressWarnings("unchecked")
+    private static Constructor<? extends ASTNode<?>> constructor(String className) throws ReflectiveOperationException {
+        Constructor<? extends ASTNode<?>> constructor = CONSTRUCTORS.get(className);
+
+        if (constructor == null) {
+            Class<?> type = Class.forName(className, true, ASTNode.class.getClassLoader());
+
+            if (!ASTNode.class.isAssignableFrom(type)) {
+                throw new ClassNotFoundException(className + " is not an ASTNode.");
+            }
+
+            constructor = ((Class<? extends ASTNode<?>>) type).getConstructor();
+            CONSTRUCTORS.put(className, constructor);
+        }
+
+        return constructor;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.artifact.ast;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.extendj.ast.ClassSource;
+import org.extendj.ast.SourceFilePath;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A <code>ClassSource</code> providing source code that is not stored in the file system. Used for parsing
+ * <code>FileArtifact</code>s that are {@link de.fosd.jdime.artifact.file.FileArtifact#isInMemory() in memory}.
+ */
+final class ContentClassSource extends ClassSource {
+
+    private final String path;
+    private final byte[] content;
+
+    /**
+     * Constructs a new <code>ContentClassSource</code>.
+     *
+     * @param path
+     *         the path naming the source code
+     * @param content
+     *         the source code
+     */
+    ContentClassSource(String path, String content) {
+        super(new SourceFilePath(path));
+
+        this.path = path;
+        this.content = content.getBytes(UTF_8);
+    }
+
+    @Override
+    public long lastModified() {
+        return 0;
+    }
+
+    @Override
+    public InputStream openInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public String pathName() {
+        return path;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.artifact.ast;
+
+import org.extendj.ast.ASTNode;
+
+/**
+ * The {@link ASTNode#getMatchingRepresentation() matching representation} of an {@link ASTNode} together with a
+ * 64 bit hash of it. Two <code>ASTNode</code>s of the same class match iff their <code>Label</code>s are equal.
+ * <code>Label</code>s are compared by their hashes first and by the matching representations only if the hashes are
+ * equal. The hash depends on nothing but the matching representation, so no state is kept across merges.
+ */
+final class Label {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String text;
+    private final long hash;
+
+    /**
+     * Constructs a new <code>Label</code> for the given matching representation.
+     *
+     * @param text
+     *         the matching representation
+     */
+    Label(String text) {
+        this.text = text;
+        this.hash = hash(text);
+    }
+
+    /**
+     * Returns the 64 bit FNV-1a hash of the UTF-16 code units of the given <code>String</code>.
+     *
+     * @param text
+     *         the <code>String</code> to hash
+     * @return the hash
+     */
+    static long hash(String text) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns the matching representation.
+     *
+     * @return the matching representation
+     */
+    String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the 64 bit hash of the matching representation.
+     *
+     * @return the hash
+     */
+    long getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        Label other = (Label) o;
+        return hash == other.hash && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.artifact.ast;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.stats.ParseCacheStatistics;
+
+/**
+ * A bounded cache of parsed ASTs keyed by the {@link FileArtifact#getContentHash() content hash} of the parsed
+ * files. The cache holds at most a given number of AST nodes, the least recently used ASTs are evicted first. The
+ * cached trees are never handed out, {@link #get(FileArtifact, ParseCacheStatistics, Function)} returns copies of
+ * them. A <code>ParseCache</code> may be shared between threads.
+ */
+public final class ParseCache {
+
+    private static final Logger LOG = Logger.getLogger(ParseCache.class.getCanonicalName());
+
+    /**
+     * A cached AST and its number of nodes.
+     */
+    private static final class Entry {
+
+        private final ASTNodeArtifact tree;
+        private final int size;
+
+        private Entry(ASTNodeArtifact tree) {
+            this.tree = tree;
+            this.size = tree.getTreeSize();
+        }
+    }
+
+    private final long maxNodes;
+    private final LinkedHashMap<String, Entry> entries;
+    private long nodes;
+
+    private int hits;
+    private int misses;
+    private int evictions;
+
+    /**
+     * Constructs a new empty <code>ParseCache</code>.
+     *
+     * @param maxNodes
+     *         the maximum number of AST nodes to hold
+     */
+    public ParseCache(long maxNodes) {
+        this.maxNodes = maxNodes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.nodes = 0;
+    }
+
+    /**
+     * Returns an <code>ASTNodeArtifact</code> tree representing the AST of the code in <code>file</code>. If a
+     * file with the same content was parsed before, a copy of the cached AST is returned. Otherwise the file is
+     * parsed using <code>parser</code> and its AST is added to the cache. The returned tree is in the
+     * <code>Revision</code> of <code>file</code>.
+     *
+     * @param file
+     *         the <code>FileArtifact</code> containing the code to be parsed
+     * @param statistics
+     *         the <code>ParseCacheStatistics</code> to count the lookup in
+     * @param parser
+     *         the function producing the AST of a <code>FileArtifact</code> that is not cached
+     * @return the <code>ASTNodeArtifact</code> tree
+     */
+    public ASTNodeArtifact get(FileArtifact file, ParseCacheStatistics statistics,
+                               Function<FileArtifact, ASTNodeArtifact> parser) {
+        String key = file.getContentHash();
+        Entry entry;
+
+        synchronized (this) {
+            entry = entries.get(key);
+
+            if (entry != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+
+        if (entry != null) {
+            statistics.incrementHits();
+        } else {
+            statistics.incrementMisses();
+            entry = new Entry(parser.apply(file));
+            statistics.incrementEvictions(put(key, entry));
+        }
+
+        return entry.tree.copyAST(file);
+    }
+
+    /**
+     * Adds the given <code>Entry</code> to the cache and evicts the least recently used entries until the cache
+     * holds at most {@link #maxNodes} nodes. ASTs larger than {@link #maxNodes} are not cached.
+     *
+     * @param key
+     *         the content hash of the parsed file
+     * @param entry
+     *         the <code>Entry</code> to add
+     * @return the number of evicted entries
+     */
+    private synchronized int put(String key, Entry entry) {
+
+        if (entry.size > maxNodes) {
+            LOG.fine(() -> String.format("Not caching an AST of %d nodes, the limit is %d.", entry.size, maxNodes));
+            return 0;
+        }
+
+        Entry old = entries.put(key, entry);
+
+        if (old != null) {
+            nodes -= old.size;
+        }
+
+        nodes += entry.size;
+
+        int evicted = 0;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+
+        while (nodes > maxNodes && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+
+            nodes -= eldest.size;
+            it.remove();
+            evicted++;
+        }
+
+        evictions += evicted;
+        return evicted;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached AST.
+     *
+     * @return the number of hits
+     */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that had to parse the file.
+     *
+     * @return the number of misses
+     */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of ASTs that were evicted from the cache.
+     *
+     * @return the number of evictions
+     */
+    public synchronized int getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of AST nodes currently held by the cache.
+     *
+     * @return the number of nodes
+     */
+    public synchronized long getNodes() {
+        return nodes;
+    }
+}
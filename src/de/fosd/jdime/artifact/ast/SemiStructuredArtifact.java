@@ -33,6 +33,7 @@
 import de.fosd.jdime.config.merge.MergeScenario;
 import de.fosd.jdime.config.merge.Revision;
 import de.fosd.jdime.operations.MergeOperation;
+import de.fosd.jdime.strategy.Diff3Strategy;
 import de.fosd.jdime.strategy.LinebasedStrategy;
 import org.extendj.ast.ASTNode;
 import org.extendj.ast.Block;
@@ -53,7 +54,15 @@ public class SemiStructuredArtifact extends ASTNodeArtifact {
 
     private static final Pattern BRACES = Pattern.compile("\\A\\s*\\{\\R?|(?:\\R^\\h*)?\\}\\s*\\z", MULTILINE);
 
-    private static final LinebasedStrategy linebased = new LinebasedStrategy();
+    private static final Diff3Strategy diff3 = new Diff3Strategy();
+
+    /**
+     * Holds the {@link LinebasedStrategy} so that libgit2 is only loaded if it is used.
+     */
+    private static final class Linebased {
+
+        private static final LinebasedStrategy linebased = new LinebasedStrategy();
+    }
 
     /**
      * Thrown if an {@link ASTNodeArtifact} can not be replaced by a {@link SemiStructuredArtifact}.
@@ -103,6 +112,7 @@ public SemiStructuredArtifact(ASTNodeArtifact toEncapsulate, String[] originalLi
         this.content.setContent(extractOriginalContent(originalLines));
 
         this.astnode = new SemiStructuredASTNode(this);
+        invalidateLabel();
 
         ASTNodeArtifact parent = toEncapsulate.getParent();
 
@@ -265,6 +275,11 @@ protected String hashId() {
         return content.getContent();
     }
 
+    @Override
+    protected long fastHashId() {
+        return Label.hash(content.getContent());
+    }
+
     @Override
     public void merge(MergeOperation<ASTNodeArtifact> operation, MergeContext context) {
         SemiStructuredArtifact left, base, right, target;
@@ -295,6 +310,7 @@ public void merge(MergeOperation<ASTNodeArtifact> operation, MergeContext contex
 
         MergeScenario<FileArtifact> fileMergeScenario = new MergeScenario<>(THREEWAY, left.content, base.content, right.content);
         MergeOperation<FileArtifact> fileMerge = new MergeOperation<>(fileMergeScenario, target.content);
-        linebased.merge(fileMerge, context);
+        LinebasedStrategy strategy = context.isJavaLineMerge() ? diff3 : Linebased.linebased;
+        strategy.merge(fileMerge, context);
     }
 }
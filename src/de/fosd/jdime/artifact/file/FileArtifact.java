@@ -124,7 +124,7 @@ public enum FileType {
 
     /**
      * The original existing {@link File} this {@link FileArtifact} represents or {@code null} if this
-     * {@link FileArtifact} is virtual.
+     * {@link FileArtifact} is virtual or in memory.
      */
     private final File original;
 
@@ -139,6 +139,17 @@ public enum FileType {
      */
     private String content;
 
+    /**
+     * The SHA-256 hash of the {@link #content} or {@code null} if it was not calculated yet.
+     */
+    private String contentHash;
+
+    /**
+     * Whether the {@link #content} of this {@link FileArtifact} is not stored in the file system but was given when
+     * constructing it (e.g. a blob read from a git repository).
+     */
+    private final boolean inMemory;
+
     /**
      * Constructs a new <code>FileArtifact</code> representing the given <code>File</code>. If <code>file</code> is a
      * directory then <code>FileArtifact</code>s representing its contents will be added as children to this
@@ -206,6 +217,7 @@ private FileArtifact(Revision revision, Supplier<Integer> number, File file, boo
 
         this.original = file;
         this.file = file;
+        this.inMemory = false;
 
         if (recursive && isDirectory()) {
             modifyChildren(children -> {
@@ -249,6 +261,29 @@ public FileArtifact(Revision revision, File virtualFile, FileType type) {
         this.type = type;
         this.original = null;
         this.file = virtualFile;
+        this.inMemory = false;
+    }
+
+    /**
+     * Constructs a new {@link FileArtifact} representing a file with the given content that is not stored in the file
+     * system. The {@link File} is only used to name the {@link FileArtifact} and determine its content type, it is
+     * neither read nor required to exist. The new {@link FileArtifact} will always have the number 0.
+     *
+     * @param revision
+     *         the {@link Revision} the artifact belongs to
+     * @param file
+     *         the {@link File} naming the artifact
+     * @param content
+     *         the content of the artifact
+     */
+    public FileArtifact(Revision revision, File file, String content) {
+        super(revision, 0);
+
+        this.type = FileType.FILE;
+        this.original = null;
+        this.file = file;
+        this.content = content;
+        this.inMemory = true;
     }
 
     /**
@@ -298,6 +333,7 @@ private FileArtifact(FileArtifact toCopy) {
         this.original = toCopy.original;
         this.file = toCopy.file;
         this.content = toCopy.content;
+        this.inMemory = toCopy.inMemory;
     }
 
     @Override
@@ -344,7 +380,17 @@ public String prettyPrint() {
 
     @Override
     public boolean exists() {
-        return getFile().exists();
+        return inMemory || getFile().exists();
+    }
+
+    /**
+     * Returns whether the content of this <code>FileArtifact</code> is not stored in the file system.
+     *
+     * @return true iff this <code>FileArtifact</code> was constructed using
+     *         {@link #FileArtifact(Revision, File, String)}
+     */
+    public boolean isInMemory() {
+        return inMemory;
     }
 
     /**
@@ -382,7 +428,8 @@ public String getContentType() {
 
         // Skip Files#probeContentType as it might return text/plain for empty files.
         // Empty FileArtifacts are handled in ASTNodeArtifact#parse and produce empty ASTNodeArtifacts.
-        if (!isEmpty()) {
+        // The files of FileArtifacts that are in memory need not exist, their type is determined by the extension.
+        if (!isEmpty() && !inMemory) {
             try {
                 mimeType = Files.probeContentType(file.toPath());
             } catch (IOException e) {
@@ -648,7 +695,22 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
             }
 
             LOG.finest(() -> "Merging directories " + operation.getMergeScenario());
-            merge.merge(operation, context);
+
+            if (context.getFileMergeThreads() > 1 && context.getFileMergeQueue() == null) {
+                List<MergeOperation<FileArtifact>> fileMerges = new ArrayList<>();
+
+                context.setFileMergeQueue(fileMerges);
+
+                try {
+                    merge.merge(operation, context);
+                } finally {
+                    context.setFileMergeQueue(null);
+                }
+
+                ParallelFileMerge.merge(fileMerges, context);
+            } else {
+                merge.merge(operation, context);
+            }
         } else {
             MergeStrategy<FileArtifact> strategy = context.getMergeStrategy();
             MergeScenario<FileArtifact> scenario = operation.getMergeScenario();
@@ -657,6 +719,11 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
                 context.getStatistics().setCurrentFileMergeScenario(scenario);
             }
 
+            if (context.getFileMergeQueue() != null) {
+                context.getFileMergeQueue().add(operation);
+                return;
+            }
+
             try {
                 try {
                     strategy.merge(operation, context);
@@ -686,7 +753,7 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
                     if (!context.isKeepGoing() && !(strategy instanceof LinebasedStrategy)) {
                         LOG.severe(() -> "Falling back to line based strategy.");
 
-                        context.setMergeStrategy(MergeStrategy.parse(MergeStrategy.LINEBASED).get());
+                        context.setMergeStrategy(MergeStrategy.parse(context.getLineMergeStrategyName()).get());
                         merge(operation, context);
                     } else {
                         LOG.severe(() -> "Skipping " + scenario);
@@ -870,6 +937,21 @@ public String getContent() {
         return content;
     }
 
+    /**
+     * Returns the SHA-256 hash of the {@link #getContent() content} of this {@link FileArtifact}. The hash is
+     * calculated once and recalculated only after the content was changed using {@link #setContent(String)}.
+     *
+     * @return the hex encoded hash of the content
+     */
+    public String getContentHash() {
+
+        if (contentHash == null) {
+            contentHash = DigestUtils.sha256Hex(getContent());
+        }
+
+        return contentHash;
+    }
+
     /**
      * Sets the content this {@link FileArtifact} represents to the new value. If this {@link FileArtifact} represents
      * a directory, the call is ignored.
@@ -881,6 +963,7 @@ public void setContent(String content) {
 
         if (isFile()) {
             this.content = content;
+            this.contentHash = null;
         } else {
             LOG.warning("Ignoring a call to setContent(String) on a FileArtifact representing a directory.");
         }
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.artifact.file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.execption.AbortException;
+import de.fosd.jdime.operations.MergeOperation;
+
+/**
+ * Executes the file level <code>MergeOperation</code>s collected during a directory merge using a bounded pool of
+ * worker threads. Every file is merged using its own fork of the <code>MergeContext</code>. The forks are joined in
+ * the order in which the files were collected, the resulting statistics and crashes therefore do not depend on the
+ * order in which the workers finish.
+ */
+public final class ParallelFileMerge {
+
+    private static final Logger LOG = Logger.getLogger(ParallelFileMerge.class.getCanonicalName());
+
+    /**
+     * Utility class.
+     */
+    private ParallelFileMerge() {}
+
+    /**
+     * Merges the files of the given <code>operations</code> using {@link MergeContext#getFileMergeThreads()}
+     * threads. If one of the merges throws an exception, the forks preceding it (and the one of the failed merge)
+     * are joined before the exception is rethrown.
+     *
+     * @param operations
+     *         the file level <code>MergeOperation</code>s to execute
+     * @param context
+     *         the <code>MergeContext</code> of the directory merge
+     */
+    public static void merge(List<MergeOperation<FileArtifact>> operations, MergeContext context) {
+
+        if (operations.isEmpty()) {
+            return;
+        }
+
+        int threads = Math.min(context.getFileMergeThreads(), operations.size());
+        LOG.fine(() -> String.format("Merging %d files using %d threads.", operations.size(), threads));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<MergeContext> forks = new ArrayList<>(operations.size());
+        List<Future<?>> results = new ArrayList<>(operations.size());
+
+        try {
+            for (MergeOperation<FileArtifact> operation : operations) {
+                MergeContext fork = context.fork();
+                FileArtifact artifact = operation.getMergeScenario().get(0);
+
+                forks.add(fork);
+                results.add(executor.submit(() -> artifact.merge(operation, fork)));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                Throwable failure = await(results.get(i));
+
+                context.join(forks.get(i));
+
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                } else if (failure instanceof Error) {
+                    throw (Error) failure;
+                } else if (failure != null) {
+                    throw new AbortException(failure);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the given <code>Future</code> to complete.
+     *
+     * @param result
+     *         the <code>Future</code> to wait for
+     * @return the <code>Throwable</code> the task failed with or <code>null</code> if it completed normally
+     */
+    private static Throwable await(Future<?> result) {
+
+        try {
+            result.get();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AbortException(e);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+}
@@ -23,11 +23,16 @@
  */
 package de.fosd.jdime.config;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import de.fosd.jdime.Main;
+import de.fosd.jdime.config.merge.MergeContext;
 import de.fosd.jdime.matcher.cost_model.CMMode;
 import de.fosd.jdime.strategy.MergeStrategy;
 import de.fosd.jdime.strdump.DumpMode;
@@ -80,6 +85,29 @@ public class CommandLineConfigSource extends ConfigSource {
     public static final String CLI_CM_PARALLEL = "cmpar";
     public static final String CLI_CM_FIX_PERCENTAGE = "cmfix";
     public static final String CLI_CM_SEED = "cmseed";
+    public static final String CLI_CM_CHAINS = "cmchains";
+    public static final String CLI_CM_PATIENCE = "cmpatience";
+    public static final String CLI_CM_TIME_LIMIT = "cmtime";
+    public static final String CLI_CM_ITERATION_SCALE = "cmscale";
+    public static final String CLI_PARALLEL_MATCHING = "mpar";
+    public static final String CLI_PARALLEL_MATCHING_THRESHOLD = "mparthreshold";
+    public static final String CLI_CONCURRENT_DIFFS = "cdiff";
+    public static final String CLI_FILE_MERGE_THREADS = "fthreads";
+    public static final String CLI_SHORT_CIRCUIT_TRIVIAL = "trivial";
+    public static final String CLI_TAKE_UNCHANGED = "unchanged";
+    public static final String CLI_PARSE_CACHE = "pcache";
+    public static final String CLI_AST_SNAPSHOTS = "snapshots";
+    public static final String CLI_DAEMON = "daemon";
+    public static final String CLI_DAEMON_PORT = "dport";
+    public static final String CLI_DAEMON_TOKEN = "dtoken";
+    public static final String CLI_BATCH = "batch";
+    public static final String CLI_BATCH_THREADS = "bthreads";
+    public static final String CLI_GIT_REPO = "gitrepo";
+    public static final String CLI_COMMITS = "commits";
+    public static final String CLI_JAVA_LINE_MERGE = "jlm";
+    public static final String CLI_SPECULATIVE = "speculative";
+    public static final String CLI_ADAPTIVE_MAX_LINES = "amaxlines";
+    public static final String CLI_NWAY_TREE = "nwaytree";
 
     public static final String ARG_LIST = "ARG_LIST";
     public static final String ARG_LIST_SEP = ",";
@@ -384,12 +412,253 @@ private Options buildCliOptions() {
         o = Option.builder(CLI_CM_SEED)
                 .longOpt("cost-model-seed")
                 .desc("The seed for the PRNG used by the cost model matcher. If set to \"none\" a random seed will " +
-                        "be used. Otherwise the default is 42.")
+                        "be used. Otherwise the default is 42. The same seed reproduces the same matchings unless " +
+                        "a time limit (-" + CLI_CM_TIME_LIMIT + ") is set.")
                 .hasArg(true)
                 .build();
 
         options.addOption(o);
 
+        o = Option.builder(CLI_CM_CHAINS)
+                .longOpt("cost-model-chains")
+                .desc("The number of independent annealing chains the cost model matcher runs in parallel. The " +
+                        "matchings with the lowest cost found by any chain are used. The default is 1.")
+                .hasArg(true)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_CM_PATIENCE)
+                .longOpt("cost-model-patience")
+                .desc("Stop the cost model matcher after the given number of iterations without finding matchings " +
+                        "with a lower cost. The default is 0 which disables this rule.")
+                .hasArg(true)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_CM_TIME_LIMIT)
+                .longOpt("cost-model-time-limit")
+                .desc("The time in milliseconds after which the cost model matcher stops matching two trees. " +
+                        "The number of iterations then depends on the speed and load of the machine, so the same " +
+                        "seed (-" + CLI_CM_SEED + ") no longer reproduces the same matchings. The default is 0 " +
+                        "which disables this rule.")
+                .hasArg(true)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_CM_ITERATION_SCALE)
+                .longOpt("cost-model-iteration-scale")
+                .desc("Scales the number of iterations of the cost model matcher by the sizes of the trees being " +
+                        "matched. The given factor is multiplied with the number of nodes in both trees. The number " +
+                        "of iterations from the cost model options remains the maximum. The default is 0 which " +
+                        "disables the scaling.")
+                .hasArg(true)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_PARALLEL_MATCHING)
+                .longOpt("matcher-parallel")
+                .desc("Whether to match the pairs of children of two nodes in parallel. The result is the same as " +
+                        "that of the sequential matching.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_PARALLEL_MATCHING_THRESHOLD)
+                .longOpt("matcher-parallel-threshold")
+                .desc("The minimum number of child pairs of two nodes for them to be matched in parallel. " +
+                        "The default is " + MergeContext.DEFAULT_PARALLEL_MATCHING_THRESHOLD + ".")
+                .hasArg(true)
+                .argName("pairs")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_CONCURRENT_DIFFS)
+                .longOpt("concurrent-diffs")
+                .desc("Whether to run the base-left, base-right and left-right diffs of a three-way merge " +
+                        "concurrently.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_FILE_MERGE_THREADS)
+                .longOpt("file-merge-threads")
+                .desc("The number of threads merging the files of a directory merge. Statistics and crashes of " +
+                        "the files are combined in the order the files are encountered. The default is 1.")
+                .hasArg(true)
+                .argName("threads")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_SHORT_CIRCUIT_TRIVIAL)
+                .longOpt("short-circuit-trivial")
+                .desc("Whether to resolve structured merges in which left equals base, right equals base or left " +
+                        "equals right by comparing the file contents instead of parsing the files. The changed " +
+                        "file is taken verbatim, without being pretty-printed.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_TAKE_UNCHANGED)
+                .longOpt("take-unchanged-subtrees")
+                .desc("Whether a three-way structured merge takes the subtree of one side as a whole if the other " +
+                        "side did not change the subtree, instead of merging the children. Not used in " +
+                        "conditional merges.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_PARSE_CACHE)
+                .longOpt("parse-cache")
+                .desc("Caches the parsed ASTs of input files by their content so that files occurring in multiple " +
+                        "merge scenarios are parsed once. The argument is the maximum number of AST nodes held by " +
+                        "the cache, the least recently used ASTs are evicted first. 0 disables the cache.")
+                .hasArg()
+                .argName("nodes")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_AST_SNAPSHOTS)
+                .longOpt("ast-snapshots")
+                .desc("A directory of binary AST snapshots keyed by file content. ASTs of files whose content was " +
+                        "parsed before are loaded from their snapshot instead of being parsed, the ASTs of all " +
+                        "other files are stored in the directory.")
+                .hasArg()
+                .argName("dir")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_GIT_REPO)
+                .longOpt("git-repo")
+                .desc("The git repository from which input files given as '<rev>:<path>' or as blob IDs are read. " +
+                        "Input files may also be given as '<repo>:<rev>:<path>'. Such inputs are read from the " +
+                        "object database of the repository, no checkout is needed. If all inputs are the same " +
+                        "blob, the merge is skipped. Defaults to the working directory.")
+                .hasArg()
+                .argName("dir")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_COMMITS)
+                .longOpt("commits")
+                .desc("Merges three commits (left, base and right) of a git repository given as '<repo>:<rev>' or " +
+                        "as '<rev>' of the repository set using --git-repo. Only the files changed on both sides " +
+                        "are merged using the merge strategy, files changed on one side are taken from that side. " +
+                        "The changed files are written to the output directory.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_JAVA_LINE_MERGE)
+                .longOpt("java-line-merge")
+                .desc("Use the Java diff3 implementation instead of libgit2 for the line based merges performed " +
+                        "by other strategies, e.g. for the method bodies in semistructured mode or when a " +
+                        "structured merge fails. The strategy is also available as '-m diff3'.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_SPECULATIVE)
+                .longOpt("speculative")
+                .desc("When combining strategies (e.g. '-m linebased,structured'), run all of them concurrently. " +
+                        "The result of the first strategy (in the given order) producing no conflicts is used, " +
+                        "the remaining strategies are cancelled.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_ADAPTIVE_MAX_LINES)
+                .longOpt("adaptive-max-lines")
+                .desc("The adaptive strategy ('-m adaptive') merges files line based unless the changes of left and " +
+                        "right overlap. Such files are merged structured if they have at most this number of " +
+                        "lines and semistructured otherwise. The default is 2000.")
+                .hasArg(true)
+                .argName("lines")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_NWAY_TREE)
+                .longOpt("nway-tree")
+                .desc("Makes the n-way strategy parse the variants in parallel and merge them pairwise in a " +
+                        "balanced binary tree instead of merging them one after another.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_DAEMON)
+                .longOpt("daemon")
+                .desc("Runs JDime as a daemon performing the merges requested on the standard input. Every request " +
+                        "is a line containing a JSON object with the command line arguments or mode, files, output " +
+                        "and options of the merge. Every request is answered by a line containing a JSON object " +
+                        "with its exit code, merged content, conflicts, statistics and error.")
+                .hasArg(false)
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_BATCH)
+                .longOpt("batch")
+                .desc("Runs the merge scenarios listed in the given manifest. A JSON manifest contains an array of " +
+                        "(or one line per) objects with the command line arguments or mode, files, output and " +
+                        "options of a scenario. A CSV manifest has a header naming the columns 'id', 'left', " +
+                        "'base', 'right', 'output', 'mode' and 'args', every other column is an option. The other " +
+                        "options given on the command line apply to all scenarios. The result of every scenario " +
+                        "is printed to the standard output as a line containing a JSON object as soon as it " +
+                        "finishes.")
+                .hasArg()
+                .argName("manifest")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_BATCH_THREADS)
+                .longOpt("batch-threads")
+                .desc("The number of scenarios merged concurrently in batch mode. Defaults to the number of " +
+                        "available processors.")
+                .hasArg()
+                .argName("threads")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_DAEMON_PORT)
+                .longOpt("daemon-port")
+                .desc("Runs JDime as a daemon (see -" + CLI_DAEMON + ") that accepts requests on the given port of " +
+                        "the loopback interface instead of the standard input. 0 chooses a free port. The port is " +
+                        "printed to the standard output. Requires -" + CLI_DAEMON_TOKEN + ".")
+                .hasArg()
+                .argName("port")
+                .build();
+
+        options.addOption(o);
+
+        o = Option.builder(CLI_DAEMON_TOKEN)
+                .longOpt("daemon-token")
+                .desc("A file only its owner may access (e.g. with permissions 0600) whose first line is the token " +
+                        "every connection to the daemon port has to send as its first line.")
+                .hasArg()
+                .argName("file")
+                .build();
+
+        options.addOption(o);
+
 
         return options;
     }
@@ -403,6 +672,36 @@ public Options getOptions() {
         return options;
     }
 
+    /**
+     * Returns the options that were set on the command line as command line arguments. The left over arguments
+     * ({@link #ARG_LIST}) are not included.
+     *
+     * @param excluded
+     *         the (short) names of the options to leave out
+     * @return the (short) names of the options mapped to the command line arguments setting them, in the order of
+     *         the command line
+     */
+    public Map<String, List<String>> getOptionArgs(Collection<String> excluded) {
+        Map<String, List<String>> args = new LinkedHashMap<>();
+
+        for (Option opt : cmdLine.getOptions()) {
+
+            if (excluded.contains(opt.getOpt())) {
+                continue;
+            }
+
+            List<String> optArgs = args.computeIfAbsent(opt.getOpt(), o -> new ArrayList<>());
+
+            optArgs.add("-" + opt.getOpt());
+
+            if (opt.hasArg()) {
+                optArgs.addAll(opt.getValuesList());
+            }
+        }
+
+        return args;
+    }
+
     @Override
     protected Optional<String> getMapping(String key) {
 
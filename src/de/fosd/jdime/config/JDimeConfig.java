@@ -113,6 +113,12 @@ public final class JDimeConfig extends Config {
      */
     public static final String USE_MCESUBTREE_MATCHER = "USE_MCESUBTREE_MATCHER";
 
+    /**
+     * Whether to compare subtrees using 64 bit tree hashes instead of SHA-256 tree hashes. Must be either 'true' or
+     * 'false'.
+     */
+    public static final String USE_FAST_TREE_HASH = "USE_FAST_TREE_HASH";
+
     /**
      * Whether to merge successive conflicts after running structured strategy.
      */
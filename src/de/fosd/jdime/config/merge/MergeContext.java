@@ -26,15 +26,21 @@
 import de.fosd.jdime.artifact.Artifact;
 import de.fosd.jdime.artifact.ArtifactList;
 import de.fosd.jdime.artifact.ast.ASTNodeArtifact;
+import de.fosd.jdime.artifact.ast.ASTSnapshotStore;
+import de.fosd.jdime.artifact.ast.ParseCache;
 import de.fosd.jdime.artifact.file.FileArtifact;
 import de.fosd.jdime.config.CommandLineConfigSource;
 import de.fosd.jdime.config.JDimeConfig;
 import de.fosd.jdime.execption.AbortException;
+import de.fosd.jdime.git.GitInput;
 import de.fosd.jdime.matcher.cost_model.CMMode;
 import de.fosd.jdime.matcher.cost_model.CostModelMatcher;
+import de.fosd.jdime.merge.Merge;
+import de.fosd.jdime.operations.MergeOperation;
 import de.fosd.jdime.stats.KeyEnums;
 import de.fosd.jdime.stats.MergeScenarioStatistics;
 import de.fosd.jdime.stats.Statistics;
+import de.fosd.jdime.strategy.Diff3Strategy;
 import de.fosd.jdime.strategy.LinebasedStrategy;
 import de.fosd.jdime.strategy.MergeStrategy;
 import de.fosd.jdime.strategy.NWayStrategy;
@@ -42,7 +48,9 @@
 import de.fosd.jdime.strdump.DumpMode;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -78,6 +86,11 @@ public class MergeContext implements Cloneable {
      */
     public static final String DEFAULT_GIT_CMD = "git";
 
+    /**
+     * The default minimum number of child pairs of two nodes for them to be matched in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_MATCHING_THRESHOLD = 64;
+
     /**
      * Whether merge inserts choice nodes instead of direct merging.
      */
@@ -201,6 +214,96 @@ public class MergeContext implements Cloneable {
      */
     private boolean optimizeMultiConflicts;
 
+    /**
+     * Whether to compare subtrees using {@link Artifact#getFastTreeHash()} instead of {@link Artifact#getTreeHash()}.
+     */
+    private boolean useFastTreeHash;
+
+    /**
+     * Whether the concrete matchers match the pairs of children of two nodes in parallel if there are at least
+     * {@link #parallelMatchingThreshold} of them.
+     */
+    private boolean parallelMatching;
+    private int parallelMatchingThreshold;
+
+    /**
+     * Whether to run the base-left, base-right and left-right diffs of a three-way merge concurrently.
+     */
+    private boolean concurrentDiffs;
+
+    /**
+     * Whether {@link StructuredStrategy} resolves scenarios in which two of the input files have equal contents
+     * without parsing them.
+     */
+    private boolean shortCircuitTrivialMerges;
+
+    /**
+     * Whether {@link Merge} takes a subtree of one side as a whole if the other side equals base.
+     */
+    private boolean takeUnchangedSubtrees;
+
+    /**
+     * The cache of parsed ASTs used by the structured strategies. <code>null</code> if ASTs are not cached.
+     */
+    private ParseCache parseCache;
+
+    /**
+     * The store of AST snapshots used by the structured strategies. <code>null</code> if no snapshots are used.
+     */
+    private ASTSnapshotStore snapshotStore;
+
+    /**
+     * Whether all input files are the same blob of a git repository. The merge is then skipped and its result is the
+     * content of the blob.
+     */
+    private boolean identicalInputs;
+
+    /**
+     * The left, base and right commits of a commit level merge. <code>null</code> if files or directories are merged.
+     */
+    private List<GitInput> inputCommits;
+
+    /**
+     * The paths (relative to the output directory) a commit level merge deleted.
+     */
+    private List<String> deletedPaths;
+
+    /**
+     * Whether line based merges performed as part of other strategies (e.g. for the method bodies of the
+     * semistructured strategy or after a failed structured merge) use the Java {@link Diff3Strategy} instead of
+     * the native {@link LinebasedStrategy}.
+     */
+    private boolean javaLineMerge;
+
+    /**
+     * Whether a {@link de.fosd.jdime.strategy.CombinedStrategy} runs all of its strategies concurrently instead of
+     * one after the other.
+     */
+    private boolean speculativeStrategies;
+
+    /**
+     * The maximum number of lines of a file for which the {@link de.fosd.jdime.strategy.AdaptiveStrategy} chooses the
+     * structured strategy, larger files with conflicting line changes are merged semistructured.
+     */
+    private int adaptiveMaxStructuredLines;
+
+    /**
+     * Whether the {@link NWayStrategy} parses the variants in parallel and merges them in a balanced binary tree
+     * instead of merging them one after another.
+     */
+    private boolean nwayTreeReduction;
+
+    /**
+     * The number of threads merging the files of a directory merge. With one thread the files are merged sequentially.
+     */
+    private int fileMergeThreads;
+
+    /**
+     * Collects the file level <code>MergeOperation</code>s of a directory merge whose files are merged in parallel
+     * once the directories were traversed. <code>null</code> if no such directory merge is in progress.
+     */
+    private List<MergeOperation<FileArtifact>> fileMergeQueue;
+
     /**
      * Whether {@link StructuredStrategy} act semi-structured, that is whether it should perform line based merging
      * on the configured {@link #semiStructuredLevel}.
@@ -231,6 +334,10 @@ public class MergeContext implements Cloneable {
     private int costModelIterations;
     private boolean cmMatcherParallel;
     private boolean cmMatcherFixRandomPercentage;
+    private int cmChains;
+    private int cmPatience;
+    private long cmTimeLimit;
+    private float cmIterationScale;
 
     /**
      * Constructs a new <code>MergeContext</code> initializing all options to their default values.
@@ -258,6 +365,21 @@ public MergeContext() {
         this.statistics = new Statistics();
         this.excludeStatisticsMSSFields = new ArrayList<>();
         this.useMCESubtreeMatcher = false;
+        this.parallelMatching = false;
+        this.parallelMatchingThreshold = DEFAULT_PARALLEL_MATCHING_THRESHOLD;
+        this.concurrentDiffs = false;
+        this.fileMergeThreads = 1;
+        this.shortCircuitTrivialMerges = false;
+        this.takeUnchangedSubtrees = false;
+        this.parseCache = null;
+        this.snapshotStore = null;
+        this.identicalInputs = false;
+        this.inputCommits = null;
+        this.deletedPaths = new ArrayList<>();
+        this.javaLineMerge = false;
+        this.speculativeStrategies = false;
+        this.adaptiveMaxStructuredLines = 2000;
+        this.nwayTreeReduction = false;
         this.semiStructured = false;
         this.semiStructuredLevel = KeyEnums.Level.METHOD;
         this.lookAhead = MergeContext.LOOKAHEAD_OFF;
@@ -277,6 +399,10 @@ public MergeContext() {
         this.costModelIterations = 100;
         this.cmMatcherParallel = true;
         this.cmMatcherFixRandomPercentage = true;
+        this.cmChains = 1;
+        this.cmPatience = 0;
+        this.cmTimeLimit = 0;
+        this.cmIterationScale = 0;
     }
 
     /**
@@ -286,6 +412,20 @@ public MergeContext() {
      *         the <code>MergeContext</code> to copy
      */
     public MergeContext(MergeContext toCopy) {
+        this(toCopy, false);
+    }
+
+    /**
+     * Copies <code>toCopy</code>. If <code>fork</code> is true, the copy starts out with empty <code>Statistics</code>
+     * and no crashes.
+     *
+     * @param toCopy
+     *         the <code>MergeContext</code> to copy
+     * @param fork
+     *         whether to omit the statistics and crashes of <code>toCopy</code>
+     * @see #fork()
+     */
+    private MergeContext(MergeContext toCopy, boolean fork) {
         this.conditionalMerge = toCopy.conditionalMerge;
         this.conditionalOutsideMethods = toCopy.conditionalOutsideMethods;
         this.diffOnly = toCopy.diffOnly;
@@ -310,17 +450,33 @@ public MergeContext(MergeContext toCopy) {
         this.pretend = toCopy.pretend;
         this.recursive = toCopy.recursive;
         this.collectStatistics = toCopy.collectStatistics;
-        this.statistics = new Statistics(toCopy.statistics);
+        this.statistics = fork ? new Statistics() : new Statistics(toCopy.statistics);
         this.excludeStatisticsMSSFields = new ArrayList<>(toCopy.excludeStatisticsMSSFields);
         this.useMCESubtreeMatcher = toCopy.useMCESubtreeMatcher;
         this.optimizeMultiConflicts = toCopy.optimizeMultiConflicts;
+        this.useFastTreeHash = toCopy.useFastTreeHash;
+        this.parallelMatching = toCopy.parallelMatching;
+        this.parallelMatchingThreshold = toCopy.parallelMatchingThreshold;
+        this.concurrentDiffs = toCopy.concurrentDiffs;
+        this.fileMergeThreads = toCopy.fileMergeThreads;
+        this.shortCircuitTrivialMerges = toCopy.shortCircuitTrivialMerges;
+        this.takeUnchangedSubtrees = toCopy.takeUnchangedSubtrees;
+        this.parseCache = toCopy.parseCache;
+        this.snapshotStore = toCopy.snapshotStore;
+        this.identicalInputs = toCopy.identicalInputs;
+        this.inputCommits = toCopy.inputCommits;
+        this.deletedPaths = new ArrayList<>(toCopy.deletedPaths);
+        this.javaLineMerge = toCopy.javaLineMerge;
+        this.speculativeStrategies = toCopy.speculativeStrategies;
+        this.adaptiveMaxStructuredLines = toCopy.adaptiveMaxStructuredLines;
+        this.nwayTreeReduction = toCopy.nwayTreeReduction;
         this.semiStructured = toCopy.semiStructured;
         this.semiStructuredLevel = toCopy.semiStructuredLevel;
 
         this.lookAhead = toCopy.lookAhead;
         this.lookAheads = new HashMap<>(toCopy.lookAheads);
 
-        this.crashes = new HashMap<>(toCopy.crashes);
+        this.crashes = fork ? new HashMap<>() : new HashMap<>(toCopy.crashes);
         this.cmMatcherMode = toCopy.cmMatcherMode;
         this.cmReMatchBound = toCopy.cmReMatchBound;
         this.wr = toCopy.wr;
@@ -335,6 +491,37 @@ public MergeContext(MergeContext toCopy) {
         this.costModelIterations = toCopy.costModelIterations;
         this.cmMatcherParallel = toCopy.cmMatcherParallel;
         this.cmMatcherFixRandomPercentage = toCopy.cmMatcherFixRandomPercentage;
+        this.cmChains = toCopy.cmChains;
+        this.cmPatience = toCopy.cmPatience;
+        this.cmTimeLimit = toCopy.cmTimeLimit;
+        this.cmIterationScale = toCopy.cmIterationScale;
+    }
+
+    /**
+     * Returns a copy of this <code>MergeContext</code> for a worker thread. The copy collects its statistics and
+     * crashes separately; they are added back to this <code>MergeContext</code> by {@link #join(MergeContext)}.
+     *
+     * @return the forked <code>MergeContext</code>
+     */
+    public MergeContext fork() {
+        return new MergeContext(this, true);
+    }
+
+    /**
+     * Adds the statistics and crashes collected by the given <code>MergeContext</code> (obtained from
+     * {@link #fork()}) to this <code>MergeContext</code>. Forks should be joined in a fixed order for the result to
+     * be deterministic.
+     *
+     * @param fork
+     *         the forked <code>MergeContext</code>
+     */
+    public void join(MergeContext fork) {
+
+        if (collectStatistics) {
+            statistics.add(fork.statistics);
+        }
+
+        crashes.putAll(fork.crashes);
     }
 
     /**
@@ -459,6 +646,22 @@ private void configMerge(JDimeConfig config) {
 
         config.getBoolean(OPTIMIZE_MULTI_CONFLICTS).ifPresent(this::setOptimizeMultiConflicts);
 
+        config.getBoolean(USE_FAST_TREE_HASH).ifPresent(this::setUseFastTreeHash);
+
+        config.getBoolean(CLI_PARALLEL_MATCHING).ifPresent(this::setParallelMatching);
+        config.getInteger(CLI_PARALLEL_MATCHING_THRESHOLD).ifPresent(this::setParallelMatchingThreshold);
+        config.getBoolean(CLI_CONCURRENT_DIFFS).ifPresent(this::setConcurrentDiffs);
+        config.getInteger(CLI_FILE_MERGE_THREADS).ifPresent(this::setFileMergeThreads);
+        config.getBoolean(CLI_SHORT_CIRCUIT_TRIVIAL).ifPresent(this::setShortCircuitTrivialMerges);
+        config.getBoolean(CLI_TAKE_UNCHANGED).ifPresent(this::setTakeUnchangedSubtrees);
+        config.getBoolean(CLI_JAVA_LINE_MERGE).ifPresent(this::setJavaLineMerge);
+        config.getBoolean(CLI_SPECULATIVE).ifPresent(this::setSpeculativeStrategies);
+        config.getInteger(CLI_ADAPTIVE_MAX_LINES).ifPresent(this::setAdaptiveMaxStructuredLines);
+        config.getBoolean(CLI_NWAY_TREE).ifPresent(this::setNWayTreeReduction);
+        config.getInteger(CLI_PARSE_CACHE).ifPresent(n -> setParseCache(n > 0 ? new ParseCache(n) : null));
+        config.get(CLI_AST_SNAPSHOTS).map(String::trim).map(File::new).map(ASTSnapshotStore::new)
+              .ifPresent(this::setSnapshotStore);
+
         config.get(CLI_LOOKAHEAD, val -> {
             String msg = "Invalid lookahead level '" + val + "'. Must be one of 'off', 'full' or a non-negative integer.";
             RuntimeException abort = new AbortException(msg);
@@ -593,6 +796,11 @@ private void configCostModelMatcher(JDimeConfig config) {
                 }
             }
         });
+
+        config.getInteger(CLI_CM_CHAINS).ifPresent(this::setCmChains);
+        config.getInteger(CLI_CM_PATIENCE).ifPresent(this::setCmPatience);
+        config.getInteger(CLI_CM_TIME_LIMIT).ifPresent(this::setCmTimeLimit);
+        config.getFloat(CLI_CM_ITERATION_SCALE).ifPresent(this::setCmIterationScale);
     }
 
     /**
@@ -615,11 +823,76 @@ private void configInputOutput(JDimeConfig config) {
         config.get(CLI_MS_LABEL).ifPresent(this::setMergeScenarioLabel);
 
         Optional<String> args = config.get(CommandLineConfigSource.ARG_LIST);
+        File gitRepository = new File(config.get(CLI_GIT_REPO).map(String::trim).orElse("."));
+
+        if (args.isPresent() && config.getBoolean(CLI_COMMITS).orElse(false)) {
+            List<GitInput> commits = new ArrayList<>();
+
+            if (getDumpMode() != DumpMode.NONE || isInspect() || isCompare()) {
+                throw new AbortException("Commits can only be merged.");
+            }
+
+            for (String name : args.get().split(CommandLineConfigSource.ARG_LIST_SEP)) {
+                Optional<GitInput> commit;
+
+                try {
+                    commit = GitInput.resolveTree(name.trim(), gitRepository, DEFAULT_GIT_CMD);
+                } catch (IOException e) {
+                    throw new AbortException("Could not resolve the commit " + name.trim() + ".", e);
+                }
+
+                commits.add(commit.orElseThrow(() -> new AbortException(name.trim() + " is not a commit or tree.")));
+            }
+
+            if (commits.size() != MergeType.THREEWAY_FILES) {
+                throw new AbortException("Exactly three commits (left, base and right) are required.");
+            }
+
+            if (commits.stream().map(c -> c.getObject().getRepository()).distinct().count() != 1) {
+                throw new AbortException("The commits must be in the same repository.");
+            }
+
+            setInputCommits(commits);
+        } else if (args.isPresent()) {
+            List<String> inputNames = Arrays.stream(args.get().split(CommandLineConfigSource.ARG_LIST_SEP))
+                                            .map(String::trim).collect(Collectors.toList());
+            List<File> inputFiles = new ArrayList<>(inputNames.size());
+
+            // the GitInput each of the inputFiles was read from or null if it was read from the file system
+            List<GitInput> gitInputs = new ArrayList<>(inputNames.size());
+
+            for (String name : inputNames) {
+                File file = new File(name);
+                GitInput fromGit = null;
+
+                if (!file.exists()) {
+                    Optional<GitInput> gitInput;
+
+                    try {
+                        gitInput = GitInput.resolve(name, gitRepository, DEFAULT_GIT_CMD);
+                    } catch (IOException e) {
+                        throw new AbortException("Could not read the input " + name + " from git.", e);
+                    }
+
+                    if (gitInput.isPresent()) {
+                        LOG.fine(() -> "Reading the input " + gitInput.get() + " from git.");
+
+                        fromGit = gitInput.get();
+                        file = fromGit.getFile();
+                    }
+                }
+
+                inputFiles.add(file);
+                gitInputs.add(fromGit);
+            }
+
+            List<File> nonExistent = new ArrayList<>();
 
-        if (args.isPresent()) {
-            List<File> inputFiles = Arrays.stream(args.get().split(CommandLineConfigSource.ARG_LIST_SEP))
-                                          .map(String::trim).map(File::new).collect(Collectors.toCollection(ArrayList::new));
-            List<File> nonExistent = inputFiles.stream().filter(f -> !f.exists()).collect(Collectors.toList());
+            for (int i = 0; i < inputFiles.size(); i++) {
+                if (gitInputs.get(i) == null && !inputFiles.get(i).exists()) {
+                    nonExistent.add(inputFiles.get(i));
+                }
+            }
 
             Boolean twFallback = config.getBoolean(TWOWAY_FALLBACK).orElse(false);
 
@@ -630,7 +903,8 @@ private void configInputOutput(JDimeConfig config) {
                     File nonExistentBase = inputFiles.get(1);
                     LOG.warning(() -> "Base input file " + nonExistentBase + " does not exist. Falling back to two way merge.");
 
-                    inputFiles.remove(nonExistentBase);
+                    inputFiles.remove(1);
+                    gitInputs.remove(1);
                 } else {
                     nonExistent.forEach(f -> LOG.severe(() -> "Input file " + f + " does not exist."));
                     throw new AbortException("All input files must exist.");
@@ -638,7 +912,11 @@ private void configInputOutput(JDimeConfig config) {
             }
 
             boolean allDirs = inputFiles.stream().allMatch(File::isDirectory);
-            boolean allFiles = inputFiles.stream().allMatch(File::isFile);
+            boolean allFiles = true;
+
+            for (int i = 0; i < inputFiles.size(); i++) {
+                allFiles &= gitInputs.get(i) != null || inputFiles.get(i).isFile();
+            }
 
             if (!(allDirs || allFiles)) {
                 LOG.severe(() -> "Inconsistent input files. (Must all be all directories or all files.)");
@@ -661,13 +939,43 @@ private void configInputOutput(JDimeConfig config) {
                 }
             }
 
+            if (inputFiles.size() > 1 && gitInputs.stream().allMatch(Objects::nonNull)) {
+                long ids = gitInputs.stream().map(i -> i.getObject().getId()).distinct().count();
+                setIdenticalInputs(ids == 1);
+            }
+
             List<FileArtifact> inputArtifacts = new ArtifactList<>(inputFiles.size());
+            Map<String, String> blobs = new HashMap<>(); // every blob is read once, even if given multiple times
+
+            for (int i = 0; i < inputFiles.size(); i++) {
+                File file = inputFiles.get(i);
+                GitInput gitInput = gitInputs.get(i);
+                FileArtifact artifact;
+
+                if (gitInput != null) {
+                    String id = gitInput.getObject().getId();
+                    String content = blobs.get(id);
+
+                    if (content == null) {
+
+                        try {
+                            // decoded like the content of input files, see FileArtifact#getContent()
+                            content = gitInput.getObject().read(StandardCharsets.UTF_8);
+                        } catch (IOException e) {
+                            throw new AbortException("Could not read the input " + gitInput + " from git.", e);
+                        }
+
+                        blobs.put(id, content);
+                    }
+
+                    artifact = gitInput.toArtifact(revSupplier.get(), content);
+                } else {
+                    artifact = new FileArtifact(revSupplier.get(), file);
+                }
 
-            for (File file : inputFiles) {
-                FileArtifact artifact = new FileArtifact(revSupplier.get(), file);
                 inputArtifacts.add(artifact);
 
-                if (!acceptNonJava && file.isFile() && !artifact.isJavaFile()) {
+                if (!acceptNonJava && artifact.isFile() && !artifact.isJavaFile()) {
                     LOG.severe(() -> "Invalid input files. (Must all be java source code files.)");
                     LOG.severe(file.getAbsolutePath() + ": " + artifact.getContentType());
                     throw new AbortException("All input files must be Java source code files.");
@@ -683,8 +991,9 @@ private void configInputOutput(JDimeConfig config) {
             throw new AbortException("No input files given.");
         }
 
-        boolean inputIsDirs = getInputFiles().stream().allMatch(FileArtifact::isDirectory);
-        boolean inputIsFiles = getInputFiles().stream().allMatch(FileArtifact::isFile);
+        // commit level merges have no input files and always produce a directory
+        boolean inputIsDirs = getInputCommits() != null || getInputFiles().stream().allMatch(FileArtifact::isDirectory);
+        boolean inputIsFiles = getInputCommits() == null && getInputFiles().stream().allMatch(FileArtifact::isFile);
 
         FileArtifact.FileType outputType;
 
@@ -1255,6 +1564,330 @@ public void setOptimizeMultiConflicts(boolean optimizeMultiConflicts) {
         this.optimizeMultiConflicts = optimizeMultiConflicts;
     }
 
+    /**
+     * Returns whether subtrees are compared using {@link Artifact#getFastTreeHash()} instead of
+     * {@link Artifact#getTreeHash()}.
+     *
+     * @return true iff the 64 bit tree hashes are used
+     */
+    public boolean isUseFastTreeHash() {
+        return useFastTreeHash;
+    }
+
+    /**
+     * Sets whether subtrees are compared using {@link Artifact#getFastTreeHash()} instead of
+     * {@link Artifact#getTreeHash()}.
+     *
+     * @param useFastTreeHash whether to use the 64 bit tree hashes
+     */
+    public void setUseFastTreeHash(boolean useFastTreeHash) {
+        this.useFastTreeHash = useFastTreeHash;
+    }
+
+    /**
+     * Returns whether the concrete matchers match the pairs of children of two nodes in parallel.
+     *
+     * @return true iff child pairs are matched in parallel
+     * @see #getParallelMatchingThreshold()
+     */
+    public boolean isParallelMatching() {
+        return parallelMatching;
+    }
+
+    /**
+     * Sets whether the concrete matchers match the pairs of children of two nodes in parallel.
+     *
+     * @param parallelMatching whether to match child pairs in parallel
+     */
+    public void setParallelMatching(boolean parallelMatching) {
+        this.parallelMatching = parallelMatching;
+    }
+
+    /**
+     * Returns the minimum number of child pairs of two nodes for them to be matched in parallel.
+     *
+     * @return the minimum number of child pairs
+     */
+    public int getParallelMatchingThreshold() {
+        return parallelMatchingThreshold;
+    }
+
+    /**
+     * Sets the minimum number of child pairs of two nodes for them to be matched in parallel.
+     *
+     * @param parallelMatchingThreshold the new minimum number of child pairs
+     */
+    public void setParallelMatchingThreshold(int parallelMatchingThreshold) {
+        this.parallelMatchingThreshold = parallelMatchingThreshold;
+    }
+
+    /**
+     * Returns whether the base-left, base-right and left-right diffs of a three-way merge run concurrently.
+     *
+     * @return true iff the diffs run concurrently
+     */
+    public boolean isConcurrentDiffs() {
+        return concurrentDiffs;
+    }
+
+    /**
+     * Sets whether the base-left, base-right and left-right diffs of a three-way merge run concurrently.
+     *
+     * @param concurrentDiffs whether to run the diffs concurrently
+     */
+    public void setConcurrentDiffs(boolean concurrentDiffs) {
+        this.concurrentDiffs = concurrentDiffs;
+    }
+
+    /**
+     * Returns the number of threads merging the files of a directory merge.
+     *
+     * @return the number of threads, one if the files are merged sequentially
+     */
+    public int getFileMergeThreads() {
+        return fileMergeThreads;
+    }
+
+    /**
+     * Sets the number of threads merging the files of a directory merge. Values below one are treated as one.
+     *
+     * @param fileMergeThreads the new number of threads
+     */
+    public void setFileMergeThreads(int fileMergeThreads) {
+        this.fileMergeThreads = Math.max(1, fileMergeThreads);
+    }
+
+    /**
+     * Returns whether the {@link StructuredStrategy} resolves scenarios in which two of the input files have equal
+     * contents without parsing them.
+     *
+     * @return true iff trivial scenarios are short-circuited
+     */
+    public boolean isShortCircuitTrivialMerges() {
+        return shortCircuitTrivialMerges;
+    }
+
+    /**
+     * Sets whether the {@link StructuredStrategy} resolves scenarios in which two of the input files have equal
+     * contents without parsing them.
+     *
+     * @param shortCircuitTrivialMerges whether to short-circuit trivial scenarios
+     */
+    public void setShortCircuitTrivialMerges(boolean shortCircuitTrivialMerges) {
+        this.shortCircuitTrivialMerges = shortCircuitTrivialMerges;
+    }
+
+    /**
+     * Returns whether {@link Merge} takes the subtree of one side as a whole (instead of merging its children) if the
+     * subtree of the other side equals that of base. If statistics are collected, the elements that merging the
+     * children would have merged are counted for the taken subtree.
+     *
+     * @return true iff unchanged subtrees are resolved by taking the other side
+     */
+    public boolean isTakeUnchangedSubtrees() {
+        return takeUnchangedSubtrees;
+    }
+
+    /**
+     * Sets whether {@link Merge} takes the subtree of one side as a whole if the subtree of the other side equals
+     * that of base.
+     *
+     * @param takeUnchangedSubtrees whether to take unchanged subtrees
+     */
+    public void setTakeUnchangedSubtrees(boolean takeUnchangedSubtrees) {
+        this.takeUnchangedSubtrees = takeUnchangedSubtrees;
+    }
+
+    /**
+     * Returns the cache of parsed ASTs. The cache is shared by all copies and forks of this
+     * <code>MergeContext</code>.
+     *
+     * @return the <code>ParseCache</code> or <code>null</code> if ASTs are not cached
+     */
+    public ParseCache getParseCache() {
+        return parseCache;
+    }
+
+    /**
+     * Sets the cache of parsed ASTs.
+     *
+     * @param parseCache the <code>ParseCache</code> to use or <code>null</code> to disable caching
+     */
+    public void setParseCache(ParseCache parseCache) {
+        this.parseCache = parseCache;
+    }
+
+    /**
+     * Returns the store of AST snapshots the structured strategies load ASTs from instead of parsing the files.
+     *
+     * @return the <code>ASTSnapshotStore</code> or <code>null</code> if no snapshots are used
+     */
+    public ASTSnapshotStore getSnapshotStore() {
+        return snapshotStore;
+    }
+
+    /**
+     * Sets the store of AST snapshots.
+     *
+     * @param snapshotStore the <code>ASTSnapshotStore</code> to use or <code>null</code> to always parse the files
+     */
+    public void setSnapshotStore(ASTSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * Returns whether all input files are the same blob of a git repository, in which case the merge is skipped.
+     *
+     * @return whether the input files are identical blobs
+     */
+    public boolean isIdenticalInputs() {
+        return identicalInputs;
+    }
+
+    /**
+     * Sets whether all input files are the same blob of a git repository.
+     *
+     * @param identicalInputs whether the input files are identical blobs
+     */
+    public void setIdenticalInputs(boolean identicalInputs) {
+        this.identicalInputs = identicalInputs;
+    }
+
+    /**
+     * Returns the left, base and right commits of a commit level merge.
+     *
+     * @return the commits or <code>null</code> if files or directories are merged
+     */
+    public List<GitInput> getInputCommits() {
+        return inputCommits;
+    }
+
+    /**
+     * Sets the left, base and right commits of a commit level merge.
+     *
+     * @param inputCommits the commits to merge or <code>null</code> to merge the input files
+     */
+    public void setInputCommits(List<GitInput> inputCommits) {
+        this.inputCommits = inputCommits;
+    }
+
+    /**
+     * Returns the paths a commit level merge deleted. The paths are relative to the output directory and are added
+     * to by {@link de.fosd.jdime.git.CommitMerge}.
+     *
+     * @return the deleted paths
+     */
+    public List<String> getDeletedPaths() {
+        return deletedPaths;
+    }
+
+    /**
+     * Returns whether line based merges performed as part of other strategies use the Java {@link Diff3Strategy}.
+     *
+     * @return true iff the {@link Diff3Strategy} is used instead of the {@link LinebasedStrategy}
+     */
+    public boolean isJavaLineMerge() {
+        return javaLineMerge;
+    }
+
+    /**
+     * Sets whether line based merges performed as part of other strategies use the Java {@link Diff3Strategy}.
+     *
+     * @param javaLineMerge
+     *         whether to use the {@link Diff3Strategy}
+     */
+    public void setJavaLineMerge(boolean javaLineMerge) {
+        this.javaLineMerge = javaLineMerge;
+    }
+
+    /**
+     * Returns whether a {@link de.fosd.jdime.strategy.CombinedStrategy} runs all of its strategies concurrently.
+     *
+     * @return true iff the strategies are run speculatively
+     */
+    public boolean isSpeculativeStrategies() {
+        return speculativeStrategies;
+    }
+
+    /**
+     * Sets whether a {@link de.fosd.jdime.strategy.CombinedStrategy} runs all of its strategies concurrently.
+     *
+     * @param speculativeStrategies
+     *         whether to run the strategies speculatively
+     */
+    public void setSpeculativeStrategies(boolean speculativeStrategies) {
+        this.speculativeStrategies = speculativeStrategies;
+    }
+
+    /**
+     * Returns the maximum number of lines of a file for which the {@link de.fosd.jdime.strategy.AdaptiveStrategy}
+     * chooses the structured strategy.
+     *
+     * @return the maximum number of lines
+     */
+    public int getAdaptiveMaxStructuredLines() {
+        return adaptiveMaxStructuredLines;
+    }
+
+    /**
+     * Sets the maximum number of lines of a file for which the {@link de.fosd.jdime.strategy.AdaptiveStrategy}
+     * chooses the structured strategy.
+     *
+     * @param adaptiveMaxStructuredLines
+     *         the new maximum number of lines
+     */
+    public void setAdaptiveMaxStructuredLines(int adaptiveMaxStructuredLines) {
+        this.adaptiveMaxStructuredLines = adaptiveMaxStructuredLines;
+    }
+
+    /**
+     * Returns whether the {@link NWayStrategy} merges the variants in a balanced binary tree.
+     *
+     * @return true iff the variants are merged in a balanced binary tree
+     */
+    public boolean isNWayTreeReduction() {
+        return nwayTreeReduction;
+    }
+
+    /**
+     * Sets whether the {@link NWayStrategy} parses the variants in parallel and merges them in a balanced binary
+     * tree.
+     *
+     * @param nwayTreeReduction
+     *         whether to merge the variants in a balanced binary tree
+     */
+    public void setNWayTreeReduction(boolean nwayTreeReduction) {
+        this.nwayTreeReduction = nwayTreeReduction;
+    }
+
+    /**
+     * Returns the name of the strategy to use for line based merges performed as part of other strategies.
+     *
+     * @return {@link MergeStrategy#DIFF3} if {@link #isJavaLineMerge()}, {@link MergeStrategy#LINEBASED} otherwise
+     */
+    public String getLineMergeStrategyName() {
+        return javaLineMerge ? MergeStrategy.DIFF3 : MergeStrategy.LINEBASED;
+    }
+
+    /**
+     * Returns the list collecting the file level <code>MergeOperation</code>s of the directory merge currently
+     * in progress. The files are merged in parallel after the directories were traversed.
+     *
+     * @return the list or <code>null</code> if file level merges are to be executed immediately
+     */
+    public List<MergeOperation<FileArtifact>> getFileMergeQueue() {
+        return fileMergeQueue;
+    }
+
+    /**
+     * Sets the list collecting the file level <code>MergeOperation</code>s of a directory merge.
+     *
+     * @param fileMergeQueue the list or <code>null</code> to execute file level merges immediately
+     */
+    public void setFileMergeQueue(List<MergeOperation<FileArtifact>> fileMergeQueue) {
+        this.fileMergeQueue = fileMergeQueue;
+    }
+
     /**
      * Returns whether the {@link StructuredStrategy} should act semi-structured, that is whether it should perform line
      * based merging on the configured {@link #semiStructuredLevel}.
@@ -1452,4 +2085,36 @@ public boolean isCmMatcherFixRandomPercentage() {
     public void setCmMatcherFixRandomPercentage(boolean cmMatcherFixRandomPercentage) {
         this.cmMatcherFixRandomPercentage = cmMatcherFixRandomPercentage;
     }
+
+    public int getCmChains() {
+        return cmChains;
+    }
+
+    public void setCmChains(int cmChains) {
+        this.cmChains = Math.max(1, cmChains);
+    }
+
+    public int getCmPatience() {
+        return cmPatience;
+    }
+
+    public void setCmPatience(int cmPatience) {
+        this.cmPatience = Math.max(0, cmPatience);
+    }
+
+    public long getCmTimeLimit() {
+        return cmTimeLimit;
+    }
+
+    public void setCmTimeLimit(long cmTimeLimit) {
+        this.cmTimeLimit = Math.max(0, cmTimeLimit);
+    }
+
+    public float getCmIterationScale() {
+        return cmIterationScale;
+    }
+
+    public void setCmIterationScale(float cmIterationScale) {
+        this.cmIterationScale = Math.max(0, cmIterationScale);
+    }
 }
@@ -59,6 +59,15 @@
     private MergeType mergeType;
     private Map<Revision, T> artifacts;
 
+    /**
+     * The <code>Revision</code>s of the left, base and right <code>Artifact</code>. These are {@link #LEFT},
+     * {@link #BASE} and {@link #RIGHT} unless the scenario was constructed from <code>Artifact</code>s of other
+     * <code>Revision</code>s, e.g. the variants of an n-way merge.
+     */
+    private Revision leftRevision = LEFT;
+    private Revision baseRevision = BASE;
+    private Revision rightRevision = RIGHT;
+
     private String label;
 
     /**
@@ -67,11 +76,11 @@
      * @param mergeType
      *         the <code>MergeType</code> for this <code>MergeScenario</code>
      * @param left
-     *         the <code>Artifact</code> for the {@link #LEFT} <code>Revision</code>
+     *         the left <code>Artifact</code>, usually of the {@link #LEFT} <code>Revision</code>
      * @param base
-     *         the <code>Artifact</code> for the {@link #BASE} <code>Revision</code>
+     *         the base <code>Artifact</code>, usually of the {@link #BASE} <code>Revision</code>
      * @param right
-     *         the <code>Artifact</code> for the {@link #RIGHT} <code>Revision</code>
+     *         the right <code>Artifact</code>, usually of the {@link #RIGHT} <code>Revision</code>
      */
     public MergeScenario(MergeType mergeType, T left, T base, T right) {
 
@@ -85,6 +94,10 @@ public MergeScenario(MergeType mergeType, T left, T base, T right) {
         this.artifacts.put(left.getRevision(), left);
         this.artifacts.put(base.getRevision(), base);
         this.artifacts.put(right.getRevision(), right);
+
+        this.leftRevision = left.getRevision();
+        this.baseRevision = base.getRevision();
+        this.rightRevision = right.getRevision();
     }
 
     /**
@@ -112,6 +125,9 @@ public MergeScenario(MergeScenario<T> toCopy) {
         this.mergeType = toCopy.mergeType;
         this.artifacts = new HashMap<>(toCopy.artifacts);
         this.label = toCopy.label;
+        this.leftRevision = toCopy.leftRevision;
+        this.baseRevision = toCopy.baseRevision;
+        this.rightRevision = toCopy.rightRevision;
     }
 
     /**
@@ -181,7 +197,7 @@ public T get(int n) {
      * @return the left <code>Artifact</code>
      */
     public T getLeft() {
-        return artifacts.get(LEFT);
+        return artifacts.get(leftRevision);
     }
 
     /**
@@ -190,7 +206,7 @@ public T getLeft() {
      * @param left the new left <code>Artifact</code>
      */
     public void setLeft(T left) {
-        artifacts.put(LEFT, left);
+        artifacts.put(leftRevision, left);
     }
 
     /**
@@ -199,7 +215,7 @@ public void setLeft(T left) {
      * @return the base <code>Artifact</code>
      */
     public T getBase() {
-        return artifacts.get(BASE);
+        return artifacts.get(baseRevision);
     }
 
     /**
@@ -208,7 +224,7 @@ public T getBase() {
      * @param base the new base <code>Artifact</code>
      */
     public void setBase(T base) {
-        artifacts.put(BASE, base);
+        artifacts.put(baseRevision, base);
     }
 
     /**
@@ -217,7 +233,7 @@ public void setBase(T base) {
      * @return the right <code>Artifact</code>
      */
     public T getRight() {
-        return artifacts.get(RIGHT);
+        return artifacts.get(rightRevision);
     }
 
     /**
@@ -226,7 +242,7 @@ public T getRight() {
      * @param right the new right <code>Artifact</code>
      */
     public void setRight(T right) {
-        artifacts.put(RIGHT, right);
+        artifacts.put(rightRevision, right);
     }
 
     /**
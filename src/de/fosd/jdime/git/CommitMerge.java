@@ -0,0 +1,368 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.artifact.file.ParallelFileMerge;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.config.merge.MergeScenario;
+import de.fosd.jdime.config.merge.MergeType;
+import de.fosd.jdime.config.merge.Revision;
+import de.fosd.jdime.execption.AbortException;
+import de.fosd.jdime.operations.MergeOperation;
+import de.fosd.jdime.stats.MergeScenarioStatistics;
+import de.fosd.jdime.strategy.MergeStrategy;
+import org.apache.commons.io.FileUtils;
+
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.MERGE;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+
+/**
+ * Merges three commits of a git repository. The paths changed on the left and right side are determined by
+ * comparing the trees of the commits to the tree of the base commit. Paths changed on one side only (or changed
+ * identically on both sides) are taken from that side without merging them. Only the files changed differently on
+ * both sides are merged using the <code>MergeStrategy</code> of the <code>MergeContext</code>. Paths deleted on one
+ * side and modified on the other side are conflicts. The merged and conflicting files are added to the output
+ * directory. The files taken from one side are written to the output directory byte for byte and the deleted paths
+ * are removed from it unless the merge is only pretended. Deleted paths are recorded in
+ * {@link MergeContext#getDeletedPaths()}.
+ */
+public final class CommitMerge {
+
+    private static final Logger LOG = Logger.getLogger(CommitMerge.class.getCanonicalName());
+
+    /**
+     * Utility class.
+     */
+    private CommitMerge() {}
+
+    /**
+     * Merges the {@link MergeContext#getInputCommits() input commits} of the given <code>context</code> into its
+     * {@link MergeContext#getOutputFile() output directory}.
+     *
+     * @param context
+     *         the <code>MergeContext</code> of the commit level merge
+     */
+    public static void merge(MergeContext context) {
+        List<GitInput> commits = context.getInputCommits();
+        GitInput left = commits.get(0);
+        GitInput base = commits.get(1);
+        GitInput right = commits.get(2);
+        GitRepository repository = base.getObject().getRepository();
+
+        Map<String, GitChange> leftChanges;
+        Map<String, GitChange> rightChanges;
+
+        try {
+            leftChanges = byPath(repository.diffTree(base.getObject().getId(), left.getObject().getId()));
+            rightChanges = byPath(repository.diffTree(base.getObject().getId(), right.getObject().getId()));
+        } catch (IOException e) {
+            throw new AbortException("Could not compare the commits.", e);
+        }
+
+        SortedSet<String> paths = new TreeSet<>(leftChanges.keySet());
+        paths.addAll(rightChanges.keySet());
+
+        FileArtifact output = context.getOutputFile();
+        Map<String, FileArtifact> dirs = new HashMap<>();
+        List<MergeOperation<FileArtifact>> merges = new ArrayList<>();
+        List<MergeOperation<FileArtifact>> lineMerges = new ArrayList<>();
+        int taken = 0, deleted = 0, conflicts = 0;
+
+        dirs.put("", output);
+
+        try {
+            for (String path : paths) {
+                GitChange l = leftChanges.get(path);
+                GitChange r = rightChanges.get(path);
+
+                if (l != null && !l.isRegularFile() || r != null && !r.isRegularFile()) {
+                    LOG.warning(() -> "Skipping " + path + " as it is not a regular file.");
+                    continue;
+                }
+
+                GitChange change;
+
+                if (l == null || r == null || l.getNewId() == null && r.getNewId() == null
+                        || l.getNewId() != null && l.getNewId().equals(r.getNewId())) {
+
+                    change = l != null ? l : r;
+                } else if (l.isDeletion() || r.isDeletion()) {
+                    LOG.warning(() -> path + " was deleted on one side and modified on the other side.");
+
+                    addConflict(dirs, repository, commits, path, l, r, context);
+                    conflicts++;
+                    continue;
+                } else {
+                    change = null;
+                }
+
+                if (change == null) {
+                    List<FileArtifact> inputs = new ArrayList<>(MergeType.THREEWAY_FILES);
+                    FileArtifact target = addFile(dirs, path, "");
+
+                    inputs.add(read(repository, left, LEFT, path, l.getNewId()));
+
+                    if (l.getOldId() != null) {
+                        inputs.add(read(repository, base, BASE, path, l.getOldId()));
+                    }
+
+                    inputs.add(read(repository, right, RIGHT, path, r.getNewId()));
+
+                    MergeOperation<FileArtifact> merge = new MergeOperation<>(inputs, target, false);
+
+                    if (inputs.get(0).isJavaFile() || context.isAcceptNonJava()) {
+                        merges.add(merge);
+                    } else {
+                        lineMerges.add(merge);
+                    }
+                } else if (change.isDeletion()) {
+                    LOG.info(() -> "Deleted " + path);
+                    context.getDeletedPaths().add(path);
+
+                    if (!context.isPretend()) {
+                        Files.deleteIfExists(new File(output.getFile(), path).toPath());
+                    }
+
+                    deleted++;
+                } else {
+                    LOG.fine(() -> "Taking " + path);
+
+                    if (!context.isPretend()) {
+                        // copied byte for byte, the content of files that are not merged is never decoded
+                        FileUtils.writeByteArrayToFile(new File(output.getFile(), path),
+                                                       repository.read(change.getNewId()));
+                    }
+
+                    taken++;
+                }
+            }
+        } catch (IOException e) {
+            throw new AbortException("Could not read the changed files.", e);
+        }
+
+        int takenFiles = taken, deletedFiles = deleted, conflictFiles = conflicts;
+        LOG.info(() -> String.format("%d paths changed: %d taken from one side, %d deleted, %d deleted and modified, " +
+                                     "%d merged.", paths.size(), takenFiles, deletedFiles, conflictFiles,
+                                     merges.size() + lineMerges.size()));
+
+        merge(merges, context);
+
+        if (!lineMerges.isEmpty()) {
+            MergeContext lineContext = context.fork();
+            lineContext.setMergeStrategy(MergeStrategy.parse(context.getLineMergeStrategyName()).get());
+
+            merge(lineMerges, lineContext);
+            context.join(lineContext);
+        }
+    }
+
+    /**
+     * Executes the given file level <code>MergeOperation</code>s, in parallel if
+     * {@link MergeContext#getFileMergeThreads()} is greater than one.
+     *
+     * @param merges
+     *         the <code>MergeOperation</code>s to execute
+     * @param context
+     *         the <code>MergeContext</code> to use
+     */
+    private static void merge(List<MergeOperation<FileArtifact>> merges, MergeContext context) {
+
+        if (context.getFileMergeThreads() > 1) {
+            List<MergeOperation<FileArtifact>> fileMerges = new ArrayList<>();
+
+            context.setFileMergeQueue(fileMerges);
+
+            try {
+                merges.forEach(merge -> merge.apply(context));
+            } finally {
+                context.setFileMergeQueue(null);
+            }
+
+            ParallelFileMerge.merge(fileMerges, context);
+        } else {
+            merges.forEach(merge -> merge.apply(context));
+        }
+    }
+
+    /**
+     * Indexes the given changes by their paths.
+     *
+     * @param changes
+     *         the changes to index
+     * @return the changes by path
+     */
+    private static Map<String, GitChange> byPath(List<GitChange> changes) {
+        Map<String, GitChange> byPath = new HashMap<>();
+
+        for (GitChange change : changes) {
+            byPath.put(change.getPath(), change);
+        }
+
+        return byPath;
+    }
+
+    /**
+     * Reads the given blob to an in memory <code>FileArtifact</code> named '&lt;commit&gt;:&lt;path&gt;'.
+     *
+     * @param repository
+     *         the repository to read from
+     * @param commit
+     *         the commit containing the blob
+     * @param revision
+     *         the <code>Revision</code> of the <code>FileArtifact</code>
+     * @param path
+     *         the path of the blob in the commit
+     * @param id
+     *         the ID of the blob
+     * @return the <code>FileArtifact</code>
+     * @throws IOException
+     *         if the blob can not be read or is not valid UTF-8
+     */
+    private static FileArtifact read(GitRepository repository, GitInput commit, Revision revision, String path,
+                                     String id) throws IOException {
+
+        // decoded like the content of input files, see FileArtifact#getContent()
+        String content = repository.read(id, StandardCharsets.UTF_8);
+        return new FileArtifact(revision, new File(commit.getName() + ":" + path), content);
+    }
+
+    /**
+     * Adds a file for a path that was deleted on one side and modified on the other side to the output directory. Like
+     * {@link FileArtifact#createConflictArtifact(FileArtifact, FileArtifact)} does for directory merges, the file
+     * contains a conflict between the modified content and nothing. The conflict is recorded in the statistics of the
+     * <code>context</code> (and thereby in the exit code) if they are collected.
+     *
+     * @param dirs
+     *         the directories of the output by their paths relative to the output directory
+     * @param repository
+     *         the repository to read from
+     * @param commits
+     *         the left, base and right commit
+     * @param path
+     *         the conflicting path
+     * @param l
+     *         the change of the path on the left side
+     * @param r
+     *         the change of the path on the right side
+     * @param context
+     *         the <code>MergeContext</code> of the commit level merge
+     * @throws IOException
+     *         if a blob can not be read
+     */
+    private static void addConflict(Map<String, FileArtifact> dirs, GitRepository repository, List<GitInput> commits,
+                                    String path, GitChange l, GitChange r, MergeContext context) throws IOException {
+
+        GitInput left = commits.get(0);
+        GitInput right = commits.get(2);
+
+        FileArtifact leftFile = l.isDeletion() ? null : read(repository, left, LEFT, path, l.getNewId());
+        FileArtifact rightFile = r.isDeletion() ? null : read(repository, right, RIGHT, path, r.getNewId());
+        FileArtifact modified = leftFile != null ? leftFile : rightFile;
+
+        String content = modified.createConflictArtifact(leftFile, rightFile).getContent();
+        addFile(dirs, path, content);
+
+        if (context.hasStatistics()) {
+            FileArtifact base = read(repository, commits.get(1), BASE, path, l.getOldId());
+
+            if (leftFile == null) {
+                leftFile = new FileArtifact(LEFT, new File(left.getName() + ":" + path), "");
+            } else {
+                rightFile = new FileArtifact(RIGHT, new File(right.getName() + ":" + path), "");
+            }
+
+            MergeScenario<FileArtifact> scenario = new MergeScenario<>(MergeType.THREEWAY, leftFile, base, rightFile);
+            MergeScenarioStatistics statistics = context.getStatistics().getScenarioStatistics(scenario);
+
+            statistics.setLineStatistics(content);
+            statistics.getFileStatistics().incrementNumOccurInConflict();
+        }
+    }
+
+    /**
+     * Adds a file with the given content to the output directory. Missing parent directories are added first.
+     *
+     * @param dirs
+     *         the directories of the output by their paths relative to the output directory ("" for the output
+     *         directory itself)
+     * @param path
+     *         the path of the file relative to the output directory
+     * @param content
+     *         the content of the file
+     * @return the added <code>FileArtifact</code>
+     */
+    private static FileArtifact addFile(Map<String, FileArtifact> dirs, String path, String content) {
+        int slash = path.lastIndexOf('/');
+        FileArtifact parent = addDir(dirs, slash < 0 ? "" : path.substring(0, slash));
+        FileArtifact file = new FileArtifact(MERGE, new File(parent.getFile(), path.substring(slash + 1)), content);
+
+        parent.addChild(file);
+        return file;
+    }
+
+    /**
+     * Returns the directory with the given path in the output directory, adding it and its parents if necessary.
+     *
+     * @param dirs
+     *         the directories of the output by their paths relative to the output directory
+     * @param path
+     *         the path of the directory relative to the output directory
+     * @return the directory
+     */
+    private static FileArtifact addDir(Map<String, FileArtifact> dirs, String path) {
+        FileArtifact dir = dirs.get(path);
+
+        if (dir == null) {
+            int slash = path.lastIndexOf('/');
+            FileArtifact parent = addDir(dirs, slash < 0 ? "" : path.substring(0, slash));
+            File file = new File(parent.getFile(), path.substring(slash + 1));
+
+            if (file.exists()) {
+                dir = new FileArtifact(MERGE, file, false);
+            } else {
+                dir = new FileArtifact(MERGE, file, FileArtifact.FileType.DIR);
+            }
+
+            parent.addChild(dir);
+            dirs.put(path, dir);
+        }
+
+        return dir;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.util.regex.Pattern;
+
+/**
+ * A path that differs between two trees as reported by {@link GitRepository#diffTree(String, String)}.
+ */
+public final class GitChange {
+
+    /**
+     * The object ID git reports for the missing side of an added or deleted path.
+     */
+    private static final Pattern NULL_ID = Pattern.compile("0+");
+
+    /**
+     * The mode of regular (possibly executable) files. Other modes denote symbolic links and submodules.
+     */
+    private static final Pattern REGULAR_FILE_MODE = Pattern.compile("100[0-7]{3}");
+
+    private final String path;
+    private final String oldMode;
+    private final String newMode;
+    private final String oldId;
+    private final String newId;
+
+    /**
+     * Constructs a new <code>GitChange</code>.
+     *
+     * @param path
+     *         the changed path
+     * @param oldMode
+     *         the mode of the path in the old tree
+     * @param newMode
+     *         the mode of the path in the new tree
+     * @param oldId
+     *         the ID of the object at the path in the old tree
+     * @param newId
+     *         the ID of the object at the path in the new tree
+     */
+    GitChange(String path, String oldMode, String newMode, String oldId, String newId) {
+        this.path = path;
+        this.oldMode = oldMode;
+        this.newMode = newMode;
+        this.oldId = NULL_ID.matcher(oldId).matches() ? null : oldId;
+        this.newId = NULL_ID.matcher(newId).matches() ? null : newId;
+    }
+
+    /**
+     * Returns the changed path relative to the root of the trees.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the ID of the blob at the path in the old tree.
+     *
+     * @return the ID or <code>null</code> if the path was added
+     */
+    public String getOldId() {
+        return oldId;
+    }
+
+    /**
+     * Returns the ID of the blob at the path in the new tree.
+     *
+     * @return the ID or <code>null</code> if the path was deleted
+     */
+    public String getNewId() {
+        return newId;
+    }
+
+    /**
+     * Returns whether the path was deleted.
+     *
+     * @return true iff the path does not exist in the new tree
+     */
+    public boolean isDeletion() {
+        return newId == null;
+    }
+
+    /**
+     * Returns whether the path is a regular file in both trees it exists in.
+     *
+     * @return false iff the path is a symbolic link or submodule in one of the trees
+     */
+    public boolean isRegularFile() {
+        return (oldId == null || REGULAR_FILE_MODE.matcher(oldMode).matches())
+                && (newId == null || REGULAR_FILE_MODE.matcher(newMode).matches());
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + oldId + " -> " + newId + ")";
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.merge.Revision;
+
+/**
+ * An input of a merge that is read from the object database of a git repository instead of the file system. Input
+ * files are blobs given as '&lt;repo&gt;:&lt;rev&gt;:&lt;path&gt;', as '&lt;rev&gt;:&lt;path&gt;' or as a (possibly
+ * abbreviated) blob ID. The inputs of commit level merges are trees given as '&lt;repo&gt;:&lt;rev&gt;' or
+ * '&lt;rev&gt;'. Inputs not naming a repository refer to the default repository.
+ */
+public final class GitInput {
+
+    private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-fA-F]{4,64}");
+
+    /**
+     * The file extension given to the names of inputs that were given as blob IDs. Blobs do not have a name, they
+     * are assumed to contain Java source code.
+     */
+    private static final String BLOB_EXTENSION = ".java";
+
+    private final String name;
+    private final GitObject object;
+
+    /**
+     * Constructs a new <code>GitInput</code>.
+     *
+     * @param name
+     *         the name the input was given by
+     * @param object
+     *         the object containing the input
+     */
+    private GitInput(String name, GitObject object) {
+        this.name = name;
+        this.object = object;
+    }
+
+    /**
+     * Resolves the given input name to a blob in a git repository. Names containing a ':' refer to the repository
+     * before the first ':' if that is a git repository and to <code>repository</code> otherwise. Names without a ':'
+     * refer to <code>repository</code> and must look like an object ID.
+     *
+     * @param name
+     *         the name of the input
+     * @param repository
+     *         the default repository
+     * @param gitCmd
+     *         the <code>git</code> command to use
+     * @return the resolved <code>GitInput</code> or an empty <code>Optional</code> if <code>name</code> does not
+     *         refer to a blob
+     * @throws IOException
+     *         if there is an exception communicating with <code>git</code>
+     */
+    public static Optional<GitInput> resolve(String name, File repository, String gitCmd) throws IOException {
+        String object = name;
+        int colon = name.indexOf(':');
+
+        if (colon > 0) {
+            File prefix = new File(name.substring(0, colon));
+
+            if (name.indexOf(':', colon + 1) > 0 && GitRepository.isRepository(prefix)) {
+                repository = prefix;
+                object = name.substring(colon + 1);
+            }
+        } else if (!OBJECT_ID.matcher(name).matches()) {
+            return Optional.empty();
+        }
+
+        Optional<GitRepository> repo = GitRepository.open(repository, gitCmd);
+
+        if (!repo.isPresent()) {
+            return Optional.empty();
+        }
+
+        Optional<GitObject> blob = repo.get().lookup(object).filter(GitObject::isBlob);
+        return blob.map(b -> new GitInput(name, b));
+    }
+
+    /**
+     * Resolves the given input name to a tree in a git repository. Names containing a ':' refer to the repository
+     * before the first ':' if that is a git repository and to <code>repository</code> otherwise. The revision may
+     * name a commit, a tag or a tree.
+     *
+     * @param name
+     *         the name of the input
+     * @param repository
+     *         the default repository
+     * @param gitCmd
+     *         the <code>git</code> command to use
+     * @return the resolved <code>GitInput</code> or an empty <code>Optional</code> if <code>name</code> does not
+     *         refer to a tree
+     * @throws IOException
+     *         if there is an exception communicating with <code>git</code>
+     */
+    public static Optional<GitInput> resolveTree(String name, File repository, String gitCmd) throws IOException {
+        String rev = name;
+        int colon = name.indexOf(':');
+
+        if (colon > 0 && GitRepository.isRepository(new File(name.substring(0, colon)))) {
+            repository = new File(name.substring(0, colon));
+            rev = name.substring(colon + 1);
+        }
+
+        Optional<GitRepository> repo = GitRepository.open(repository, gitCmd);
+
+        if (!repo.isPresent()) {
+            return Optional.empty();
+        }
+
+        Optional<GitObject> tree = repo.get().lookup(rev + "^{tree}").filter(GitObject::isTree);
+        return tree.map(t -> new GitInput(name, t));
+    }
+
+    /**
+     * Returns the name this input was given by.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the object containing this input.
+     *
+     * @return the blob or tree
+     */
+    public GitObject getObject() {
+        return object;
+    }
+
+    /**
+     * Returns the (non-existent) <code>File</code> naming this input.
+     *
+     * @return the name of this input as a <code>File</code>
+     */
+    public File getFile() {
+        return new File(name.indexOf(':') > 0 ? name : name + BLOB_EXTENSION);
+    }
+
+    /**
+     * Returns a <code>FileArtifact</code> containing the given content of the blob. Inputs that are the same blob
+     * may share the content instead of reading it again.
+     *
+     * @param revision
+     *         the <code>Revision</code> for the <code>FileArtifact</code>
+     * @param content
+     *         the content of the blob as read using {@link GitObject#read(java.nio.charset.Charset)}
+     * @return the in memory <code>FileArtifact</code>
+     */
+    public FileArtifact toArtifact(Revision revision, String content) {
+        return new FileArtifact(revision, getFile(), content);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + object + ")";
+    }
+}
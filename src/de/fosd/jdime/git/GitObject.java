@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * An object in the object database of a {@link GitRepository}.
+ */
+public final class GitObject {
+
+    private final GitRepository repository;
+    private final String id;
+    private final String type;
+    private final long size;
+
+    /**
+     * Constructs a new <code>GitObject</code>.
+     *
+     * @param repository
+     *         the repository containing the object
+     * @param id
+     *         the ID of the object
+     * @param type
+     *         the type of the object
+     * @param size
+     *         the size of the object in bytes
+     */
+    GitObject(GitRepository repository, String id, String type, long size) {
+        this.repository = repository;
+        this.id = id;
+        this.type = type;
+        this.size = size;
+    }
+
+    /**
+     * Returns the repository containing this object.
+     *
+     * @return the repository
+     */
+    public GitRepository getRepository() {
+        return repository;
+    }
+
+    /**
+     * Returns the ID of this object.
+     *
+     * @return the ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the type of this object, e.g. {@value GitRepository#BLOB}.
+     *
+     * @return the type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the size of this object in bytes.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns whether this object is a blob.
+     *
+     * @return true iff the type of this object is {@value GitRepository#BLOB}
+     */
+    public boolean isBlob() {
+        return GitRepository.BLOB.equals(type);
+    }
+
+    /**
+     * Returns whether this object is a tree.
+     *
+     * @return true iff the type of this object is {@value GitRepository#TREE}
+     */
+    public boolean isTree() {
+        return GitRepository.TREE.equals(type);
+    }
+
+    /**
+     * Reads the content of this blob and decodes it using the given <code>Charset</code>.
+     *
+     * @param charset
+     *         the <code>Charset</code> to decode the content with
+     * @return the content
+     * @throws IOException
+     *         if the content can not be read or decoded
+     * @see GitRepository#read(String, Charset)
+     */
+    public String read(Charset charset) throws IOException {
+        return repository.read(id, charset);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + id;
+    }
+}
@@ -0,0 +1,520 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.IOUtils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Provides access to the object database of a local git repository. Objects are read using long-running
+ * {@code git cat-file --batch} processes so that no working tree has to be checked out and the cost of starting
+ * <code>git</code> is paid once per process instead of once per object. Every thread uses its own process, idle
+ * processes are kept for reuse. Instances are shared by all threads, use {@link #open(File, String)} to obtain them.
+ * At most {@value #MAX_REPOSITORIES} repositories are kept open, the least recently opened one is closed when
+ * another one is opened. {@link #closeAll()} closes all of them.
+ */
+public final class GitRepository implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(GitRepository.class.getCanonicalName());
+
+    /**
+     * The type of git objects storing file contents.
+     */
+    public static final String BLOB = "blob";
+
+    /**
+     * The type of git objects storing directories.
+     */
+    public static final String TREE = "tree";
+
+    /**
+     * The maximum number of repositories kept open.
+     */
+    private static final int MAX_REPOSITORIES = 16;
+
+    /**
+     * The maximum number of idle {@code git cat-file} processes kept per mode and repository.
+     */
+    private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The opened repositories by their canonical directories in the order they were last opened.
+     */
+    private static final Map<File, GitRepository> REPOSITORIES = new LinkedHashMap<File, GitRepository>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, GitRepository> eldest) {
+
+            if (size() > MAX_REPOSITORIES) {
+                eldest.getValue().close();
+                return true;
+            }
+
+            return false;
+        }
+    };
+
+    private final File directory;
+    private final String gitCmd;
+
+    private final Deque<CatFile> lookups;
+    private final Deque<CatFile> readers;
+    private boolean closed;
+
+    /**
+     * Constructs a new <code>GitRepository</code>.
+     *
+     * @param directory
+     *         the directory of the repository
+     * @param gitCmd
+     *         the <code>git</code> command to use
+     */
+    private GitRepository(File directory, String gitCmd) {
+        this.directory = directory;
+        this.gitCmd = gitCmd;
+        this.lookups = new ArrayDeque<>();
+        this.readers = new ArrayDeque<>();
+    }
+
+    /**
+     * Returns whether the given directory is a git repository, i.e. a working tree containing a '.git' file or
+     * directory or a bare repository.
+     *
+     * @param directory
+     *         the directory to check
+     * @return true iff <code>directory</code> is a git repository
+     */
+    public static boolean isRepository(File directory) {
+        return new File(directory, ".git").exists()
+                || new File(directory, "HEAD").isFile() && new File(directory, "objects").isDirectory();
+    }
+
+    /**
+     * Returns the <code>GitRepository</code> for the given directory.
+     *
+     * @param directory
+     *         the directory of the repository
+     * @param gitCmd
+     *         the <code>git</code> command to use if the repository was not opened before
+     * @return the <code>GitRepository</code> or an empty <code>Optional</code> if <code>directory</code> is not a
+     *         git repository
+     */
+    public static Optional<GitRepository> open(File directory, String gitCmd) {
+
+        if (!isRepository(directory)) {
+            return Optional.empty();
+        }
+
+        File canonical;
+
+        try {
+            canonical = directory.getCanonicalFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (REPOSITORIES) {
+            return Optional.of(REPOSITORIES.computeIfAbsent(canonical, dir -> new GitRepository(dir, gitCmd)));
+        }
+    }
+
+    /**
+     * Closes all open repositories.
+     *
+     * @see #close()
+     */
+    public static void closeAll() {
+        List<GitRepository> repositories;
+
+        synchronized (REPOSITORIES) {
+            repositories = new ArrayList<>(REPOSITORIES.values());
+            REPOSITORIES.clear();
+        }
+
+        repositories.forEach(GitRepository::close);
+    }
+
+    /**
+     * Returns the directory of this repository.
+     *
+     * @return the directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Looks up the given object without reading its content.
+     *
+     * @param object
+     *         the name of the object in any form accepted by {@code git cat-file}, e.g. an object ID or
+     *         '&lt;rev&gt;:&lt;path&gt;'
+     * @return the <code>GitObject</code> or an empty <code>Optional</code> if the object does not exist
+     * @throws IOException
+     *         if there is an exception communicating with <code>git</code>
+     */
+    public Optional<GitObject> lookup(String object) throws IOException {
+        CatFile lookup = acquire(lookups, "--batch-check");
+        boolean reusable = false;
+
+        try {
+            Optional<GitObject> result = lookup.request(object);
+            reusable = true;
+
+            return result;
+        } finally {
+            release(lookups, lookup, reusable);
+        }
+    }
+
+    /**
+     * Reads the content of the given blob.
+     *
+     * @param id
+     *         the ID of the blob to read
+     * @return the content of the blob
+     * @throws IOException
+     *         if the blob does not exist or there is an exception communicating with <code>git</code>
+     */
+    public byte[] read(String id) throws IOException {
+        CatFile read = acquire(readers, "--batch");
+        boolean reusable = false;
+
+        try {
+            Optional<GitObject> result = read.request(id);
+
+            if (!result.isPresent()) {
+                reusable = true;
+                throw new IOException("Object " + id + " does not exist.");
+            }
+
+            GitObject object = result.get();
+
+            if (object.getSize() > Integer.MAX_VALUE) {
+                throw new IOException(object + " is too large.");
+            }
+
+            byte[] content = new byte[(int) object.getSize()];
+            int off = 0;
+
+            while (off < content.length) {
+                int n = read.out.read(content, off, content.length - off);
+
+                if (n < 0) {
+                    throw new EOFException("Unexpected end of the output of git cat-file.");
+                }
+
+                off += n;
+            }
+
+            if (read.out.read() != '\n') {
+                throw new IOException("Unexpected output of git cat-file after " + object + ".");
+            }
+
+            reusable = true;
+
+            if (!object.isBlob()) {
+                throw new IOException(object + " is not a blob.");
+            }
+
+            return content;
+        } finally {
+            release(readers, read, reusable);
+        }
+    }
+
+    /**
+     * Reads the content of the given blob and decodes it using the given <code>Charset</code>. Unlike
+     * <code>new String(byte[], Charset)</code> this fails for content that is not valid in <code>charset</code>
+     * instead of replacing the invalid bytes.
+     *
+     * @param id
+     *         the ID of the blob to read
+     * @param charset
+     *         the <code>Charset</code> to decode the content with
+     * @return the decoded content of the blob
+     * @throws IOException
+     *         if the blob does not exist, is not valid in <code>charset</code> or there is an exception
+     *         communicating with <code>git</code>
+     */
+    public String read(String id, Charset charset) throws IOException {
+        byte[] content = read(id);
+
+        try {
+            return charset.newDecoder().decode(ByteBuffer.wrap(content)).toString();
+        } catch (CharacterCodingException e) {
+            throw new IOException("The content of blob " + id + " is not valid " + charset.name() + ".", e);
+        }
+    }
+
+    /**
+     * Returns an idle {@code git cat-file} process from the given pool or starts a new one.
+     *
+     * @param pool
+     *         the idle processes
+     * @param mode
+     *         the batch mode argument for a new process
+     * @return the <code>CatFile</code> to be used exclusively by the caller until it is released
+     * @throws IOException
+     *         if a new process can not be started
+     */
+    private CatFile acquire(Deque<CatFile> pool, String mode) throws IOException {
+
+        synchronized (this) {
+            CatFile catFile = pool.pollFirst();
+
+            if (catFile != null) {
+                return catFile;
+            }
+        }
+
+        return new CatFile(mode);
+    }
+
+    /**
+     * Returns the given {@code git cat-file} process to the pool it was acquired from. Processes that are not
+     * reusable, do not fit into the pool or belong to a closed repository are closed instead.
+     *
+     * @param pool
+     *         the idle processes
+     * @param catFile
+     *         the process to release
+     * @param reusable
+     *         whether the output of the process was read completely and it can answer further requests
+     */
+    private void release(Deque<CatFile> pool, CatFile catFile, boolean reusable) {
+
+        synchronized (this) {
+
+            if (reusable && !closed && pool.size() < MAX_IDLE) {
+                pool.push(catFile);
+                return;
+            }
+        }
+
+        catFile.close();
+    }
+
+    /**
+     * Closes the idle {@code git cat-file} processes of this repository. Processes in use are closed when they are
+     * released. The repository remains usable, new processes are started on demand and closed after each use.
+     */
+    @Override
+    public void close() {
+        List<CatFile> idle;
+
+        synchronized (this) {
+            closed = true;
+
+            idle = new ArrayList<>(lookups);
+            idle.addAll(readers);
+
+            lookups.clear();
+            readers.clear();
+        }
+
+        idle.forEach(CatFile::close);
+    }
+
+    /**
+     * Compares the given trees recursively. Renames are not detected, a renamed file is reported as deleted and
+     * added.
+     *
+     * @param from
+     *         the ID of the old tree
+     * @param to
+     *         the ID of the new tree
+     * @return the changed paths
+     * @throws IOException
+     *         if there is an exception running {@code git diff-tree}
+     */
+    public List<GitChange> diffTree(String from, String to) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(gitCmd, "diff-tree", "-r", "-z", "--no-renames", from, to);
+        builder.directory(directory);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        Process process = builder.start();
+        process.getOutputStream().close();
+
+        byte[] output;
+
+        try (InputStream out = process.getInputStream()) {
+            output = IOUtils.toByteArray(out);
+        }
+
+        try {
+            int exitCode = process.waitFor();
+
+            if (exitCode != 0) {
+                throw new IOException("git diff-tree " + from + " " + to + " failed with exit code " + exitCode + ".");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for git diff-tree.");
+        }
+
+        // Every change is ':<old mode> <new mode> <old id> <new id> <status>' NUL '<path>' NUL
+        String[] fields = new String(output, UTF_8).split("\0");
+        List<GitChange> changes = new ArrayList<>(fields.length / 2);
+
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            String[] header = fields[i].split(" ");
+
+            if (header.length != 5 || !header[0].startsWith(":")) {
+                throw new IOException("Unexpected output of git diff-tree: " + fields[i]);
+            }
+
+            String oldMode = header[0].substring(1);
+            changes.add(new GitChange(fields[i + 1], oldMode, header[1], header[2], header[3]));
+        }
+
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return directory.getPath();
+    }
+
+    /**
+     * A {@code git cat-file} process answering requests for objects on its standard input.
+     */
+    private final class CatFile {
+
+        private final Process process;
+        private final OutputStream in;
+        private final InputStream out;
+
+        /**
+         * Starts a new {@code git cat-file} process.
+         *
+         * @param mode
+         *         the batch mode argument
+         * @throws IOException
+         *         if the process can not be started
+         */
+        private CatFile(String mode) throws IOException {
+            LOG.fine(() -> "Starting git cat-file " + mode + " in " + directory);
+
+            ProcessBuilder builder = new ProcessBuilder(gitCmd, "cat-file", mode);
+            builder.directory(directory);
+            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+            this.process = builder.start();
+            this.in = new BufferedOutputStream(process.getOutputStream());
+            this.out = new BufferedInputStream(process.getInputStream());
+        }
+
+        /**
+         * Requests the given object and reads the header line of the answer. In '--batch' mode the content of the
+         * object follows.
+         *
+         * @param object
+         *         the name of the object
+         * @return the <code>GitObject</code> or an empty <code>Optional</code> if it does not exist
+         * @throws IOException
+         *         if there is an exception communicating with <code>git</code>
+         */
+        private Optional<GitObject> request(String object) throws IOException {
+
+            if (object.indexOf('\n') >= 0) {
+                return Optional.empty();
+            }
+
+            if (!process.isAlive()) {
+                throw new IOException("git cat-file in " + directory + " terminated unexpectedly.");
+            }
+
+            in.write(object.getBytes(UTF_8));
+            in.write('\n');
+            in.flush();
+
+            String[] header = readLine().split(" ");
+
+            if (header.length != 3) {
+                // '<object> missing' or '<object> ambiguous'
+                return Optional.empty();
+            }
+
+            return Optional.of(new GitObject(GitRepository.this, header[0], header[1], Long.parseLong(header[2])));
+        }
+
+        /**
+         * Reads a line from the standard output of the process.
+         *
+         * @return the line without its terminating '\n'
+         * @throws IOException
+         *         if the line can not be read
+         */
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+
+            while ((b = out.read()) != '\n') {
+
+                if (b < 0) {
+                    throw new EOFException("Unexpected end of the output of git cat-file.");
+                }
+
+                line.write(b);
+            }
+
+            return new String(line.toByteArray(), UTF_8);
+        }
+
+        /**
+         * Terminates the process.
+         */
+        private void close() {
+            LOG.fine(() -> "Stopping git cat-file in " + directory);
+
+            IOUtils.closeQuietly(in);
+            IOUtils.closeQuietly(out);
+            process.destroy();
+        }
+    }
+}
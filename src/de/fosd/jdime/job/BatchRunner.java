@@ -0,0 +1,374 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.job;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.artifact.ast.ParseCache;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.execption.AbortException;
+
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_BATCH;
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_BATCH_THREADS;
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_PARSE_CACHE;
+
+/**
+ * Runs the merge scenarios listed in a manifest file on a pool of threads inside one JVM. Every scenario is run as
+ * a {@link MergeJob} with its own <code>MergeContext</code>, a crashing scenario therefore does not affect the
+ * others. The {@link MergeJobResult} of every scenario is written to the standard output as a JSON object on a single
+ * line as soon as the scenario finishes, i.e. not necessarily in the order of the manifest.
+ * <p>
+ * A JSON manifest contains an array of (or one line per) JSON encoded <code>MergeJob</code>s. A CSV manifest starts
+ * with a header naming its columns. The columns 'id', 'left', 'base', 'right', 'output' and 'mode' describe the
+ * scenario, the column 'args' contains further whitespace separated command line arguments. Every other column
+ * is the name of a command line option, the cell is its argument ('true' for options without argument). Empty cells
+ * are ignored. Scenarios without an ID are numbered in the order of the manifest starting at 1.
+ */
+public final class BatchRunner {
+
+    private static final Logger LOG = Logger.getLogger(BatchRunner.class.getCanonicalName());
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private static final String CSV_ID = "id";
+    private static final String CSV_LEFT = "left";
+    private static final String CSV_BASE = "base";
+    private static final String CSV_RIGHT = "right";
+    private static final String CSV_OUTPUT = "output";
+    private static final String CSV_MODE = "mode";
+    private static final String CSV_ARGS = "args";
+
+    /**
+     * Utility class.
+     */
+    private BatchRunner() {}
+
+    /**
+     * Runs the scenarios of the manifest given by the {@code CLI_BATCH} option. All other options set on the
+     * command line apply to every scenario that does not set them itself. If a parse cache is configured, a single
+     * cache is shared by all scenarios.
+     *
+     * @param config
+     *         the configuration of the batch
+     * @return {@link Main#EXIT_SUCCESS} if every scenario was merged (regardless of conflicts),
+     *         {@link Main#EXIT_FAILURE} otherwise
+     */
+    public static int run(JDimeConfig config) {
+        File manifest = new File(config.get(CLI_BATCH).orElseThrow(() -> new AbortException("No manifest given.")).trim());
+        int threads = Math.max(1, config.getInteger(CLI_BATCH_THREADS).orElse(Runtime.getRuntime().availableProcessors()));
+        Map<String, List<String>> defaults = config.getCmdLine().getOptionArgs(Arrays.asList(CLI_BATCH, CLI_BATCH_THREADS));
+        ParseCache cache = config.getInteger(CLI_PARSE_CACHE).filter(n -> n > 0).map(ParseCache::new).orElse(null);
+
+        List<MergeJob> jobs;
+
+        try {
+            jobs = readManifest(manifest);
+        } catch (IOException | JsonParseException e) {
+            LOG.log(Level.SEVERE, e, () -> "Could not read the manifest " + manifest);
+            return Main.EXIT_FAILURE;
+        }
+
+        for (MergeJob job : jobs) {
+            job.setDefaults(defaults);
+        }
+
+        Consumer<MergeContext> setup = context -> {
+            if (cache != null) {
+                context.setParseCache(cache);
+            }
+        };
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        long start = System.currentTimeMillis();
+        int failed;
+
+        try {
+            failed = run(jobs, threads, setup, result -> {
+                try {
+                    out.write(GSON.toJson(result));
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, e, () -> "Could not output the result of " + result.getId());
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warning("Interrupted while running the batch.");
+            return Main.EXIT_FAILURE;
+        }
+
+        long runtime = System.currentTimeMillis() - start;
+        LOG.info(() -> String.format("Ran %d scenarios (%d failed) on %d threads in %d ms.",
+                                     jobs.size(), failed, threads, runtime));
+
+        return failed == 0 ? Main.EXIT_SUCCESS : Main.EXIT_FAILURE;
+    }
+
+    /**
+     * Runs the given <code>MergeJob</code>s on a pool of threads and passes their results to <code>output</code> as
+     * they finish. <code>output</code> is only called from the calling thread.
+     *
+     * @param jobs
+     *         the <code>MergeJob</code>s to run
+     * @param threads
+     *         the number of threads to use
+     * @param setup
+     *         passed to {@link MergeJob#run(Consumer)}
+     * @param output
+     *         the consumer of the results
+     * @return the number of jobs that failed
+     * @throws InterruptedException
+     *         if the calling thread is interrupted while waiting for the jobs
+     */
+    static int run(List<MergeJob> jobs, int threads, Consumer<MergeContext> setup, Consumer<MergeJobResult> output)
+            throws InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, jobs.size())));
+        CompletionService<MergeJobResult> completion = new ExecutorCompletionService<>(executor);
+        int failed = 0;
+
+        try {
+            for (MergeJob job : jobs) {
+                completion.submit(() -> job.run(setup));
+            }
+
+            for (int i = 0; i < jobs.size(); i++) {
+                MergeJobResult result;
+
+                try {
+                    result = completion.take().get();
+                } catch (ExecutionException e) {
+                    // MergeJob#run reports all exceptions in its result, errors end the batch
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+
+                    throw new RuntimeException(e.getCause());
+                }
+
+                if (result.getExitCode() >= Main.EXIT_ABORTED) {
+                    failed++;
+                }
+
+                output.accept(result);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return failed;
+    }
+
+    /**
+     * Reads the <code>MergeJob</code>s from the given manifest. Files ending in '.csv' are read as CSV manifests,
+     * all others as JSON manifests.
+     *
+     * @param manifest
+     *         the manifest to read
+     * @return the <code>MergeJob</code>s in the order of the manifest
+     * @throws IOException
+     *         if the manifest can not be read or is invalid
+     */
+    static List<MergeJob> readManifest(File manifest) throws IOException {
+        List<String> lines = Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8);
+        List<MergeJob> jobs;
+
+        if (manifest.getName().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            jobs = readCSV(lines);
+        } else {
+            jobs = readJSON(lines);
+        }
+
+        for (int i = 0; i < jobs.size(); i++) {
+            MergeJob job = jobs.get(i);
+
+            if (job.getId() == null) {
+                job.setId(String.valueOf(i + 1));
+            }
+        }
+
+        return jobs;
+    }
+
+    /**
+     * Reads the <code>MergeJob</code>s from the lines of a JSON manifest.
+     *
+     * @param lines
+     *         the lines of the manifest
+     * @return the <code>MergeJob</code>s
+     */
+    private static List<MergeJob> readJSON(List<String> lines) {
+        String content = String.join("\n", lines).trim();
+
+        if (content.startsWith("[")) {
+            return new ArrayList<>(Arrays.asList(GSON.fromJson(content, MergeJob[].class)));
+        }
+
+        List<MergeJob> jobs = new ArrayList<>();
+
+        for (String line : lines) {
+
+            if (!line.trim().isEmpty()) {
+                jobs.add(GSON.fromJson(line, MergeJob.class));
+            }
+        }
+
+        return jobs;
+    }
+
+    /**
+     * Reads the <code>MergeJob</code>s from the lines of a CSV manifest.
+     *
+     * @param lines
+     *         the lines of the manifest
+     * @return the <code>MergeJob</code>s
+     * @throws IOException
+     *         if the manifest is invalid
+     */
+    private static List<MergeJob> readCSV(List<String> lines) throws IOException {
+        List<MergeJob> jobs = new ArrayList<>();
+
+        if (lines.isEmpty()) {
+            return jobs;
+        }
+
+        List<String> header = parseCSVLine(lines.get(0));
+
+        if (!header.contains(CSV_LEFT) || !header.contains(CSV_RIGHT)) {
+            throw new IOException("The CSV manifest must have the columns '" + CSV_LEFT + "' and '" + CSV_RIGHT + "'.");
+        }
+
+        for (int i = 1; i < lines.size(); i++) {
+
+            if (lines.get(i).trim().isEmpty()) {
+                continue;
+            }
+
+            List<String> cells = parseCSVLine(lines.get(i));
+            Map<String, String> row = new LinkedHashMap<>();
+
+            if (cells.size() > header.size()) {
+                throw new IOException("Line " + (i + 1) + " of the CSV manifest has more cells than the header.");
+            }
+
+            for (int c = 0; c < cells.size(); c++) {
+
+                if (!cells.get(c).isEmpty()) {
+                    row.put(header.get(c), cells.get(c));
+                }
+            }
+
+            List<String> files = new ArrayList<>();
+
+            files.add(row.remove(CSV_LEFT));
+
+            if (row.containsKey(CSV_BASE)) {
+                files.add(row.remove(CSV_BASE));
+            }
+
+            files.add(row.remove(CSV_RIGHT));
+
+            if (files.contains(null)) {
+                throw new IOException("Line " + (i + 1) + " of the CSV manifest is missing an input file.");
+            }
+
+            String id = row.remove(CSV_ID);
+            String output = row.remove(CSV_OUTPUT);
+            String mode = row.remove(CSV_MODE);
+            String args = row.remove(CSV_ARGS);
+            List<String> argList = args != null ? Arrays.asList(args.trim().split("\\s+")) : Collections.emptyList();
+
+            jobs.add(new MergeJob(id, mode, files, output, row, argList));
+        }
+
+        return jobs;
+    }
+
+    /**
+     * Splits a line of a CSV file into its cells. Cells may be quoted using '"', quotes in quoted cells are escaped
+     * by doubling them. The cells are trimmed.
+     *
+     * @param line
+     *         the line to split
+     * @return the cells of the line
+     */
+    static List<String> parseCSVLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+}
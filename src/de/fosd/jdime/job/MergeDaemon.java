@@ -0,0 +1,319 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.job;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.MessageDigest;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.execption.AbortException;
+import org.apache.commons.io.IOUtils;
+
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_DAEMON_PORT;
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_DAEMON_TOKEN;
+
+/**
+ * A resident JDime process that performs merges on request. Running merges in a long-lived JVM avoids paying the
+ * JVM startup, the loading of the ExtendJ classes and the JIT warm-up for every merge.
+ * <p>
+ * The daemon reads requests from the standard input or, if a port is given, from TCP connections to that port on
+ * the loopback interface. Every request is a {@link MergeJob} encoded as a JSON object on a single line, e.g.:
+ * <pre>
+ * {"id": "1", "mode": "structured", "files": ["left.java", "base.java", "right.java"], "options": {"p": "true"}}
+ * {"id": "2", "args": ["-m", "linebased", "-o", "out.java", "left.java", "base.java", "right.java"]}
+ * </pre>
+ * Every request is answered by its {@link MergeJobResult} encoded as a JSON object on a single line. The requests of
+ * a connection (or the standard input) are handled in order.
+ * <p>
+ * Any local user can connect to a port on the loopback interface. Listening on a port therefore requires a token
+ * file only its owner can access. The first line a client sends must be the token, connections sending anything
+ * else are answered by an error and closed. At most as many connections as there are available processors are
+ * served concurrently, further connections wait until one of them is closed.
+ */
+public final class MergeDaemon {
+
+    private static final Logger LOG = Logger.getLogger(MergeDaemon.class.getCanonicalName());
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    /**
+     * Utility class.
+     */
+    private MergeDaemon() {}
+
+    /**
+     * Runs the daemon until the standard input is closed or, if the {@code CLI_DAEMON_PORT} is set, until the
+     * process is terminated. When listening on a port, the port is printed to the standard output.
+     *
+     * @param config
+     *         the configuration of the daemon
+     * @return the exit code for the program
+     */
+    public static int run(JDimeConfig config) {
+        Optional<Integer> port = config.getInteger(CLI_DAEMON_PORT);
+
+        try {
+            if (port.isPresent()) {
+                Path tokenFile = Paths.get(config.get(CLI_DAEMON_TOKEN).orElseThrow(() ->
+                        new AbortException("Listening on a port requires a token file (-" + CLI_DAEMON_TOKEN + ").")
+                ).trim());
+
+                listen(port.get(), readToken(tokenFile), Runtime.getRuntime().availableProcessors());
+            } else {
+                serve(System.in, System.out, null);
+            }
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e, () -> "The merge daemon failed.");
+            return Main.EXIT_FAILURE;
+        }
+
+        return Main.EXIT_SUCCESS;
+    }
+
+    /**
+     * Reads the token clients have to send from the first line of the given file. The file must not be accessible
+     * by other users than its owner (i.e. have the permissions 0600 or 0400) if the file system supports POSIX
+     * permissions.
+     *
+     * @param tokenFile
+     *         the file containing the token
+     * @return the token
+     * @throws IOException
+     *         if the file can not be read or is accessible by other users
+     */
+    static String readToken(Path tokenFile) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(tokenFile, PosixFileAttributeView.class);
+
+        if (view != null) {
+            Set<PosixFilePermission> permissions = view.readAttributes().permissions();
+            Set<PosixFilePermission> allowed = EnumSet.of(PosixFilePermission.OWNER_READ,
+                                                          PosixFilePermission.OWNER_WRITE);
+
+            if (!allowed.containsAll(permissions)) {
+                throw new IOException("The token file " + tokenFile + " must only be accessible by its owner.");
+            }
+        }
+
+        List<String> lines = Files.readAllLines(tokenFile, StandardCharsets.UTF_8);
+
+        if (lines.isEmpty() || lines.get(0).trim().isEmpty()) {
+            throw new IOException("The token file " + tokenFile + " is empty.");
+        }
+
+        return lines.get(0).trim();
+    }
+
+    /**
+     * Accepts connections on the given port of the loopback interface and serves every connection in its own thread.
+     * An <code>Error</code> thrown while serving a connection stops the daemon and is rethrown.
+     *
+     * @param port
+     *         the port to listen on, 0 to choose a free port
+     * @param token
+     *         the token clients have to send before their requests
+     * @param maxConnections
+     *         the maximum number of connections to serve concurrently
+     * @throws IOException
+     *         if the port can not be opened
+     */
+    private static void listen(int port, String token, int maxConnections) throws IOException {
+        Semaphore slots = new Semaphore(maxConnections);
+        AtomicReference<Error> error = new AtomicReference<>();
+        ExecutorService connections = Executors.newFixedThreadPool(maxConnections, r -> {
+            Thread thread = new Thread(r, "jdime-daemon-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            LOG.info(() -> "Merge daemon listening on " + server.getLocalSocketAddress());
+            System.out.println(server.getLocalPort());
+            System.out.flush();
+
+            while (!server.isClosed()) {
+                slots.acquireUninterruptibly();
+
+                Socket socket;
+
+                try {
+                    socket = server.accept();
+                } catch (IOException e) {
+                    slots.release();
+
+                    if (error.get() != null) {
+                        break;
+                    }
+
+                    throw e;
+                }
+
+                connections.execute(() -> {
+                    try (Socket s = socket) {
+                        serve(s.getInputStream(), s.getOutputStream(), token);
+                    } catch (IOException e) {
+                        LOG.log(Level.WARNING, e, () -> "Connection " + socket.getRemoteSocketAddress() + " failed.");
+                    } catch (Error e) {
+                        // the JVM may be in an unknown state, stop accepting connections and rethrow it below
+                        error.compareAndSet(null, e);
+                        IOUtils.closeQuietly(server);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+
+            if (error.get() != null) {
+                throw error.get();
+            }
+        } finally {
+            connections.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads requests from <code>in</code> and writes their results to <code>out</code> until <code>in</code> is
+     * closed. If a token is given, the first line must be the token. Otherwise an error is written and no requests
+     * are read.
+     *
+     * @param in
+     *         the stream to read the requests from
+     * @param out
+     *         the stream to write the results to
+     * @param token
+     *         the token the first line must contain or <code>null</code>
+     * @throws IOException
+     *         if reading or writing fails
+     */
+    static void serve(InputStream in, OutputStream out, String token) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        String line;
+
+        if (token != null) {
+            line = reader.readLine();
+
+            if (line == null || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                                                        line.trim().getBytes(StandardCharsets.UTF_8))) {
+                LOG.warning("Rejected a connection that did not send the token.");
+                write(writer, error("Invalid token."));
+                return;
+            }
+        }
+
+        while ((line = reader.readLine()) != null) {
+
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            write(writer, handle(line));
+        }
+    }
+
+    /**
+     * Writes the given result as a line containing a JSON object.
+     *
+     * @param writer
+     *         the <code>Writer</code> to write to
+     * @param result
+     *         the <code>MergeJobResult</code> to write
+     * @throws IOException
+     *         if writing fails
+     */
+    private static void write(Writer writer, MergeJobResult result) throws IOException {
+        writer.write(GSON.toJson(result));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * Runs the <code>MergeJob</code> encoded in the given line.
+     *
+     * @param line
+     *         the JSON encoded <code>MergeJob</code>
+     * @return the result of the job
+     */
+    static MergeJobResult handle(String line) {
+        MergeJob job;
+
+        try {
+            job = GSON.fromJson(line, MergeJob.class);
+        } catch (JsonParseException e) {
+            return error("Invalid request: " + e.getMessage());
+        }
+
+        if (job == null) {
+            return error("Invalid request: " + line);
+        }
+
+        LOG.fine(() -> "Running job " + job);
+
+        return job.run();
+    }
+
+    /**
+     * Returns a failed <code>MergeJobResult</code> for a request that could not be run.
+     *
+     * @param message
+     *         the error message
+     * @return the <code>MergeJobResult</code>
+     */
+    private static MergeJobResult error(String message) {
+        MergeJobResult result = new MergeJobResult(null);
+
+        result.setError(message);
+        result.setExitCode(Main.EXIT_FAILURE);
+        return result;
+    }
+}
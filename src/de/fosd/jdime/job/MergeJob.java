@@ -0,0 +1,362 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.job;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.fosd.jdime.Main;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.CommandLineConfigSource;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.execption.AbortException;
+import de.fosd.jdime.strdump.DumpMode;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.ParseException;
+
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_MODE;
+import static de.fosd.jdime.config.CommandLineConfigSource.CLI_OUTPUT;
+
+/**
+ * A single merge to be performed in a running JVM. A <code>MergeJob</code> is described either by the command line
+ * arguments JDime would be called with or by its mode, input files, output file and further options. Every job is
+ * run with its own <code>MergeContext</code>. Jobs are read from JSON, unset fields are <code>null</code>.
+ */
+public class MergeJob {
+
+    private static final Logger LOG = Logger.getLogger(MergeJob.class.getCanonicalName());
+
+    /**
+     * An identifier chosen by the client that is copied to the <code>MergeJobResult</code>.
+     */
+    private String id;
+
+    /**
+     * The command line arguments to use. The other fields are appended to them.
+     */
+    private List<String> args;
+
+    /**
+     * The merge mode (the argument to the <code>-mode</code> option).
+     */
+    private String mode;
+
+    /**
+     * The paths of the input files or directories.
+     */
+    private List<String> files;
+
+    /**
+     * The path of the output file or directory.
+     */
+    private String output;
+
+    /**
+     * Further command line options mapped to their arguments. Options without arguments are set by mapping them to
+     * "true".
+     */
+    private Map<String, String> options;
+
+    /**
+     * Command line options applying to the job unless it sets the same options itself. Maps the (short) option names
+     * to the command line arguments setting them. Not part of the JSON representation.
+     */
+    private transient Map<String, List<String>> defaults;
+
+    /**
+     * Constructs a new empty <code>MergeJob</code>.
+     */
+    public MergeJob() {
+
+    }
+
+    /**
+     * Constructs a new <code>MergeJob</code> using the given command line arguments.
+     *
+     * @param id
+     *         the ID of the job
+     * @param args
+     *         the command line arguments
+     */
+    public MergeJob(String id, List<String> args) {
+        this.id = id;
+        this.args = new ArrayList<>(args);
+    }
+
+    /**
+     * Constructs a new <code>MergeJob</code>.
+     *
+     * @param id
+     *         the ID of the job
+     * @param mode
+     *         the merge mode or <code>null</code>
+     * @param files
+     *         the paths of the input files
+     * @param output
+     *         the path of the output file or <code>null</code>
+     * @param options
+     *         further command line options mapped to their arguments
+     * @param args
+     *         further command line arguments
+     */
+    MergeJob(String id, String mode, List<String> files, String output, Map<String, String> options,
+             List<String> args) {
+        this.id = id;
+        this.mode = mode;
+        this.files = files;
+        this.output = output;
+        this.options = options;
+        this.args = args;
+    }
+
+    /**
+     * Returns the ID of this <code>MergeJob</code>.
+     *
+     * @return the ID or <code>null</code>
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of this <code>MergeJob</code>.
+     *
+     * @param id
+     *         the new ID
+     */
+    void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Sets the command line options that apply to this job unless it sets the same options itself.
+     *
+     * @param defaults
+     *         the (short) option names mapped to the command line arguments setting them
+     * @see CommandLineConfigSource#getOptionArgs(java.util.Collection)
+     */
+    void setDefaults(Map<String, List<String>> defaults) {
+        this.defaults = defaults;
+    }
+
+    /**
+     * Returns the command line arguments describing this <code>MergeJob</code>. The options are given as
+     * <code>-option [argument]</code> followed by the input files and the defaults for all options the job does not
+     * set itself. Options mapped to "false" are left out but still count as set, a job may therefore turn off an
+     * option that is on by default.
+     *
+     * @return the command line arguments
+     */
+    public String[] toArgs() {
+        List<String> result = new ArrayList<>();
+
+        if (args != null) {
+            result.addAll(args);
+        }
+
+        if (mode != null) {
+            Collections.addAll(result, "-" + CLI_MODE, mode);
+        }
+
+        if (output != null) {
+            Collections.addAll(result, "-" + CLI_OUTPUT, output);
+        }
+
+        if (options != null) {
+            options.forEach((option, value) -> {
+                String name = option.startsWith("-") ? option : "-" + option;
+
+                if (value == null || Boolean.TRUE.toString().equals(value)) {
+                    result.add(name);
+                } else if (!Boolean.FALSE.toString().equals(value)) {
+                    Collections.addAll(result, name, value);
+                }
+            });
+        }
+
+        if (files != null) {
+            result.addAll(files);
+        }
+
+        if (defaults != null) {
+            Set<String> set = setOptions(result);
+
+            defaults.forEach((option, optArgs) -> {
+                if (!set.contains(option)) {
+                    result.addAll(optArgs);
+                }
+            });
+        }
+
+        return result.toArray(new String[result.size()]);
+    }
+
+    /**
+     * Returns the (short) names of the options this <code>MergeJob</code> sets itself.
+     *
+     * @param jobArgs
+     *         the command line arguments of the job without the defaults
+     * @return the names of the options set by the job
+     */
+    private Set<String> setOptions(List<String> jobArgs) {
+        CommandLineConfigSource cmdLine;
+
+        try {
+            cmdLine = new CommandLineConfigSource(jobArgs.toArray(new String[jobArgs.size()]));
+        } catch (ParseException e) {
+            // the job fails parsing its arguments in any case, the defaults do not matter
+            return Collections.emptySet();
+        }
+
+        Set<String> set = new HashSet<>(cmdLine.getOptionArgs(Collections.emptySet()).keySet());
+
+        if (options != null) {
+
+            for (String option : options.keySet()) {
+                Option opt = cmdLine.getOptions().getOption(option);
+
+                if (opt != null) {
+                    set.add(opt.getOpt());
+                }
+            }
+        }
+
+        return set;
+    }
+
+    /**
+     * Performs the merge described by this <code>MergeJob</code>. Unlike {@link Main#run(String[])} nothing is
+     * written to the standard output, the merge result and statistics are returned in the
+     * <code>MergeJobResult</code> instead. The output file is written unless the job is pretending.
+     * Exceptions are caught and reported in the result. <code>Error</code>s like an <code>OutOfMemoryError</code>
+     * are not caught, they leave the JVM in an unknown state and end the process.
+     *
+     * @return the <code>MergeJobResult</code>
+     */
+    public MergeJobResult run() {
+        return run(context -> {});
+    }
+
+    /**
+     * Performs the merge described by this <code>MergeJob</code> as {@link #run()} does.
+     *
+     * @param setup
+     *         adjusts the <code>MergeContext</code> of the job after it was configured from the arguments, e.g. to
+     *         share resources between jobs
+     * @return the <code>MergeJobResult</code>
+     */
+    public MergeJobResult run(Consumer<MergeContext> setup) {
+        MergeJobResult result = new MergeJobResult(id);
+        long start = System.currentTimeMillis();
+
+        try {
+            JDimeConfig config = new JDimeConfig(toArgs());
+            MergeContext context = new MergeContext();
+
+            context.configureFrom(config);
+            setup.accept(context);
+
+            if (context.isInspect() || context.isCompare() || context.getDumpMode() != DumpMode.NONE) {
+                throw new AbortException("Only merges can be run as a job.");
+            }
+
+            Main.merge(context);
+
+            FileArtifact outFile = context.getOutputFile();
+
+            if (!context.isPretend()) {
+                outFile.writeContent();
+            }
+
+            if (outFile.isFile()) {
+                result.setContent(outFile.getContent());
+            }
+
+            if (!context.getDeletedPaths().isEmpty()) {
+                result.setDeleted(new ArrayList<>(context.getDeletedPaths()));
+            }
+
+            if (context.hasStatistics()) {
+                result.setConflicts(context.getStatistics().getConflictStatistics().getSum());
+                result.setStatistics(printStatistics(context));
+            }
+
+            result.setExitCode(Main.exitCode(context));
+        } catch (ParseException e) {
+            result.setError("Failed to parse the arguments: " + e.getMessage());
+            result.setExitCode(Main.EXIT_FAILURE);
+        } catch (AbortException e) {
+            result.setError(e.getMessage());
+            result.setExitCode(Main.EXIT_ABORTED);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, e, () -> "Could not write the merge result of job " + id);
+            result.setError("Could not write the merge result: " + e.getMessage());
+            result.setExitCode(Main.EXIT_FAILURE);
+        } catch (RuntimeException e) {
+            LOG.log(Level.SEVERE, e, () -> "Exception while running job " + id);
+            result.setError(e.toString());
+            result.setExitCode(Main.EXIT_FAILURE);
+        }
+
+        result.setRuntime(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * Returns the human readable representation of the statistics of the given <code>MergeContext</code>.
+     *
+     * @param context
+     *         the <code>MergeContext</code> containing the statistics
+     * @return the printed statistics
+     */
+    private static String printStatistics(MergeContext context) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (PrintStream ps = new PrintStream(bytes, false, StandardCharsets.UTF_8.name())) {
+            context.getStatistics().print(ps);
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return id != null ? id : String.join(" ", toArgs());
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.job;
+
+import java.util.List;
+
+/**
+ * The result of running a <code>MergeJob</code>. Fields that do not apply to the job (e.g. the content when
+ * directories were merged) are <code>null</code>.
+ */
+public class MergeJobResult {
+
+    /**
+     * The ID of the <code>MergeJob</code>.
+     */
+    private String id;
+
+    /**
+     * The exit code JDime would have exited with, see {@link de.fosd.jdime.Main#run(String[])}.
+     */
+    private int exitCode;
+
+    /**
+     * The content of the merged file.
+     */
+    private String content;
+
+    /**
+     * The paths deleted by a commit level merge.
+     */
+    private List<String> deleted;
+
+    /**
+     * The number of conflicts if statistics were collected.
+     */
+    private Long conflicts;
+
+    /**
+     * The human readable statistics if statistics were collected.
+     */
+    private String statistics;
+
+    /**
+     * The error message if the merge failed.
+     */
+    private String error;
+
+    /**
+     * The time the job took in milliseconds.
+     */
+    private long runtime;
+
+    /**
+     * Constructs a new <code>MergeJobResult</code> for the job with the given ID.
+     *
+     * @param id
+     *         the ID of the <code>MergeJob</code>
+     */
+    public MergeJobResult(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the ID of the <code>MergeJob</code>.
+     *
+     * @return the ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the exit code of the merge.
+     *
+     * @return the exit code
+     */
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Sets the exit code of the merge.
+     *
+     * @param exitCode
+     *         the new exit code
+     */
+    public void setExitCode(int exitCode) {
+        this.exitCode = exitCode;
+    }
+
+    /**
+     * Returns the content of the merged file.
+     *
+     * @return the content or <code>null</code>
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Sets the content of the merged file.
+     *
+     * @param content
+     *         the new content
+     */
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    /**
+     * Returns the paths deleted by a commit level merge.
+     *
+     * @return the deleted paths or <code>null</code> if no paths were deleted
+     */
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Sets the paths deleted by a commit level merge.
+     *
+     * @param deleted
+     *         the new deleted paths
+     */
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+
+    /**
+     * Returns the number of conflicts.
+     *
+     * @return the number of conflicts or <code>null</code> if no statistics were collected
+     */
+    public Long getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Sets the number of conflicts.
+     *
+     * @param conflicts
+     *         the new number of conflicts
+     */
+    public void setConflicts(Long conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Returns the human readable statistics.
+     *
+     * @return the statistics or <code>null</code> if no statistics were collected
+     */
+    public String getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Sets the human readable statistics.
+     *
+     * @param statistics
+     *         the new statistics
+     */
+    public void setStatistics(String statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the error message.
+     *
+     * @return the error message or <code>null</code> if the merge did not fail
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Sets the error message.
+     *
+     * @param error
+     *         the new error message
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Returns the time the job took in milliseconds.
+     *
+     * @return the runtime
+     */
+    public long getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Sets the time the job took in milliseconds.
+     *
+     * @param runtime
+     *         the new runtime
+     */
+    public void setRuntime(long runtime) {
+        this.runtime = runtime;
+    }
+}
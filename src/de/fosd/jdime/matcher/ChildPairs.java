@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.matcher;
+
+import java.lang.reflect.Array;
+import java.util.stream.IntStream;
+
+import de.fosd.jdime.artifact.Artifact;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.matcher.cost_model.CMMode;
+import de.fosd.jdime.matcher.matching.Matchings;
+
+/**
+ * Matches all pairs of children of two <code>Artifact</code>s. The concrete matchers use this to fill the matrix of
+ * child matchings they base their own result on. If {@link MergeContext#isParallelMatching()} is set and the number
+ * of child pairs reaches {@link MergeContext#getParallelMatchingThreshold()}, the pairs are matched in parallel using
+ * the common <code>ForkJoinPool</code>. Every pair is stored at its own position in the matrix, the result is
+ * therefore the same as the one of the sequential run.
+ */
+public final class ChildPairs {
+
+    /**
+     * Utility class.
+     */
+    private ChildPairs() {}
+
+    /**
+     * Returns the matrix of the <code>Matchings</code> between the children of <code>left</code> and
+     * <code>right</code>. The entry <code>[i][j]</code> contains the <code>Matchings</code> <code>matcher</code>
+     * produced for the i-th child of <code>left</code> and the j-th child of <code>right</code>.
+     *
+     * @param matcher
+     *         the <code>MatcherInterface</code> to use for matching the child pairs
+     * @param context
+     *         the <code>MergeContext</code> of the merge operation
+     * @param left
+     *         the left <code>Artifact</code>
+     * @param right
+     *         the right <code>Artifact</code>
+     * @param <T>
+     *         the type of the <code>Artifact</code>s
+     * @return the matrix of child <code>Matchings</code>
+     */
+    public static <T extends Artifact<T>> Matchings<T>[][] match(MatcherInterface<T> matcher, MergeContext context,
+                                                                 T left, T right) {
+        int m = left.getNumChildren();
+        int n = right.getNumChildren();
+
+        @SuppressWarnings("unchecked")
+        Matchings<T>[][] matchings = (Matchings<T>[][]) Array.newInstance(Matchings.class, m, n);
+
+        if (isParallel(context, m, n)) {
+            IntStream.range(0, m * n).parallel().forEach(k -> {
+                int i = k / n;
+                int j = k % n;
+
+                matchings[i][j] = matcher.match(context, left.getChild(i), right.getChild(j));
+            });
+        } else {
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < n; j++) {
+                    matchings[i][j] = matcher.match(context, left.getChild(i), right.getChild(j));
+                }
+            }
+        }
+
+        return matchings;
+    }
+
+    /**
+     * Returns whether the <code>m * n</code> child pairs are to be matched in parallel. This is never the case in
+     * the {@link CMMode#INTEGRATED} mode as the <code>CostModelMatcher</code> is not thread safe.
+     *
+     * @param context
+     *         the <code>MergeContext</code> of the merge operation
+     * @param m
+     *         the number of left children
+     * @param n
+     *         the number of right children
+     * @return true iff the child pairs are to be matched in parallel
+     */
+    private static boolean isParallel(MergeContext context, int m, int n) {
+        return context.isParallelMatching() && context.getCMMatcherMode() != CMMode.INTEGRATED
+                && (long) m * n >= context.getParallelMatchingThreshold();
+    }
+}
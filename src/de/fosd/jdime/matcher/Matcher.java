@@ -33,6 +33,7 @@
 import de.fosd.jdime.artifact.Artifact;
 import de.fosd.jdime.config.merge.MergeContext;
 import de.fosd.jdime.config.merge.Revision;
+import de.fosd.jdime.execption.AbortException;
 import de.fosd.jdime.matcher.cost_model.CMMode;
 import de.fosd.jdime.matcher.cost_model.CostModelMatcher;
 import de.fosd.jdime.matcher.matching.Color;
@@ -146,6 +147,17 @@ public Matcher(Matcher<T> oldMatcher, T leftRoot, T rightRoot) {
         }
     }
 
+    /**
+     * Creates the caches for the trees this {@link Matcher} was constructed for unless they exist already.
+     * {@link Matcher Matchers} constructed from this one afterwards share them. This allows
+     * {@link #match(MergeContext)} to run concurrently for different pairs of the same trees while still reusing
+     * the cached data as the sequential diffs do.
+     */
+    public void createCaches() {
+        leftCache = caches.computeIfAbsent(leftRoot, i -> new MatcherCache<>());
+        rightCache = caches.computeIfAbsent(rightRoot, i -> new MatcherCache<>());
+    }
+
     /**
      * Removes all cached data concerning the given tree.
      *
@@ -167,19 +179,34 @@ public void removeCache(T root) {
      * @return <code>Matchings</code> of the two nodes
      */
     public Matchings<T> match(MergeContext context, Color color) {
+        Matchings<T> matchings = match(context);
+        store(context, matchings, color);
+
+        return matchings;
+    }
+
+    /**
+     * Calculates the matchings between the trees this {@link Matcher} was constructed for without storing them in
+     * the matched {@link Artifact artifacts}. {@link Matcher Matchers} for different pairs of trees may run this
+     * method concurrently. The result is to be passed to {@link #store(MergeContext, Matchings, Color)} afterwards.
+     *
+     * @param context
+     *         the {@link MergeContext} containing the configuration values to be used for matching
+     * @return <code>Matchings</code> of the two nodes
+     */
+    public Matchings<T> match(MergeContext context) {
         Matchings<T> matchings;
 
         if (context.getCMMatcherMode() == CMMode.REPLACEMENT) {
             matchings = cmMatcher.match(context, leftRoot, rightRoot);
         } else {
-            leftCache = caches.computeIfAbsent(leftRoot, i -> new MatcherCache<>());
-            rightCache = caches.computeIfAbsent(rightRoot, i -> new MatcherCache<>());
-            idSubtreeMatcher.matchTrees(leftRoot, rightRoot);
+            createCaches();
+            idSubtreeMatcher.matchTrees(leftRoot, rightRoot, context.isUseFastTreeHash());
 
             matchings = match(context, leftRoot, rightRoot);
 
             if (context.getCMMatcherMode() == CMMode.POST_PROCESSOR && matchings.get(leftRoot, rightRoot).map(m -> !m.hasFullyMatched()).orElse(true)) {
-                matchings = cmMatcher.match(context, leftRoot, rightRoot, matchings);
+                matchings = cmMatcher.postProcess(context, leftRoot, rightRoot, matchings);
             }
         }
 
@@ -191,6 +218,21 @@ public Matchings<T> match(MergeContext context, Color color) {
             })
         );
 
+        return matchings;
+    }
+
+    /**
+     * Stores the given <code>Matchings</code> calculated by {@link #match(MergeContext)} in the matched
+     * {@link Artifact artifacts}.
+     *
+     * @param context
+     *         the {@link MergeContext} containing the configuration values to be used for matching
+     * @param matchings
+     *         the <code>Matchings</code> to store
+     * @param color
+     *         color of the matching (for debug output only)
+     */
+    public void store(MergeContext context, Matchings<T> matchings, Color color) {
         storeMatchings(context, matchings, color);
 
         if (LOG.isLoggable(Level.FINEST)) {
@@ -204,8 +246,6 @@ public Matchings<T> match(MergeContext context, Color color) {
             LOG.fine(String.format("%s.dumpTree():%n%s", leftRoot.getRevision(), leftRoot.dump(DumpMode.PLAINTEXT_TREE)));
             LOG.fine(String.format("%s.dumpTree():%n%s", rightRoot.getRevision(), rightRoot.dump(DumpMode.PLAINTEXT_TREE)));
         }
-
-        return matchings;
     }
 
     /**
@@ -213,6 +253,10 @@ public Matchings<T> match(MergeContext context, Color color) {
      */
     private Matchings<T> match(MergeContext context, T left, T right) {
 
+        if (Thread.interrupted()) {
+            throw new AbortException("Interrupted while matching " + left.getId() + " and " + right.getId() + ".");
+        }
+
         if (left.isConflict()) {
             Matchings<T> m = Matchings.of(left, right, 0);
             m.get(left, right).get().setAlgorithm(ID);
@@ -23,14 +23,16 @@
  */
 package de.fosd.jdime.matcher;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import de.fosd.jdime.artifact.Artifact;
 
 /**
- * Caches various properties of {@link Artifact} trees used by the {@link Matcher}.
+ * Caches various properties of {@link Artifact} trees used by the {@link Matcher}. The cache may be used concurrently
+ * by the threads matching child pairs in parallel.
  *
  * @param <T>
  *         the type of the <code>Artifact</code>s
@@ -45,9 +47,33 @@
      * Constructs a new empty {@link MatcherCache}.
      */
     MatcherCache() {
-        this.orderedChildren = new HashMap<>();
-        this.uniquelyLabeledChildren = new HashMap<>();
-        this.fullyOrdered = new HashMap<>();
+        this.orderedChildren = new ConcurrentHashMap<>();
+        this.uniquelyLabeledChildren = new ConcurrentHashMap<>();
+        this.fullyOrdered = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the value cached for {@code artifact} in {@code cache} or computes and caches it. As {@link #fullyOrdered}
+     * is computed recursively, {@link Map#computeIfAbsent(Object, java.util.function.Function)} must not be used.
+     * Concurrent callers may compute the same value more than once.
+     *
+     * @param cache
+     *         the cache to use
+     * @param artifact
+     *         the {@link Artifact} whose property is to be returned
+     * @param property
+     *         the function computing the property
+     * @return the value of the property
+     */
+    private boolean cached(Map<Artifact<T>, Boolean> cache, T artifact, Predicate<T> property) {
+        Boolean value = cache.get(artifact);
+
+        if (value == null) {
+            value = property.test(artifact);
+            cache.put(artifact, value);
+        }
+
+        return value;
     }
 
     /**
@@ -59,7 +85,7 @@
      * @see Artifact#getUniqueLabel()
      */
     boolean uniquelyLabeledChildren(T artifact) {
-        return uniquelyLabeledChildren.computeIfAbsent(artifact, a ->
+        return cached(uniquelyLabeledChildren, artifact, a ->
                 a.getChildren().stream().map(T::getUniqueLabel).allMatch(Optional::isPresent));
     }
 
@@ -72,7 +98,7 @@ boolean uniquelyLabeledChildren(T artifact) {
      * @see Artifact#isOrdered()
      */
     boolean orderedChildren(T artifact) {
-        return orderedChildren.computeIfAbsent(artifact, a ->
+        return cached(orderedChildren, artifact, a ->
                 a.getChildren().stream().anyMatch(T::isOrdered));
     }
 
@@ -85,7 +111,7 @@ boolean orderedChildren(T artifact) {
      * @see Artifact#isOrdered()
      */
     boolean fullyOrdered(T artifact) {
-        return fullyOrdered.computeIfAbsent(artifact, a ->
+        return cached(fullyOrdered, artifact, a ->
                 a.isOrdered() && a.getChildren().stream().allMatch(this::fullyOrdered));
     }
 }
@@ -25,8 +25,11 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -47,6 +50,18 @@
     T left;
     T right;
 
+    /**
+     * The depth-first orders of the left and right tree. They are shared with the <code>CMMatchings</code> of the
+     * same trees created from this one so that every tree is traversed only once per pair of trees.
+     */
+    private final transient TreeOrders<T> orders;
+
+    /**
+     * The index of the artifacts to the <code>CMMatching</code>s containing them. <code>null</code> if it has not
+     * been built yet or was invalidated by {@link #set(int, CMMatching)}.
+     */
+    private transient volatile Index index;
+
     /**
      * See {@link super#ArrayList(int)}.
      *
@@ -59,6 +74,7 @@ public CMMatchings(int initialCapacity, T left, T right) {
         super(initialCapacity);
         this.left = left;
         this.right = right;
+        this.orders = new TreeOrders<>(left, right);
     }
 
     /**
@@ -72,10 +88,12 @@ public CMMatchings(int initialCapacity, T left, T right) {
     public CMMatchings(T left, T right) {
         this.left = left;
         this.right = right;
+        this.orders = new TreeOrders<>(left, right);
     }
 
     /**
-     * See {@link super#ArrayList(Collection)}.
+     * See {@link super#ArrayList(Collection)}. If <code>c</code> is a <code>CMMatchings</code> of the same trees,
+     * their depth-first orders are shared.
      *
      * @param left
      *         the left root
@@ -86,6 +104,28 @@ public CMMatchings(Collection<? extends CMMatching<T>> c, T left, T right) {
         super(c);
         this.left = left;
         this.right = right;
+
+        if (c instanceof CMMatchings && ((CMMatchings<?>) c).left == left && ((CMMatchings<?>) c).right == right) {
+            @SuppressWarnings("unchecked")
+            CMMatchings<T> other = (CMMatchings<T>) c;
+            this.orders = other.orders;
+        } else {
+            this.orders = new TreeOrders<>(left, right);
+        }
+    }
+
+    /**
+     * See {@link super#ArrayList(Collection)}. The new <code>CMMatchings</code> matches the same trees as
+     * <code>trees</code> and shares their depth-first orders.
+     *
+     * @param trees
+     *         the <code>CMMatchings</code> whose trees are to be matched
+     */
+    public CMMatchings(Collection<? extends CMMatching<T>> c, CMMatchings<T> trees) {
+        super(c);
+        this.left = trees.left;
+        this.right = trees.right;
+        this.orders = trees.orders;
     }
 
     /**
@@ -130,4 +170,398 @@ Map<T, T> asMap() {
             map.put(matching.n, matching.m);
         }, HashMap::putAll);
     }
+
+    /**
+     * Returns the first <code>CMMatching</code> in this list containing the given <code>artifact</code>.
+     *
+     * @param artifact
+     *         the artifact to search for
+     * @return the <code>CMMatching</code> containing <code>artifact</code> or <code>null</code> if there is none
+     */
+    CMMatching<T> matching(T artifact) {
+        List<CMMatching<T>> containing = containing(artifact);
+        return containing.isEmpty() ? null : containing.get(0);
+    }
+
+    /**
+     * Returns the <code>CMMatching</code>s in this list containing the given <code>artifact</code> in the order they
+     * occur in this list. The returned list must not be modified.
+     *
+     * @param artifact
+     *         the artifact to search for
+     * @return the <code>CMMatching</code>s containing <code>artifact</code>
+     */
+    List<CMMatching<T>> containing(T artifact) {
+        Index index = index();
+        List<CMMatching<T>> containing = index.leftIndex.containing(artifact);
+
+        if (containing == null) {
+            containing = index.rightIndex.containing(artifact);
+        }
+
+        return containing != null ? containing : Collections.emptyList();
+    }
+
+    /**
+     * Returns the number of artifacts in the left and right tree. This is the range of {@link #position(Artifact)}.
+     *
+     * @return the number of positions
+     */
+    int positions() {
+        Index index = index();
+        return index.leftIndex.size() + index.rightIndex.size();
+    }
+
+    /**
+     * Returns the position of the given <code>artifact</code>. The artifacts of the left tree are at the positions
+     * [0, n) in depth-first order, those of the right tree follow them.
+     *
+     * @param artifact
+     *         the artifact to return the position for
+     * @return the position or -1 if <code>artifact</code> is not part of the left or right tree
+     */
+    int position(T artifact) {
+        Index index = index();
+        int position = index.leftIndex.position(artifact);
+
+        if (position == -1) {
+            position = index.rightIndex.position(artifact);
+
+            if (position != -1) {
+                position += index.leftIndex.size();
+            }
+        }
+
+        return position;
+    }
+
+    /**
+     * Returns the current <code>Index</code> of this list, building it if the list was modified since the last one
+     * was built.
+     *
+     * @return the <code>Index</code>
+     */
+    private Index index() {
+        Index current = index;
+
+        if (current == null || current.modCount != modCount) {
+
+            synchronized (this) {
+                current = index;
+
+                if (current == null || current.modCount != modCount) {
+                    current = new Index();
+                    index = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    @Override
+    public synchronized CMMatching<T> set(int index, CMMatching<T> element) {
+        CMMatching<T> old = super.set(index, element);
+        Index current = this.index;
+
+        // ArrayList#set does not count as a structural modification, the index is updated or dropped instead
+        if (current != null && current.modCount == modCount && old.m == element.m && old.n == element.n) {
+            current.replace(old, element);
+        } else {
+            this.index = null;
+        }
+
+        return old;
+    }
+
+    /**
+     * Indexes the <code>CMMatching</code>s of this list by the artifacts of the left and right tree they contain.
+     * The <code>Index</code> is valid as long as the <code>modCount</code> of the list does not change.
+     */
+    private final class Index {
+
+        private final int modCount;
+        private final TreeIndex leftIndex;
+        private final TreeIndex rightIndex;
+
+        /**
+         * Constructs a new <code>Index</code> of the current contents of the list.
+         */
+        Index() {
+            this.modCount = CMMatchings.this.modCount;
+            this.leftIndex = new TreeIndex(orders.left());
+            this.rightIndex = new TreeIndex(orders.right());
+
+            for (CMMatching<T> matching : CMMatchings.this) {
+
+                if (matching.m != null) {
+                    leftIndex.add(matching.m, matching);
+                }
+
+                if (matching.n != null) {
+                    rightIndex.add(matching.n, matching);
+                }
+            }
+        }
+
+        /**
+         * Replaces <code>old</code> by <code>matching</code> which contains the same artifacts.
+         *
+         * @param old
+         *         the <code>CMMatching</code> to replace
+         * @param matching
+         *         the replacement
+         */
+        void replace(CMMatching<T> old, CMMatching<T> matching) {
+
+            if (matching.m != null) {
+                leftIndex.replace(matching.m, old, matching);
+            }
+
+            if (matching.n != null) {
+                rightIndex.replace(matching.n, old, matching);
+            }
+        }
+    }
+
+    /**
+     * The depth-first orders of the left and right tree of a <code>CMMatchings</code>. They are computed on first
+     * use.
+     *
+     * @param <T>
+     *         the type of the <code>Artifact</code>s
+     */
+    private static final class TreeOrders<T extends Artifact<T>> {
+
+        private final T left;
+        private final T right;
+
+        private TreeOrder<T> leftOrder;
+        private TreeOrder<T> rightOrder;
+
+        /**
+         * Constructs new <code>TreeOrders</code> for the trees rooted in <code>left</code> and <code>right</code>.
+         *
+         * @param left
+         *         the left root
+         * @param right
+         *         the right root
+         */
+        TreeOrders(T left, T right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Returns the depth-first order of the left tree.
+         *
+         * @return the order of the left tree
+         */
+        synchronized TreeOrder<T> left() {
+
+            if (leftOrder == null) {
+                leftOrder = new TreeOrder<>(left);
+            }
+
+            return leftOrder;
+        }
+
+        /**
+         * Returns the depth-first order of the right tree.
+         *
+         * @return the order of the right tree
+         */
+        synchronized TreeOrder<T> right() {
+
+            if (rightOrder == null) {
+                rightOrder = new TreeOrder<>(right);
+            }
+
+            return rightOrder;
+        }
+    }
+
+    /**
+     * The positions of the artifacts of one tree in its depth-first order. If the tree is numbered in depth-first
+     * order (see {@link Artifact#renumber()}) the position is the number of the artifact relative to that of the
+     * root. Otherwise the positions are looked up in a map.
+     *
+     * @param <T>
+     *         the type of the <code>Artifact</code>s
+     */
+    private static final class TreeOrder<T extends Artifact<T>> {
+
+        private final List<T> nodes;
+        private final int rootNumber;
+        private final Map<T, Integer> positions;
+
+        /**
+         * Constructs the <code>TreeOrder</code> of the tree rooted in <code>root</code>.
+         *
+         * @param root
+         *         the root of the tree
+         */
+        TreeOrder(T root) {
+            this.nodes = Artifacts.dfs(root);
+            this.rootNumber = root.getNumber();
+
+            boolean numbered = true;
+
+            for (int i = 0; numbered && i < nodes.size(); i++) {
+                numbered = nodes.get(i).getNumber() == rootNumber + i;
+            }
+
+            if (numbered) {
+                this.positions = null;
+            } else {
+                this.positions = new IdentityHashMap<>(nodes.size());
+
+                for (int i = 0; i < nodes.size(); i++) {
+                    positions.put(nodes.get(i), i);
+                }
+            }
+        }
+
+        /**
+         * Returns the number of artifacts in the tree.
+         *
+         * @return the size of the tree
+         */
+        int size() {
+            return nodes.size();
+        }
+
+        /**
+         * Returns the position of <code>artifact</code> in the depth-first order of the tree.
+         *
+         * @param artifact
+         *         the artifact to return the position for
+         * @return the position or -1 if <code>artifact</code> is not part of the tree
+         */
+        int position(T artifact) {
+            int position;
+
+            if (positions == null) {
+                position = artifact.getNumber() - rootNumber;
+            } else {
+                position = positions.getOrDefault(artifact, -1);
+            }
+
+            if (position < 0 || position >= nodes.size() || nodes.get(position) != artifact) {
+                return -1;
+            }
+
+            return position;
+        }
+    }
+
+    /**
+     * Indexes <code>CMMatching</code>s by the artifacts of one tree using their positions in its
+     * <code>TreeOrder</code>.
+     */
+    private final class TreeIndex {
+
+        private final TreeOrder<T> order;
+        private final List<CMMatching<T>>[] containing;
+
+        /**
+         * Constructs a new empty <code>TreeIndex</code> for the tree with the given <code>order</code>.
+         *
+         * @param order
+         *         the depth-first order of the tree
+         */
+        @SuppressWarnings("unchecked")
+        TreeIndex(TreeOrder<T> order) {
+            this.order = order;
+            this.containing = (List<CMMatching<T>>[]) new List<?>[order.size()];
+        }
+
+        /**
+         * Returns the number of artifacts in the tree.
+         *
+         * @return the size of the tree
+         */
+        private int size() {
+            return order.size();
+        }
+
+        /**
+         * Returns the position of <code>artifact</code> in the depth-first order of the tree.
+         *
+         * @param artifact
+         *         the artifact to return the position for
+         * @return the position or -1 if <code>artifact</code> is not part of the tree
+         */
+        private int position(T artifact) {
+            return order.position(artifact);
+        }
+
+        /**
+         * Adds <code>matching</code> to the <code>CMMatching</code>s containing <code>artifact</code>.
+         *
+         * @param artifact
+         *         the artifact contained in <code>matching</code>
+         * @param matching
+         *         the <code>CMMatching</code> to add
+         */
+        private void add(T artifact, CMMatching<T> matching) {
+            int position = position(artifact);
+
+            if (position == -1) {
+                return;
+            }
+
+            if (containing[position] == null) {
+                containing[position] = new ArrayList<>(1);
+            }
+
+            containing[position].add(matching);
+        }
+
+        /**
+         * Replaces <code>old</code> by <code>matching</code> in the <code>CMMatching</code>s containing
+         * <code>artifact</code>.
+         *
+         * @param artifact
+         *         the artifact contained in both <code>CMMatching</code>s
+         * @param old
+         *         the <code>CMMatching</code> to replace
+         * @param matching
+         *         the replacement
+         */
+        private void replace(T artifact, CMMatching<T> old, CMMatching<T> matching) {
+            int position = position(artifact);
+
+            if (position == -1 || containing[position] == null) {
+                return;
+            }
+
+            List<CMMatching<T>> list = containing[position];
+
+            for (int i = 0; i < list.size(); i++) {
+
+                if (list.get(i) == old) {
+                    list.set(i, matching);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Returns the <code>CMMatching</code>s containing <code>artifact</code>.
+         *
+         * @param artifact
+         *         the artifact to search for
+         * @return the <code>CMMatching</code>s or <code>null</code> if <code>artifact</code> is not part of the tree
+         */
+        private List<CMMatching<T>> containing(T artifact) {
+            int position = position(artifact);
+
+            if (position == -1) {
+                return null;
+            }
+
+            return containing[position] != null ? containing[position] : Collections.emptyList();
+        }
+    }
 }
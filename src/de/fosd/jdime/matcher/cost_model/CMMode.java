@@ -27,6 +27,7 @@
 import de.fosd.jdime.config.merge.MergeContext;
 import de.fosd.jdime.matcher.Matcher;
 import de.fosd.jdime.matcher.matching.Color;
+import de.fosd.jdime.matcher.matching.Matchings;
 
 /**
  * The possible modes determining how the <code>CostModelMatcher</code> is used in the matching process.
@@ -46,6 +47,13 @@ public enum CMMode {
     /**
      * After the matchings were calculated in {@link Matcher#match(MergeContext, Color)} they are
      * fixed and a matching between the unmatched artifacts is calculated using the <code>CostModelMatcher</code>.
+     * Unlike a cost model run on the whole trees, {@link CostModelMatcher#postProcess(MergeContext, Artifact, Artifact,
+     * Matchings)} matches only the smallest pairs of matched subtrees that contain all artifacts that are not fully
+     * matched (e.g. two partially matched methods), each of them on its own. An unmatched artifact can therefore only
+     * be matched with one of the same subtree pair, a statement moved between two partially matched methods remains
+     * unmatched. Existing matchings between different subtree pairs are retained. Two differing artifacts whose
+     * parents are matched with each other are only matched if both of them are leaves, since the merge requires
+     * inner artifacts matched in this way to match.
      */
     POST_PROCESSOR,
 
@@ -24,6 +24,7 @@
 package de.fosd.jdime.matcher.cost_model;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -116,37 +117,32 @@
     ConcurrentMap<T, List<T>> siblingCache;
     ConcurrentMap<T, List<T>> otherSiblingsCache;
 
-    /*
-     * Caches valid during one run of the CostModelMatcher#cost(CMMatchings, CMParameters) function.
-     */
-
     /**
-     * Caches the <code>CMMatching</code>s containing an artifact.
-     */
-    ConcurrentMap<T, CMMatching<T>> exactContainsCache;
-
-    /*
-     * Caches valid during one run of the CostModelMatcher#boundCost(CMMatchings, CMParameters) function.
-     */
-
-    /**
-     * Caches lists of <code>CMMatching</code>s containing an artifact.
+     * Constructs a new <code>CMParameters</code> configured from the given <code>MergeContext</code>.
+     *
+     * @param context
+     *         the <code>MergeContext</code> to use
      */
-    ConcurrentMap<T, List<CMMatching<T>>> boundContainsCache;
+    public CMParameters(MergeContext context) {
+        this(context, context.getSeed());
+    }
 
     /**
-     * Constructs a new <code>CMParameters</code> configured from the given <code>MergeContext</code>.
+     * Constructs a new <code>CMParameters</code> configured from the given <code>MergeContext</code> whose PRNG is
+     * seeded with <code>seed</code> instead of the seed of the <code>context</code>.
      *
      * @param context
      *         the <code>MergeContext</code> to use
+     * @param seed
+     *         the seed for the PRNG, if empty a random seed will be used
      */
-    public CMParameters(MergeContext context) {
+    public CMParameters(MergeContext context, Optional<Long> seed) {
         setNoMatchWeight(context.getWn());
         setRenamingWeight(context.getWr());
         setAncestryViolationWeight(context.getWa());
         setSiblingGroupBreakupWeight(context.getWs());
         setOrderingWeight(context.getWo());
-        rng = new RandomAdaptor(context.getSeed().map(Well19937c::new).orElse(new Well19937c()));
+        rng = new RandomAdaptor(seed.map(Well19937c::new).orElse(new Well19937c()));
         assignDist = new PascalDistribution(rng, 1, context.getpAssign());
         setPAssign(context.getpAssign());
         setFixLower(context.getFixLower());
@@ -157,8 +153,6 @@ public CMParameters(MergeContext context) {
         lcaCache = new ConcurrentHashMap<>();
         siblingCache = new ConcurrentHashMap<>();
         otherSiblingsCache = new ConcurrentHashMap<>();
-        exactContainsCache = new ConcurrentHashMap<>();
-        boundContainsCache = new ConcurrentHashMap<>();
     }
 
     /**
@@ -344,18 +338,4 @@ public void setParallel(boolean parallel) {
     public void setFixRandomPercentage(boolean fixRandomPercentage) {
         this.fixRandomPercentage = fixRandomPercentage;
     }
-
-    /**
-     * Clears the caches that are only valid for one exact cost calculation.
-     */
-    public void clearExactCaches() {
-        exactContainsCache.clear();
-    }
-
-    /**
-     * Clears the caches that are only valid for one bounded cost calculation.
-     */
-    public void clearBoundCaches() {
-        boundContainsCache.clear();
-    }
 }
@@ -26,6 +26,7 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -33,7 +34,10 @@
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -49,6 +53,7 @@
 import de.fosd.jdime.matcher.MatcherInterface;
 import de.fosd.jdime.matcher.matching.Matching;
 import de.fosd.jdime.matcher.matching.Matchings;
+import de.fosd.jdime.stats.MatcherStatistics;
 import de.fosd.jdime.util.Tuple;
 import org.apache.commons.math3.random.RandomGenerator;
 
@@ -95,7 +100,7 @@
     }
 
     /**
-     * The return type of {@link #objective(CMMatchings, CMParameters)} containing the value of the objective
+     * The return type of {@link #objective(CMMatchings, CMMatchings, CMParameters)} containing the value of the objective
      * function and the exact cost of the newly proposed set of <code>CMMatching</code>s.
      */
     private final class ObjectiveValue {
@@ -110,7 +115,7 @@ public ObjectiveValue(double objValue, float matchingsCost) {
     }
 
     /**
-     * The return type of {@link #acceptanceProb(double, CMMatchings, CMParameters)} containing the probability
+     * The return type of {@link #acceptanceProb(double, CMMatchings, CMMatchings, CMParameters)} containing the probability
      * of the newly proposed set of <code>CMMatching</code>s being accepted for the next iteration and the
      * <code>ObjectiveValue</code> for the proposed matchings.
      */
@@ -125,6 +130,47 @@ public AcceptanceProbability(double acceptanceProbability, ObjectiveValue mHatOb
         }
     }
 
+    /**
+     * The reasons for an annealing chain to stop.
+     */
+    private enum Stop {
+
+        /**
+         * The iteration budget was used up.
+         */
+        ITERATIONS,
+
+        /**
+         * The lowest cost did not improve for {@link MergeContext#getCmPatience()} iterations.
+         */
+        CONVERGED,
+
+        /**
+         * The time limit ({@link MergeContext#getCmTimeLimit()}) was reached.
+         */
+        DEADLINE
+    }
+
+    /**
+     * The return type of {@link #anneal(MergeContext, CMMatchings, CMParameters, int, long)} containing the
+     * matchings with the lowest cost found by one annealing chain, their cost, the number of iterations the chain
+     * ran and the reason it stopped.
+     */
+    private final class ChainResult {
+
+        public final CMMatchings<T> lowest;
+        public final float lowestCost;
+        public final int iterations;
+        public final Stop stop;
+
+        public ChainResult(CMMatchings<T> lowest, float lowestCost, int iterations, Stop stop) {
+            this.lowest = lowest;
+            this.lowestCost = lowestCost;
+            this.iterations = iterations;
+            this.stop = stop;
+        }
+    }
+
     /**
      * Returns the exact cost of the given set of <code>matchings</code>.
      *
@@ -179,7 +225,7 @@ public float cost(MergeContext context, Matchings<T> matchings, T left, T right)
      *          the <code>CMParameters</code> to use
      * @return the cost based on the weight functions in <code>parameters</code>
      */
-    private float cost(CMMatchings<T> matchings, CMParameters<T> parameters) {
+    float cost(CMMatchings<T> matchings, CMParameters<T> parameters) {
 
         if (!matchings.sane()) {
             throw new IllegalArgumentException("The given list of matchings has an invalid format. A list of " +
@@ -201,11 +247,136 @@ private float cost(CMMatchings<T> matchings, CMParameters<T> parameters) {
         double sumCost = matchings.stream().mapToDouble(CMMatching::getExactCost).sum();
         sumCost *= (1.0f / (matchings.left.getTreeSize() + matchings.right.getTreeSize()));
 
-        parameters.clearExactCaches();
+        return (float) sumCost;
+    }
+
+    /**
+     * Returns the exact cost of the given <code>matchings</code> reusing the exact costs computed for the
+     * <code>previous</code> matchings where possible. The cost of a <code>CMMatching</code> depends only on the
+     * artifacts it matches and the images of their children and siblings. It is therefore only recomputed if it does
+     * not occur in <code>previous</code> or if the image of one of those artifacts differs between
+     * <code>previous</code> and <code>matchings</code>. <code>CMMatching</code>s shared with <code>previous</code> are
+     * replaced by copies before their cost is recomputed so that the exact costs of <code>previous</code> remain
+     * valid. Unlike {@link #cost(CMMatchings, CMParameters)} this method is called for every proposal, the format of
+     * <code>matchings</code> is therefore only checked if assertions are enabled.
+     *
+     * @param matchings
+     *         the <code>CMMatchings</code>s to evaluate
+     * @param previous
+     *         the <code>CMMatchings</code> whose exact costs were computed last
+     * @param parameters
+     *          the <code>CMParameters</code> to use
+     * @return the cost based on the weight functions in <code>parameters</code>
+     * @see #cost(CMMatchings, CMParameters)
+     */
+    float cost(CMMatchings<T> matchings, CMMatchings<T> previous, CMParameters<T> parameters) {
+        assert matchings.sane() : "The given list of matchings has an invalid format.";
+
+        if (matchings.isEmpty()) {
+            return 0;
+        }
+
+        boolean[] touched = new boolean[matchings.positions()];
+
+        for (CMMatching<T> matching : matchings) {
+            touch(matching.m, matching, previous, touched, matchings, parameters);
+            touch(matching.n, matching, previous, touched, matchings, parameters);
+        }
+
+        List<CMMatching<T>> toCompute = new ArrayList<>();
+        double sumCost = 0;
+
+        for (ListIterator<CMMatching<T>> it = matchings.listIterator(); it.hasNext(); ) {
+            CMMatching<T> matching = it.next();
+            CMMatching<T> old = previous.matching(matching.m != null ? matching.m : matching.n);
+
+            if (matching.equals(old) && !touched(matching.m, touched, matchings)
+                                     && !touched(matching.n, touched, matchings)) {
+
+                if (matching != old) {
+                    matching.setExactCost(old.getExactCost());
+                }
+
+                sumCost += matching.getExactCost();
+            } else {
+
+                if (matching == old) {
+                    matching = new CMMatching<>(matching.m, matching.n);
+                    it.set(matching);
+                }
+
+                toCompute.add(matching);
+            }
+        }
+
+        LOG.finest(() -> "Recomputing the cost of " + toCompute.size() + " of " + matchings.size() + " matchings.");
+
+        if (parameters.parallel) {
+            toCompute.parallelStream().forEach(m -> cost(m, matchings, parameters));
+        } else {
+            toCompute.forEach(m -> cost(m, matchings, parameters));
+        }
+
+        for (CMMatching<T> matching : toCompute) {
+            sumCost += matching.getExactCost();
+        }
+
+        sumCost *= (1.0f / (matchings.left.getTreeSize() + matchings.right.getTreeSize()));
 
         return (float) sumCost;
     }
 
+    /**
+     * Marks the artifacts whose exact cost depends on the image of <code>artifact</code> in <code>touched</code> if
+     * its image in <code>matching</code> differs from the one in the previous matchings. These are the parent and
+     * the siblings (including <code>artifact</code> itself) of <code>artifact</code>.
+     *
+     * @param artifact
+     *         the artifact to check, may be <code>null</code>
+     * @param matching
+     *         the <code>CMMatching</code> containing <code>artifact</code>
+     * @param previous
+     *         the <code>CMMatchings</code> whose exact costs were computed last
+     * @param touched
+     *         whether the <code>CMMatching</code> of the artifact at a position (see
+     *         {@link CMMatchings#position(Artifact)}) must be re-evaluated
+     * @param matchings
+     *         the current <code>CMMatchings</code>
+     * @param parameters
+     *         the <code>CMParameters</code> to use
+     */
+    private void touch(T artifact, CMMatching<T> matching, CMMatchings<T> previous, boolean[] touched,
+                       CMMatchings<T> matchings, CMParameters<T> parameters) {
+
+        if (artifact == null || matching.equals(previous.matching(artifact))) {
+            return;
+        }
+
+        if (artifact != matchings.left && artifact != matchings.right) {
+            touched[matchings.position(artifact.getParent())] = true;
+        }
+
+        for (T sibling : siblings(artifact, matchings, parameters)) {
+            touched[matchings.position(sibling)] = true;
+        }
+    }
+
+    /**
+     * Returns whether the given <code>artifact</code> was marked by
+     * {@link #touch(Artifact, CMMatching, CMMatchings, boolean[], CMMatchings, CMParameters)}.
+     *
+     * @param artifact
+     *         the artifact to check, may be <code>null</code>
+     * @param touched
+     *         the marks
+     * @param matchings
+     *         the current <code>CMMatchings</code>
+     * @return whether the <code>CMMatching</code> of <code>artifact</code> must be re-evaluated
+     */
+    private boolean touched(T artifact, boolean[] touched, CMMatchings<T> matchings) {
+        return artifact != null && touched[matchings.position(artifact)];
+    }
+
     /**
      * Sets the exact cost ({@link CMMatching#setExactCost(float)}) of the given <code>matching</code> based on
      * the given set of <code>matchings</code>.
@@ -287,7 +458,7 @@ private int numAncestryViolatingChildren(T m, T n, CMMatchings<T> matchings, CMP
 
         Predicate<T> filter = a -> a != null && !nChildren.contains(a);
 
-        return (int) mChildren.stream().map(mChild -> image(mChild, matchings, parameters)).filter(filter).count();
+        return (int) mChildren.stream().map(mChild -> image(mChild, matchings)).filter(filter).count();
     }
 
     /**
@@ -349,7 +520,7 @@ private List<T> siblingInvariantSubset(T m, T n, CMMatchings<T> matchings, CMPar
         List<T> mSiblings = siblings(m, matchings, parameters);
         List<T> nSiblings = siblings(n, matchings, parameters);
 
-        return mSiblings.stream().filter(s -> nSiblings.contains(image(s, matchings, parameters))).collect(toList());
+        return mSiblings.stream().filter(s -> nSiblings.contains(image(s, matchings))).collect(toList());
     }
 
     /**
@@ -368,7 +539,7 @@ private List<T> siblingInvariantSubset(T m, T n, CMMatchings<T> matchings, CMPar
     private List<T> siblingDivergentSubset(T m, T n, CMMatchings<T> matchings, CMParameters<T> parameters) {
         List<T> inv = siblingInvariantSubset(m, n, matchings, parameters);
         List<T> sibs = siblings(m, matchings, parameters);
-        return sibs.stream().filter(sibling -> !inv.contains(sibling) && image(sibling, matchings, parameters) != null)
+        return sibs.stream().filter(sibling -> !inv.contains(sibling) && image(sibling, matchings) != null)
                             .collect(toList());
     }
 
@@ -385,7 +556,7 @@ private List<T> siblingDivergentSubset(T m, T n, CMMatchings<T> matchings, CMPar
      * @return the distinct sibling family representatives
      */
     private Set<T> distinctSiblingFamilies(T m, CMMatchings<T> matchings, CMParameters<T> parameters) {
-        Function<T, T> image = mChild -> image(mChild, matchings, parameters);
+        Function<T, T> image = mChild -> image(mChild, matchings);
         Predicate<T> notNull = Objects::nonNull;
         Function<T, T> getParent = T::getParent;
 
@@ -406,7 +577,7 @@ private Set<T> distinctSiblingFamilies(T m, CMMatchings<T> matchings, CMParamete
     private float orderingCost(CMMatching<T> matching, CMMatchings<T> matchings, CMParameters<T> parameters) {
         Stream<T> leftSiblings = otherSiblings(matching.m, matchings, parameters).stream();
         Stream<T> rightSiblings = otherSiblings(matching.n, matchings, parameters).stream();
-        Stream<CMMatching<T>> s = concat(leftSiblings, rightSiblings).map(a -> matching(a, matchings, parameters))
+        Stream<CMMatching<T>> s = concat(leftSiblings, rightSiblings).map(a -> matching(a, matchings))
                                                                      .filter(m -> !m.isNoMatch()).distinct();
 
         if (s.anyMatch(toCheck -> violatesOrdering(toCheck, matching, matchings, parameters))) {
@@ -523,20 +694,19 @@ private Tuple<T, T> lca(T a, T b, CMMatchings<T> matchings, CMParameters<T> para
      *         the <code>Artifact</code> for which the containing <code>CMMatching</code> is to be returned
      * @param matchings
      *         the current matchings
-     * @param parameters
-     *         the <code>CMParameters</code> to use
      * @return the <code>CMMatching</code> containing the <code>artifact</code>
      * @throws NoSuchElementException
      *         if no <code>CMMatching</code> containing <code>artifact</code> can be found in
      *         <code>matchings</code>
      */
-    private CMMatching<T> matching(T artifact, CMMatchings<T> matchings, CMParameters<T> parameters) {
+    private CMMatching<T> matching(T artifact, CMMatchings<T> matchings) {
+        CMMatching<T> matching = matchings.matching(artifact);
 
-        return parameters.exactContainsCache.computeIfAbsent(artifact, a ->
-            matchings.stream().filter(m -> m.contains(a)).findFirst().orElseThrow(() ->
-                new NoSuchElementException("No matching containing " + artifact + " found.")
-            )
-        );
+        if (matching == null) {
+            throw new NoSuchElementException("No matching containing " + artifact + " found.");
+        }
+
+        return matching;
     }
 
     /**
@@ -552,8 +722,8 @@ private CMMatching<T> matching(T artifact, CMMatchings<T> matchings, CMParameter
      *         if no <code>CMMatching</code> containing <code>artifact</code> can be found in
      *         <code>matchings</code>
      */
-    private T image(T artifact, CMMatchings<T> matchings, CMParameters<T> parameters) {
-        return matching(artifact, matchings, parameters).other(artifact);
+    private T image(T artifact, CMMatchings<T> matchings) {
+        return matching(artifact, matchings).other(artifact);
     }
 
     /**
@@ -575,8 +745,6 @@ private void boundCost(CMMatchings<T> currentMatchings, CMParameters<T> paramete
         } else {
             currentMatchings.stream().peek(mPeek).forEach(m -> boundCost(m, currentMatchings, parameters));
         }
-
-        parameters.clearBoundCaches();
     }
 
     /**
@@ -658,14 +826,14 @@ private boolean ancestryIndicator(T child, T n, CMMatchings<T> currentMatchings,
                 return !(partner == null || n.getChildren().contains(partner));
             };
 
-            return containing(child, currentMatchings, parameters).stream().anyMatch(indicator);
+            return containing(child, currentMatchings).stream().anyMatch(indicator);
         } else {
             Predicate<CMMatching<T>> indicator = match -> {
                 T partner = match.other(child);
                 return partner == null || n.getChildren().contains(partner);
             };
 
-            return containing(child, currentMatchings, parameters).stream().noneMatch(indicator);
+            return containing(child, currentMatchings).stream().noneMatch(indicator);
         }
     }
 
@@ -757,14 +925,14 @@ private boolean divergentSiblingIndicator(T sibling, T n, CMMatchings<T> current
                 return !(partner == null || otherSiblings(n, currentMatchings, parameters).contains(partner));
             };
 
-            return containing(sibling, currentMatchings, parameters).stream().anyMatch(indicator);
+            return containing(sibling, currentMatchings).stream().anyMatch(indicator);
         } else {
             Predicate<CMMatching<T>> indicator = match -> {
                 T partner = match.other(sibling);
                 return partner == null || otherSiblings(n, currentMatchings, parameters).contains(partner);
             };
 
-            return containing(sibling, currentMatchings, parameters).stream().noneMatch(indicator);
+            return containing(sibling, currentMatchings).stream().noneMatch(indicator);
         }
     }
 
@@ -808,9 +976,9 @@ private boolean invariantSiblingIndicator(T sibling, T n, CMMatchings<T> current
         Predicate<CMMatching<T>> indicator = match -> otherSiblings(n, currentMatchings, parameters).contains(match.other(sibling));
 
         if (upper) {
-            return containing(sibling, currentMatchings, parameters).stream().anyMatch(indicator);
+            return containing(sibling, currentMatchings).stream().anyMatch(indicator);
         } else {
-            return containing(sibling, currentMatchings, parameters).stream().allMatch(indicator);
+            return containing(sibling, currentMatchings).stream().allMatch(indicator);
         }
     }
 
@@ -832,7 +1000,7 @@ private Bounds boundOrderingCost(CMMatching<T> matching, CMMatchings<T> currentM
         Stream<T> siblings = concat(mosibs.stream(), nosibs.stream());
 
         boolean orderingPossible = siblings.allMatch(sib ->
-            containing(sib, currentMatchings, parameters).stream().anyMatch(match ->
+            containing(sib, currentMatchings).stream().anyMatch(match ->
                 match.isNoMatch() || !violatesOrdering(match, matching, currentMatchings, parameters)
             )
         );
@@ -846,7 +1014,7 @@ private Bounds boundOrderingCost(CMMatching<T> matching, CMMatchings<T> currentM
             siblings = concat(mosibs.stream(), nosibs.stream());
 
             boolean violationPossible = siblings.anyMatch(sib ->
-                containing(sib, currentMatchings, parameters).stream().anyMatch(match ->
+                containing(sib, currentMatchings).stream().anyMatch(match ->
                     !match.isNoMatch() && violatesOrdering(match, matching, currentMatchings, parameters)
                 )
             );
@@ -915,14 +1083,10 @@ private List<T> otherSiblings(T artifact, CMMatchings<T> matchings, CMParameters
      *         the artifact to search for
      * @param currentMatchings
      *         all matchings
-     * @param parameters
-     *         the cost model parameters
      * @return all matchings containig <code>artifact</code>
      */
-    private List<CMMatching<T>> containing(T artifact, CMMatchings<T> currentMatchings, CMParameters<T> parameters) {
-        return parameters.boundContainsCache.computeIfAbsent(artifact, a ->
-            currentMatchings.stream().filter(m -> m.contains(a)).collect(toList())
-        );
+    private List<CMMatching<T>> containing(T artifact, CMMatchings<T> currentMatchings) {
+        return currentMatchings.containing(artifact);
     }
 
     @Override
@@ -956,9 +1120,250 @@ public Matchings<T> match(MergeContext context, T left, T right, Matchings<T> pr
         return match(context, left, right, cmPreFixed);
     }
 
+    /**
+     * Improves the given <code>matchings</code> between the trees rooted in <code>left</code> and <code>right</code>
+     * by applying the cost model to the smallest pairs of matched subtrees that contain all artifacts that are not
+     * fully matched. The subtree pairs are matched independently (and in parallel) with their contained matchings
+     * from <code>matchings</code> being fixed. Matchings between artifacts of different subtree pairs or between an
+     * artifact of a subtree pair and one outside of all of them are retained and their artifacts are fixed as
+     * unmatched within the subtree pairs. Unmatched artifacts are not matched across subtree pairs, see
+     * {@link CMMode#POST_PROCESSOR}. Matchings outside of the subtree pairs are retained, the scores of the
+     * matchings of their ancestors are adjusted.
+     *
+     * @param context
+     *         the <code>MergeContext</code> containing the parameters to use for the Flexible Tree Matching
+     *         algorithm
+     * @param left
+     *         the left root
+     * @param right
+     *         the right root
+     * @param matchings
+     *         the matchings between the left and right tree produced by the other matchers
+     * @return the resulting matchings
+     */
+    public Matchings<T> postProcess(MergeContext context, T left, T right, Matchings<T> matchings) {
+        Matchings<T> optimized = matchings.optimized();
+        List<Tuple<T, T>> regions = new ArrayList<>();
+
+        if (optimized.get(left, right).isPresent()) {
+            partiallyMatched(left, right, optimized, regions);
+        } else {
+            regions.add(Tuple.of(left, right));
+        }
+
+        LOG.fine(() -> "Applying the " + getClass().getSimpleName() + " to " + regions.size() + " partially " +
+                "matched subtree pairs of " + left + " and " + right);
+
+        Map<T, Integer> leftRegions = new HashMap<>();
+        Map<T, Integer> rightRegions = new HashMap<>();
+        List<CMMatchings<T>> regionFixed = new ArrayList<>(regions.size());
+
+        for (int i = 0; i < regions.size(); i++) {
+            Tuple<T, T> region = regions.get(i);
+            Integer index = i;
+
+            Artifacts.dfs(region.x).forEach(a -> leftRegions.put(a, index));
+            Artifacts.dfs(region.y).forEach(a -> rightRegions.put(a, index));
+            regionFixed.add(new CMMatchings<>(region.x, region.y));
+        }
+
+        for (Matching<T> matching : optimized) {
+            Integer l = leftRegions.get(matching.getLeft());
+            Integer r = rightRegions.get(matching.getRight());
+
+            if (l != null && l.equals(r)) {
+                regionFixed.get(l).add(new CMMatching<>(matching.getLeft(), matching.getRight()));
+                continue;
+            }
+
+            if (l != null) {
+                regionFixed.get(l).add(new CMMatching<>(matching.getLeft(), null));
+            }
+
+            if (r != null) {
+                regionFixed.get(r).add(new CMMatching<>(null, matching.getRight()));
+            }
+        }
+
+        List<Matchings<T>> regionMatchings = new ArrayList<>(regions.size());
+        MatcherStatistics statistics = matcherStatistics(context);
+
+        if (regions.size() == 1) {
+            regionMatchings.add(matchRegion(context, regionFixed.get(0), statistics));
+        } else {
+            List<CompletableFuture<Matchings<T>>> futures = new ArrayList<>(regions.size());
+
+            for (CMMatchings<T> fixed : regionFixed) {
+                futures.add(CompletableFuture.supplyAsync(() -> matchRegion(context, fixed, statistics)));
+            }
+
+            for (CompletableFuture<Matchings<T>> future : futures) {
+                regionMatchings.add(join(future));
+            }
+        }
+
+        Map<Matching<T>, Integer> scoreDeltas = new HashMap<>();
+
+        for (int i = 0; i < regions.size(); i++) {
+            Tuple<T, T> region = regions.get(i);
+            T l = region.x;
+            T r = region.y;
+
+            int oldScore = optimized.getScore(l, r).orElse(0);
+            int delta = regionMatchings.get(i).getScore(l, r).orElse(0) - oldScore;
+
+            while (l != left && r != right) {
+                l = l.getParent();
+                r = r.getParent();
+
+                optimized.get(l, r).ifPresent(m -> scoreDeltas.merge(m, delta, Integer::sum));
+            }
+        }
+
+        Matchings<T> result = new Matchings<>();
+
+        for (Matching<T> matching : optimized) {
+            Integer l = leftRegions.get(matching.getLeft());
+
+            if (l != null && l.equals(rightRegions.get(matching.getRight()))) {
+                continue;
+            }
+
+            Integer delta = scoreDeltas.get(matching);
+
+            if (delta != null && delta != 0) {
+                matching = new Matching<>(matching);
+                matching.setScore(matching.getScore() + delta);
+            }
+
+            result.add(matching);
+        }
+
+        regionMatchings.forEach(result::addAll);
+
+        return result;
+    }
+
+    /**
+     * Matches one pair of partially matched subtrees for {@link #postProcess(MergeContext, Artifact, Artifact,
+     * Matchings)} and removes the resulting matchings the merge can not process.
+     *
+     * @param context
+     *         the <code>MergeContext</code> containing the parameters to use for the Flexible Tree Matching
+     *         algorithm
+     * @param preFixed
+     *         the fixed matchings of the subtree pair, {@link CMMatchings#left} and {@link CMMatchings#right} are
+     *         its roots
+     * @param statistics
+     *         the <code>MatcherStatistics</code> to record the runs in or <code>null</code>
+     * @return the resulting matchings
+     */
+    private Matchings<T> matchRegion(MergeContext context, CMMatchings<T> preFixed, MatcherStatistics statistics) {
+        CMMatchings<T> matchings = lowestCost(context, preFixed.left, preFixed.right, preFixed, statistics);
+
+        unmatchUnmergeable(matchings, new HashSet<>(preFixed));
+        return convert(matchings);
+    }
+
+    /**
+     * Replaces the matchings the merge can not process by no-matches of their artifacts. The merge recurses into
+     * artifacts that are matched with each other and whose parents are matched with each other. Unless both of them
+     * are leaves, it requires them to match according to {@link Artifact#matches(Artifact)}. The cost model however
+     * pairs differing artifacts if that is cheaper than leaving both of them unmatched, e.g., two different import
+     * declarations added on both sides, of which the merge would then keep only one.
+     *
+     * @param matchings
+     *         the complete matchings between two subtrees, they will be modified
+     * @param preFixed
+     *         the matchings that were fixed, they are retained
+     */
+    private void unmatchUnmergeable(CMMatchings<T> matchings, Set<CMMatching<T>> preFixed) {
+
+        for (T l : Artifacts.bfs(matchings.left)) {
+            CMMatching<T> matching = matchings.matching(l);
+
+            if (matching == null || matching.isNoMatch() || preFixed.contains(matching)) {
+                continue;
+            }
+
+            T r = matching.n;
+
+            if (l.matches(r) || (!l.hasChildren() && !r.hasChildren()) || l == matchings.left) {
+                continue;
+            }
+
+            CMMatching<T> parentMatching = matchings.matching(l.getParent());
+
+            if (parentMatching == null || parentMatching.n != r.getParent()) {
+                continue;
+            }
+
+            LOG.finer(() -> "Not matching " + l + " and " + r + " since they do not match and would be merged.");
+
+            matchings.set(matchings.indexOf(matching), new CMMatching<>(l, null));
+            matchings.add(new CMMatching<>(null, r));
+        }
+    }
+
+    /**
+     * Collects the smallest pairs of matched subtrees of <code>left</code> and <code>right</code> that contain all
+     * artifacts that are not fully matched in <code>matchings</code>. The search descends into the matched pairs of
+     * children of <code>left</code> and <code>right</code> if every child is matched to a child of the other node.
+     *
+     * @param left
+     *         the left artifact
+     * @param right
+     *         the right artifact matched with <code>left</code>
+     * @param matchings
+     *         the one-to-one matchings between the left and right tree
+     * @param regions
+     *         the list to add the partially matched subtree pairs to
+     */
+    private void partiallyMatched(T left, T right, Matchings<T> matchings, List<Tuple<T, T>> regions) {
+        Optional<Matching<T>> matching = matchings.get(left, right);
+
+        if (matching.isPresent() && matching.get().hasFullyMatched()) {
+            return;
+        }
+
+        List<Tuple<T, T>> childPairs = new ArrayList<>();
+        boolean descend = left.matches(right);
+
+        for (T child : left.getChildren()) {
+            Optional<Matching<T>> childMatching = matchings.getLeft(child);
+
+            if (!childMatching.isPresent() || childMatching.get().getRight().getParent() != right) {
+                descend = false;
+                break;
+            }
+
+            childPairs.add(Tuple.of(child, childMatching.get().getRight()));
+        }
+
+        for (T child : right.getChildren()) {
+            Optional<Matching<T>> childMatching = matchings.getRight(child);
+
+            if (!childMatching.isPresent() || childMatching.get().getLeft().getParent() != left) {
+                descend = false;
+                break;
+            }
+        }
+
+        int numRegions = regions.size();
+
+        if (descend) {
+            childPairs.forEach(pair -> partiallyMatched(pair.x, pair.y, matchings, regions));
+        }
+
+        if (regions.size() == numRegions) {
+            regions.add(Tuple.of(left, right));
+        }
+    }
+
     /**
      * Matches the tress rooted in <code>left</code> and <code>right</code> using the Metropolis algorithm and the
-     * Flexible Tree Matching cost model.
+     * Flexible Tree Matching cost model. If {@link MergeContext#getCmChains()} is greater than one, that many
+     * independent chains are run in parallel and the matchings with the lowest cost found by any of them are used.
      *
      * @param context
      *         the <code>MergeContext</code> containing the parameters to use for the Flexible Tree Matching
@@ -972,19 +1377,216 @@ public Matchings<T> match(MergeContext context, T left, T right, Matchings<T> pr
      * @return the resulting matchings
      */
     private Matchings<T> match(MergeContext context, T left, T right, CMMatchings<T> preFixed) {
-        CMParameters<T> parameters = new CMParameters<>(context);
+        return convert(lowestCost(context, left, right, preFixed, matcherStatistics(context)));
+    }
+
+    /**
+     * Returns the <code>MatcherStatistics</code> of the current file merge scenario. The scenario statistics are
+     * created on demand in a non-concurrent map, they must therefore be resolved before matching in parallel.
+     *
+     * @param context
+     *         the <code>MergeContext</code> containing the statistics
+     * @return the <code>MatcherStatistics</code> or <code>null</code> if no statistics are collected
+     */
+    private static MatcherStatistics matcherStatistics(MergeContext context) {
+
+        if (!context.hasStatistics()) {
+            return null;
+        }
 
+        return context.getStatistics().getCurrentFileMergeScenarioStatistics().getMatcherStatistics();
+    }
+
+    /**
+     * Implements {@link #match(MergeContext, Artifact, Artifact, CMMatchings)} and returns the lowest cost
+     * <code>CMMatchings</code> found. The result is reproducible for a given seed unless
+     * {@link MergeContext#getCmTimeLimit()} is set, the number of iterations the chains run before their deadline
+     * depends on the speed and load of the machine.
+     *
+     * @param context
+     *         the <code>MergeContext</code> containing the parameters to use for the Flexible Tree Matching
+     *         algorithm
+     * @param left
+     *         the left root
+     * @param right
+     *         the right root
+     * @param preFixed
+     *         the matchings between the left and right tree that are fixed
+     * @param statistics
+     *         the <code>MatcherStatistics</code> to record the runs in or <code>null</code>
+     * @return the lowest cost matchings
+     */
+    private CMMatchings<T> lowestCost(MergeContext context, T left, T right, CMMatchings<T> preFixed,
+                                      MatcherStatistics statistics) {
         LOG.fine("Matching " + left + " and " + right + " using the " + getClass().getSimpleName());
 
+        int chains = context.getCmChains();
+        int budget = iterationBudget(context, left, right);
+        long deadline = context.getCmTimeLimit() > 0 ? System.nanoTime() + context.getCmTimeLimit() * 1000000 : 0;
+
+        List<ChainResult> results = new ArrayList<>(chains);
+
+        if (chains <= 1) {
+            results.add(anneal(context, preFixed, new CMParameters<>(context), budget, deadline));
+        } else {
+            List<CompletableFuture<ChainResult>> futures = new ArrayList<>(chains);
+
+            for (int chain = 0; chain < chains; chain++) {
+                CMParameters<T> parameters = new CMParameters<>(context, chainSeed(context.getSeed(), chain));
+                CMMatchings<T> chainPreFixed = new CMMatchings<>(Collections.emptyList(), preFixed);
+
+                // The CMMatching instances cache their costs and must therefore not be shared between the chains.
+                preFixed.forEach(m -> chainPreFixed.add(new CMMatching<>(m.m, m.n)));
+
+                futures.add(CompletableFuture.supplyAsync(() ->
+                        anneal(context, chainPreFixed, parameters, budget, deadline)
+                ));
+            }
+
+            for (CompletableFuture<ChainResult> future : futures) {
+                results.add(join(future));
+            }
+        }
+
+        ChainResult lowest = null;
+
+        // Ties are broken in favor of the lowest chain index to keep the result reproducible for a given seed.
+        for (ChainResult result : results) {
+
+            if (lowest == null || result.lowestCost < lowest.lowestCost) {
+                lowest = result;
+            }
+        }
+
+        if (statistics != null) {
+
+            synchronized (statistics) {
+                statistics.incrementCmRuns(results.size());
+
+                for (ChainResult result : results) {
+                    statistics.incrementCmIterations(result.iterations);
+                    statistics.incrementCmConverged(result.stop == Stop.CONVERGED ? 1 : 0);
+                    statistics.incrementCmTimedOut(result.stop == Stop.DEADLINE ? 1 : 0);
+                }
+            }
+        }
+
+        if (chains > 1) {
+            float lowestCost = lowest.lowestCost;
+            LOG.fine(() -> "The lowest cost matchings of " + chains + " chains have cost " + lowestCost + ".");
+        }
+
+        return lowest.lowest;
+    }
+
+    /**
+     * Returns the maximum number of iterations of one annealing chain matching <code>left</code> and
+     * <code>right</code>. If an iteration scale ({@link MergeContext#getCmIterationScale()}) is set, the number of
+     * iterations is proportional to the sizes of the two trees but at most
+     * {@link MergeContext#getCostModelIterations()}.
+     *
+     * @param context
+     *         the <code>MergeContext</code> containing the iteration parameters
+     * @param left
+     *         the left root
+     * @param right
+     *         the right root
+     * @return the iteration budget
+     */
+    private int iterationBudget(MergeContext context, T left, T right) {
+        int iterations = context.getCostModelIterations();
+        float scale = context.getCmIterationScale();
+
+        if (scale <= 0) {
+            return iterations;
+        }
+
+        int scaled = (int) Math.ceil(scale * (left.getTreeSize() + right.getTreeSize()));
+        return Math.max(1, Math.min(iterations, scaled));
+    }
+
+    /**
+     * Returns the seed for the PRNG of the chain with the given index. The first chain uses the given
+     * <code>seed</code> so that running a single chain produces the same results as before. The other chains use
+     * seeds derived from it.
+     *
+     * @param seed
+     *         the seed from the <code>MergeContext</code>
+     * @param chain
+     *         the index of the chain
+     * @return the seed for the chain, empty if a random seed should be used
+     */
+    private static Optional<Long> chainSeed(Optional<Long> seed, int chain) {
+        return seed.map(s -> s + chain * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Joins the given <code>CompletableFuture</code> unwrapping any <code>RuntimeException</code> thrown while
+     * computing its result.
+     *
+     * @param future
+     *         the future to join
+     * @param <R>
+     *         the type of the result
+     * @return the result of the <code>future</code>
+     */
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Runs one chain of the Metropolis algorithm starting from a completion of the <code>preFixed</code> matchings.
+     * The chain stops after <code>budget</code> iterations, after {@link MergeContext#getCmPatience()} iterations
+     * without finding matchings with a lower cost or when the <code>deadline</code> has passed, whichever comes first.
+     *
+     * @param context
+     *         the <code>MergeContext</code> containing the stop parameters
+     * @param preFixed
+     *         the matchings between the left and right tree that are fixed
+     * @param parameters
+     *         the <code>CMParameters</code> (including the PRNG) to be used by the chain
+     * @param budget
+     *         the maximum number of iterations
+     * @param deadline
+     *         the {@link System#nanoTime()} after which the chain stops or 0 for no deadline
+     * @return the matchings with the lowest cost found by the chain and their cost
+     */
+    private ChainResult anneal(MergeContext context, CMMatchings<T> preFixed, CMParameters<T> parameters, int budget,
+                               long deadline) {
+        int patience = context.getCmPatience();
+
         CMMatchings<T> m = initialize(preFixed, parameters);
-        ObjectiveValue mObjVal = objective(m, parameters);
+        ObjectiveValue mObjVal = objective(m, null, parameters);
 
         CMMatchings<T> lowest = m;
         float lowestCost = mObjVal.matchingsCost;
+        int lowestIteration = -1;
+
+        Stop stop = Stop.ITERATIONS;
+        int i;
+
+        for (i = 0; i < budget; i++) {
+
+            if (patience > 0 && i - lowestIteration > patience) {
+                stop = Stop.CONVERGED;
+                break;
+            }
+
+            if (deadline != 0 && System.nanoTime() - deadline > 0) {
+                stop = Stop.DEADLINE;
+                break;
+            }
 
-        for (int i = 0; i < context.getCostModelIterations(); i++) {
             CMMatchings<T> mHat = propose(m, preFixed, parameters);
-            AcceptanceProbability mHatAccProb = acceptanceProb(mObjVal.objValue, mHat, parameters);
+            AcceptanceProbability mHatAccProb = acceptanceProb(mObjVal.objValue, m, mHat, parameters);
 
             if (chance(parameters.rng, mHatAccProb.acceptanceProbability)) {
 
@@ -998,6 +1600,7 @@ private Matchings<T> match(MergeContext context, T left, T right, CMMatchings<T>
 
                 lowest = mHat;
                 lowestCost = mHatAccProb.mHatObjectiveValue.matchingsCost;
+                lowestIteration = i;
 
                 float finalLowestCost = lowestCost;
                 log(FINER, mHat, () -> "New lowest cost matchings with cost " + finalLowestCost + " found.");
@@ -1006,9 +1609,11 @@ private Matchings<T> match(MergeContext context, T left, T right, CMMatchings<T>
             LOG.fine("End of iteration " + i);
         }
 
-        LOG.fine(() -> "Matching ended after " + context.getCostModelIterations() + " iterations.");
+        int iterations = i;
+        Stop reason = stop;
+        LOG.fine(() -> "Matching ended after " + iterations + " iterations (" + reason + ").");
 
-        return convert(lowest);
+        return new ChainResult(lowest, lowestCost, iterations, stop);
     }
 
     /**
@@ -1058,7 +1663,7 @@ private Matchings<T> convert(CMMatchings<T> matchings) {
      *         the matchings between the left and right tree that are fixed
      * @return the proposed matchings for the next iteration
      */
-    private CMMatchings<T> propose(CMMatchings<T> m, CMMatchings<T> preFixed, CMParameters<T> parameters) {
+    CMMatchings<T> propose(CMMatchings<T> m, CMMatchings<T> preFixed, CMParameters<T> parameters) {
         CMMatchings<T> mVariable = new CMMatchings<>(m, m.left, m.right);
         mVariable.removeAll(preFixed);
 
@@ -1076,7 +1681,7 @@ private CMMatchings<T> propose(CMMatchings<T> m, CMMatchings<T> preFixed, CMPara
             j = parameters.rng.nextInt(mVariable.size());
         }
 
-        CMMatchings<T> fixed = new CMMatchings<>(mVariable.subList(0, j), m.left, m.right);
+        CMMatchings<T> fixed = new CMMatchings<>(mVariable.subList(0, j), m);
 
         log(FINER, m, () -> "Fixing the first " + j + "variable matchings from the last iteration.");
         log(FINEST, m, () -> "They are: " + fixed);
@@ -1115,7 +1720,7 @@ private int intFromRange(int lower, int upper, CMParameters<T> parameters) {
      *         the cost model parameters
      * @return the initial matchings
      */
-    private CMMatchings<T> initialize(CMMatchings<T> preFixed, CMParameters<T> parameters) {
+    CMMatchings<T> initialize(CMMatchings<T> preFixed, CMParameters<T> parameters) {
         CMMatchings<T> initial = complete(preFixed, parameters);
 
         log(FINER, initial, () -> "Initial set of matchings assembled.");
@@ -1135,7 +1740,7 @@ private CMMatchings<T> initialize(CMMatchings<T> preFixed, CMParameters<T> param
      * @return the completed set of matchings
      */
     private CMMatchings<T> complete(CMMatchings<T> fixedMatchings, CMParameters<T> parameters) {
-        CMMatchings<T> current = completeBipartiteGraph(fixedMatchings.left, fixedMatchings.right, parameters);
+        CMMatchings<T> current = completeBipartiteGraph(fixedMatchings, parameters);
         CMMatchings<T> fixed = new CMMatchings<>(fixedMatchings, fixedMatchings.left, fixedMatchings.right);
 
         fixed.forEach(m -> prune(m, current));
@@ -1183,26 +1788,24 @@ private void prune(CMMatching<T> matching, CMMatchings<T> g) {
     }
 
     /**
-     * Returns the (randomly ordered) complete bipartite graph between the trees rooted in <code>left</code> and
-     * <code>right</code> with the addition of one no-match node (represented by <code>null</code>) each.
+     * Returns the (randomly ordered) complete bipartite graph between the left and right tree of
+     * <code>trees</code> with the addition of one no-match node (represented by <code>null</code>) each.
      *
-     * @param left
-     *         the left root
-     * @param right
-     *         the right root
+     * @param trees
+     *         the <code>CMMatchings</code> of the trees to match
      * @param parameters
      *         the cost model parameters
      * @return the complete bipartite graph with its edges represented by <code>CMMatching</code>s
      */
-    private CMMatchings<T> completeBipartiteGraph(T left, T right, CMParameters<T> parameters) {
-        List<T> leftNodes = Artifacts.bfs(left);
-        List<T> rightNodes = Artifacts.bfs(right);
+    private CMMatchings<T> completeBipartiteGraph(CMMatchings<T> trees, CMParameters<T> parameters) {
+        List<T> leftNodes = Artifacts.bfs(trees.left);
+        List<T> rightNodes = Artifacts.bfs(trees.right);
 
         // add the "No Match" node
         leftNodes.add(null);
         rightNodes.add(null);
 
-        CMMatchings<T> bipartiteGraph = new CMMatchings<>(left, right);
+        CMMatchings<T> bipartiteGraph = new CMMatchings<>(Collections.emptyList(), trees);
 
         for (T lNode : leftNodes) {
             for (T rNode : rightNodes) {
@@ -1224,12 +1827,14 @@ private CMMatchings<T> completeBipartiteGraph(T left, T right, CMParameters<T> p
      *
      * @param matchings
      *         the matchings to return the objective function value for
+     * @param previous
+     *         the matchings whose exact costs may be reused for <code>matchings</code>, may be <code>null</code>
      * @param parameters
      *         the cost model parameters
      * @return the value of the objective function and the cost that was calculated as part of it
      */
-    private ObjectiveValue objective(CMMatchings<T> matchings, CMParameters<T> parameters) {
-        float cost = cost(matchings, parameters);
+    private ObjectiveValue objective(CMMatchings<T> matchings, CMMatchings<T> previous, CMParameters<T> parameters) {
+        float cost = previous == null ? cost(matchings, parameters) : cost(matchings, previous, parameters);
         double objVal = Math.exp(-(parameters.beta * cost));
 
         log(FINER, matchings, () -> "Cost of matchings is " + cost);
@@ -1243,14 +1848,17 @@ private ObjectiveValue objective(CMMatchings<T> matchings, CMParameters<T> param
      *
      * @param mObjectiveValue
      *         the objective value for the current reference set of matchings
+     * @param m
+     *         the current reference set of matchings
      * @param mHat
      *         the newly proposed set of matchings
      * @param parameters
      *         the cost model parameters
      * @return the acceptance probability including the <code>ObjectiveValue</code> calculated for <code>mHat</code>
      */
-    private AcceptanceProbability acceptanceProb(double mObjectiveValue, CMMatchings<T> mHat, CMParameters<T> parameters) {
-        ObjectiveValue mHatObjectiveValue = objective(mHat, parameters);
+    private AcceptanceProbability acceptanceProb(double mObjectiveValue, CMMatchings<T> m, CMMatchings<T> mHat,
+                                                 CMParameters<T> parameters) {
+        ObjectiveValue mHatObjectiveValue = objective(mHat, m, parameters);
         double acceptanceProb = Math.min(1, mHatObjectiveValue.objValue / mObjectiveValue);
 
         log(FINER, mHat, () -> "Acceptance probability for matchings is " + acceptanceProb);
@@ -28,6 +28,8 @@
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -40,7 +42,11 @@
 
 /**
  * A <code>Set</code> of <code>Matching</code>s. Adds methods to retrieve specific elements of the <code>Set</code>
- * by their matched <code>Artifact</code>s.
+ * by their matched <code>Artifact</code>s. Once a <code>Matchings</code> instance grows beyond
+ * {@link #INDEX_THRESHOLD} elements and is queried, it indexes its <code>Matching</code>s by their pair of
+ * <code>Artifact</code>s and (by identity) by their left and right <code>Artifact</code>s. From then on the indexes
+ * are kept consistent with the <code>Set</code> and the lookups take constant time. Concurrent lookups are safe as long
+ * as the <code>Matchings</code> are not modified at the same time.
  *
  * @param <T>
  *         the type of the <code>Artifact</code>s
@@ -49,7 +55,18 @@
 
     private static final long serialVersionUID = 1L;
 
-    private final UnorderedTuple<T, T> tuple = UnorderedTuple.of(null, null);
+    /**
+     * Up to this size lookups simply scan the <code>Matching</code>s instead of building the indexes.
+     */
+    static final int INDEX_THRESHOLD = 8;
+
+    /**
+     * The pair index is published last when building the indexes so that concurrent lookups either see all indexes
+     * or none.
+     */
+    private transient volatile Map<UnorderedTuple<T, T>, Matching<T>> pairIndex;
+    private transient Map<T, List<Matching<T>>> leftIndex;
+    private transient Map<T, List<Matching<T>>> rightIndex;
 
     /**
      * Creates a new <code>Matchings</code> instance containing a single <code>Matching</code> that matches
@@ -102,6 +119,10 @@ public Optional<Matching<T>> get(UnorderedTuple<T, T> artifacts) {
             return Optional.empty();
         }
 
+        if (isIndexed()) {
+            return Optional.ofNullable(pairIndex.get(artifacts));
+        }
+
         return stream().filter(matching -> matching.getMatchedArtifacts().equals(artifacts)).findFirst();
     }
 
@@ -117,15 +138,7 @@ public Optional<Matching<T>> get(UnorderedTuple<T, T> artifacts) {
      * @return optionally the <code>Matching</code> matching the given <code>artifacts</code>
      */
     public Optional<Matching<T>> get(T left, T right) {
-        tuple.setX(left);
-        tuple.setY(right);
-
-        Optional<Matching<T>> matching = get(tuple);
-
-        tuple.setX(null);
-        tuple.setY(null);
-
-        return matching;
+        return get(UnorderedTuple.of(left, right));
     }
 
     /**
@@ -156,6 +169,11 @@ public Optional<Matching<T>> getAny(T artifact) {
      * @return optionally the first <code>Matching</code> containing <code>artifact</code>
      */
     public Optional<Matching<T>> getLeft(T artifact) {
+
+        if (isIndexed()) {
+            return first(leftIndex.get(artifact));
+        }
+
         return get(artifact, Matching::getLeft);
     }
 
@@ -168,9 +186,25 @@ public Optional<Matching<T>> getLeft(T artifact) {
      * @return optionally the first <code>Matching</code> containing <code>artifact</code>
      */
     public Optional<Matching<T>> getRight(T artifact) {
+
+        if (isIndexed()) {
+            return first(rightIndex.get(artifact));
+        }
+
         return get(artifact, Matching::getRight);
     }
 
+    /**
+     * Optionally returns the first element of the given list of indexed <code>Matching</code>s.
+     *
+     * @param matchings
+     *         the <code>Matching</code>s from one of the indexes, may be <code>null</code>
+     * @return optionally the first <code>Matching</code>
+     */
+    private Optional<Matching<T>> first(List<Matching<T>> matchings) {
+        return matchings == null || matchings.isEmpty() ? Optional.empty() : Optional.of(matchings.get(0));
+    }
+
     /**
      * Returns the first matching whose result of the application of <code>getArtifact</code> is equal to
      * <code>artifact</code>.
@@ -183,6 +217,184 @@ private Optional<Matching<T>> get(T artifact, Function<Matching<T>, T> getArtifa
         return stream().filter(m -> getArtifact.apply(m) == artifact).findFirst();
     }
 
+    /**
+     * Returns whether lookups should use the indexes. Builds the indexes if this <code>Matchings</code> instance
+     * exceeds the {@link #INDEX_THRESHOLD} and has not been indexed yet.
+     *
+     * @return true iff the indexes are to be used
+     */
+    private boolean isIndexed() {
+
+        if (pairIndex != null) {
+            return true;
+        }
+
+        if (size() <= INDEX_THRESHOLD) {
+            return false;
+        }
+
+        Map<UnorderedTuple<T, T>, Matching<T>> pairs = new HashMap<>(size() * 2);
+        Map<T, List<Matching<T>>> lefts = new IdentityHashMap<>(size());
+        Map<T, List<Matching<T>>> rights = new IdentityHashMap<>(size());
+
+        for (Matching<T> matching : this) {
+            index(pairs, lefts, rights, matching);
+        }
+
+        leftIndex = lefts;
+        rightIndex = rights;
+        pairIndex = pairs;
+
+        return true;
+    }
+
+    /**
+     * Adds the given <code>Matching</code> to the indexes.
+     *
+     * @param matching
+     *         the <code>Matching</code> to index
+     */
+    private void index(Matching<T> matching) {
+        index(pairIndex, leftIndex, rightIndex, matching);
+    }
+
+    /**
+     * Adds the given <code>Matching</code> to the given indexes.
+     *
+     * @param pairs
+     *         the pair index
+     * @param lefts
+     *         the left index
+     * @param rights
+     *         the right index
+     * @param matching
+     *         the <code>Matching</code> to index
+     */
+    private void index(Map<UnorderedTuple<T, T>, Matching<T>> pairs, Map<T, List<Matching<T>>> lefts,
+                       Map<T, List<Matching<T>>> rights, Matching<T> matching) {
+
+        pairs.put(matching.getMatchedArtifacts(), matching);
+        lefts.computeIfAbsent(matching.getLeft(), a -> new ArrayList<>(1)).add(matching);
+        rights.computeIfAbsent(matching.getRight(), a -> new ArrayList<>(1)).add(matching);
+    }
+
+    /**
+     * Removes the given <code>Matching</code> from the indexes.
+     *
+     * @param matching
+     *         the <code>Matching</code> to remove
+     */
+    private void unindex(Matching<T> matching) {
+        pairIndex.remove(matching.getMatchedArtifacts());
+        unindex(leftIndex, matching.getLeft(), matching);
+        unindex(rightIndex, matching.getRight(), matching);
+    }
+
+    /**
+     * Removes the given <code>Matching</code> from the list stored for <code>artifact</code> in <code>index</code>.
+     *
+     * @param index
+     *         the index to remove the <code>Matching</code> from
+     * @param artifact
+     *         the key of the list
+     * @param matching
+     *         the <code>Matching</code> to remove
+     */
+    private void unindex(Map<T, List<Matching<T>>> index, T artifact, Matching<T> matching) {
+        List<Matching<T>> matchings = index.get(artifact);
+
+        if (matchings == null) {
+            return;
+        }
+
+        matchings.removeIf(m -> m == matching);
+
+        if (matchings.isEmpty()) {
+            index.remove(artifact);
+        }
+    }
+
+    @Override
+    public boolean add(Matching<T> matching) {
+        boolean added = super.add(matching);
+
+        if (added && pairIndex != null) {
+            index(matching);
+        }
+
+        return added;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+
+        if (pairIndex == null || !(o instanceof Matching)) {
+            return super.remove(o);
+        }
+
+        Matching<T> stored = pairIndex.get(((Matching<?>) o).getMatchedArtifacts());
+        boolean removed = super.remove(o);
+
+        if (removed && stored != null) {
+            unindex(stored);
+        }
+
+        return removed;
+    }
+
+    @Override
+    public Iterator<Matching<T>> iterator() {
+        Iterator<Matching<T>> it = super.iterator();
+
+        return new Iterator<Matching<T>>() {
+
+            private Matching<T> current;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Matching<T> next() {
+                return current = it.next();
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+
+                if (pairIndex != null) {
+                    unindex(current);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        dropIndexes();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object clone() {
+        Matchings<T> clone = (Matchings<T>) super.clone();
+        clone.dropIndexes();
+
+        return clone;
+    }
+
+    /**
+     * Discards the indexes. They will be rebuilt on the next lookup if necessary.
+     */
+    private void dropIndexes() {
+        pairIndex = null;
+        leftIndex = null;
+        rightIndex = null;
+    }
+
     /**
      * Optionally returns the score of the <code>Matching</code> matching the given <code>Artifact</code>s if there
      * is such a <code>Matching</code> in the <code>Set</code>.
@@ -207,15 +419,7 @@ public Optional<Integer> getScore(UnorderedTuple<T, T> artifacts) {
      * @return optionally the matching score for the given <code>artifacts</code>
      */
     public Optional<Integer> getScore(T left, T right) {
-        tuple.setX(left);
-        tuple.setY(right);
-
-        Optional<Integer> matching = getScore(tuple);
-
-        tuple.setX(null);
-        tuple.setY(null);
-
-        return matching;
+        return getScore(UnorderedTuple.of(left, right));
     }
 
     /**
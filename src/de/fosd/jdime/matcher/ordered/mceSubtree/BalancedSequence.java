@@ -261,11 +261,22 @@ public Set<BalancedSequence<T>> decompose() {
             return decomposition;
         };
 
-        if (decompositionCache != null) {
-            return decompositionCache.computeIfAbsent(this, calcDecomp);
-        } else {
+        if (decompositionCache == null) {
             return calcDecomp.apply(this);
         }
+
+        /*
+         * The decomposition is calculated recursively. computeIfAbsent must therefore not be used as the cache may
+         * be modified while calculating the decomposition.
+         */
+        Set<BalancedSequence<T>> decomposition = decompositionCache.get(this);
+
+        if (decomposition == null) {
+            decomposition = calcDecomp.apply(this);
+            decompositionCache.put(this, decomposition);
+        }
+
+        return decomposition;
     }
 
     /**
@@ -23,12 +23,13 @@
  */
 package de.fosd.jdime.matcher.ordered.mceSubtree;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import de.fosd.jdime.artifact.Artifact;
 import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.matcher.ChildPairs;
 import de.fosd.jdime.matcher.MatcherInterface;
 import de.fosd.jdime.matcher.matching.Matching;
 import de.fosd.jdime.matcher.matching.Matchings;
@@ -56,7 +57,7 @@
      */
     public MCESubtreeMatcher(MatcherInterface<T> matcher) {
         super(matcher);
-        this.decompositionCache = new HashMap<>();
+        this.decompositionCache = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -73,9 +74,9 @@ public Matchings<T> match(MergeContext context, T left, T right) {
         matching.setAlgorithm(ID);
         matchings.add(matching);
 
-        for (T lChild : left.getChildren()) {
-            for (T rChild : right.getChildren()) {
-                matchings.addAll(matcher.match(context, lChild, rChild));
+        for (Matchings<T>[] row : ChildPairs.match(matcher, context, left, right)) {
+            for (Matchings<T> childMatchings : row) {
+                matchings.addAll(childMatchings);
             }
         }
 
@@ -29,6 +29,7 @@
 
 import de.fosd.jdime.artifact.Artifact;
 import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.matcher.ChildPairs;
 import de.fosd.jdime.matcher.MatcherInterface;
 import de.fosd.jdime.matcher.matching.Matching;
 import de.fosd.jdime.matcher.matching.Matchings;
@@ -86,12 +87,14 @@ public Matchings<T> match(MergeContext context, T left, T right) {
             matrixM[0][j] = 0;
         }
 
+        Matchings<T>[][] childMatchings = ChildPairs.match(matcher, context, left, right);
+
         for (int i = 1; i <= m; i++) {
             for (int j = 1; j <= n; j++) {
                 T leftChild = left.getChild(i - 1);
                 T rightChild = right.getChild(j - 1);
 
-                Matchings<T> w = matcher.match(context, leftChild, rightChild);
+                Matchings<T> w = childMatchings[i - 1][j - 1];
                 Matching<T> matching = w.get(leftChild, rightChild).get();
 
                 if (matrixM[i][j - 1] > matrixM[i - 1][j]) {
@@ -23,9 +23,13 @@
  */
 package de.fosd.jdime.matcher.unordered;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,7 +42,7 @@
 
 /**
  * A {@link MatcherInterface matcher} that constructs {@link Matchings} between subtrees that match according to their
- * {@link Artifact#getTreeHash()} method.
+ * {@link Artifact#getTreeHash()} or {@link Artifact#getFastTreeHash()} method.
  *
  * @param <T>
  *         the type of the {@link Artifact Artifacts} being matched
@@ -66,9 +70,32 @@ public IdenticalSubtreeMatcher() {
      *         the root of the right tree
      */
     public void matchTrees(T leftRoot, T rightRoot) {
-        Map<String, T> leftUnique = uniqueHashes(leftRoot);
-        Map<String, T> rightUnique = uniqueHashes(rightRoot);
-        matchSubtree(leftUnique.keySet(), leftRoot, rightUnique);
+        matchTrees(leftRoot, rightRoot, false);
+    }
+
+    /**
+     * Stores all matchings resulting from unique matching tree hashes in the left and right trees in this
+     * {@link IdenticalSubtreeMatcher}.
+     *
+     * @param leftRoot
+     *         the root of the left tree
+     * @param rightRoot
+     *         the root of the right tree
+     * @param fastHash
+     *         whether to use {@link Artifact#getFastTreeHash()} instead of {@link Artifact#getTreeHash()}
+     * @see #matchTrees(Artifact, Artifact)
+     */
+    public void matchTrees(T leftRoot, T rightRoot, boolean fastHash) {
+
+        if (fastHash) {
+            UniqueFastHashes<T> leftUnique = new UniqueFastHashes<>(leftRoot);
+            UniqueFastHashes<T> rightUnique = new UniqueFastHashes<>(rightRoot);
+            matchSubtree(leftUnique, leftRoot, rightUnique);
+        } else {
+            Map<String, T> leftUnique = uniqueHashes(leftRoot);
+            Map<String, T> rightUnique = uniqueHashes(rightRoot);
+            matchSubtree(leftUnique.keySet(), leftRoot, rightUnique);
+        }
     }
 
     /**
@@ -85,15 +112,48 @@ public void matchTrees(T leftRoot, T rightRoot) {
      *         the unique hashes in the right tree and their corresponding nodes
      */
     private void matchSubtree(Set<String> leftUnique, T left, Map<String, T> rightUnique) {
-        String treeHash = left.getTreeHash();
+        String hash = left.getTreeHash();
+
+        if (!leftUnique.contains(hash) || !rightUnique.containsKey(hash)) {
+            left.getChildren().forEach(c -> matchSubtree(leftUnique, c, rightUnique));
+            return;
+        }
+
+        matchAll(left, rightUnique.get(hash));
+    }
+
+    /**
+     * Like {@link #matchSubtree(Set, Artifact, Map)} but uses the {@link Artifact#getFastTreeHash() 64 bit hashes}.
+     *
+     * @param leftUnique
+     *         the unique hashes in the left tree
+     * @param left
+     *         the node from the left tree to be examined
+     * @param rightUnique
+     *         the unique hashes in the right tree
+     */
+    private void matchSubtree(UniqueFastHashes<T> leftUnique, T left, UniqueFastHashes<T> rightUnique) {
+        long hash = left.getFastTreeHash();
+        T right = leftUnique.get(hash) != null ? rightUnique.get(hash) : null;
 
-        if (!leftUnique.contains(treeHash) || !rightUnique.containsKey(treeHash)) {
+        if (right == null) {
             left.getChildren().forEach(c -> matchSubtree(leftUnique, c, rightUnique));
             return;
         }
 
-        T right = rightUnique.get(treeHash);
+        matchAll(left, right);
+    }
 
+    /**
+     * Adds matchings between all nodes of the trees rooted in {@code left} and {@code right} (in DFS order) to
+     * {@link #matches}.
+     *
+     * @param left
+     *         the root of the left tree
+     * @param right
+     *         the root of the right tree
+     */
+    private void matchAll(T left, T right) {
         Iterator<T> leftIt = Artifacts.dfsIterable(left).iterator();
         Iterator<T> rightIt = Artifacts.dfsIterable(right).iterator();
 
@@ -103,7 +163,7 @@ private void matchSubtree(Set<String> leftUnique, T left, Map<String, T> rightUn
     }
 
     /**
-     * Returns the subtree hashes that are unique in the given tree.
+     * Returns the {@link Artifact#getTreeHash() subtree hashes} that are unique in the given tree.
      *
      * @param treeRoot
      *         the root of the tree to examine
@@ -114,10 +174,10 @@ private Map<String, T> uniqueHashes(T treeRoot) {
         Set<String> notUnique = new HashSet<>();
 
         Artifacts.dfsStream(treeRoot).forEach(artifact -> {
-            String treeHash = artifact.getTreeHash();
+            String hash = artifact.getTreeHash();
 
-            if (hashes.put(treeHash, artifact) != null) {
-                notUnique.add(treeHash);
+            if (hashes.put(hash, artifact) != null) {
+                notUnique.add(hash);
             }
         });
 
@@ -125,6 +185,72 @@ private Map<String, T> uniqueHashes(T treeRoot) {
         return hashes;
     }
 
+    /**
+     * The {@link Artifact#getFastTreeHash() 64 bit subtree hashes} that are unique in a tree. The hashes are kept
+     * in a sorted array and looked up by binary search so that they are never boxed.
+     *
+     * @param <T>
+     *         the type of the {@link Artifact Artifacts}
+     */
+    private static final class UniqueFastHashes<T extends Artifact<T>> {
+
+        private final long[] hashes;
+        private final List<T> artifacts;
+
+        /**
+         * Collects the unique hashes of the tree rooted in {@code treeRoot}.
+         *
+         * @param treeRoot
+         *         the root of the tree to examine
+         */
+        UniqueFastHashes(T treeRoot) {
+            List<T> nodes = Artifacts.dfs(treeRoot);
+            long[] all = new long[nodes.size()];
+
+            for (int i = 0; i < all.length; i++) {
+                all[i] = nodes.get(i).getFastTreeHash();
+            }
+
+            long[] sorted = all.clone();
+            long[] unique = new long[sorted.length];
+            int size = 0;
+
+            Arrays.sort(sorted);
+
+            for (int i = 0; i < sorted.length; i++) {
+                boolean first = i == 0 || sorted[i - 1] != sorted[i];
+                boolean last = i == sorted.length - 1 || sorted[i + 1] != sorted[i];
+
+                if (first && last) {
+                    unique[size++] = sorted[i];
+                }
+            }
+
+            this.hashes = Arrays.copyOf(unique, size);
+            this.artifacts = new ArrayList<>(Collections.nCopies(size, null));
+
+            for (int i = 0; i < all.length; i++) {
+                int index = Arrays.binarySearch(hashes, all[i]);
+
+                if (index >= 0) {
+                    artifacts.set(index, nodes.get(i));
+                }
+            }
+        }
+
+        /**
+         * Returns the node whose subtree has the given hash.
+         *
+         * @param hash
+         *         the hash to look up
+         * @return the node or {@code null} if {@code hash} is not a unique hash of the tree
+         */
+        T get(long hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            return index >= 0 ? artifacts.get(index) : null;
+        }
+    }
+
     /**
      * Returns whether this {@link IdenticalSubtreeMatcher} has matched the {@link Artifact artifacts} {@code left} and
      * {@code right} (and therefore their whole subtrees.
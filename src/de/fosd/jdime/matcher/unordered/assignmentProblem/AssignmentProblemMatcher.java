@@ -27,6 +27,7 @@
 
 import de.fosd.jdime.artifact.Artifact;
 import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.matcher.ChildPairs;
 import de.fosd.jdime.matcher.MatcherInterface;
 import de.fosd.jdime.matcher.matching.Matching;
 import de.fosd.jdime.matcher.matching.Matchings;
@@ -86,6 +87,8 @@ public final Matchings<T> match(final MergeContext context, final T left, final
             }
         }
 
+        Matchings<T>[][] childMatchings = ChildPairs.match(matcher, context, left, right);
+
         T childT1;
         T childT2;
 
@@ -93,7 +96,7 @@ public final Matchings<T> match(final MergeContext context, final T left, final
             childT1 = left.getChild(i);
             for (int j = 0; j < n; j++) {
                 childT2 = right.getChild(j);
-                Matchings<T> w = matcher.match(context, childT1, childT2);
+                Matchings<T> w = childMatchings[i][j];
                 Matching<T> matching = w.get(childT1, childT2).get();
                 matchings[i][j] = Tuple.of(matching.getScore(), w);
             }
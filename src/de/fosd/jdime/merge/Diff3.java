@@ -0,0 +1,923 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.merge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A line based three-way merge implemented in Java. The merge follows the one of {@code git merge-file} (and libgit2)
+ * with the default options: The changes of left and right relative to base are computed using a Myers diff whose
+ * ambiguous changes are shifted like git does. Overlapping or adjacent changes are conflicts unless both sides made
+ * the same change. Conflicts are reduced to the lines that actually differ between left and right and conflicts
+ * separated by at most three lines are joined. Conflicts are output in the 'merge' style, i.e. without the base
+ * lines.
+ * <p>
+ * The class has no mutable shared state and may be used by any number of threads concurrently.
+ */
+public final class Diff3 {
+
+    /**
+     * Conflicts separated by at most this number of lines are joined.
+     */
+    private static final int MAX_JOINED_GAP = 3;
+
+    /**
+     * The modes of a {@link Hunk}.
+     */
+    private static final int CONFLICT = 0;
+    private static final int LEFT = 1;
+    private static final int RIGHT = 2;
+    private static final int IDENTICAL = 4;
+
+    /**
+     * Utility class.
+     */
+    private Diff3() {}
+
+    /**
+     * Merges the given contents line by line.
+     *
+     * @param left
+     *         the left content
+     * @param base
+     *         the base content
+     * @param right
+     *         the right content
+     * @param leftLabel
+     *         the label following the start marker of conflicts
+     * @param rightLabel
+     *         the label following the end marker of conflicts
+     * @param markerSize
+     *         the length of the conflict markers
+     * @return the merged content
+     */
+    public static String merge(String left, String base, String right, String leftLabel, String rightLabel,
+                               int markerSize) {
+
+        Map<String, Integer> ids = new HashMap<>();
+
+        String[] leftLines = lines(left);
+        String[] baseLines = lines(base);
+        String[] rightLines = lines(right);
+
+        int[] leftIds = ids(leftLines, ids);
+        int[] baseIds = ids(baseLines, ids);
+        int[] rightIds = ids(rightLines, ids);
+
+        int[] leftChanges = diff(baseIds, leftIds, ids.size());
+
+        if (leftChanges.length == 0) {
+            return right;
+        }
+
+        int[] rightChanges = diff(baseIds, rightIds, ids.size());
+
+        if (rightChanges.length == 0) {
+            return left;
+        }
+
+        List<Hunk> hunks = hunks(leftChanges, rightChanges, baseIds.length, leftIds.length, rightIds.length,
+                                 leftIds, rightIds);
+
+        refineConflicts(hunks, leftIds, rightIds, ids.size());
+        joinConflicts(hunks);
+
+        return output(hunks, leftLines, baseLines, rightLines, leftLabel, rightLabel, markerSize);
+    }
+
+    /**
+     * Computes the changes turning the content <code>a</code> into the content <code>b</code> using the same line diff
+     * as {@link #merge(String, String, String, String, String, int)}.
+     *
+     * @param a
+     *         the old content
+     * @param b
+     *         the new content
+     * @return the changes as consecutive (first line in a, number of lines in a, first line in b, number of lines in
+     *         b) quadruples ordered by their position
+     */
+    public static int[] diff(String a, String b) {
+        Map<String, Integer> ids = new HashMap<>();
+
+        int[] aIds = ids(lines(a), ids);
+        int[] bIds = ids(lines(b), ids);
+
+        return diff(aIds, bIds, ids.size());
+    }
+
+    /**
+     * Splits the given content into lines. The lines retain their '\n' terminators, the last line may not have one.
+     *
+     * @param content
+     *         the content to split
+     * @return the lines
+     */
+    private static String[] lines(String content) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+
+        for (int i = content.indexOf('\n'); i >= 0; i = content.indexOf('\n', start)) {
+            lines.add(content.substring(start, i + 1));
+            start = i + 1;
+        }
+
+        if (start < content.length()) {
+            lines.add(content.substring(start));
+        }
+
+        return lines.toArray(new String[0]);
+    }
+
+    /**
+     * Maps the given lines to integer IDs. Equal lines (including their terminators) receive the same ID.
+     *
+     * @param lines
+     *         the lines to map
+     * @param ids
+     *         the IDs assigned so far
+     * @return the IDs of the lines
+     */
+    private static int[] ids(String[] lines, Map<String, Integer> ids) {
+        int[] result = new int[lines.length];
+
+        for (int i = 0; i < lines.length; i++) {
+            Integer id = ids.get(lines[i]);
+
+            if (id == null) {
+                id = ids.size();
+                ids.put(lines[i], id);
+            }
+
+            result[i] = id;
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the changes turning <code>a</code> into <code>b</code>.
+     *
+     * @param a
+     *         the line IDs of the old content
+     * @param b
+     *         the line IDs of the new content
+     * @param numIds
+     *         the number of distinct line IDs
+     * @return the changes as consecutive (start in a, lines in a, start in b, lines in b) quadruples
+     */
+    private static int[] diff(int[] a, int[] b, int numIds) {
+        // Index i + 1 stores whether line i changed, the first and last entries are sentinels.
+        boolean[] changedA = new boolean[a.length + 2];
+        boolean[] changedB = new boolean[b.length + 2];
+
+        compare(a, changedA, b, changedB, numIds);
+        compact(a, changedA, changedB);
+        compact(b, changedB, changedA);
+
+        int[] changes = new int[16];
+        int size = 0;
+
+        for (int i1 = a.length, i2 = b.length; i1 >= 0 || i2 >= 0; i1--, i2--) {
+
+            if (changedA[i1] || changedB[i2]) {
+                int l1 = i1, l2 = i2;
+
+                while (changedA[i1]) {
+                    i1--;
+                }
+
+                while (changedB[i2]) {
+                    i2--;
+                }
+
+                if (size + 4 > changes.length) {
+                    changes = Arrays.copyOf(changes, changes.length * 2);
+                }
+
+                changes[size++] = i1;
+                changes[size++] = l1 - i1;
+                changes[size++] = i2;
+                changes[size++] = l2 - i2;
+            }
+        }
+
+        // The changes were found back to front.
+        int[] result = new int[size];
+
+        for (int i = 0; i < size; i += 4) {
+            System.arraycopy(changes, i, result, size - i - 4, 4);
+        }
+
+        return result;
+    }
+
+    /**
+     * Marks the lines of <code>a</code> and <code>b</code> that are not part of a longest common subsequence. Lines
+     * that do not occur in the other sequence at all are marked directly, the others are compared using
+     * {@link Myers}.
+     *
+     * @param a
+     *         the line IDs of the old content
+     * @param changedA
+     *         the change marks for <code>a</code>
+     * @param b
+     *         the line IDs of the new content
+     * @param changedB
+     *         the change marks for <code>b</code>
+     * @param numIds
+     *         the number of distinct line IDs
+     */
+    private static void compare(int[] a, boolean[] changedA, int[] b, boolean[] changedB, int numIds) {
+        boolean[] inA = new boolean[numIds];
+        boolean[] inB = new boolean[numIds];
+
+        for (int id : a) {
+            inA[id] = true;
+        }
+
+        for (int id : b) {
+            inB[id] = true;
+        }
+
+        int[] indexA = filter(a, inB, changedA);
+        int[] indexB = filter(b, inA, changedB);
+        int[] x = new int[indexA.length];
+        int[] y = new int[indexB.length];
+
+        for (int i = 0; i < x.length; i++) {
+            x[i] = a[indexA[i]];
+        }
+
+        for (int i = 0; i < y.length; i++) {
+            y[i] = b[indexB[i]];
+        }
+
+        Myers myers = new Myers(x, y);
+        myers.compare(0, x.length, 0, y.length);
+
+        for (int i = 0; i < x.length; i++) {
+            changedA[indexA[i] + 1] = myers.changedX[i];
+        }
+
+        for (int i = 0; i < y.length; i++) {
+            changedB[indexB[i] + 1] = myers.changedY[i];
+        }
+    }
+
+    /**
+     * Marks the lines whose ID does not occur in the other sequence as changed.
+     *
+     * @param lines
+     *         the line IDs
+     * @param inOther
+     *         which IDs occur in the other sequence
+     * @param changed
+     *         the change marks for <code>lines</code>
+     * @return the indices of the lines that were not marked
+     */
+    private static int[] filter(int[] lines, boolean[] inOther, boolean[] changed) {
+        int[] index = new int[lines.length];
+        int size = 0;
+
+        for (int i = 0; i < lines.length; i++) {
+
+            if (inOther[lines[i]]) {
+                index[size++] = i;
+            } else {
+                changed[i + 1] = true;
+            }
+        }
+
+        return Arrays.copyOf(index, size);
+    }
+
+    /**
+     * Shifts groups of changed lines whose position is ambiguous as far down as possible unless they can be aligned
+     * with a group of changes in the other sequence (see {@code xdl_change_compact} of git).
+     *
+     * @param lines
+     *         the line IDs of the sequence to compact
+     * @param changed
+     *         the change marks for <code>lines</code>
+     * @param changedOther
+     *         the change marks for the other sequence
+     */
+    private static void compact(int[] lines, boolean[] changed, boolean[] changedOther) {
+        Group g = new Group(lines, changed);
+        Group go = new Group(null, changedOther);
+
+        while (true) {
+
+            if (g.end != g.start) {
+                int groupSize;
+                int earliestEnd;
+                int endMatchingOther;
+
+                do {
+                    groupSize = g.end - g.start;
+                    endMatchingOther = -1;
+
+                    while (g.slideUp()) {
+                        go.previous();
+                    }
+
+                    earliestEnd = g.end;
+
+                    if (go.end > go.start) {
+                        endMatchingOther = g.end;
+                    }
+
+                    while (g.slideDown()) {
+                        go.next();
+
+                        if (go.end > go.start) {
+                            endMatchingOther = g.end;
+                        }
+                    }
+                } while (groupSize != g.end - g.start);
+
+                if (g.end != earliestEnd && endMatchingOther != -1) {
+
+                    while (go.end == go.start) {
+                        g.slideUp();
+                        go.previous();
+                    }
+                }
+            }
+
+            if (!g.next()) {
+                break;
+            }
+
+            go.next();
+        }
+    }
+
+    /**
+     * Merges the changes of left and right into a list of <code>Hunk</code>s (see {@code xdl_do_merge} of git).
+     * Changes made identically by both sides are omitted as the left content already contains them.
+     *
+     * @return the <code>Hunk</code>s ordered by their position
+     */
+    private static List<Hunk> hunks(int[] leftChanges, int[] rightChanges, int baseSize, int leftSize, int rightSize,
+                                    int[] leftIds, int[] rightIds) {
+
+        List<Hunk> hunks = new ArrayList<>();
+        int l = 0, r = 0;
+
+        while (l < leftChanges.length && r < rightChanges.length) {
+            int lBase = leftChanges[l], lBaseChg = leftChanges[l + 1], lSide = leftChanges[l + 2], lSideChg = leftChanges[l + 3];
+            int rBase = rightChanges[r], rBaseChg = rightChanges[r + 1], rSide = rightChanges[r + 2], rSideChg = rightChanges[r + 3];
+
+            if (lBase + lBaseChg < rBase) {
+                append(hunks, LEFT, lBase, lBaseChg, lSide, lSideChg, rSide - rBase + lBase, lBaseChg);
+                l += 4;
+                continue;
+            }
+
+            if (rBase + rBaseChg < lBase) {
+                append(hunks, RIGHT, rBase, rBaseChg, lSide - lBase + rBase, rBaseChg, rSide, rSideChg);
+                r += 4;
+                continue;
+            }
+
+            if (lBase != rBase || lBaseChg != rBaseChg || lSideChg != rSideChg
+                    || !equal(leftIds, lSide, rightIds, rSide, lSideChg)) {
+
+                int off = lBase - rBase;
+                int ffo = off + lBaseChg - rBaseChg;
+                int i0 = lBase, i1 = lSide, i2 = rSide;
+
+                if (off > 0) {
+                    i0 -= off;
+                    i1 -= off;
+                } else {
+                    i2 += off;
+                }
+
+                int chg0 = lBase + lBaseChg - i0;
+                int chg1 = lSide + lSideChg - i1;
+                int chg2 = rSide + rSideChg - i2;
+
+                if (ffo < 0) {
+                    chg0 -= ffo;
+                    chg1 -= ffo;
+                } else {
+                    chg2 += ffo;
+                }
+
+                append(hunks, CONFLICT, i0, chg0, i1, chg1, i2, chg2);
+            }
+
+            int lEnd = lBase + lBaseChg;
+            int rEnd = rBase + rBaseChg;
+
+            if (lEnd >= rEnd) {
+                r += 4;
+            }
+
+            if (rEnd >= lEnd) {
+                l += 4;
+            }
+        }
+
+        for (; l < leftChanges.length; l += 4) {
+            int lBase = leftChanges[l], lBaseChg = leftChanges[l + 1];
+            append(hunks, LEFT, lBase, lBaseChg, leftChanges[l + 2], leftChanges[l + 3], lBase + rightSize - baseSize, lBaseChg);
+        }
+
+        for (; r < rightChanges.length; r += 4) {
+            int rBase = rightChanges[r], rBaseChg = rightChanges[r + 1];
+            append(hunks, RIGHT, rBase, rBaseChg, rBase + leftSize - baseSize, rBaseChg, rightChanges[r + 2], rightChanges[r + 3]);
+        }
+
+        return hunks;
+    }
+
+    /**
+     * Appends a <code>Hunk</code> or extends the last one if they overlap. Overlapping hunks of different modes are
+     * conflicts.
+     */
+    private static void append(List<Hunk> hunks, int mode, int i0, int chg0, int i1, int chg1, int i2, int chg2) {
+        Hunk last = hunks.isEmpty() ? null : hunks.get(hunks.size() - 1);
+
+        if (last != null && (i1 <= last.i1 + last.chg1 || i2 <= last.i2 + last.chg2)) {
+
+            if (mode != last.mode) {
+                last.mode = CONFLICT;
+            }
+
+            last.chg0 = i0 + chg0 - last.i0;
+            last.chg1 = i1 + chg1 - last.i1;
+            last.chg2 = i2 + chg2 - last.i2;
+        } else {
+            hunks.add(new Hunk(mode, i0, chg0, i1, chg1, i2, chg2));
+        }
+    }
+
+    /**
+     * Reduces every conflict to the lines differing between left and right by comparing the two sides. A conflict
+     * whose sides are equal is resolved, one containing multiple differences is split up.
+     */
+    private static void refineConflicts(List<Hunk> hunks, int[] leftIds, int[] rightIds, int numIds) {
+
+        for (int h = 0; h < hunks.size(); h++) {
+            Hunk m = hunks.get(h);
+
+            if (m.mode != CONFLICT || m.chg1 == 0 || m.chg2 == 0) {
+                continue;
+            }
+
+            int[] t1 = Arrays.copyOfRange(leftIds, m.i1, m.i1 + m.chg1);
+            int[] t2 = Arrays.copyOfRange(rightIds, m.i2, m.i2 + m.chg2);
+            int[] changes = diff(t1, t2, numIds);
+
+            if (changes.length == 0) {
+                m.mode = IDENTICAL;
+                continue;
+            }
+
+            int i1 = m.i1, i2 = m.i2;
+
+            m.i1 = i1 + changes[0];
+            m.chg1 = changes[1];
+            m.i2 = i2 + changes[2];
+            m.chg2 = changes[3];
+
+            for (int c = 4; c < changes.length; c += 4) {
+                hunks.add(++h, new Hunk(CONFLICT, m.i0, m.chg0, i1 + changes[c], changes[c + 1], i2 + changes[c + 2], changes[c + 3]));
+            }
+        }
+    }
+
+    /**
+     * Joins conflicts that are separated by at most {@value #MAX_JOINED_GAP} lines.
+     */
+    private static void joinConflicts(List<Hunk> hunks) {
+
+        for (int h = 0; h + 1 < hunks.size(); ) {
+            Hunk m = hunks.get(h);
+            Hunk next = hunks.get(h + 1);
+
+            if (m.mode != CONFLICT || next.mode != CONFLICT || next.i1 - (m.i1 + m.chg1) > MAX_JOINED_GAP) {
+                h++;
+            } else {
+                m.chg1 = next.i1 + next.chg1 - m.i1;
+                m.chg2 = next.i2 + next.chg2 - m.i2;
+                hunks.remove(h + 1);
+            }
+        }
+    }
+
+    /**
+     * Produces the merged content. Lines outside of <code>Hunk</code>s are taken from the left content.
+     */
+    private static String output(List<Hunk> hunks, String[] left, String[] base, String[] right, String leftLabel,
+                                 String rightLabel, int markerSize) {
+
+        StringBuilder out = new StringBuilder();
+        int i = 0;
+
+        for (Hunk m : hunks) {
+
+            if (m.mode == IDENTICAL) {
+                continue;
+            }
+
+            copy(out, left, i, m.i1 - i, false, false);
+
+            if (m.mode == CONFLICT) {
+                boolean crlf = isCRLFNeeded(left, right, base, m);
+                String eol = crlf ? "\r\n" : "\n";
+
+                marker(out, '<', markerSize, leftLabel, eol);
+                copy(out, left, m.i1, m.chg1, crlf, true);
+                marker(out, '=', markerSize, null, eol);
+                copy(out, right, m.i2, m.chg2, crlf, true);
+                marker(out, '>', markerSize, rightLabel, eol);
+            } else if (m.mode == LEFT) {
+                copy(out, left, m.i1, m.chg1, false, false);
+            } else {
+                copy(out, right, m.i2, m.chg2, false, false);
+            }
+
+            i = m.i1 + m.chg1;
+        }
+
+        copy(out, left, i, left.length - i, false, false);
+        return out.toString();
+    }
+
+    private static void marker(StringBuilder out, char c, int size, String label, String eol) {
+
+        for (int i = 0; i < size; i++) {
+            out.append(c);
+        }
+
+        if (label != null) {
+            out.append(' ').append(label);
+        }
+
+        out.append(eol);
+    }
+
+    /**
+     * Appends <code>count</code> lines starting at <code>start</code>. If <code>addNewline</code> is set and the last
+     * appended line has no terminator, one is added.
+     */
+    private static void copy(StringBuilder out, String[] lines, int start, int count, boolean crlf, boolean addNewline) {
+
+        if (count < 1) {
+            return;
+        }
+
+        for (int i = start; i < start + count; i++) {
+            out.append(lines[i]);
+        }
+
+        String last = lines[start + count - 1];
+
+        if (addNewline && !last.endsWith("\n")) {
+            out.append(crlf ? "\r\n" : "\n");
+        }
+    }
+
+    /**
+     * Determines whether the markers of the given conflict must end in CRLF by looking at the lines preceding the
+     * conflict (or the first lines) of left, right and base (see {@code is_cr_needed} of git).
+     */
+    private static boolean isCRLFNeeded(String[] left, String[] right, String[] base, Hunk m) {
+        int needsCR = isCRLF(left, m.i1 != 0 ? m.i1 - 1 : 0);
+
+        if (needsCR != 0) {
+            needsCR = isCRLF(right, m.i2 != 0 ? m.i2 - 1 : 0);
+        }
+
+        if (needsCR != 0) {
+            needsCR = isCRLF(base, 0);
+        }
+
+        return needsCR > 0;
+    }
+
+    /**
+     * Returns 1 if the given line ends in CRLF, 0 if it ends in LF and -1 if that can not be determined.
+     */
+    private static int isCRLF(String[] lines, int i) {
+
+        if (i < lines.length - 1) {
+            return lines[i].endsWith("\r\n") ? 1 : 0;
+        }
+
+        if (lines.length == 0) {
+            return -1;
+        }
+
+        if (lines[i].endsWith("\n")) {
+            return lines[i].endsWith("\r\n") ? 1 : 0;
+        }
+
+        if (i == 0) {
+            return -1;
+        }
+
+        return lines[i - 1].endsWith("\r\n") ? 1 : 0;
+    }
+
+    private static boolean equal(int[] a, int aStart, int[] b, int bStart, int length) {
+
+        for (int i = 0; i < length; i++) {
+
+            if (a[aStart + i] != b[bStart + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * A region of the merge result. The region covers <code>chg0</code> lines starting at <code>i0</code> in base,
+     * <code>chg1</code> lines starting at <code>i1</code> in left and <code>chg2</code> lines starting at
+     * <code>i2</code> in right.
+     */
+    private static final class Hunk {
+
+        private int mode;
+        private int i0, chg0;
+        private int i1, chg1;
+        private int i2, chg2;
+
+        private Hunk(int mode, int i0, int chg0, int i1, int chg1, int i2, int chg2) {
+            this.mode = mode;
+            this.i0 = i0;
+            this.chg0 = chg0;
+            this.i1 = i1;
+            this.chg1 = chg1;
+            this.i2 = i2;
+            this.chg2 = chg2;
+        }
+    }
+
+    /**
+     * A maximal group of consecutive changed lines [start, end) of a sequence. Empty groups mark positions between
+     * unchanged lines. The group functions of {@code xdiffi.c} of git.
+     */
+    private static final class Group {
+
+        private final int[] lines;
+        private final boolean[] changed;
+        private final int size;
+
+        private int start;
+        private int end;
+
+        private Group(int[] lines, boolean[] changed) {
+            this.lines = lines;
+            this.changed = changed;
+            this.size = changed.length - 2;
+
+            while (changed[end + 1]) {
+                end++;
+            }
+        }
+
+        private boolean next() {
+
+            if (end == size) {
+                return false;
+            }
+
+            start = end + 1;
+
+            for (end = start; changed[end + 1]; end++) {}
+
+            return true;
+        }
+
+        private boolean previous() {
+
+            if (start == 0) {
+                return false;
+            }
+
+            end = start - 1;
+
+            for (start = end; changed[start]; start--) {}
+
+            return true;
+        }
+
+        private boolean slideDown() {
+
+            if (end < size && lines[start] == lines[end]) {
+                changed[start++ + 1] = false;
+                changed[end++ + 1] = true;
+
+                while (changed[end + 1]) {
+                    end++;
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+
+        private boolean slideUp() {
+
+            if (start > 0 && lines[start - 1] == lines[end - 1]) {
+                changed[--start + 1] = true;
+                changed[--end + 1] = false;
+
+                while (changed[start]) {
+                    start--;
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * The linear space variant of the O(ND) difference algorithm by Eugene W. Myers. Marks the elements of
+     * <code>x</code> and <code>y</code> that are not part of a longest common subsequence.
+     */
+    private static final class Myers {
+
+        private final int[] x;
+        private final int[] y;
+
+        private final boolean[] changedX;
+        private final boolean[] changedY;
+
+        private final int[] forward;
+        private final int[] backward;
+
+        private Myers(int[] x, int[] y) {
+            this.x = x;
+            this.y = y;
+            this.changedX = new boolean[x.length];
+            this.changedY = new boolean[y.length];
+
+            int max = (x.length + y.length + 1) / 2;
+            this.forward = new int[2 * max + 2];
+            this.backward = new int[2 * max + 2];
+        }
+
+        private void compare(int xLo, int xHi, int yLo, int yHi) {
+
+            while (xLo < xHi && yLo < yHi && x[xLo] == y[yLo]) {
+                xLo++;
+                yLo++;
+            }
+
+            while (xLo < xHi && yLo < yHi && x[xHi - 1] == y[yHi - 1]) {
+                xHi--;
+                yHi--;
+            }
+
+            if (xLo == xHi) {
+                Arrays.fill(changedY, yLo, yHi, true);
+            } else if (yLo == yHi) {
+                Arrays.fill(changedX, xLo, xHi, true);
+            } else {
+                bisect(xLo, xHi, yLo, yHi);
+            }
+        }
+
+        /**
+         * Finds the middle snake of the shortest edit script and compares the regions before and after it.
+         */
+        private void bisect(int xLo, int xHi, int yLo, int yHi) {
+            int n = xHi - xLo;
+            int m = yHi - yLo;
+            int maxD = (n + m + 1) / 2;
+            int offset = maxD;
+            int length = 2 * maxD;
+
+            Arrays.fill(forward, 0, length + 2, -1);
+            Arrays.fill(backward, 0, length + 2, -1);
+            forward[offset + 1] = 0;
+            backward[offset + 1] = 0;
+
+            int delta = n - m;
+            boolean front = (delta % 2 != 0);
+            int k1Start = 0, k1End = 0, k2Start = 0, k2End = 0;
+
+            for (int d = 0; d < maxD; d++) {
+
+                for (int k1 = -d + k1Start; k1 <= d - k1End; k1 += 2) {
+                    int k1Offset = offset + k1;
+                    int x1;
+
+                    if (k1 == -d || (k1 != d && forward[k1Offset - 1] < forward[k1Offset + 1])) {
+                        x1 = forward[k1Offset + 1];
+                    } else {
+                        x1 = forward[k1Offset - 1] + 1;
+                    }
+
+                    int y1 = x1 - k1;
+
+                    while (x1 < n && y1 < m && x[xLo + x1] == y[yLo + y1]) {
+                        x1++;
+                        y1++;
+                    }
+
+                    forward[k1Offset] = x1;
+
+                    if (x1 > n) {
+                        k1End += 2;
+                    } else if (y1 > m) {
+                        k1Start += 2;
+                    } else if (front) {
+                        int k2Offset = offset + delta - k1;
+
+                        if (k2Offset >= 0 && k2Offset < length && backward[k2Offset] != -1) {
+                            int x2 = n - backward[k2Offset];
+
+                            if (x1 >= x2) {
+                                split(xLo, xHi, yLo, yHi, x1, y1);
+                                return;
+                            }
+                        }
+                    }
+                }
+
+                for (int k2 = -d + k2Start; k2 <= d - k2End; k2 += 2) {
+                    int k2Offset = offset + k2;
+                    int x2;
+
+                    if (k2 == -d || (k2 != d && backward[k2Offset - 1] < backward[k2Offset + 1])) {
+                        x2 = backward[k2Offset + 1];
+                    } else {
+                        x2 = backward[k2Offset - 1] + 1;
+                    }
+
+                    int y2 = x2 - k2;
+
+                    while (x2 < n && y2 < m && x[xHi - x2 - 1] == y[yHi - y2 - 1]) {
+                        x2++;
+                        y2++;
+                    }
+
+                    backward[k2Offset] = x2;
+
+                    if (x2 > n) {
+                        k2End += 2;
+                    } else if (y2 > m) {
+                        k2Start += 2;
+                    } else if (!front) {
+                        int k1Offset = offset + delta - k2;
+
+                        if (k1Offset >= 0 && k1Offset < length && forward[k1Offset] != -1) {
+                            int x1 = forward[k1Offset];
+                            int y1 = offset + x1 - k1Offset;
+
+                            if (x1 >= n - x2) {
+                                split(xLo, xHi, yLo, yHi, x1, y1);
+                                return;
+                            }
+                        }
+                    }
+                }
+            }
+
+            // There is no common element.
+            Arrays.fill(changedX, xLo, xHi, true);
+            Arrays.fill(changedY, yLo, yHi, true);
+        }
+
+        private void split(int xLo, int xHi, int yLo, int yHi, int xMid, int yMid) {
+            compare(xLo, xLo + xMid, yLo, yLo + yMid);
+            compare(xLo + xMid, xHi, yLo + yMid, yHi);
+        }
+    }
+}
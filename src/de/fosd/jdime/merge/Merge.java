@@ -23,7 +23,9 @@
  */
 package de.fosd.jdime.merge;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 import java.util.logging.Logger;
 
 import de.fosd.jdime.artifact.Artifact;
@@ -31,13 +33,17 @@
 import de.fosd.jdime.config.merge.MergeContext;
 import de.fosd.jdime.config.merge.MergeScenario;
 import de.fosd.jdime.config.merge.Revision;
+import de.fosd.jdime.execption.AbortException;
 import de.fosd.jdime.matcher.Matcher;
 import de.fosd.jdime.matcher.matching.Color;
 import de.fosd.jdime.matcher.matching.Matching;
+import de.fosd.jdime.matcher.matching.Matchings;
 import de.fosd.jdime.operations.AddOperation;
 import de.fosd.jdime.operations.ConflictOperation;
 import de.fosd.jdime.operations.MergeOperation;
+import de.fosd.jdime.stats.MergeScenarioStatistics;
 
+import static de.fosd.jdime.artifact.Artifacts.copyTree;
 import static de.fosd.jdime.artifact.Artifacts.root;
 import static de.fosd.jdime.strdump.DumpMode.PLAINTEXT_TREE;
 
@@ -63,6 +69,11 @@
      */
     @Override
     public void merge(MergeOperation<T> operation, MergeContext context) {
+
+        if (Thread.interrupted()) {
+            throw new AbortException("Interrupted while merging " + operation.getMergeScenario() + ".");
+        }
+
         logprefix = operation.getId() + " - ";
         MergeScenario<T> triple = operation.getMergeScenario();
         T left = triple.getLeft();
@@ -78,29 +89,34 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
         Matching<T> m;
 
         if (!left.hasMatching(r) && !right.hasMatching(l)) {
-            if (!base.isEmpty()) {
-                // 3-way merge
+            if (!base.isEmpty() && context.isConcurrentDiffs()) {
+                // 3-way merge, all three diffs at once
+                m = diffConcurrently(context, base, left, right);
+            } else {
+                if (!base.isEmpty()) {
+                    // 3-way merge
 
-                // diff base left
-                matcher = new Matcher<>(base, left);
-                m = matcher.match(context, Color.GREEN).get(base, left).get();
+                    // diff base left
+                    matcher = new Matcher<>(base, left);
+                    m = matcher.match(context, Color.GREEN).get(base, left).get();
 
-                if (m.getScore() == 0) {
-                    LOG.fine(() -> String.format("%s and %s have no matches.", base.getId(), left.getId()));
-                }
+                    if (m.getScore() == 0) {
+                        LOG.fine(() -> String.format("%s and %s have no matches.", base.getId(), left.getId()));
+                    }
 
-                // diff base right
-                matcher = new Matcher<>(matcher, base, right);
-                m = matcher.match(context, Color.GREEN).get(base, right).get();
+                    // diff base right
+                    matcher = new Matcher<>(matcher, base, right);
+                    m = matcher.match(context, Color.GREEN).get(base, right).get();
 
-                if (m.getScore() == 0) {
-                    LOG.fine(() -> String.format("%s and %s have no matches.", base.getId(), right.getId()));
+                    if (m.getScore() == 0) {
+                        LOG.fine(() -> String.format("%s and %s have no matches.", base.getId(), right.getId()));
+                    }
                 }
-            }
 
-            // diff left right
-            matcher = new Matcher<>(matcher, left, right);
-            m = matcher.match(context, Color.BLUE).get(left, right).get();
+                // diff left right
+                matcher = new Matcher<>(matcher, left, right);
+                m = matcher.match(context, Color.BLUE).get(left, right).get();
+            }
 
             if (context.isDiffOnly() && left.isRoot() && left instanceof ASTNodeArtifact) {
                 assert (right.isRoot());
@@ -130,6 +146,23 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
             target.copyMatches(left);
         }
 
+        // three-way fast path, if one side did not change the subtree the other side is taken as a whole
+        if (takeUnchanged(context, left, base)) {
+            boolean fastHash = context.isUseFastTreeHash();
+
+            if (left.treeHashEquals(base, fastHash)) {
+                LOG.finest(() -> String.format("%s is unchanged, taking [%s] as a whole", prefix(left), right.getId()));
+                takeChildren(right, target);
+                countMerged(left, right, context);
+                return;
+            } else if (right.treeHashEquals(base, fastHash)) {
+                LOG.finest(() -> String.format("%s is unchanged, taking [%s] as a whole", prefix(right), left.getId()));
+                takeChildren(left, target);
+                countMerged(left, right, context);
+                return;
+            }
+        }
+
         // check if one or both the nodes have no children
         List<T> leftChildren = left.getChildren();
         List<T> rightChildren = right.getChildren();
@@ -148,7 +181,7 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
 
                 if (base.hasChildren()) {
                     LOG.finest(() -> String.format("%s was deleted by left", prefix(right)));
-                    if (right.hasChanges(b)) {
+                    if (right.hasChanges(b, context.isUseFastTreeHash())) {
                         LOG.finest(() -> String.format("%s has changes in subtree", prefix(right)));
 
                         for (T rightChild : right.getChildren()) {
@@ -176,7 +209,7 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
 
                 if (base.hasChildren()) {
                     LOG.finest(() -> String.format("%s was deleted by right", prefix(left)));
-                    if (left.hasChanges(b)) {
+                    if (left.hasChanges(b, context.isUseFastTreeHash())) {
                         LOG.finest(() -> String.format("%s has changes in subtree", prefix(left)));
 
                         for (T leftChild : left.getChildren()) {
@@ -236,6 +269,142 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
         }
     }
 
+    /**
+     * Runs the base-left, base-right and left-right diffs concurrently. The resulting matchings are stored in the
+     * trees in the same order as in the sequential case once all three diffs are finished.
+     *
+     * @param context
+     *         the <code>MergeContext</code>
+     * @param base
+     *         the base tree
+     * @param left
+     *         the left tree
+     * @param right
+     *         the right tree
+     * @return the <code>Matching</code> of <code>left</code> and <code>right</code>
+     */
+    private Matching<T> diffConcurrently(MergeContext context, T base, T left, T right) {
+
+        // the tree hashes are calculated lazily, they must be available before the trees are shared between threads
+        for (T tree : Arrays.asList(base, left, right)) {
+            if (context.isUseFastTreeHash()) {
+                tree.getFastTreeHash();
+            } else {
+                tree.getTreeHash();
+            }
+        }
+
+        // the statistics of the scenario are created on demand in a non-concurrent map, the matchers only read them
+        if (context.hasStatistics()) {
+            context.getStatistics().getCurrentFileMergeScenarioStatistics();
+        }
+
+        // the caches are created up front so that the three matchers share them like the sequential diffs do
+        Matcher<T> baseLeft = new Matcher<>(base, left);
+        baseLeft.createCaches();
+
+        Matcher<T> baseRight = new Matcher<>(baseLeft, base, right);
+        baseRight.createCaches();
+
+        Matcher<T> leftRight = new Matcher<>(baseRight, left, right);
+
+        ForkJoinTask<Matchings<T>> baseLeftTask = ForkJoinTask.adapt(() -> baseLeft.match(context));
+        ForkJoinTask<Matchings<T>> baseRightTask = ForkJoinTask.adapt(() -> baseRight.match(context));
+        ForkJoinTask<Matchings<T>> leftRightTask = ForkJoinTask.adapt(() -> leftRight.match(context));
+
+        ForkJoinTask.invokeAll(baseLeftTask, baseRightTask, leftRightTask);
+
+        Matchings<T> matchings = baseLeftTask.join();
+        baseLeft.store(context, matchings, Color.GREEN);
+
+        if (matchings.get(base, left).get().getScore() == 0) {
+            LOG.fine(() -> String.format("%s and %s have no matches.", base.getId(), left.getId()));
+        }
+
+        matchings = baseRightTask.join();
+        baseRight.store(context, matchings, Color.GREEN);
+
+        if (matchings.get(base, right).get().getScore() == 0) {
+            LOG.fine(() -> String.format("%s and %s have no matches.", base.getId(), right.getId()));
+        }
+
+        matchings = leftRightTask.join();
+        leftRight.store(context, matchings, Color.BLUE);
+
+        return matchings.get(left, right).get();
+    }
+
+    /**
+     * Adds copies of the subtrees rooted in the children of <code>source</code> to <code>target</code>. This is used
+     * if the other side did not change the subtree so no child level merge operations are necessary.
+     *
+     * @param source
+     *         the changed side
+     * @param target
+     *         the target to add the children to
+     */
+    private void takeChildren(T source, T target) {
+        for (T child : source.getChildren()) {
+            target.addChild(copyTree(child));
+        }
+    }
+
+    /**
+     * Records the statistics of the <code>MergeOperation</code>s that merging the children of <code>left</code> and
+     * <code>right</code> would have applied if the subtrees had not been taken as a whole. Every pair of children
+     * matched with each other is merged, the children only present on one side are added or deleted without
+     * recording statistics.
+     *
+     * @param left
+     *         the left <code>Artifact</code>
+     * @param right
+     *         the right <code>Artifact</code>
+     * @param context
+     *         the <code>MergeContext</code>
+     */
+    private static <T extends Artifact<T>> void countMerged(T left, T right, MergeContext context) {
+
+        if (!context.hasStatistics()) {
+            return;
+        }
+
+        MergeScenarioStatistics statistics = context.getStatistics().getCurrentFileMergeScenarioStatistics();
+        Revision r = right.getRevision();
+
+        for (T leftChild : left.getChildren()) {
+            Matching<T> mRight = leftChild.getMatching(r);
+
+            if (mRight == null) {
+                continue;
+            }
+
+            T rightChild = mRight.getMatchingArtifact(leftChild);
+
+            if (rightChild.getParent() == right) {
+                countMerged(leftChild, rightChild, context);
+                leftChild.mergeOpStatistics(statistics, context);
+                rightChild.mergeOpStatistics(statistics, context);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the fast path taking unchanged subtrees as a whole may be used for the given three-way merge.
+     * Choice nodes and conditional merges create variants for changes and are always merged.
+     *
+     * @param context
+     *         the <code>MergeContext</code>
+     * @param left
+     *         the left <code>Artifact</code>
+     * @param base
+     *         the base <code>Artifact</code>
+     * @return true iff the subtrees may be taken as a whole
+     */
+    private static <T extends Artifact<T>> boolean takeUnchanged(MergeContext context, T left, T base) {
+        return context.isTakeUnchangedSubtrees() && !base.isEmpty() && !left.isChoice()
+                && !context.isConditionalMerge(left);
+    }
+
     /**
      * Returns the logging prefix.
      *
@@ -33,9 +33,12 @@
 import de.fosd.jdime.operations.DeleteOperation;
 import de.fosd.jdime.operations.MergeOperation;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.logging.Logger;
 
+import static de.fosd.jdime.artifact.Artifacts.copyTree;
 import static de.fosd.jdime.config.merge.MergeScenario.BASE;
 
 /**
@@ -132,7 +135,30 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
 
             assert !leftChild.isMerged() && !rightChild.isMerged() : "Trying to merge already merged child!";
 
-            if (lr && rl) {
+            if (leftChild.isChoice() && (lr || rl)) {
+                // 1 X X X X X or X X X 1 X X
+                // Left child is a choice node of an earlier n-way merge that matched the right child either as a whole
+                // or through one of its variants. The right child becomes another variant of the choice node.
+
+                if (rightChild.isChoice()) {
+                    for (Map.Entry<String, T> variant : new ArrayList<>(rightChild.getVariants().entrySet())) {
+                        leftChild.addVariant(variant.getKey(), variant.getValue());
+                    }
+                } else {
+                    leftChild.addVariant(rightRev.getName(), rightChild);
+                }
+
+                AddOperation<T> addOp = new AddOperation<>(copyTree(leftChild), target, null);
+                addOp.apply(context);
+
+                moveLeft = true;
+                moveRight = true;
+
+                if (assertsEnabled) {
+                    leftChild.setMerged();
+                    rightChild.setMerged();
+                }
+            } else if (lr && rl) {
                 // 1 X X 1 X X
                 // Left and right child match.
                 // We have to merge them two-way or three-way depending on whether they have a common ancestor in base.
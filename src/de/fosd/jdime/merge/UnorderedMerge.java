@@ -93,6 +93,40 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
         boolean rightdone = rightChild == null;
 
         while (!leftdone || !rightdone) {
+            if (!leftdone && rightdone && (leftChild.isChoice() || r.contains(leftChild))) {
+                final T finalLeftChild = leftChild;
+
+                /*
+                 * The right children are exhausted while the left child still has a matching in right. This happens in
+                 * n-way merges if the matched right child was already merged with (a variant of) another left child.
+                 * The left child is added as a change, a choice node of an earlier n-way merge keeps its conditions.
+                 */
+                LOG.finest(() -> String.format("%s has no unmerged counterpart in right", prefix(finalLeftChild)));
+
+                AddOperation<T> addOp = new AddOperation<>(copyTree(leftChild), target, l.getName());
+                addOp.apply(context);
+                leftChild.setMerged();
+
+                leftChild = findNextUnmerged(leftIt);
+                leftdone = leftChild == null;
+                continue;
+            }
+
+            if (!rightdone && leftdone && (rightChild.isChoice() || l.contains(rightChild))) {
+                final T finalRightChild = rightChild;
+
+                // the same for the right child, a choice node occurs on the right side in n-way tree merges
+                LOG.finest(() -> String.format("%s has no unmerged counterpart in left", prefix(finalRightChild)));
+
+                AddOperation<T> addOp = new AddOperation<>(copyTree(rightChild), target, r.getName());
+                addOp.apply(context);
+                rightChild.setMerged();
+
+                rightChild = findNextUnmerged(rightIt);
+                rightdone = rightChild == null;
+                continue;
+            }
+
             if (!leftdone && !r.contains(leftChild)) {
                 assert (leftChild != null);
                 final T finalLeftChild = leftChild;
@@ -103,7 +137,7 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
                     LOG.finest(() -> String.format("%s was deleted by right", prefix(finalLeftChild)));
 
                     // was deleted in right
-                    if (leftChild.hasChanges(b)) {
+                    if (leftChild.hasChanges(b, context.isUseFastTreeHash())) {
                         // insertion-deletion-conflict
                         if (LOG.isLoggable(Level.FINEST)) {
                             LOG.finest(prefix(leftChild) + "has changes in subtree.");
@@ -144,7 +178,7 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
                     LOG.finest(() -> String.format("%s was deleted by left", prefix(finalRightChild)));
 
                     // was deleted in left
-                    if (rightChild.hasChanges(b)) {
+                    if (rightChild.hasChanges(b, context.isUseFastTreeHash())) {
                         LOG.finest(() -> String.format("%s has changes in subtree.", prefix(finalRightChild)));
 
                         // insertion-deletion-conflict
@@ -184,7 +218,7 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
                 if (leftChild.isChoice()) {
                     T matchedVariant = rightChild.getMatching(l).getMatchingArtifact(rightChild);
                     leftChild.addVariant(r.getName(), matchedVariant);
-                    AddOperation<T> addOp = new AddOperation<>(leftChild, target, null);
+                    AddOperation<T> addOp = new AddOperation<>(copyTree(leftChild), target, null);
 
                     addOp.apply(context);
                     leftChild.setMerged();
@@ -192,6 +226,21 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
                 }
 
                 // merge left
+                if (!leftChild.isMerged()) {
+                    Matching<T> mRight = leftChild.getMatching(r);
+                    T rightMatch = mRight.getMatchingArtifact(leftChild);
+
+                    if (rightMatch.isMerged()) {
+                        /*
+                         * In n-way merges the matching right child may already be merged with a variant of a choice
+                         * node. The left child is a change then.
+                         */
+                        AddOperation<T> addOp = new AddOperation<>(copyTree(leftChild), target, l.getName());
+                        addOp.apply(context);
+                        leftChild.setMerged();
+                    }
+                }
+
                 if (!leftChild.isMerged()) {
                     Matching<T> mRight = leftChild.getMatching(r);
                     T rightMatch = mRight.getMatchingArtifact(leftChild);
@@ -218,6 +267,18 @@ public void merge(MergeOperation<T> operation, MergeContext context) {
                 }
 
                 // merge right
+                if (!rightChild.isMerged()) {
+                    Matching<T> mLeft = rightChild.getMatching(l);
+                    T leftMatch = mLeft.getMatchingArtifact(rightChild);
+
+                    if (leftMatch.isMerged()) {
+                        // the same for the right child
+                        AddOperation<T> addOp = new AddOperation<>(copyTree(rightChild), target, r.getName());
+                        addOp.apply(context);
+                        rightChild.setMerged();
+                    }
+                }
+
                 if (!rightChild.isMerged()) {
                     Matching<T> mLeft = rightChild.getMatching(l);
                     T leftMatch = mLeft.getMatchingArtifact(rightChild);
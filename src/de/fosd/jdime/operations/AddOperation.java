@@ -79,7 +79,8 @@ public AddOperation(T artifact, T target, String condition) {
     public void apply(MergeContext context) {
         LOG.fine(() -> "Applying: " + this);
 
-        if (context.isConditionalMerge(artifact) && condition != null) {
+        // a choice node of an earlier n-way merge already carries the conditions of its variants
+        if (context.isConditionalMerge(artifact) && condition != null && !artifact.isChoice()) {
             LOG.fine("Creating a choice node.");
             target.addChild(target.createChoiceArtifact(condition, artifact));
         } else {
@@ -26,6 +26,8 @@
 import de.fosd.jdime.artifact.Artifact;
 import de.fosd.jdime.config.merge.MergeContext;
 
+import java.util.ArrayList;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Logger;
 
@@ -96,7 +98,14 @@ public void apply(MergeContext context) {
                 choice = target.createChoiceArtifact(leftCondition, left);
             }
 
-            choice.addVariant(rightCondition, right);
+            if (context.isNWayTreeReduction() && right != null && right.isChoice()) {
+                // in the n-way tree the right side may be an earlier merge result, its variants keep their conditions
+                for (Map.Entry<String, T> variant : new ArrayList<>(right.getVariants().entrySet())) {
+                    choice.addVariant(variant.getKey(), variant.getValue());
+                }
+            } else {
+                choice.addVariant(rightCondition, right);
+            }
             target.addChild(choice);
         } else {
             LOG.fine("Creating a conflict node.");
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.stats;
+
+import java.io.PrintStream;
+
+/**
+ * A statistics container for statistics about the work done by the <code>Matcher</code>.
+ */
+public class MatcherStatistics {
+
+    /**
+     * The number of annealing chains run by the <code>CostModelMatcher</code>.
+     */
+    private int cmRuns;
+
+    /**
+     * The number of iterations of all annealing chains run by the <code>CostModelMatcher</code>.
+     */
+    private int cmIterations;
+
+    /**
+     * The number of annealing chains that were stopped because the lowest cost did not improve.
+     */
+    private int cmConverged;
+
+    /**
+     * The number of annealing chains that were stopped because their time limit was reached.
+     */
+    private int cmTimedOut;
+
+    /**
+     * Constructs a new <code>MatcherStatistics</code> object.
+     */
+    public MatcherStatistics() {
+        this.cmRuns = 0;
+        this.cmIterations = 0;
+        this.cmConverged = 0;
+        this.cmTimedOut = 0;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param toCopy
+     *         the <code>MatcherStatistics</code> to copy
+     */
+    public MatcherStatistics(MatcherStatistics toCopy) {
+        this.cmRuns = toCopy.cmRuns;
+        this.cmIterations = toCopy.cmIterations;
+        this.cmConverged = toCopy.cmConverged;
+        this.cmTimedOut = toCopy.cmTimedOut;
+    }
+
+    /**
+     * Returns the number of annealing chains run by the <code>CostModelMatcher</code>.
+     *
+     * @return the number of cost model runs
+     */
+    public int getCmRuns() {
+        return cmRuns;
+    }
+
+    /**
+     * Increments the number of annealing chains run by the <code>CostModelMatcher</code> by the given
+     * <code>num</code>.
+     *
+     * @param num
+     *         the number to add
+     */
+    public void incrementCmRuns(int num) {
+        this.cmRuns += num;
+    }
+
+    /**
+     * Returns the number of iterations of all annealing chains run by the <code>CostModelMatcher</code>.
+     *
+     * @return the number of cost model iterations
+     */
+    public int getCmIterations() {
+        return cmIterations;
+    }
+
+    /**
+     * Increments the number of cost model iterations by the given <code>num</code>.
+     *
+     * @param num
+     *         the number to add
+     */
+    public void incrementCmIterations(int num) {
+        this.cmIterations += num;
+    }
+
+    /**
+     * Returns the number of annealing chains that were stopped because the lowest cost did not improve.
+     *
+     * @return the number of converged cost model runs
+     */
+    public int getCmConverged() {
+        return cmConverged;
+    }
+
+    /**
+     * Increments the number of converged cost model runs by the given <code>num</code>.
+     *
+     * @param num
+     *         the number to add
+     */
+    public void incrementCmConverged(int num) {
+        this.cmConverged += num;
+    }
+
+    /**
+     * Returns the number of annealing chains that were stopped because their time limit was reached.
+     *
+     * @return the number of timed out cost model runs
+     */
+    public int getCmTimedOut() {
+        return cmTimedOut;
+    }
+
+    /**
+     * Increments the number of timed out cost model runs by the given <code>num</code>.
+     *
+     * @param num
+     *         the number to add
+     */
+    public void incrementCmTimedOut(int num) {
+        this.cmTimedOut += num;
+    }
+
+    /**
+     * Adds the values in the given <code>MatcherStatistics</code> to <code>this</code>.
+     *
+     * @param other
+     *         the <code>MatcherStatistics</code> to add
+     */
+    public void add(MatcherStatistics other) {
+        cmRuns += other.cmRuns;
+        cmIterations += other.cmIterations;
+        cmConverged += other.cmConverged;
+        cmTimedOut += other.cmTimedOut;
+    }
+
+    /**
+     * Writes a human readable representation of this <code>MatcherStatistics</code> object to the given
+     * <code>PrintStream</code>. Each line will be prepended by the given <code>indent</code>.
+     *
+     * @param ps
+     *         the <code>PrintStream</code> to write to
+     * @param indent
+     *         the indentation to use
+     */
+    public void print(PrintStream ps, String indent) {
+        ps.print(indent); ps.print("Cost Model Runs:       "); ps.println(cmRuns);
+        ps.print(indent); ps.print("Cost Model Iterations: "); ps.println(cmIterations);
+        ps.print(indent); ps.print("Cost Model Converged:  "); ps.println(cmConverged);
+        ps.print(indent); ps.print("Cost Model Timed Out:  "); ps.println(cmTimedOut);
+    }
+}
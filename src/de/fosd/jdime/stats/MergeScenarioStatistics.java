@@ -51,6 +51,10 @@ public class MergeScenarioStatistics {
     private Map<Revision, Map<KeyEnums.Level, ElementStatistics>> levelStatistics;
     private Map<Revision, Map<KeyEnums.Type, ElementStatistics>> typeStatistics;
     private Map<Revision, MergeStatistics> mergeStatistics;
+    private MatcherStatistics matcherStatistics;
+    private TrivialMergeStatistics trivialMergeStatistics;
+    private ParseCacheStatistics parseCacheStatistics;
+    private StrategySelectionStatistics strategySelectionStatistics;
 
     private int conflicts;
     private Map<Integer, CodeStatistics> conflictStatistics;
@@ -77,6 +81,10 @@ public class MergeScenarioStatistics {
         this.levelStatistics = new HashMap<>();
         this.typeStatistics = new HashMap<>();
         this.mergeStatistics = new HashMap<>();
+        this.matcherStatistics = new MatcherStatistics();
+        this.trivialMergeStatistics = new TrivialMergeStatistics();
+        this.parseCacheStatistics = new ParseCacheStatistics();
+        this.strategySelectionStatistics = new StrategySelectionStatistics();
         this.conflicts = 0;
         this.conflictStatistics = new HashMap<>();
         this.charStatistics = new ElementStatistics();
@@ -134,6 +142,11 @@ public class MergeScenarioStatistics {
             this.mergeStatistics.put(entry.getKey(), new MergeStatistics(entry.getValue()));
         }
 
+        this.matcherStatistics = new MatcherStatistics(toCopy.matcherStatistics);
+        this.trivialMergeStatistics = new TrivialMergeStatistics(toCopy.trivialMergeStatistics);
+        this.parseCacheStatistics = new ParseCacheStatistics(toCopy.parseCacheStatistics);
+        this.strategySelectionStatistics = new StrategySelectionStatistics(toCopy.strategySelectionStatistics);
+
         this.conflicts = toCopy.conflicts;
 
         this.conflictStatistics = new HashMap<>(toCopy.conflictStatistics.size());
@@ -323,6 +336,46 @@ public MergeStatistics getMergeStatistics(Revision rev) {
         return mergeStatistics.computeIfAbsent(rev, r -> new MergeStatistics());
     }
 
+    /**
+     * Returns the <code>MatcherStatistics</code> collected while matching the <code>Revision</code>s of the
+     * <code>MergeScenario</code>.
+     *
+     * @return the <code>MatcherStatistics</code>
+     */
+    public MatcherStatistics getMatcherStatistics() {
+        return matcherStatistics;
+    }
+
+    /**
+     * Returns the <code>TrivialMergeStatistics</code> counting the scenarios that were resolved without parsing the
+     * input files.
+     *
+     * @return the <code>TrivialMergeStatistics</code>
+     */
+    public TrivialMergeStatistics getTrivialMergeStatistics() {
+        return trivialMergeStatistics;
+    }
+
+    /**
+     * Returns the <code>ParseCacheStatistics</code> counting the lookups of the files of the
+     * <code>MergeScenario</code> in the <code>ParseCache</code>.
+     *
+     * @return the <code>ParseCacheStatistics</code>
+     */
+    public ParseCacheStatistics getParseCacheStatistics() {
+        return parseCacheStatistics;
+    }
+
+    /**
+     * Returns the <code>StrategySelectionStatistics</code> recording to which strategy the
+     * <code>AdaptiveStrategy</code> routed the <code>MergeScenario</code> and why.
+     *
+     * @return the <code>StrategySelectionStatistics</code>
+     */
+    public StrategySelectionStatistics getStrategySelectionStatistics() {
+        return strategySelectionStatistics;
+    }
+
     /**
      * Returns statistics for {@link KeyEnums.Type#LINE}.
      *
@@ -424,7 +477,8 @@ public void putRuntime(Runtime runtime) {
     /**
      * Adds all <code>ElementStatistics</code> in <code>other</code> to the corresponding
      * <code>ElementStatistics</code> added to <code>this</code>. If an <code>ElementStatistics</code> in
-     * <code>other</code> has no partner in <code>this</code> it will simply be added to <code>this</code>.
+     * <code>other</code> has no partner in <code>this</code> it will simply be added to <code>this</code>. The strategy
+     * of <code>other</code> is adopted if <code>this</code> has none and a failed status is kept.
      *
      * @param other
      *         the <code>MergeScenarioStatistics</code> to add to <code>this</code>
@@ -432,6 +486,14 @@ public void putRuntime(Runtime runtime) {
      */
     public void add(MergeScenarioStatistics other) {
 
+        if (strategy == null) {
+            strategy = other.strategy;
+        }
+
+        if (other.status != OK) {
+            status = other.status;
+        }
+
         addAllMatchings(other.matchings);
 
         for (Map.Entry<Revision, Map<KeyEnums.Level, ElementStatistics>> entry : other.levelStatistics.entrySet()) {
@@ -456,6 +518,11 @@ public void add(MergeScenarioStatistics other) {
             getMergeStatistics(entry.getKey()).add(entry.getValue());
         }
 
+        matcherStatistics.add(other.matcherStatistics);
+        trivialMergeStatistics.add(other.trivialMergeStatistics);
+        parseCacheStatistics.add(other.parseCacheStatistics);
+        strategySelectionStatistics.add(other.strategySelectionStatistics);
+
         conflicts += other.conflicts;
 
         /*
@@ -527,6 +594,20 @@ public void print(PrintStream os) {
             stats.print(os, indent);
         });
 
+        os.println("Matcher Statistics:");
+        matcherStatistics.print(os, indent);
+
+        os.println("Trivial Merge Statistics:");
+        trivialMergeStatistics.print(os, indent);
+
+        os.println("Parse Cache Statistics:");
+        parseCacheStatistics.print(os, indent);
+
+        if (strategySelectionStatistics.getTotal() > 0) {
+            os.println("Strategy Selection Statistics:");
+            strategySelectionStatistics.print(os, indent);
+        }
+
         os.println("Char statistics:");
         charStatistics.print(os, indent);
 
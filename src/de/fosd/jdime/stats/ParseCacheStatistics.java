@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.stats;
+
+import java.io.PrintStream;
+
+/**
+ * A statistics container for the lookups of parsed files in the <code>ParseCache</code>.
+ */
+public class ParseCacheStatistics {
+
+    /**
+     * The number of files whose AST was found in the cache.
+     */
+    private int hits;
+
+    /**
+     * The number of files that had to be parsed because their AST was not found in the cache.
+     */
+    private int misses;
+
+    /**
+     * The number of ASTs that were evicted from the cache to make room for the ASTs of missed files.
+     */
+    private int evictions;
+
+    /**
+     * Constructs a new <code>ParseCacheStatistics</code> object.
+     */
+    public ParseCacheStatistics() {
+        this.hits = 0;
+        this.misses = 0;
+        this.evictions = 0;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param toCopy
+     *         the <code>ParseCacheStatistics</code> to copy
+     */
+    public ParseCacheStatistics(ParseCacheStatistics toCopy) {
+        this.hits = toCopy.hits;
+        this.misses = toCopy.misses;
+        this.evictions = toCopy.evictions;
+    }
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return the number of hits
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Increments the number of cache hits.
+     */
+    public void incrementHits() {
+        hits++;
+    }
+
+    /**
+     * Returns the number of cache misses.
+     *
+     * @return the number of misses
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Increments the number of cache misses.
+     */
+    public void incrementMisses() {
+        misses++;
+    }
+
+    /**
+     * Returns the number of evicted ASTs.
+     *
+     * @return the number of evictions
+     */
+    public int getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Increments the number of evicted ASTs by the given <code>num</code>.
+     *
+     * @param num
+     *         the number to add
+     */
+    public void incrementEvictions(int num) {
+        evictions += num;
+    }
+
+    /**
+     * Adds the values in the given <code>ParseCacheStatistics</code> to <code>this</code>.
+     *
+     * @param other
+     *         the <code>ParseCacheStatistics</code> to add
+     */
+    public void add(ParseCacheStatistics other) {
+        hits += other.hits;
+        misses += other.misses;
+        evictions += other.evictions;
+    }
+
+    /**
+     * Writes a human readable representation of this <code>ParseCacheStatistics</code> object to the given
+     * <code>PrintStream</code>. Each line will be prepended by the given <code>indent</code>.
+     *
+     * @param ps
+     *         the <code>PrintStream</code> to write to
+     * @param indent
+     *         the indentation to use
+     */
+    public void print(PrintStream ps, String indent) {
+        ps.print(indent); ps.print("Hits:      "); ps.println(hits);
+        ps.print(indent); ps.print("Misses:    "); ps.println(misses);
+        ps.print(indent); ps.print("Evictions: "); ps.println(evictions);
+    }
+}
@@ -362,6 +362,21 @@ private XStream buildSerializer(MergeContext context) {
         }
         serializer.alias(MergeStatistics.class.getSimpleName().toLowerCase(), MergeStatistics.class);
 
+        for (Field field : MatcherStatistics.class.getDeclaredFields()) {
+            serializer.useAttributeFor(MatcherStatistics.class, field.getName());
+        }
+        serializer.alias(MatcherStatistics.class.getSimpleName().toLowerCase(), MatcherStatistics.class);
+
+        for (Field field : TrivialMergeStatistics.class.getDeclaredFields()) {
+            serializer.useAttributeFor(TrivialMergeStatistics.class, field.getName());
+        }
+        serializer.alias(TrivialMergeStatistics.class.getSimpleName().toLowerCase(), TrivialMergeStatistics.class);
+
+        for (Field field : ParseCacheStatistics.class.getDeclaredFields()) {
+            serializer.useAttributeFor(ParseCacheStatistics.class, field.getName());
+        }
+        serializer.alias(ParseCacheStatistics.class.getSimpleName().toLowerCase(), ParseCacheStatistics.class);
+
         serializer.registerConverter(new Converter() {
 
             private static final String TYPE_ATTR = "type";
@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.stats;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.fosd.jdime.strategy.AdaptiveStrategy;
+import de.fosd.jdime.strategy.ChangeFeatures;
+
+/**
+ * A statistics container for the decisions of the {@link AdaptiveStrategy}. It records the {@link ChangeFeatures} of
+ * the routed merge scenarios and the number of scenarios routed to each strategy.
+ */
+public class StrategySelectionStatistics {
+
+    /**
+     * The number of lines of the base revisions.
+     */
+    private int lines;
+
+    /**
+     * The number of changed line hunks of the left revisions.
+     */
+    private int leftHunks;
+
+    /**
+     * The number of changed line hunks of the right revisions.
+     */
+    private int rightHunks;
+
+    /**
+     * The number of left hunks that overlap or touch a right hunk.
+     */
+    private int overlappingHunks;
+
+    /**
+     * The number of scenarios routed to a strategy by the name of the strategy.
+     */
+    private Map<String, Integer> selections;
+
+    /**
+     * Constructs a new <code>StrategySelectionStatistics</code> object.
+     */
+    public StrategySelectionStatistics() {
+        this.lines = 0;
+        this.leftHunks = 0;
+        this.rightHunks = 0;
+        this.overlappingHunks = 0;
+        this.selections = new TreeMap<>();
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param toCopy
+     *         the <code>StrategySelectionStatistics</code> to copy
+     */
+    public StrategySelectionStatistics(StrategySelectionStatistics toCopy) {
+        this.lines = toCopy.lines;
+        this.leftHunks = toCopy.leftHunks;
+        this.rightHunks = toCopy.rightHunks;
+        this.overlappingHunks = toCopy.overlappingHunks;
+        this.selections = new TreeMap<>(toCopy.selections);
+    }
+
+    /**
+     * Records that a merge scenario having the given <code>features</code> was routed to <code>strategy</code>.
+     *
+     * @param features
+     *         the <code>ChangeFeatures</code> of the merge scenario
+     * @param strategy
+     *         the name of the chosen strategy
+     */
+    public void record(ChangeFeatures features, String strategy) {
+        lines += features.getLines();
+        leftHunks += features.getLeftHunks();
+        rightHunks += features.getRightHunks();
+        overlappingHunks += features.getOverlappingHunks();
+        selections.merge(strategy, 1, Integer::sum);
+    }
+
+    /**
+     * Returns the number of lines of the base revisions.
+     *
+     * @return the number of lines
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the number of changed line hunks of the left revisions.
+     *
+     * @return the number of hunks
+     */
+    public int getLeftHunks() {
+        return leftHunks;
+    }
+
+    /**
+     * Returns the number of changed line hunks of the right revisions.
+     *
+     * @return the number of hunks
+     */
+    public int getRightHunks() {
+        return rightHunks;
+    }
+
+    /**
+     * Returns the number of left hunks that overlap or touch a right hunk.
+     *
+     * @return the number of hunks
+     */
+    public int getOverlappingHunks() {
+        return overlappingHunks;
+    }
+
+    /**
+     * Returns the number of scenarios that were routed to the given strategy.
+     *
+     * @param strategy
+     *         the name of the strategy
+     * @return the number of scenarios
+     */
+    public int getSelections(String strategy) {
+        return selections.getOrDefault(strategy, 0);
+    }
+
+    /**
+     * Returns the total number of routed scenarios.
+     *
+     * @return the number of routed scenarios
+     */
+    public int getTotal() {
+        return selections.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Adds the values in the given <code>StrategySelectionStatistics</code> to <code>this</code>.
+     *
+     * @param other
+     *         the <code>StrategySelectionStatistics</code> to add
+     */
+    public void add(StrategySelectionStatistics other) {
+        lines += other.lines;
+        leftHunks += other.leftHunks;
+        rightHunks += other.rightHunks;
+        overlappingHunks += other.overlappingHunks;
+        other.selections.forEach((strategy, num) -> selections.merge(strategy, num, Integer::sum));
+    }
+
+    /**
+     * Writes a human readable representation of this <code>StrategySelectionStatistics</code> object to the given
+     * <code>PrintStream</code>. Each line will be prepended by the given <code>indent</code>.
+     *
+     * @param ps
+     *         the <code>PrintStream</code> to write to
+     * @param indent
+     *         the indentation to use
+     */
+    public void print(PrintStream ps, String indent) {
+        ps.print(indent); ps.print("Lines:              "); ps.println(lines);
+        ps.print(indent); ps.print("Left Hunks:         "); ps.println(leftHunks);
+        ps.print(indent); ps.print("Right Hunks:        "); ps.println(rightHunks);
+        ps.print(indent); ps.print("Overlapping Hunks:  "); ps.println(overlappingHunks);
+        selections.forEach((strategy, num) -> {
+            ps.print(indent); ps.print("Routed to "); ps.print(strategy); ps.print(": "); ps.println(num);
+        });
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.stats;
+
+import java.io.PrintStream;
+
+/**
+ * A statistics container for the merge scenarios that were resolved by comparing the contents of the input files
+ * instead of parsing and merging them.
+ */
+public class TrivialMergeStatistics {
+
+    /**
+     * The number of scenarios in which left was equal to base and right was taken.
+     */
+    private int leftEqualsBase;
+
+    /**
+     * The number of scenarios in which right was equal to base and left was taken.
+     */
+    private int rightEqualsBase;
+
+    /**
+     * The number of scenarios in which left was equal to right.
+     */
+    private int leftEqualsRight;
+
+    /**
+     * Constructs a new <code>TrivialMergeStatistics</code> object.
+     */
+    public TrivialMergeStatistics() {
+        this.leftEqualsBase = 0;
+        this.rightEqualsBase = 0;
+        this.leftEqualsRight = 0;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param toCopy
+     *         the <code>TrivialMergeStatistics</code> to copy
+     */
+    public TrivialMergeStatistics(TrivialMergeStatistics toCopy) {
+        this.leftEqualsBase = toCopy.leftEqualsBase;
+        this.rightEqualsBase = toCopy.rightEqualsBase;
+        this.leftEqualsRight = toCopy.leftEqualsRight;
+    }
+
+    /**
+     * Returns the number of scenarios in which left was equal to base.
+     *
+     * @return the number of scenarios
+     */
+    public int getLeftEqualsBase() {
+        return leftEqualsBase;
+    }
+
+    /**
+     * Increments the number of scenarios in which left was equal to base.
+     */
+    public void incrementLeftEqualsBase() {
+        leftEqualsBase++;
+    }
+
+    /**
+     * Returns the number of scenarios in which right was equal to base.
+     *
+     * @return the number of scenarios
+     */
+    public int getRightEqualsBase() {
+        return rightEqualsBase;
+    }
+
+    /**
+     * Increments the number of scenarios in which right was equal to base.
+     */
+    public void incrementRightEqualsBase() {
+        rightEqualsBase++;
+    }
+
+    /**
+     * Returns the number of scenarios in which left was equal to right.
+     *
+     * @return the number of scenarios
+     */
+    public int getLeftEqualsRight() {
+        return leftEqualsRight;
+    }
+
+    /**
+     * Increments the number of scenarios in which left was equal to right.
+     */
+    public void incrementLeftEqualsRight() {
+        leftEqualsRight++;
+    }
+
+    /**
+     * Returns the total number of trivial scenarios.
+     *
+     * @return the number of trivial scenarios
+     */
+    public int getTotal() {
+        return leftEqualsBase + rightEqualsBase + leftEqualsRight;
+    }
+
+    /**
+     * Adds the values in the given <code>TrivialMergeStatistics</code> to <code>this</code>.
+     *
+     * @param other
+     *         the <code>TrivialMergeStatistics</code> to add
+     */
+    public void add(TrivialMergeStatistics other) {
+        leftEqualsBase += other.leftEqualsBase;
+        rightEqualsBase += other.rightEqualsBase;
+        leftEqualsRight += other.leftEqualsRight;
+    }
+
+    /**
+     * Writes a human readable representation of this <code>TrivialMergeStatistics</code> object to the given
+     * <code>PrintStream</code>. Each line will be prepended by the given <code>indent</code>.
+     *
+     * @param ps
+     *         the <code>PrintStream</code> to write to
+     * @param indent
+     *         the indentation to use
+     */
+    public void print(PrintStream ps, String indent) {
+        ps.print(indent); ps.print("Left Equals Base:   "); ps.println(leftEqualsBase);
+        ps.print(indent); ps.print("Right Equals Base:  "); ps.println(rightEqualsBase);
+        ps.print(indent); ps.print("Left Equals Right:  "); ps.println(leftEqualsRight);
+    }
+}
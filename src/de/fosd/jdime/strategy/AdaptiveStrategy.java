@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.strategy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.config.merge.MergeScenario;
+import de.fosd.jdime.operations.MergeOperation;
+
+/**
+ * Chooses the strategy to merge a file with based on the {@link ChangeFeatures} of its <code>MergeScenario</code>.
+ * <p>
+ * A line based merge only conflicts if the changes of left and right overlap or touch. Scenarios without such changes
+ * and files that are not Java source files are merged line based. The others are merged structured or, if base has
+ * more than {@link MergeContext#getAdaptiveMaxStructuredLines()} lines, semistructured.
+ */
+public class AdaptiveStrategy extends MergeStrategy<FileArtifact> {
+
+    private static final Logger LOG = Logger.getLogger(AdaptiveStrategy.class.getCanonicalName());
+
+    /**
+     * The strategies chosen so far by their names.
+     */
+    private final Map<String, MergeStrategy<FileArtifact>> strategies = new ConcurrentHashMap<>();
+
+    @Override
+    public void merge(MergeOperation<FileArtifact> operation, MergeContext context) {
+        MergeScenario<FileArtifact> scenario = operation.getMergeScenario();
+        ChangeFeatures features = new ChangeFeatures(scenario);
+        String name = choose(scenario, features, context);
+
+        LOG.fine(() -> String.format("Merging %s (%s) using %s.", scenario.getLeft().getId(), features, name));
+
+        strategies.computeIfAbsent(name, n -> MergeStrategy.parse(n).get()).merge(operation, context);
+
+        if (context.hasStatistics()) {
+            context.getStatistics().getScenarioStatistics(scenario).getStrategySelectionStatistics()
+                    .record(features, name);
+        }
+    }
+
+    /**
+     * Returns the name of the cheapest strategy that is expected to merge the <code>scenario</code> without conflicts.
+     *
+     * @param scenario
+     *         the <code>MergeScenario</code> to merge
+     * @param features
+     *         the <code>ChangeFeatures</code> of the <code>scenario</code>
+     * @param context
+     *         the <code>MergeContext</code>
+     * @return the name of the strategy
+     */
+    static String choose(MergeScenario<FileArtifact> scenario, ChangeFeatures features, MergeContext context) {
+
+        if (features.getOverlappingHunks() == 0 || !scenario.getLeft().isJavaFile()) {
+            return context.getLineMergeStrategyName();
+        }
+
+        if (features.getLines() <= context.getAdaptiveMaxStructuredLines()) {
+            return STRUCTURED;
+        }
+
+        return SEMISTRUCTURED;
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.strategy;
+
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.merge.MergeScenario;
+import de.fosd.jdime.merge.Diff3;
+
+/**
+ * Cheap features of the changes made in a three-way <code>MergeScenario</code> of files. The features are computed
+ * from the line diffs of left and right to base and are used by the {@link AdaptiveStrategy} to choose a strategy
+ * without parsing the files.
+ */
+public final class ChangeFeatures {
+
+    private final int lines;
+    private final int leftHunks;
+    private final int rightHunks;
+    private final int overlappingHunks;
+
+    /**
+     * Computes the <code>ChangeFeatures</code> of the given <code>MergeScenario</code>.
+     *
+     * @param scenario
+     *         the <code>MergeScenario</code> to compute the features for
+     */
+    public ChangeFeatures(MergeScenario<FileArtifact> scenario) {
+        String base = scenario.getBase().getContent();
+        int[] left = Diff3.diff(base, scenario.getLeft().getContent());
+        int[] right = Diff3.diff(base, scenario.getRight().getContent());
+
+        this.lines = lines(base);
+        this.leftHunks = left.length / 4;
+        this.rightHunks = right.length / 4;
+        this.overlappingHunks = overlapping(left, right);
+    }
+
+    /**
+     * Counts the lines of the given content.
+     *
+     * @param content
+     *         the content
+     * @return the number of lines
+     */
+    private static int lines(String content) {
+        int lines = 0;
+
+        for (int i = content.indexOf('\n'); i >= 0; i = content.indexOf('\n', i + 1)) {
+            lines++;
+        }
+
+        return content.isEmpty() || content.endsWith("\n") ? lines : lines + 1;
+    }
+
+    /**
+     * Counts the left hunks whose base range overlaps or touches the base range of a right hunk. Only such hunks can
+     * produce conflicts in a line based merge.
+     *
+     * @param left
+     *         the changes of left as returned by {@link Diff3#diff(String, String)}
+     * @param right
+     *         the changes of right as returned by {@link Diff3#diff(String, String)}
+     * @return the number of overlapping left hunks
+     */
+    static int overlapping(int[] left, int[] right) {
+        int overlapping = 0;
+        int r = 0;
+
+        for (int l = 0; l < left.length; l += 4) {
+            int lStart = left[l];
+            int lEnd = lStart + left[l + 1];
+
+            while (r < right.length && right[r] + right[r + 1] < lStart) {
+                r += 4;
+            }
+
+            if (r < right.length && right[r] <= lEnd) {
+                overlapping++;
+            }
+        }
+
+        return overlapping;
+    }
+
+    /**
+     * Returns the number of lines of the base revision.
+     *
+     * @return the number of lines
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the number of changed line hunks of the left revision.
+     *
+     * @return the number of hunks
+     */
+    public int getLeftHunks() {
+        return leftHunks;
+    }
+
+    /**
+     * Returns the number of changed line hunks of the right revision.
+     *
+     * @return the number of hunks
+     */
+    public int getRightHunks() {
+        return rightHunks;
+    }
+
+    /**
+     * Returns the number of left hunks that overlap or touch a right hunk.
+     *
+     * @return the number of hunks
+     */
+    public int getOverlappingHunks() {
+        return overlappingHunks;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d lines, %d left hunks, %d right hunks, %d overlapping", lines, leftHunks, rightHunks,
+                             overlappingHunks);
+    }
+}
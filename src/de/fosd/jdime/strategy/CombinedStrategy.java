@@ -26,11 +26,20 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import de.fosd.jdime.artifact.file.FileArtifact;
 import de.fosd.jdime.config.merge.MergeContext;
 import de.fosd.jdime.config.merge.MergeScenario;
+import de.fosd.jdime.execption.AbortException;
+import de.fosd.jdime.matcher.Matcher;
+import de.fosd.jdime.merge.Merge;
 import de.fosd.jdime.operations.MergeOperation;
 import de.fosd.jdime.stats.MergeScenarioStatistics;
 import de.fosd.jdime.stats.Runtime;
@@ -48,6 +57,22 @@ public class CombinedStrategy extends MergeStrategy<FileArtifact> {
 
     private static final Logger LOG = Logger.getLogger(CombinedStrategy.class.getCanonicalName());
 
+    /**
+     * The threads running the speculative strategies of all <code>CombinedStrategy</code> instances. The first
+     * strategy of a merge runs in the calling thread, so merges make progress even if all threads are busy.
+     */
+    private static final ExecutorService SPECULATIVE_EXECUTOR;
+
+    static {
+        AtomicInteger threadNum = new AtomicInteger();
+
+        SPECULATIVE_EXECUTOR = Executors.newFixedThreadPool(java.lang.Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "jdime-speculative-strategy-" + threadNum.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private List<MergeStrategy<FileArtifact>> strategies;
 
     /**
@@ -61,7 +86,10 @@ public CombinedStrategy(List<MergeStrategy<FileArtifact>> strategies) {
     }
 
     /**
-     * TODO: high-level documentation
+     * Merges the files using the combined strategies in their given order. The result of the first strategy
+     * producing no conflicts (or that of the last strategy) is used. If {@link MergeContext#isSpeculativeStrategies()}
+     * is set, all strategies are started concurrently and the strategies following the chosen one are cancelled.
+     *
      * @param operation the <code>MergeOperation</code> to perform
      * @param context the <code>MergeContext</code>
      */
@@ -86,33 +114,22 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
 
         Runtime.Measurement mergeMeasurement = runtime.time();
 
-        for (MergeStrategy<FileArtifact> strategy : strategies) {
-            subContext = new MergeContext(context);
+        if (context.isSpeculativeStrategies() && strategies.size() > 1) {
+            subContext = mergeSpeculatively(operation, context, runtimes);
+        } else {
+            for (MergeStrategy<FileArtifact> strategy : strategies) {
+                subContext = subContext(strategy, operation, context);
 
-            subContext.setMergeStrategy(strategy);
+                runtime = new Runtime(strategy.toString());
+                runtimes.add(runtime);
 
-            subContext.collectStatistics(true);
-            subContext.getStatistics().removeScenarioStatistics(operation.getMergeScenario());
+                try (Runtime.Measurement m = runtime.time()) {
+                    strategy.merge(operation, subContext);
+                }
 
-            runtime = new Runtime(strategy.toString());
-            runtimes.add(runtime);
-
-            try (Runtime.Measurement m = runtime.time()) {
-                strategy.merge(operation, subContext);
-            }
-
-            Statistics stats = subContext.getStatistics();
-
-            if (stats.hasConflicts()) {
-                long conflicts = subContext.getStatistics().getConflictStatistics().getSum();
-
-                LOG.fine(() -> {
-                    String noun = conflicts > 1 ? "conflicts" : "conflict";
-                    return String.format("%s produced %d %s.", strategy, conflicts, noun);
-                });
-            } else {
-                LOG.fine(() -> strategy + " produced no conflicts.");
-                break;
+                if (!hasConflicts(strategy, subContext)) {
+                    break;
+                }
             }
         }
 
@@ -128,4 +145,158 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
             statistics.putScenarioStatistics(subScenarioStats);
         }
     }
+
+    /**
+     * Starts all strategies concurrently. The first strategy runs in the calling thread, the others on a shared pool
+     * of threads. Every strategy merges into its own copy of the target of <code>operation</code>. The results are
+     * then inspected in the order of the strategies, the first one producing no conflicts (or the last one) is chosen
+     * and its content is set as the content of the target of <code>operation</code>. The strategies following the
+     * chosen one are cancelled. Running strategies are interrupted and abort the next time the {@link Matcher} or
+     * {@link Merge} check for interruption.
+     *
+     * @param operation
+     *         the <code>MergeOperation</code> to perform
+     * @param context
+     *         the <code>MergeContext</code>
+     * @param runtimes
+     *         the list to add the <code>Runtime</code>s of the inspected strategies to
+     * @return the <code>MergeContext</code> used by the chosen strategy
+     */
+    @SuppressWarnings("try")
+    private MergeContext mergeSpeculatively(MergeOperation<FileArtifact> operation, MergeContext context,
+                                            List<Runtime> runtimes) {
+
+        MergeScenario<FileArtifact> scenario = operation.getMergeScenario();
+
+        // Read the inputs before the strategies share them.
+        scenario.asList().forEach(FileArtifact::getContent);
+
+        List<MergeContext> subContexts = new ArrayList<>(strategies.size());
+        List<MergeOperation<FileArtifact>> operations = new ArrayList<>(strategies.size());
+        List<Runtime> strategyRuntimes = new ArrayList<>(strategies.size());
+        List<FutureTask<?>> results = new ArrayList<>(strategies.size());
+
+        for (MergeStrategy<FileArtifact> strategy : strategies) {
+            MergeContext subContext = subContext(strategy, operation, context);
+            MergeOperation<FileArtifact> subOperation = new MergeOperation<>(scenario, operation.getTarget().copy());
+            Runtime runtime = new Runtime(strategy.toString());
+
+            subContexts.add(subContext);
+            operations.add(subOperation);
+            strategyRuntimes.add(runtime);
+
+            results.add(new FutureTask<>(() -> {
+                try (Runtime.Measurement m = runtime.time()) {
+                    strategy.merge(subOperation, subContext);
+                }
+            }, null));
+        }
+
+        try {
+            results.stream().skip(1).forEach(SPECULATIVE_EXECUTOR::execute);
+            results.get(0).run();
+
+            int chosen = strategies.size() - 1;
+
+            for (int i = 0; i < strategies.size(); i++) {
+                await(results.get(i));
+                runtimes.add(strategyRuntimes.get(i));
+
+                if (!hasConflicts(strategies.get(i), subContexts.get(i))) {
+                    chosen = i;
+                    break;
+                }
+            }
+
+            MergeStrategy<FileArtifact> chosenStrategy = strategies.get(chosen);
+            LOG.fine(() -> "Using the result of " + chosenStrategy + ".");
+
+            if (!context.isDiffOnly()) {
+                operation.getTarget().setContent(operations.get(chosen).getTarget().getContent());
+            }
+
+            return subContexts.get(chosen);
+        } finally {
+            results.forEach(r -> r.cancel(true));
+        }
+    }
+
+    /**
+     * Returns a new <code>MergeContext</code> for merging using the given <code>strategy</code>. The context collects
+     * its own statistics for the merged scenario.
+     *
+     * @param strategy
+     *         the <code>MergeStrategy</code> to use
+     * @param operation
+     *         the <code>MergeOperation</code> to perform
+     * @param context
+     *         the <code>MergeContext</code> of the combined merge
+     * @return the new <code>MergeContext</code>
+     */
+    private static MergeContext subContext(MergeStrategy<FileArtifact> strategy, MergeOperation<FileArtifact> operation,
+                                           MergeContext context) {
+
+        MergeContext subContext = new MergeContext(context);
+
+        subContext.setMergeStrategy(strategy);
+
+        subContext.collectStatistics(true);
+        subContext.getStatistics().removeScenarioStatistics(operation.getMergeScenario());
+
+        return subContext;
+    }
+
+    /**
+     * Returns whether the merge using <code>strategy</code> produced conflicts according to the statistics of the
+     * given <code>subContext</code>.
+     *
+     * @param strategy
+     *         the <code>MergeStrategy</code> that was used
+     * @param subContext
+     *         the <code>MergeContext</code> the <code>strategy</code> used
+     * @return true iff there were conflicts
+     */
+    private static boolean hasConflicts(MergeStrategy<FileArtifact> strategy, MergeContext subContext) {
+        Statistics stats = subContext.getStatistics();
+
+        if (stats.hasConflicts()) {
+            long conflicts = stats.getConflictStatistics().getSum();
+
+            LOG.fine(() -> {
+                String noun = conflicts > 1 ? "conflicts" : "conflict";
+                return String.format("%s produced %d %s.", strategy, conflicts, noun);
+            });
+
+            return true;
+        } else {
+            LOG.fine(() -> strategy + " produced no conflicts.");
+            return false;
+        }
+    }
+
+    /**
+     * Waits for the given <code>Future</code> to complete and rethrows the exception it failed with.
+     *
+     * @param result
+     *         the <code>Future</code> to wait for
+     */
+    private static void await(Future<?> result) {
+
+        try {
+            result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AbortException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new AbortException(cause);
+            }
+        }
+    }
 }
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.strategy;
+
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.merge.MergeScenario;
+import de.fosd.jdime.merge.Diff3;
+import de.fosd.jdime.operations.MergeOperation;
+import de.fosd.jdime.util.parser.ConflictContent;
+
+/**
+ * Performs an unstructured, line based merge using the Java implementation in {@link Diff3}.
+ * <p>
+ * The merge produces the same conflict markers and labels as the {@link LinebasedStrategy} but does not require the
+ * native libgit2 library. As it has no shared state it is suitable for the many small line based merges performed
+ * concurrently by the semistructured strategy.
+ */
+public class Diff3Strategy extends LinebasedStrategy {
+
+    /**
+     * Constructs a new {@link Diff3Strategy}.
+     */
+    public Diff3Strategy() {
+        super(Diff3.class.getSimpleName());
+    }
+
+    @Override
+    protected String mergeFiles(MergeOperation<FileArtifact> op) {
+        MergeScenario<FileArtifact> scenario = op.getMergeScenario();
+        FileArtifact left = scenario.getLeft();
+        FileArtifact base = scenario.getBase();
+        FileArtifact right = scenario.getRight();
+
+        return Diff3.merge(left.getContent(), base.getContent(), right.getContent(), left.getFile().getPath(),
+                           right.getFile().getPath(), ConflictContent.MARKER_SIZE);
+    }
+}
@@ -57,7 +57,18 @@ public class LinebasedStrategy extends MergeStrategy<FileArtifact> {
      * Constructs a new {@link LinebasedStrategy}.
      */
     public LinebasedStrategy() {
-        LOG.fine("Constructing a " + getClass().getSimpleName() + " using libgit2 " + LibGit2.git_libgit2_version());
+        this("libgit2 " + LibGit2.git_libgit2_version());
+    }
+
+    /**
+     * Constructs a new {@link LinebasedStrategy} whose subclass provides its own merge engine by overriding
+     * {@link #mergeFiles(MergeOperation)}.
+     *
+     * @param engine
+     *         a description of the merge engine used for logging
+     */
+    protected LinebasedStrategy(String engine) {
+        LOG.fine("Constructing a " + getClass().getSimpleName() + " using " + engine);
     }
 
     /**
@@ -119,7 +130,7 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
      *         the current {@link MergeOperation}
      * @return the merged file contents
      */
-    private String mergeFiles(MergeOperation<FileArtifact> op) {
+    protected String mergeFiles(MergeOperation<FileArtifact> op) {
         FileArtifact leftFile = op.getMergeScenario().getLeft();
         FileArtifact baseFile = op.getMergeScenario().getBase();
         FileArtifact rightFile = op.getMergeScenario().getRight();
@@ -47,9 +47,11 @@
     public static final String CHOOSE_RIGHT = "choose_right";
 
     public static final String LINEBASED = "linebased";
+    public static final String DIFF3 = "diff3";
     public static final String SEMISTRUCTURED = "semistructured";
     public static final String STRUCTURED = "structured";
     public static final String NWAY = "nway";
+    public static final String ADAPTIVE = "adaptive";
 
     /**
      * Returns an unmodifiable <code>List</code> containing the names of available strategies.
@@ -57,7 +59,7 @@
      * @return names of available strategies
      */
     public static List<String> listStrategies() {
-        return Arrays.asList(LINEBASED, SEMISTRUCTURED, STRUCTURED, NWAY, CHOOSE_LEFT, CHOOSE_BASE, CHOOSE_RIGHT);
+        return Arrays.asList(LINEBASED, DIFF3, SEMISTRUCTURED, STRUCTURED, NWAY, ADAPTIVE, CHOOSE_LEFT, CHOOSE_BASE, CHOOSE_RIGHT);
     }
 
     /**
@@ -111,6 +113,9 @@ public static Optional<MergeStrategy<FileArtifact>> parse(String name) {
             case LINEBASED:
                 strategy = new LinebasedStrategy();
                 break;
+            case DIFF3:
+                strategy = new Diff3Strategy();
+                break;
             case SEMISTRUCTURED:
                 strategy = new SemiStructuredStrategy();
                 break;
@@ -120,6 +125,9 @@ public static Optional<MergeStrategy<FileArtifact>> parse(String name) {
             case NWAY:
                 strategy = new NWayStrategy();
                 break;
+            case ADAPTIVE:
+                strategy = new AdaptiveStrategy();
+                break;
             default:
                 if (name.indexOf(',') != -1) {
                     String[] names = name.split(",");
@@ -24,8 +24,12 @@
 package de.fosd.jdime.strategy;
 
 import java.io.FileWriter;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,6 +40,7 @@
 import de.fosd.jdime.config.merge.MergeType;
 import de.fosd.jdime.config.merge.Revision;
 import de.fosd.jdime.operations.MergeOperation;
+import de.fosd.jdime.stats.ParseCacheStatistics;
 
 import static de.fosd.jdime.config.merge.MergeScenario.BASE;
 import static de.fosd.jdime.strdump.DumpMode.GRAPHVIZ_TREE;
@@ -59,6 +64,9 @@ public class NWayStrategy extends MergeStrategy<FileArtifact> {
      * A new <code>MergeOperation</code>, encapsulating
      * <code>ASTNodeArtifacts</code> as source and target nodes, is created and applied.
      * <p>
+     * By default the variants are merged one after another into the result of the preceding merges. If
+     * {@link MergeContext#isNWayTreeReduction()} is set, they are merged pairwise in a balanced binary tree instead.
+     * <p>
      * TODO: more high-level documentation.
      */
     @Override
@@ -72,8 +80,6 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
          * Then, a ASTNodeStrategy can be applied.
          * The result is pretty printed and can be written into the output file.
          */
-        ASTNodeArtifact merged, next, targetNode;
-        MergeContext mergeContext;
 
         if (LOG.isLoggable(Level.FINE)) {
             LOG.fine("Merging:");
@@ -82,73 +88,249 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
             }
         }
 
+        if (context.isNWayTreeReduction() && variants.size() > 2) {
+            mergeTree(new ArrayList<>(variants.values()), operation, context);
+            return;
+        }
+
         Iterator<Revision> it = variants.keySet().iterator();
-        targetNode = new ASTNodeArtifact(variants.get(it.next()));
+        ASTNodeArtifact targetNode = parse(variants.get(it.next()), scenario, context);
 
         while (it.hasNext()) {
-            merged = targetNode;
-            next = new ASTNodeArtifact(variants.get(it.next()));
+            ASTNodeArtifact next = parse(variants.get(it.next()), scenario, context);
+            targetNode = merge(targetNode, next, operation, context, true);
+        }
+    }
 
-            try {
-                long cmdStart = System.currentTimeMillis();
+    /**
+     * Parses the given variants in parallel and merges them pairwise in a balanced binary tree. The left half of the
+     * variants is merged with the right half, both halves are merged recursively in the same way. Every parse and
+     * merge uses its own fork of the <code>context</code>, the forks are joined in a fixed order after all tasks
+     * finished.
+     * <p>
+     * Parsing and wrapping an AST synchronize on the lock of {@link ASTNodeArtifact} because ExtendJ keeps the state
+     * of its attribute evaluation in a static field. The parse tasks therefore run one after another; only the merges
+     * of independent subtrees of the reduction overlap.
+     *
+     * @param variants
+     *         the variants to merge, at least two
+     * @param operation
+     *         the <code>MergeOperation</code> whose target receives the result
+     * @param context
+     *         the <code>MergeContext</code>
+     */
+    private void mergeTree(List<FileArtifact> variants, MergeOperation<FileArtifact> operation, MergeContext context) {
+        List<MergeContext> forks = new ArrayList<>();
+        List<CompletableFuture<ASTNodeArtifact>> tasks = new ArrayList<>();
 
-                mergeContext = context;
-                targetNode = merged.copy();
+        try {
+            join(reduce(variants, operation, context, forks, tasks, true));
+        } finally {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).handle((r, t) -> null).join();
+            forks.forEach(context::join);
+        }
+    }
 
-                if (LOG.isLoggable(Level.FINEST)) {
-                    LOG.finest(String.format("Plaintext tree dump of target node:%n%s", targetNode.dump(PLAINTEXT_TREE)));
-                }
+    /**
+     * Returns a task producing the merge of the given <code>variants</code>.
+     *
+     * @param variants
+     *         the variants to merge
+     * @param operation
+     *         the <code>MergeOperation</code> whose target receives the result
+     * @param context
+     *         the <code>MergeContext</code> to fork
+     * @param forks
+     *         the list to add the forks of the <code>context</code> to
+     * @param tasks
+     *         the list to add the created tasks to
+     * @param root
+     *         whether the task produces the final result
+     * @return the task
+     */
+    private CompletableFuture<ASTNodeArtifact> reduce(List<FileArtifact> variants, MergeOperation<FileArtifact> operation,
+                                                      MergeContext context, List<MergeContext> forks,
+                                                      List<CompletableFuture<ASTNodeArtifact>> tasks, boolean root) {
 
-                MergeScenario<ASTNodeArtifact> astScenario = new MergeScenario<>(MergeType.TWOWAY, merged, merged.createEmptyArtifact(BASE), next);
-                MergeOperation<ASTNodeArtifact> astMergeOp = new MergeOperation<>(astScenario, targetNode);
+        MergeScenario<FileArtifact> scenario = operation.getMergeScenario();
+        MergeContext fork = context.fork();
+        CompletableFuture<ASTNodeArtifact> task;
 
-                if (LOG.isLoggable(Level.FINEST)) {
-                    LOG.finest("ASTMOperation.apply(context)");
-                }
+        if (context.hasStatistics()) {
+            fork.getStatistics().setCurrentFileMergeScenario(scenario);
+        }
 
-                astMergeOp.apply(mergeContext);
-                long runtime = System.currentTimeMillis() - cmdStart;
-                LOG.fine(() -> String.format("%s merge time was %d ms.", getClass().getSimpleName(), runtime));
+        forks.add(fork);
 
-                if (!context.isDiffOnly()) {
-                    operation.getTarget().setContent(targetNode.prettyPrint());
-                }
+        if (variants.size() == 1) {
+            task = CompletableFuture.supplyAsync(() -> parse(variants.get(0), scenario, fork));
+        } else {
+            int mid = (variants.size() + 1) / 2;
+            CompletableFuture<ASTNodeArtifact> left = reduce(variants.subList(0, mid), operation, context, forks, tasks, false);
+            CompletableFuture<ASTNodeArtifact> right = reduce(variants.subList(mid, variants.size()), operation, context, forks, tasks, false);
 
-                if (LOG.isLoggable(Level.FINEST)) {
-                    LOG.finest("Structured merge finished.");
+            task = left.thenCombineAsync(right, (l, r) -> merge(l, r, operation, fork, root));
+        }
 
-                    if (!context.isDiffOnly()) {
-                        String dump = targetNode.dump(PLAINTEXT_TREE);
-                        LOG.finest(String.format("Plaintext tree dump of target node:%n%s", dump));
-                    }
+        tasks.add(task);
+        return task;
+    }
 
-                    LOG.finest(String.format("Pretty-printing merged:%n%s", merged.prettyPrint()));
-                    LOG.finest(String.format("Pretty-printing next:%n%s", next.prettyPrint()));
+    /**
+     * Merges <code>next</code> into a copy of <code>merged</code> using a two-way merge. Differences between the two
+     * are represented by choice nodes if the merge is conditional.
+     *
+     * @param merged
+     *         the result of merging the preceding variants
+     * @param next
+     *         the next variant (or the result of merging the following variants)
+     * @param operation
+     *         the <code>MergeOperation</code> whose target receives the result
+     * @param context
+     *         the <code>MergeContext</code>
+     * @param output
+     *         whether to set the result as the content of the target of <code>operation</code>
+     * @return the merged tree
+     */
+    private ASTNodeArtifact merge(ASTNodeArtifact merged, ASTNodeArtifact next, MergeOperation<FileArtifact> operation,
+                                  MergeContext context, boolean output) {
 
-                    if (!context.isDiffOnly()) {
-                        LOG.finest(String.format("Pretty-printing target:%n%s", targetNode.prettyPrint()));
-                    }
-                }
+        MergeScenario<FileArtifact> scenario = operation.getMergeScenario();
+        Map<Revision, FileArtifact> variants = scenario.getArtifacts();
+        ASTNodeArtifact targetNode = merged.copy();
+
+        try {
+            long cmdStart = System.currentTimeMillis();
+
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.finest(String.format("Plaintext tree dump of target node:%n%s", targetNode.dump(PLAINTEXT_TREE)));
+            }
+
+            MergeScenario<ASTNodeArtifact> astScenario = new MergeScenario<>(MergeType.TWOWAY, merged, merged.createEmptyArtifact(BASE), next);
+            MergeOperation<ASTNodeArtifact> astMergeOp = new MergeOperation<>(astScenario, targetNode);
+
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.finest("ASTMOperation.apply(context)");
+            }
+
+            astMergeOp.apply(context);
+            setRevision(targetNode, new Revision(merged.getRevision() + " || " + next.getRevision()));
+            targetNode.clearAllMerged();
+            long runtime = System.currentTimeMillis() - cmdStart;
+            LOG.fine(() -> String.format("%s merge time was %d ms.", getClass().getSimpleName(), runtime));
+
+            if (output && !context.isDiffOnly()) {
+                operation.getTarget().setContent(targetNode.prettyPrint());
+            }
 
-                if (LOG.isLoggable(Level.FINE)) {
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.finest("Structured merge finished.");
 
-                    try (FileWriter fw = new FileWriter(merged + ".dot")) {
-                        fw.write(targetNode.dump(GRAPHVIZ_TREE));
-                    }
+                if (!context.isDiffOnly()) {
+                    String dump = targetNode.dump(PLAINTEXT_TREE);
+                    LOG.finest(String.format("Plaintext tree dump of target node:%n%s", dump));
                 }
-            } catch (Throwable t) {
-                LOG.severe("Exception while merging:");
-                context.addCrash(scenario, t);
 
-                for (Revision rev : variants.keySet()) {
-                    LOG.severe(String.format("%s: %s", rev, variants.get(rev).getFile().getPath()));
+                LOG.finest(String.format("Pretty-printing merged:%n%s", merged.prettyPrint()));
+                LOG.finest(String.format("Pretty-printing next:%n%s", next.prettyPrint()));
+
+                if (!context.isDiffOnly()) {
+                    LOG.finest(String.format("Pretty-printing target:%n%s", targetNode.prettyPrint()));
                 }
-                LOG.severe(t.toString());
+            }
+
+            if (LOG.isLoggable(Level.FINE)) {
 
-                if (!context.isKeepGoing()) {
-                    throw new Error(t);
+                try (FileWriter fw = new FileWriter(merged + ".dot")) {
+                    fw.write(targetNode.dump(GRAPHVIZ_TREE));
                 }
             }
+        } catch (Throwable t) {
+            LOG.severe("Exception while merging:");
+            context.addCrash(scenario, t);
+
+            for (Revision rev : variants.keySet()) {
+                LOG.severe(String.format("%s: %s", rev, variants.get(rev).getFile().getPath()));
+            }
+            LOG.severe(t.toString());
+
+            if (!context.isKeepGoing()) {
+                throw new Error(t);
+            }
+        }
+
+        return targetNode;
+    }
+
+    /**
+     * Sets the given <code>revision</code> for all nodes of <code>tree</code> and the variants of its choice nodes.
+     * Every node of a merge result stands for all variants merged into it, the conditions under which later merges
+     * add or replace it must therefore name all of them. The choice nodes themselves keep their revision, their
+     * variants carry their conditions.
+     *
+     * @param tree
+     *         the merged tree
+     * @param revision
+     *         the <code>Revision</code> naming all variants merged into <code>tree</code>
+     */
+    private static void setRevision(ASTNodeArtifact tree, Revision revision) {
+
+        if (tree.isChoice()) {
+            tree.getVariants().values().forEach(variant -> setRevision(variant, revision));
+        } else {
+            tree.setRevision(revision);
+        }
+
+        tree.getChildren().forEach(child -> setRevision(child, revision));
+    }
+
+    /**
+     * Waits for the given task and rethrows the exception it failed with.
+     *
+     * @param task
+     *         the task to wait for
+     * @param <T>
+     *         the type of the result
+     * @return the result of the task
+     */
+    private static <T> T join(CompletableFuture<T> task) {
+
+        try {
+            return task.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Parses the given <code>FileArtifact</code> to an <code>ASTNodeArtifact</code> using
+     * {@link StructuredStrategy#parse(FileArtifact, ParseCacheStatistics, MergeContext)}.
+     *
+     * @param file
+     *         the <code>FileArtifact</code> to parse
+     * @param scenario
+     *         the <code>MergeScenario</code> to count the cache lookup for
+     * @param context
+     *         the <code>MergeContext</code>
+     * @return the resulting <code>ASTNodeArtifact</code>
+     */
+    private static ASTNodeArtifact parse(FileArtifact file, MergeScenario<FileArtifact> scenario,
+                                         MergeContext context) {
+        ParseCacheStatistics statistics = new ParseCacheStatistics();
+        ASTNodeArtifact tree = StructuredStrategy.parse(file, statistics, context);
+
+        if (context.getParseCache() != null && context.hasStatistics()) {
+            context.getStatistics().getScenarioStatistics(scenario).getParseCacheStatistics().add(statistics);
         }
+
+        return tree;
     }
 }
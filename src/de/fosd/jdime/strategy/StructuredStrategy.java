@@ -24,17 +24,23 @@
 package de.fosd.jdime.strategy;
 
 import de.fosd.jdime.artifact.ast.ASTNodeArtifact;
+import de.fosd.jdime.artifact.ast.ASTSnapshotStore;
+import de.fosd.jdime.artifact.ast.ParseCache;
 import de.fosd.jdime.artifact.file.FileArtifact;
 import de.fosd.jdime.config.merge.MergeContext;
 import de.fosd.jdime.config.merge.MergeScenario;
 import de.fosd.jdime.operations.MergeOperation;
 import de.fosd.jdime.stats.MergeScenarioStatistics;
+import de.fosd.jdime.stats.ParseCacheStatistics;
 import de.fosd.jdime.stats.Runtime;
 import de.fosd.jdime.stats.Statistics;
 import de.fosd.jdime.stats.StatisticsInterface;
+import de.fosd.jdime.stats.TrivialMergeStatistics;
 import de.fosd.jdime.util.parser.ParseResult;
 import de.fosd.jdime.util.parser.Parser;
 
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 
@@ -88,6 +94,10 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
 
         LOG.fine(() -> String.format("Merging:%nLeft: %s%nBase: %s%nRight: %s", lPath, bPath, rPath));
 
+        if (context.isShortCircuitTrivialMerges() && mergeTrivial(triple, target, context)) {
+            return;
+        }
+
         Runtime parse = new Runtime(PARSE_LABEL);
         Runtime semistructure = new Runtime(SEMISTRUCTURE_LABEL);
         Runtime merge = new Runtime(MERGE_LABEL);
@@ -95,11 +105,12 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
         ASTNodeArtifact left;
         ASTNodeArtifact base;
         ASTNodeArtifact right;
+        ParseCacheStatistics cacheStatistics = new ParseCacheStatistics();
 
         try (Runtime.Measurement m = parse.time()) {
-            left = new ASTNodeArtifact(leftFile);
-            base = new ASTNodeArtifact(baseFile);
-            right = new ASTNodeArtifact(rightFile);
+            left = parse(leftFile, cacheStatistics, context);
+            base = parse(baseFile, cacheStatistics, context);
+            right = parse(rightFile, cacheStatistics, context);
         }
 
         if (context.isSemiStructured()) {
@@ -167,6 +178,85 @@ public void merge(MergeOperation<FileArtifact> operation, MergeContext context)
             scenarioStatistics.add(StatisticsInterface.getASTStatistics(right, left.getRevision()));
             scenarioStatistics.add(StatisticsInterface.getASTStatistics(targetNode, null));
             Stream.of(parse, semistructure, merge).filter(Runtime::isMeasured).forEach(scenarioStatistics::putRuntime);
+            scenarioStatistics.getParseCacheStatistics().add(cacheStatistics);
+        }
+    }
+
+    /**
+     * Parses the given <code>FileArtifact</code> to an <code>ASTNodeArtifact</code>. If the
+     * {@link MergeContext#getParseCache()} is set, the tree is taken from the cache. If the
+     * {@link MergeContext#getSnapshotStore()} is set, trees that are not cached are loaded from their snapshots.
+     *
+     * @param file
+     *         the <code>FileArtifact</code> to parse
+     * @param cacheStatistics
+     *         the <code>ParseCacheStatistics</code> to count the cache lookup in
+     * @param context
+     *         the <code>MergeContext</code>
+     * @return the resulting <code>ASTNodeArtifact</code>
+     */
+    static ASTNodeArtifact parse(FileArtifact file, ParseCacheStatistics cacheStatistics, MergeContext context) {
+        ParseCache cache = context.getParseCache();
+        ASTSnapshotStore snapshots = context.getSnapshotStore();
+        Function<FileArtifact, ASTNodeArtifact> parser = snapshots != null ? snapshots::get : ASTNodeArtifact::new;
+
+        return cache != null ? cache.get(file, cacheStatistics, parser) : parser.apply(file);
+    }
+
+    /**
+     * Resolves the given <code>MergeScenario</code> without parsing the files if two of them have equal contents.
+     * If left equals right or right equals base, the content of left is the result. If left equals base, the content
+     * of right is the result.
+     *
+     * @param triple
+     *         the <code>MergeScenario</code> to resolve
+     * @param target
+     *         the <code>FileArtifact</code> to store the result in
+     * @param context
+     *         the <code>MergeContext</code>
+     * @return true iff the scenario was trivial and <code>target</code> contains the result
+     */
+    private boolean mergeTrivial(MergeScenario<FileArtifact> triple, FileArtifact target, MergeContext context) {
+
+        if (context.isDiffOnly() || context.isConditionalMerge()) {
+            return false;
+        }
+
+        String leftHash = triple.getLeft().getContentHash();
+        String baseHash = triple.getBase().getContentHash();
+        String rightHash = triple.getRight().getContentHash();
+
+        FileArtifact result;
+        Consumer<TrivialMergeStatistics> count;
+
+        if (leftHash.equals(rightHash)) {
+            result = triple.getLeft();
+            count = TrivialMergeStatistics::incrementLeftEqualsRight;
+        } else if (leftHash.equals(baseHash)) {
+            result = triple.getRight();
+            count = TrivialMergeStatistics::incrementLeftEqualsBase;
+        } else if (rightHash.equals(baseHash)) {
+            result = triple.getLeft();
+            count = TrivialMergeStatistics::incrementRightEqualsBase;
+        } else {
+            return false;
+        }
+
+        LOG.fine(() -> String.format("Trivial scenario, taking the content of %s.", result.getFile().getPath()));
+        target.setContent(result.getContent());
+
+        if (context.hasStatistics()) {
+            MergeScenarioStatistics scenarioStatistics = context.getStatistics().getScenarioStatistics(triple);
+            scenarioStatistics.setStrategy(getClass());
+            count.accept(scenarioStatistics.getTrivialMergeStatistics());
+
+            ParseResult parseResult = scenarioStatistics.setLineStatistics(target.getContent());
+
+            if (parseResult.getStats().getConflicts() > 0) {
+                scenarioStatistics.getFileStatistics().incrementNumOccurInConflict();
+            }
         }
+
+        return true;
     }
 }
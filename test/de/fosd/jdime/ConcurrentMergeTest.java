@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import de.fosd.jdime.artifact.ast.ParseCache;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that merging the files of a directory concurrently produces the same results as merging them sequentially.
+ */
+public class ConcurrentMergeTest extends JDimeTest {
+
+    private static final String DIRECTORY = "SimpleTests";
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    /**
+     * Merges the {@value DIRECTORY} directories using {@link #mergeDirectory(String, Consumer)}.
+     *
+     * @param configure
+     *         configures the <code>MergeContext</code> before merging
+     * @return the merged files by their paths
+     */
+    private static Map<String, String> merge(Consumer<MergeContext> configure) {
+        return mergeDirectory(DIRECTORY, configure);
+    }
+
+    @Test
+    public void testFileMergeThreads() throws Exception {
+        Map<String, String> sequential = merge(context -> context.setFileMergeThreads(1));
+        Map<String, String> concurrent = merge(context -> context.setFileMergeThreads(4));
+
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, concurrent);
+    }
+
+    @Test
+    public void testAllConcurrency() throws Exception {
+        Map<String, String> sequential = merge(context -> context.setFileMergeThreads(1));
+        Map<String, String> concurrent = merge(context -> {
+            context.setFileMergeThreads(4);
+            context.setConcurrentDiffs(true);
+            context.setParallelMatching(true);
+            context.setParallelMatchingThreshold(0);
+            context.setParseCache(new ParseCache(Long.MAX_VALUE));
+        });
+
+        assertEquals(sequential, concurrent);
+    }
+}
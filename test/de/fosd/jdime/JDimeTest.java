@@ -27,9 +27,21 @@
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Arrays;
-
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import de.fosd.jdime.artifact.ArtifactList;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.strategy.MergeStrategy;
 import org.junit.BeforeClass;
 
+import static de.fosd.jdime.artifact.file.FileArtifact.FileType.DIR;
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.MERGE;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -168,4 +180,59 @@ protected static String normalize(String content) {
 
         return String.join(System.lineSeparator(), lines);
     }
+
+    /**
+     * Merges the given directories below {@link #leftDir}, {@link #baseDir} and {@link #rightDir} recursively using
+     * the structured strategy without writing the result.
+     *
+     * @param directory
+     *         the path of the directories to merge
+     * @param configure
+     *         configures the <code>MergeContext</code> before merging
+     * @return the merged files by their paths, crashed merges are represented by the name of the exception
+     */
+    protected static Map<String, String> mergeDirectory(String directory, Consumer<MergeContext> configure) {
+        MergeContext context = new MergeContext();
+        ArtifactList<FileArtifact> inputs = new ArtifactList<>();
+
+        inputs.add(new FileArtifact(LEFT, file(leftDir, directory)));
+        inputs.add(new FileArtifact(BASE, file(baseDir, directory)));
+        inputs.add(new FileArtifact(RIGHT, file(rightDir, directory)));
+
+        context.setMergeStrategy(MergeStrategy.parse(MergeStrategy.STRUCTURED).get());
+        context.setInputFiles(inputs);
+        context.setOutputFile(new FileArtifact(MERGE, DIR));
+        context.setRecursive(true);
+        context.setPretend(true);
+        context.setKeepGoing(true);
+        configure.accept(context);
+
+        Main.merge(context);
+
+        Map<String, String> merged = new TreeMap<>();
+
+        collect(context.getOutputFile(), merged);
+        context.getCrashes().forEach((scenario, t) -> merged.put(scenario.toString(), t.getClass().getName()));
+
+        return merged;
+    }
+
+    /**
+     * Adds the contents of the files in the tree rooted in <code>artifact</code> to <code>merged</code>.
+     *
+     * @param artifact
+     *         the root of the tree
+     * @param merged
+     *         the <code>Map</code> to add the contents to
+     */
+    private static void collect(FileArtifact artifact, Map<String, String> merged) {
+
+        if (artifact.isFile()) {
+            merged.put(artifact.getFile().getPath(), artifact.getContent());
+        }
+
+        for (FileArtifact child : artifact.getChildren()) {
+            collect(child, merged);
+        }
+    }
 }
@@ -27,7 +27,9 @@
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.google.gson.Gson;
@@ -62,6 +64,13 @@ public class MergeTest extends JDimeTest {
 
     private static final String TEST_CASES_FILE = "JDimeMergeTests.json";
 
+    /**
+     * Strategies whose results are compared to the expected results of another strategy. The Java diff3 strategy
+     * must produce the same output as the linebased strategy using <code>git merge-file</code>.
+     */
+    private static final Map<String, String> SHARED_RESULTS =
+            Collections.singletonMap(MergeStrategy.DIFF3, MergeStrategy.LINEBASED);
+
     private MergeTestCase testCase;
     private MergeContext context;
 
@@ -124,7 +133,7 @@ public void mergeTest() {
             context.setInputFiles(inputs);
             context.setOutputFile(new FileArtifact(MERGE, FILE));
 
-            String dirName = strategy.replaceAll(",", "_");
+            String dirName = SHARED_RESULTS.getOrDefault(strategy, strategy).replaceAll(",", "_");
             File expectedFile = file(resultsDir, dirName, testCase.path);
 
             Main.merge(context);
@@ -23,9 +23,13 @@
  */
 package de.fosd.jdime.artifact;
 
+import de.fosd.jdime.util.Tuple;
 import org.junit.Test;
 
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.stats.KeyEnums.Type.NODE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 /**
  * Tests for the <code>Artifact</code> class.
@@ -38,4 +42,21 @@ public void testGetMaxDepth() throws Exception {
 
         assertEquals(7, artifact.getMaxDepth());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetFastTreeHash() throws Exception {
+        Tuple<TestArtifact, TestArtifact> trees = TestTrees.simpleTree();
+        TestArtifact left = trees.x;
+        TestArtifact right = trees.y;
+
+        assertEquals(left.getChild(0).getFastTreeHash(), right.getChild(0).getFastTreeHash());
+        assertEquals(left.getChild(1).getFastTreeHash(), right.getChild(1).getFastTreeHash());
+        assertNotEquals(left.getFastTreeHash(), right.getFastTreeHash());
+
+        long before = left.getChild(0).getFastTreeHash();
+        left.getChild(0).addChild(new TestArtifact(LEFT, "Statement6", NODE));
+
+        assertNotEquals(before, left.getChild(0).getFastTreeHash());
+        assertEquals(left.getTreeHash().equals(right.getTreeHash()), left.treeHashEquals(right, true));
+    }
+}
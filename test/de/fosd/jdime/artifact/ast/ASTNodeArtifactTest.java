@@ -24,15 +24,21 @@
 package de.fosd.jdime.artifact.ast;
 
 import java.io.File;
+import java.util.List;
 
 import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.artifact.Artifacts;
 import de.fosd.jdime.artifact.file.FileArtifact;
 import de.fosd.jdime.config.JDimeConfig;
 import de.fosd.jdime.config.merge.Revision;
+import de.fosd.jdime.matcher.unordered.IdenticalSubtreeMatcher;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -81,4 +87,31 @@ public void testPrettyPrint() {
             fail(e.toString());
         }
     }
+
+    @Test
+    public void testFastTreeHash() throws Exception {
+        String path = "SimpleTests/ImportConflict.java";
+        List<ASTNodeArtifact> left = Artifacts.dfs(new ASTNodeArtifact(new FileArtifact(LEFT, file(leftDir, path))));
+        List<ASTNodeArtifact> right = Artifacts.dfs(new ASTNodeArtifact(new FileArtifact(RIGHT, file(rightDir, path))));
+
+        IdenticalSubtreeMatcher<ASTNodeArtifact> slow = new IdenticalSubtreeMatcher<>();
+        IdenticalSubtreeMatcher<ASTNodeArtifact> fast = new IdenticalSubtreeMatcher<>();
+
+        slow.matchTrees(left.get(0), right.get(0), false);
+        fast.matchTrees(left.get(0), right.get(0), true);
+
+        boolean matched = false;
+
+        for (ASTNodeArtifact l : left) {
+            assertEquals(l.label().getHash(), l.fastHashId());
+
+            for (ASTNodeArtifact r : right) {
+                assertEquals(l.treeHashEquals(r, false), l.treeHashEquals(r, true));
+                assertEquals(slow.hasMatched(l, r), fast.hasMatched(l, r));
+                matched |= fast.hasMatched(l, r);
+            }
+        }
+
+        assertTrue(matched);
+    }
 }
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.artifact.ast;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.artifact.Artifacts;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.JDimeConfig;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests storing ASTs in and loading them from an <code>ASTSnapshotStore</code>.
+ */
+public class ASTSnapshotStoreTest extends JDimeTest {
+
+    private static final String DIRECTORY = "SimpleTests";
+
+    private File tmpDir;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = Files.createTempDirectory("ASTSnapshotStoreTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tmpDir);
+    }
+
+    /**
+     * Returns the Java files in the {@value DIRECTORY} directories of all revisions.
+     *
+     * @return the input files
+     * @throws Exception
+     *         if the directories can not be listed
+     */
+    private static List<FileArtifact> inputs() throws Exception {
+        List<FileArtifact> inputs = new ArrayList<>();
+
+        for (File dir : Arrays.asList(leftDir, baseDir, rightDir)) {
+            List<Path> files;
+
+            try (Stream<Path> paths = Files.walk(file(dir, DIRECTORY).toPath())) {
+                files = paths.filter(p -> p.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+            }
+
+            for (Path path : files) {
+                inputs.add(new FileArtifact(dir == leftDir ? LEFT : dir == baseDir ? BASE : RIGHT, path.toFile()));
+            }
+        }
+
+        return inputs;
+    }
+
+    /**
+     * Returns the labels of the nodes of the given tree in depth-first order.
+     *
+     * @param tree
+     *         the tree
+     * @return the labels of the nodes
+     */
+    private static List<String> labels(ASTNodeArtifact tree) {
+        return Artifacts.dfs(tree).stream().map(ASTNodeArtifact::getLabel).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<FileArtifact> inputs = inputs();
+
+        assertFalse(inputs.isEmpty());
+
+        for (int i = 0; i < inputs.size(); i++) {
+            FileArtifact input = inputs.get(i);
+            Path snapshot = new File(tmpDir, i + ".ast").toPath();
+            ASTNodeArtifact parsed = new ASTNodeArtifact(input);
+
+            ASTSnapshotStore.write(parsed, snapshot);
+            ASTNodeArtifact loaded = ASTSnapshotStore.read(snapshot, input);
+
+            assertEquals(input.toString(), parsed.prettyPrint(), loaded.prettyPrint());
+            assertEquals(input.toString(), labels(parsed), labels(loaded));
+            assertEquals(input.toString(), input.getRevision(), loaded.getRevision());
+        }
+    }
+
+    @Test
+    public void testMergeFromSnapshots() throws Exception {
+        ASTSnapshotStore store = new ASTSnapshotStore(tmpDir);
+        Map<String, String> parsed = mergeDirectory(DIRECTORY, context -> {});
+        Map<String, String> stored = mergeDirectory(DIRECTORY, context -> context.setSnapshotStore(store));
+
+        assertTrue(tmpDir.list().length > 0);
+
+        Map<String, String> loaded = mergeDirectory(DIRECTORY, context -> context.setSnapshotStore(store));
+
+        assertFalse(parsed.isEmpty());
+        assertEquals(parsed, stored);
+        assertEquals(parsed, loaded);
+    }
+}
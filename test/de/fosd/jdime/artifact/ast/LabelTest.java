@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.artifact.ast;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests for <code>Label</code>.
+ */
+public class LabelTest {
+
+    @Test
+    public void testEquals() throws Exception {
+        Label a = new Label("MethodDecl:foo");
+
+        assertEquals(a, new Label(new String("MethodDecl:foo")));
+        assertEquals(a.hashCode(), new Label("MethodDecl:foo").hashCode());
+        assertNotEquals(a, new Label("MethodDecl:bar"));
+        assertNotEquals(a, new Label("MethodDecl:fo"));
+        assertNotEquals(new Label(""), new Label("\0"));
+    }
+
+    @Test
+    public void testHashIsStateless() throws Exception {
+        // the hash of the empty input is the FNV-1a offset basis
+        assertEquals(0xcbf29ce484222325L, Label.hash(""));
+        assertEquals(Label.hash("a"), new Label("a").getHash());
+        assertEquals(Label.hash("a"), Label.hash(new String(new char[] { 'a' })));
+        assertNotEquals(Label.hash("ab"), Label.hash("ba"));
+        assertNotEquals(Label.hash("\u0100"), Label.hash("\u0001"));
+    }
+}
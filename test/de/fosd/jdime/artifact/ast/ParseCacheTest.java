@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.artifact.ast;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.artifact.ArtifactList;
+import de.fosd.jdime.artifact.Artifacts;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.stats.ParseCacheStatistics;
+import de.fosd.jdime.strategy.MergeStrategy;
+import org.apache.commons.io.FileUtils;
+import org.extendj.ast.CompilationUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static de.fosd.jdime.artifact.file.FileArtifact.FileType.FILE;
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.MERGE;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the <code>ParseCache</code>.
+ */
+public class ParseCacheTest extends JDimeTest {
+
+    private static final String PATH = "SimpleTests/ChangedMethod.java";
+
+    private File tmpDir;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = Files.createTempDirectory("ParseCacheTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tmpDir);
+    }
+
+    /**
+     * Copies the given file to a different path below {@link #tmpDir}.
+     *
+     * @param file
+     *         the file to copy
+     * @param dirName
+     *         the name of the directory to copy the file to
+     * @return the copy
+     * @throws IOException
+     *         if the file can not be copied
+     */
+    private File copy(File file, String dirName) throws IOException {
+        File copy = new File(new File(tmpDir, dirName), "Other" + file.getName());
+
+        FileUtils.copyFile(file, copy);
+        return copy;
+    }
+
+    /**
+     * Returns the path of the first <code>CompilationUnit</code> in the given tree.
+     *
+     * @param tree
+     *         the tree to search
+     * @return the path name of the <code>CompilationUnit</code>
+     */
+    private static String pathName(ASTNodeArtifact tree) {
+        return Artifacts.dfs(tree).stream().map(ASTNodeArtifact::getASTNode).filter(CompilationUnit.class::isInstance)
+                        .map(n -> ((CompilationUnit) n).pathName()).findFirst().orElse(null);
+    }
+
+    /**
+     * Merges the given files using the structured strategy.
+     *
+     * @param cache
+     *         the <code>ParseCache</code> to use, may be <code>null</code>
+     * @param left
+     *         the left file
+     * @param base
+     *         the base file
+     * @param right
+     *         the right file
+     * @return the merge result
+     */
+    private static String merge(ParseCache cache, File left, File base, File right) {
+        MergeContext context = new MergeContext();
+        ArtifactList<FileArtifact> inputs = new ArtifactList<>();
+
+        inputs.add(new FileArtifact(LEFT, left));
+        inputs.add(new FileArtifact(BASE, base));
+        inputs.add(new FileArtifact(RIGHT, right));
+
+        context.setParseCache(cache);
+        context.setMergeStrategy(MergeStrategy.parse(MergeStrategy.STRUCTURED).get());
+        context.setInputFiles(inputs);
+        context.setOutputFile(new FileArtifact(MERGE, FILE));
+
+        Main.merge(context);
+        return context.getOutputFile().getContent();
+    }
+
+    @Test
+    public void testCopyTakesSourceFile() throws Exception {
+        File original = file(leftDir, PATH);
+        File other = copy(original, "left");
+
+        ParseCache cache = new ParseCache(Long.MAX_VALUE);
+        ParseCacheStatistics statistics = new ParseCacheStatistics();
+
+        ASTNodeArtifact first = cache.get(new FileArtifact(LEFT, original), statistics, ASTNodeArtifact::new);
+        ASTNodeArtifact second = cache.get(new FileArtifact(LEFT, other), statistics, ASTNodeArtifact::new);
+
+        assertEquals(1, statistics.getMisses());
+        assertEquals(1, statistics.getHits());
+
+        assertEquals(original.getPath(), pathName(first));
+        assertEquals(other.getPath(), pathName(second));
+        assertEquals(first.prettyPrint(), second.prettyPrint());
+    }
+
+    @Test
+    public void testMergeIdenticalFilesAtOtherPaths() throws Exception {
+        File left = file(leftDir, PATH);
+        File base = file(baseDir, PATH);
+        File right = file(rightDir, PATH);
+
+        File otherLeft = copy(left, "left");
+        File otherBase = copy(base, "base");
+        File otherRight = copy(right, "right");
+
+        ParseCache cache = new ParseCache(Long.MAX_VALUE);
+
+        String expected = merge(null, otherLeft, otherBase, otherRight);
+
+        merge(cache, left, base, right);
+        String cached = merge(cache, otherLeft, otherBase, otherRight);
+
+        assertEquals(3, cache.getHits());
+        assertEquals(expected, cached);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.config.merge;
+
+import de.fosd.jdime.artifact.TestArtifact;
+import de.fosd.jdime.stats.KeyEnums;
+import org.junit.Test;
+
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the resolution of the left, base and right <code>Artifact</code>s of a <code>MergeScenario</code>.
+ */
+public class MergeScenarioTest {
+
+    @Test
+    public void testThreeWay() throws Exception {
+        TestArtifact left = new TestArtifact(LEFT, "left", KeyEnums.Type.NODE);
+        TestArtifact base = new TestArtifact(BASE, "base", KeyEnums.Type.NODE);
+        TestArtifact right = new TestArtifact(RIGHT, "right", KeyEnums.Type.NODE);
+        MergeScenario<TestArtifact> scenario = new MergeScenario<>(MergeType.THREEWAY, left, base, right);
+
+        assertSame(left, scenario.getLeft());
+        assertSame(base, scenario.getBase());
+        assertSame(right, scenario.getRight());
+        assertSame(left, scenario.getArtifacts().get(LEFT));
+        assertSame(base, scenario.getArtifacts().get(BASE));
+        assertSame(right, scenario.getArtifacts().get(RIGHT));
+
+        TestArtifact newLeft = new TestArtifact(LEFT, "newLeft", KeyEnums.Type.NODE);
+        scenario.setLeft(newLeft);
+
+        assertSame(newLeft, scenario.getLeft());
+        assertSame(newLeft, scenario.getArtifacts().get(LEFT));
+        assertEquals(3, scenario.getArtifacts().size());
+    }
+
+    @Test
+    public void testOtherRevisions() throws Exception {
+        Revision a = new Revision("A");
+        Revision b = new Revision("B");
+        TestArtifact left = new TestArtifact(a, "left", KeyEnums.Type.NODE);
+        TestArtifact right = new TestArtifact(b, "right", KeyEnums.Type.NODE);
+        TestArtifact base = new TestArtifact(BASE, "base", KeyEnums.Type.NODE);
+        MergeScenario<TestArtifact> scenario = new MergeScenario<>(MergeType.TWOWAY, left, base, right);
+
+        assertSame(left, scenario.getLeft());
+        assertSame(base, scenario.getBase());
+        assertSame(right, scenario.getRight());
+
+        MergeScenario<TestArtifact> copy = new MergeScenario<>(scenario);
+        TestArtifact newRight = new TestArtifact(b, "newRight", KeyEnums.Type.NODE);
+        copy.setRight(newRight);
+
+        assertSame(left, copy.getLeft());
+        assertSame(newRight, copy.getRight());
+        assertSame(newRight, copy.getArtifacts().get(b));
+        assertSame(right, scenario.getRight());
+        assertEquals(3, copy.getArtifacts().size());
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.fosd.jdime.Main;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.job.MergeJob;
+import de.fosd.jdime.job.MergeJobResult;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests merging commits using <code>CommitMerge</code>.
+ */
+public class CommitMergeTest {
+
+    private TestRepository repo;
+    private File outDir;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        repo = new TestRepository();
+        outDir = Files.createTempDirectory("CommitMergeTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        repo.close();
+        FileUtils.deleteDirectory(outDir);
+    }
+
+    /**
+     * Returns a Java class with the given name whose body contains the given lines.
+     *
+     * @param name
+     *         the name of the class
+     * @param lines
+     *         the lines of the body
+     * @return the source code of the class
+     */
+    private static String cls(String name, String... lines) {
+        StringBuilder b = new StringBuilder("class ").append(name).append(" {\n");
+
+        for (String line : lines) {
+            b.append("    ").append(line).append('\n');
+        }
+
+        return b.append("}\n").toString();
+    }
+
+    /**
+     * Returns the content of the file at <code>path</code> in {@link #outDir}.
+     *
+     * @param path
+     *         the path of the file
+     * @return the content of the file
+     * @throws Exception
+     *         if the file can not be read
+     */
+    private String output(String path) throws Exception {
+        return new String(Files.readAllBytes(new File(outDir, path).toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testMergeCommits() throws Exception {
+        String[] baseLines = { "int a;", "int b;", "int c;", "int d;", "int e;" };
+
+        repo.write("One.java", cls("One", "int a;"));
+        repo.write("Both.java", cls("Both", baseLines));
+        repo.write("DelMod.java", cls("DelMod", "int a;"));
+        repo.write("Gone.java", cls("Gone", "int a;"));
+        repo.write("pkg/Kept.java", cls("Kept", "int a;"));
+        String base = repo.commit("base");
+
+        repo.write("One.java", cls("One", "int left;"));
+        repo.write("Both.java", cls("Both", "int left;", "int b;", "int c;", "int d;", "int e;"));
+        repo.delete("DelMod.java");
+        repo.delete("Gone.java");
+        repo.write("AddAdd.java", cls("AddAdd", "int left;"));
+        repo.write("pkg/Same.java", cls("Same", "int same;"));
+        String left = repo.commit("left");
+
+        repo.git("checkout", "-q", base);
+        repo.write("Both.java", cls("Both", "int a;", "int b;", "int c;", "int d;", "int right;"));
+        repo.write("DelMod.java", cls("DelMod", "int right;"));
+        repo.write("AddAdd.java", cls("AddAdd", "int right;"));
+        repo.write("pkg/Same.java", cls("Same", "int same;"));
+        String right = repo.commit("right");
+
+        // the output directory starts out as a copy of the base commit
+        for (String path : Arrays.asList("One.java", "Both.java", "DelMod.java", "Gone.java", "pkg/Kept.java")) {
+            FileUtils.write(new File(outDir, path), repo.git("show", base + ":" + path) + "\n",
+                            StandardCharsets.UTF_8);
+        }
+
+        String[] args = {
+                "--git-repo", repo.getDir().getAbsolutePath(), "-commits", "-m", "diff3", "-f",
+                "-o", outDir.getAbsolutePath(), left, base, right
+        };
+
+        MergeContext context = new MergeContext();
+        context.configureFrom(new JDimeConfig(args));
+
+        Main.merge(context);
+        context.getOutputFile().writeContent();
+
+        assertEquals(cls("One", "int left;"), output("One.java"));
+        assertEquals(cls("Both", "int left;", "int b;", "int c;", "int d;", "int right;"), output("Both.java"));
+        assertTrue(output("DelMod.java").contains(cls("DelMod", "int right;")));
+        assertTrue(output("DelMod.java").contains("<<<<<<<"));
+        assertEquals(cls("Same", "int same;"), output("pkg/Same.java"));
+        assertEquals(cls("Kept", "int a;"), output("pkg/Kept.java"));
+
+        String addAdd = output("AddAdd.java");
+
+        assertTrue(addAdd.contains("int left;"));
+        assertTrue(addAdd.contains("int right;"));
+
+        assertFalse(new File(outDir, "Gone.java").exists());
+        assertEquals(Collections.singletonList("Gone.java"), context.getDeletedPaths());
+    }
+
+    @Test
+    public void testJobResultContainsDeletions() throws Exception {
+        repo.write("Gone.java", cls("Gone", "int a;"));
+        String base = repo.commit("base");
+
+        repo.delete("Gone.java");
+        String left = repo.commit("left");
+
+        List<String> args = Arrays.asList(
+                "--git-repo", repo.getDir().getAbsolutePath(), "-commits", "-m", "diff3", "-p", left, base, base
+        );
+
+        MergeJobResult result = new MergeJob("deletion", args).run();
+
+        assertEquals(Main.EXIT_SUCCESS, result.getExitCode());
+        assertEquals(Collections.singletonList("Gone.java"), result.getDeleted());
+    }
+
+    @Test
+    public void testTakenFilesAreCopied() throws Exception {
+        byte[] latin1 = "class Umlaut { String s = \"\u00e4\"; }\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        repo.write("Umlaut.java", "class Umlaut {}\n");
+        String base = repo.commit("base");
+
+        repo.write("Umlaut.java", latin1);
+        String left = repo.commit("left");
+
+        String[] args = {
+                "--git-repo", repo.getDir().getAbsolutePath(), "-commits", "-m", "diff3", "-f",
+                "-o", outDir.getAbsolutePath(), left, base, base
+        };
+
+        MergeContext context = new MergeContext();
+        context.configureFrom(new JDimeConfig(args));
+
+        Main.merge(context);
+        context.getOutputFile().writeContent();
+
+        assertArrayEquals(latin1, Files.readAllBytes(new File(outDir, "Umlaut.java").toPath()));
+    }
+
+    @Test
+    public void testDeleteModifyConflict() throws Exception {
+        repo.write("DelMod.java", cls("DelMod", "int a;"));
+        String base = repo.commit("base");
+
+        repo.delete("DelMod.java");
+        String left = repo.commit("left");
+
+        repo.git("checkout", "-q", base);
+        repo.write("DelMod.java", cls("DelMod", "int right;"));
+        String right = repo.commit("right");
+
+        List<String> args = Arrays.asList(
+                "--git-repo", repo.getDir().getAbsolutePath(), "-commits", "-m", "diff3", "-s", "-f",
+                "-o", outDir.getAbsolutePath(), left, base, right
+        );
+
+        MergeJobResult result = new MergeJob("delete/modify", args).run();
+
+        assertEquals(Long.valueOf(1), result.getConflicts());
+        assertEquals(1, result.getExitCode());
+        assertTrue(output("DelMod.java").contains(cls("DelMod", "int right;")));
+        assertNull(result.getDeleted());
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.util.Arrays;
+
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests reading input files from git using <code>GitInput</code>.
+ */
+public class GitInputTest {
+
+    private static final String PATH = "A.java";
+
+    private TestRepository repo;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        repo = new TestRepository();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        repo.close();
+    }
+
+    /**
+     * Configures a <code>MergeContext</code> to merge the given inputs from {@link #repo}.
+     *
+     * @param inputs
+     *         the names of the inputs
+     * @return the configured <code>MergeContext</code>
+     * @throws Exception
+     *         if the configuration fails
+     */
+    private MergeContext configure(String... inputs) throws Exception {
+        String[] args = new String[inputs.length + 5];
+
+        args[0] = "--git-repo";
+        args[1] = repo.getDir().getAbsolutePath();
+        args[2] = "--mode";
+        args[3] = "linebased";
+        args[4] = "--pretend";
+        System.arraycopy(inputs, 0, args, 5, inputs.length);
+
+        MergeContext context = new MergeContext();
+        context.configureFrom(new JDimeConfig(args));
+
+        return context;
+    }
+
+    @Test
+    public void testSameBlobIsIdentical() throws Exception {
+        repo.write(PATH, "class A {}\n");
+        repo.commit("A");
+
+        String blob = repo.git("rev-parse", "HEAD:" + PATH);
+
+        for (String[] inputs : Arrays.asList(new String[] { blob, blob, blob },
+                                             new String[] { "HEAD:" + PATH, blob, "HEAD:" + PATH })) {
+            MergeContext context = configure(inputs);
+
+            assertEquals(3, context.getInputFiles().size());
+            assertTrue(context.isIdenticalInputs());
+        }
+    }
+
+    @Test
+    public void testDifferentBlobsAreNotIdentical() throws Exception {
+        repo.write(PATH, "class A {}\n");
+        repo.commit("A");
+        repo.write(PATH, "class A { int a; }\n");
+        repo.commit("A2");
+
+        assertFalse(configure("HEAD:" + PATH, "HEAD~1:" + PATH, "HEAD:" + PATH).isIdenticalInputs());
+        assertFalse(configure("HEAD:" + PATH, "HEAD:" + PATH, "HEAD~1:" + PATH).isIdenticalInputs());
+    }
+}
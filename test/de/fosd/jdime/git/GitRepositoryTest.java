@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.fosd.jdime.config.JDimeConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests reading objects using <code>GitRepository</code>.
+ */
+public class GitRepositoryTest {
+
+    private TestRepository repo;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        repo = new TestRepository();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        GitRepository.closeAll();
+        repo.close();
+    }
+
+    /**
+     * Opens {@link #repo}.
+     *
+     * @return the <code>GitRepository</code>
+     */
+    private GitRepository open() {
+        return GitRepository.open(repo.getDir(), "git").orElseThrow(AssertionError::new);
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        int files = 8;
+        List<String> ids = new ArrayList<>(files);
+
+        for (int i = 0; i < files; i++) {
+            repo.write("F" + i + ".java", "class F" + i + " {}\n");
+        }
+
+        repo.commit("files");
+
+        for (int i = 0; i < files; i++) {
+            ids.add(repo.git("rev-parse", "HEAD:F" + i + ".java"));
+        }
+
+        GitRepository git = open();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> reads = new ArrayList<>();
+
+            for (int n = 0; n < 50; n++) {
+                int i = n % files;
+
+                reads.add(executor.submit(() -> {
+                    assertEquals("class F" + i + " {}\n", git.read(ids.get(i), StandardCharsets.UTF_8));
+                    return null;
+                }));
+            }
+
+            for (Future<?> read : reads) {
+                read.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReadAfterClose() throws Exception {
+        repo.write("A.java", "class A {}\n");
+        repo.commit("A");
+
+        String id = repo.git("rev-parse", "HEAD:A.java");
+        GitRepository git = open();
+
+        assertEquals("class A {}\n", git.read(id, StandardCharsets.UTF_8));
+        assertSame(git, open());
+
+        GitRepository.closeAll();
+
+        assertEquals("class A {}\n", git.read(id, StandardCharsets.UTF_8));
+        assertNotSame(git, open());
+    }
+
+    @Test
+    public void testInvalidContent() throws Exception {
+        byte[] latin1 = "class A { String s = \"\u00e4\"; }\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        repo.write("A.java", latin1);
+        repo.commit("A");
+
+        String id = repo.git("rev-parse", "HEAD:A.java");
+        GitRepository git = open();
+
+        assertArrayEquals(latin1, git.read(id));
+        assertEquals(new String(latin1, StandardCharsets.ISO_8859_1), git.read(id, StandardCharsets.ISO_8859_1));
+
+        try {
+            git.read(id, StandardCharsets.UTF_8);
+            fail("Invalid UTF-8 was decoded.");
+        } catch (IOException e) {
+            // expected
+        }
+
+        // the reader is still usable after the failed decoding
+        assertArrayEquals(latin1, git.read(id));
+    }
+}
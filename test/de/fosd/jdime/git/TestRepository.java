@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * A temporary git repository for tests.
+ */
+final class TestRepository implements AutoCloseable {
+
+    private final File dir;
+
+    /**
+     * Initializes a new, empty git repository in a temporary directory.
+     *
+     * @throws IOException
+     *         if the repository can not be initialized
+     */
+    TestRepository() throws IOException {
+        dir = Files.createTempDirectory("TestRepository").toFile();
+
+        git("init", "-q");
+        git("config", "user.name", "JDime");
+        git("config", "user.email", "jdime@example.com");
+        git("config", "commit.gpgsign", "false");
+    }
+
+    /**
+     * Returns the working directory of the repository.
+     *
+     * @return the working directory
+     */
+    File getDir() {
+        return dir;
+    }
+
+    /**
+     * Writes the given content to the file at <code>path</code> and stages it.
+     *
+     * @param path
+     *         the path of the file relative to the working directory
+     * @param content
+     *         the new content of the file
+     * @throws IOException
+     *         if the file can not be written or staged
+     */
+    void write(String path, String content) throws IOException {
+        FileUtils.write(new File(dir, path), content, StandardCharsets.UTF_8);
+        git("add", path);
+    }
+
+    /**
+     * Writes the given bytes to the file at <code>path</code> and stages it.
+     *
+     * @param path
+     *         the path of the file relative to the working directory
+     * @param content
+     *         the new content of the file
+     * @throws IOException
+     *         if the file can not be written or staged
+     */
+    void write(String path, byte[] content) throws IOException {
+        FileUtils.writeByteArrayToFile(new File(dir, path), content);
+        git("add", path);
+    }
+
+    /**
+     * Deletes the file at <code>path</code> and stages the deletion.
+     *
+     * @param path
+     *         the path of the file relative to the working directory
+     * @throws IOException
+     *         if the file can not be deleted
+     */
+    void delete(String path) throws IOException {
+        git("rm", "-q", path);
+    }
+
+    /**
+     * Commits the staged changes.
+     *
+     * @param message
+     *         the commit message
+     * @return the ID of the new commit
+     * @throws IOException
+     *         if the changes can not be committed
+     */
+    String commit(String message) throws IOException {
+        git("commit", "-q", "--allow-empty", "-m", message);
+        return git("rev-parse", "HEAD");
+    }
+
+    /**
+     * Runs <code>git</code> with the given arguments in the repository.
+     *
+     * @param args
+     *         the arguments to <code>git</code>
+     * @return the trimmed standard output
+     * @throws IOException
+     *         if <code>git</code> can not be run or exits with a non-zero status
+     */
+    String git(String... args) throws IOException {
+        String[] cmd = new String[args.length + 1];
+
+        cmd[0] = "git";
+        System.arraycopy(args, 0, cmd, 1, args.length);
+
+        Process git = new ProcessBuilder(cmd).directory(dir).redirectErrorStream(true).start();
+        String output = IOUtils.toString(git.getInputStream(), StandardCharsets.UTF_8);
+
+        try {
+            if (git.waitFor() != 0) {
+                throw new IOException("git " + String.join(" ", args) + " failed: " + output);
+            }
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+
+        return output.trim();
+    }
+
+    @Override
+    public void close() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+}
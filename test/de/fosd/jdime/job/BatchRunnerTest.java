@@ -0,0 +1,218 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.config.CommandLineConfigSource;
+import de.fosd.jdime.config.JDimeConfig;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the <code>BatchRunner</code>.
+ */
+public class BatchRunnerTest extends JDimeTest {
+
+    private File tmpDir;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("OFF");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = Files.createTempDirectory("BatchRunnerTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tmpDir);
+    }
+
+    /**
+     * Writes the given lines to a manifest file in {@link #tmpDir}.
+     *
+     * @param name
+     *         the name of the manifest
+     * @param lines
+     *         the lines of the manifest
+     * @return the manifest
+     * @throws IOException
+     *         if the manifest can not be written
+     */
+    private File manifest(String name, String... lines) throws IOException {
+        File manifest = new File(tmpDir, name);
+
+        Files.write(manifest.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+        return manifest;
+    }
+
+    @Test
+    public void testParseCSVLine() throws Exception {
+        assertEquals(Arrays.asList("a", "b", "c"), BatchRunner.parseCSVLine("a, b ,c"));
+        assertEquals(Arrays.asList("a", "", ""), BatchRunner.parseCSVLine("a,,"));
+        assertEquals(Collections.singletonList(""), BatchRunner.parseCSVLine(""));
+        assertEquals(Arrays.asList("a,b", "c"), BatchRunner.parseCSVLine("\"a,b\",c"));
+        assertEquals(Arrays.asList("say \"hi\"", "d"), BatchRunner.parseCSVLine("\"say \"\"hi\"\"\",d"));
+        assertEquals(Collections.singletonList("-p -q"), BatchRunner.parseCSVLine("\"-p -q\""));
+    }
+
+    @Test
+    public void testReadCSVManifest() throws Exception {
+        File manifest = manifest("jobs.csv",
+                                 "id,left,base,right,output,mode,args,s",
+                                 "first,L.java,B.java,R.java,O.java,linebased,-p -q,",
+                                 "",
+                                 ",L.java,,R.java,,,,true");
+
+        List<MergeJob> jobs = BatchRunner.readManifest(manifest);
+
+        assertEquals(2, jobs.size());
+        assertEquals("first", jobs.get(0).getId());
+        assertEquals(Arrays.asList("-p", "-q", "-m", "linebased", "-o", "O.java", "L.java", "B.java", "R.java"),
+                     Arrays.asList(jobs.get(0).toArgs()));
+
+        assertEquals("2", jobs.get(1).getId());
+        assertEquals(Arrays.asList("-s", "L.java", "R.java"), Arrays.asList(jobs.get(1).toArgs()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadCSVManifestWithoutRight() throws Exception {
+        BatchRunner.readManifest(manifest("jobs.csv", "id,left,base", "a,L.java,B.java"));
+    }
+
+    @Test
+    public void testReadJSONManifest() throws Exception {
+        String job = "{\"id\": \"a\", \"mode\": \"linebased\", \"files\": [\"L.java\", \"R.java\"]}";
+        List<MergeJob> array = BatchRunner.readManifest(manifest("array.json", "[", job + ",", "{}", "]"));
+        List<MergeJob> lines = BatchRunner.readManifest(manifest("lines.json", job, "", "{\"args\": [\"-p\"]}"));
+
+        for (List<MergeJob> jobs : Arrays.asList(array, lines)) {
+            assertEquals(2, jobs.size());
+            assertEquals("a", jobs.get(0).getId());
+            assertEquals(Arrays.asList("-m", "linebased", "L.java", "R.java"), Arrays.asList(jobs.get(0).toArgs()));
+            assertEquals("2", jobs.get(1).getId());
+        }
+
+        assertEquals(Collections.singletonList("-p"), Arrays.asList(lines.get(1).toArgs()));
+    }
+
+    @Test
+    public void testJobOptionsOverrideDefaults() throws Exception {
+        CommandLineConfigSource cmdLine = new CommandLineConfigSource(new String[] {
+                "-m", "structured", "-p", "-q", "-batch", "jobs.csv", "L.java", "R.java"
+        });
+        Map<String, List<String>> defaults = cmdLine.getOptionArgs(Collections.singleton("batch"));
+
+        Map<String, String> options = new HashMap<>();
+        options.put("pretend", "false");
+
+        MergeJob job = new MergeJob("a", "linebased", Arrays.asList("L.java", "R.java"), null, options, null);
+        job.setDefaults(defaults);
+
+        assertEquals(Arrays.asList("-m", "linebased", "L.java", "R.java", "-q"), Arrays.asList(job.toArgs()));
+
+        job = new MergeJob("b", Arrays.asList("-q", "L.java", "R.java"));
+        job.setDefaults(defaults);
+
+        assertEquals(Arrays.asList("-q", "L.java", "R.java", "-m", "structured", "-p"), Arrays.asList(job.toArgs()));
+    }
+
+    @Test
+    public void testRunWithCrashingScenario() throws Exception {
+        String path = "SimpleTests/VerySimple.java";
+        List<MergeJob> jobs = new ArrayList<>();
+
+        for (String id : Arrays.asList("a", "b", "c")) {
+            File left = "b".equals(id) ? new File(tmpDir, "Missing.java") : file(leftDir, path);
+            List<String> files = Arrays.asList(left.getPath(), file(baseDir, path).getPath(),
+                                               file(rightDir, path).getPath());
+
+            jobs.add(new MergeJob(id, "diff3", files, null, Collections.singletonMap("p", "true"), null));
+        }
+
+        Map<String, MergeJobResult> results = new HashMap<>();
+        Thread caller = Thread.currentThread();
+
+        int failed = BatchRunner.run(jobs, 2, context -> {}, result -> {
+            assertEquals(caller, Thread.currentThread());
+            results.put(result.getId(), result);
+        });
+
+        assertEquals(1, failed);
+        assertEquals(3, results.size());
+
+        for (String id : Arrays.asList("a", "c")) {
+            MergeJobResult result = results.get(id);
+
+            assertTrue(result.getExitCode() < Main.EXIT_ABORTED);
+            assertNull(result.getError());
+            assertNotNull(result.getContent());
+            assertFalse(result.getContent().isEmpty());
+        }
+
+        assertEquals(results.get("a").getContent(), results.get("c").getContent());
+
+        MergeJobResult crashed = results.get("b");
+
+        assertEquals(Main.EXIT_ABORTED, crashed.getExitCode());
+        assertNotNull(crashed.getError());
+        assertNull(crashed.getContent());
+    }
+
+    @Test(expected = InternalError.class)
+    public void testErrorEndsTheBatch() throws Exception {
+        String path = "SimpleTests/VerySimple.java";
+        List<String> files = Arrays.asList(file(leftDir, path).getPath(), file(baseDir, path).getPath(),
+                                           file(rightDir, path).getPath());
+        List<MergeJob> jobs = Collections.singletonList(
+                new MergeJob("a", "diff3", files, null, Collections.singletonMap("p", "true"), null));
+
+        BatchRunner.run(jobs, 2, context -> {
+            throw new InternalError("setup failed");
+        }, result -> {});
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.job;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gson.Gson;
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.config.JDimeConfig;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests the <code>MergeDaemon</code>.
+ */
+public class MergeDaemonTest extends JDimeTest {
+
+    private static final Gson GSON = new Gson();
+
+    private Path tmpDir;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("OFF");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = Files.createTempDirectory("MergeDaemonTest");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tmpDir.toFile());
+    }
+
+    /**
+     * Returns a request merging the <code>VerySimple</code> test file using diff3.
+     *
+     * @param id
+     *         the ID of the request
+     * @return the JSON encoded request
+     * @throws Exception
+     *         if the test files can not be found
+     */
+    private static String request(String id) throws Exception {
+        String path = "SimpleTests/VerySimple.java";
+        List<String> files = Arrays.asList(file(leftDir, path).getPath(), file(baseDir, path).getPath(),
+                                           file(rightDir, path).getPath());
+
+        return GSON.toJson(new MergeJob(id, "diff3", files, null, null, Arrays.asList("-p")));
+    }
+
+    /**
+     * Serves the given lines and returns the results written by the daemon.
+     *
+     * @param token
+     *         the token to require or <code>null</code>
+     * @param lines
+     *         the lines to send
+     * @return the results
+     * @throws IOException
+     *         if serving the lines fails
+     */
+    private static List<MergeJobResult> serve(String token, String... lines) throws IOException {
+        byte[] in = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        MergeDaemon.serve(new ByteArrayInputStream(in), out, token);
+
+        List<MergeJobResult> results = new ArrayList<>();
+
+        for (String line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                results.add(GSON.fromJson(line, MergeJobResult.class));
+            }
+        }
+
+        return results;
+    }
+
+    @Test
+    public void testHandle() throws Exception {
+        MergeJobResult result = MergeDaemon.handle(request("a"));
+
+        assertEquals("a", result.getId());
+        assertNull(result.getError());
+        assertTrue(result.getExitCode() < Main.EXIT_ABORTED);
+        assertNotNull(result.getContent());
+        assertFalse(result.getContent().isEmpty());
+    }
+
+    @Test
+    public void testHandleInvalidJSON() throws Exception {
+        MergeJobResult result = MergeDaemon.handle("{\"id\": ");
+
+        assertNull(result.getId());
+        assertEquals(Main.EXIT_FAILURE, result.getExitCode());
+        assertNotNull(result.getError());
+    }
+
+    @Test
+    public void testHandleNullJob() throws Exception {
+        MergeJobResult result = MergeDaemon.handle("null");
+
+        assertNull(result.getId());
+        assertEquals(Main.EXIT_FAILURE, result.getExitCode());
+        assertNotNull(result.getError());
+    }
+
+    @Test
+    public void testServe() throws Exception {
+        List<MergeJobResult> results = serve(null, request("a"), "", "[1, 2", request("b"));
+
+        assertEquals(3, results.size());
+        assertEquals("a", results.get(0).getId());
+        assertNull(results.get(0).getError());
+        assertNotNull(results.get(1).getError());
+        assertEquals("b", results.get(2).getId());
+        assertEquals(results.get(0).getContent(), results.get(2).getContent());
+    }
+
+    @Test
+    public void testServeWithToken() throws Exception {
+        List<MergeJobResult> results = serve("secret", "secret", request("a"));
+
+        assertEquals(1, results.size());
+        assertEquals("a", results.get(0).getId());
+        assertNull(results.get(0).getError());
+    }
+
+    @Test
+    public void testServeRejectsInvalidToken() throws Exception {
+        List<MergeJobResult> results = serve("secret", "guess", request("a"));
+
+        assertEquals(1, results.size());
+        assertNull(results.get(0).getId());
+        assertEquals(Main.EXIT_FAILURE, results.get(0).getExitCode());
+        assertNotNull(results.get(0).getError());
+
+        results = serve("secret", request("a"));
+
+        assertEquals(1, results.size());
+        assertNull(results.get(0).getId());
+        assertNotNull(results.get(0).getError());
+
+        assertEquals(1, serve("secret").size());
+    }
+
+    @Test
+    public void testReadToken() throws Exception {
+        Path tokenFile = tmpDir.resolve("token");
+
+        Files.write(tokenFile, Arrays.asList(" secret ", "ignored"), StandardCharsets.UTF_8);
+        assumeTrue(Files.getFileStore(tokenFile).supportsFileAttributeView("posix"));
+        Files.setPosixFilePermissions(tokenFile, PosixFilePermissions.fromString("rw-------"));
+
+        assertEquals("secret", MergeDaemon.readToken(tokenFile));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadTokenAccessibleByOthers() throws Exception {
+        Path tokenFile = tmpDir.resolve("token");
+
+        Files.write(tokenFile, Arrays.asList("secret"), StandardCharsets.UTF_8);
+        assumeTrue(Files.getFileStore(tokenFile).supportsFileAttributeView("posix"));
+        Files.setPosixFilePermissions(tokenFile, PosixFilePermissions.fromString("rw-r--r--"));
+
+        MergeDaemon.readToken(tokenFile);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadEmptyToken() throws Exception {
+        Path tokenFile = tmpDir.resolve("token");
+
+        Files.write(tokenFile, Arrays.asList(""), StandardCharsets.UTF_8);
+        assumeTrue(Files.getFileStore(tokenFile).supportsFileAttributeView("posix"));
+        Files.setPosixFilePermissions(tokenFile, PosixFilePermissions.fromString("rw-------"));
+
+        MergeDaemon.readToken(tokenFile);
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.job;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.config.JDimeConfig;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the <code>MergeJob</code>.
+ */
+public class MergeJobTest extends JDimeTest {
+
+    private static final String PATH = "SimpleTests/VerySimple.java";
+
+    private File tmpDir;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("OFF");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = Files.createTempDirectory("MergeJobTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tmpDir);
+    }
+
+    /**
+     * Returns the paths of the left, base and right revision of the <code>VerySimple</code> test file.
+     *
+     * @return the paths of the input files
+     * @throws Exception
+     *         if the files can not be found
+     */
+    private static List<String> inputs() throws Exception {
+        return Arrays.asList(file(leftDir, PATH).getPath(), file(baseDir, PATH).getPath(),
+                             file(rightDir, PATH).getPath());
+    }
+
+    @Test
+    public void testToArgs() throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("p", "true");
+        options.put("-q", null);
+        options.put("stats", "false");
+        options.put("mparthreshold", "10");
+
+        MergeJob job = new MergeJob("a", "linebased", Arrays.asList("L.java", "R.java"), "O.java", options,
+                                    Collections.singletonList("-f"));
+
+        assertEquals(Arrays.asList("-f", "-m", "linebased", "-o", "O.java", "-p", "-q", "-mparthreshold", "10",
+                                   "L.java", "R.java"), Arrays.asList(job.toArgs()));
+        assertEquals("a", job.toString());
+
+        job = new MergeJob();
+
+        assertEquals(0, job.toArgs().length);
+        assertEquals("", job.toString());
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        File output = new File(tmpDir, "Out.java");
+        MergeJob job = new MergeJob("a", "diff3", inputs(), output.getPath(), null, null);
+        MergeJobResult result = job.run();
+
+        assertEquals("a", result.getId());
+        assertNull(result.getError());
+        assertTrue(result.getExitCode() < Main.EXIT_ABORTED);
+        assertNotNull(result.getContent());
+        assertFalse(result.getContent().isEmpty());
+        assertTrue(output.isFile());
+        assertEquals(result.getContent(), new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRunPretend() throws Exception {
+        File output = new File(tmpDir, "Out.java");
+        MergeJob job = new MergeJob("a", "diff3", inputs(), output.getPath(), Collections.singletonMap("p", "true"),
+                                    null);
+        MergeJobResult result = job.run();
+
+        assertNull(result.getError());
+        assertNotNull(result.getContent());
+        assertFalse(output.exists());
+    }
+
+    @Test
+    public void testRunWithInvalidArguments() throws Exception {
+        MergeJobResult result = new MergeJob("a", Arrays.asList("-nosuchoption", "L.java", "R.java")).run();
+
+        assertEquals(Main.EXIT_FAILURE, result.getExitCode());
+        assertNotNull(result.getError());
+        assertNull(result.getContent());
+    }
+
+    @Test
+    public void testRunWithMissingInput() throws Exception {
+        List<String> files = Arrays.asList(new File(tmpDir, "Missing.java").getPath(), file(rightDir, PATH).getPath());
+        MergeJobResult result = new MergeJob("a", "diff3", files, null, null, null).run();
+
+        assertEquals(Main.EXIT_ABORTED, result.getExitCode());
+        assertNotNull(result.getError());
+        assertNull(result.getContent());
+    }
+
+    @Test
+    public void testRunRejectsInspection() throws Exception {
+        Map<String, String> options = Collections.singletonMap("ie", "1");
+        MergeJobResult result = new MergeJob("a", "structured", inputs(), null, options, null).run();
+
+        assertEquals(Main.EXIT_ABORTED, result.getExitCode());
+        assertNotNull(result.getError());
+    }
+
+    @Test
+    public void testRunReportsExceptions() throws Exception {
+        MergeJob job = new MergeJob("a", "diff3", inputs(), null, Collections.singletonMap("p", "true"), null);
+        MergeJobResult result = job.run(context -> {
+            throw new IllegalStateException("setup failed");
+        });
+
+        assertEquals(Main.EXIT_FAILURE, result.getExitCode());
+        assertTrue(result.getError().contains("setup failed"));
+    }
+
+    @Test(expected = InternalError.class)
+    public void testRunDoesNotCatchErrors() throws Exception {
+        MergeJob job = new MergeJob("a", "diff3", inputs(), null, Collections.singletonMap("p", "true"), null);
+
+        job.run(context -> {
+            throw new InternalError("setup failed");
+        });
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.matcher;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.artifact.Artifact;
+import de.fosd.jdime.artifact.ast.ASTNodeArtifact;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.config.merge.Revision;
+import de.fosd.jdime.matcher.matching.Matching;
+import de.fosd.jdime.matcher.matching.Matchings;
+import de.fosd.jdime.util.UnorderedTuple;
+import org.junit.Before;
+import org.junit.Test;
+
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for the <code>Matcher</code> class.
+ */
+public class MatcherTest extends JDimeTest {
+
+    private static final String DIRECTORY = "SimpleTests";
+
+    /**
+     * The paths of the Java files in {@link #DIRECTORY} present in both the left and the right test revision.
+     */
+    private List<Path> paths;
+
+    @Before
+    public void setUp() throws Exception {
+        Path leftPath = leftDir.toPath();
+
+        try (Stream<Path> files = Files.walk(leftPath.resolve(DIRECTORY))) {
+            paths = files.filter(p -> p.toString().endsWith(".java"))
+                         .map(leftPath::relativize)
+                         .filter(p -> Files.exists(rightDir.toPath().resolve(p)))
+                         .sorted()
+                         .collect(toList());
+        }
+
+        assertFalse(paths.isEmpty());
+    }
+
+    @Test
+    public void parallelMatching() throws Exception {
+        MergeContext sequential = new MergeContext();
+        MergeContext parallel = new MergeContext();
+
+        parallel.setParallelMatching(true);
+        parallel.setParallelMatchingThreshold(1);
+
+        for (Path path : paths) {
+            ASTNodeArtifact left = parse(leftDir, path, LEFT);
+            ASTNodeArtifact right = parse(rightDir, path, RIGHT);
+
+            Map<UnorderedTuple<ASTNodeArtifact, ASTNodeArtifact>, Integer> expected;
+            expected = scores(new Matcher<>(left, right).match(sequential));
+
+            assertFalse(path.toString(), expected.isEmpty());
+            assertEquals(path.toString(), expected, scores(new Matcher<>(left, right).match(parallel)));
+        }
+    }
+
+    /**
+     * Parses the Java file at the given path below {@code dir} into an AST.
+     */
+    private static ASTNodeArtifact parse(File dir, Path path, Revision revision) {
+        return new ASTNodeArtifact(new FileArtifact(revision, dir.toPath().resolve(path).toFile()));
+    }
+
+    /**
+     * Maps the matched pairs of <code>Artifact</code>s in {@code matchings} to their scores.
+     */
+    private static <T extends Artifact<T>> Map<UnorderedTuple<T, T>, Integer> scores(Matchings<T> matchings) {
+        return matchings.stream().collect(toMap(Matching::getMatchedArtifacts, Matching::getScore));
+    }
+}
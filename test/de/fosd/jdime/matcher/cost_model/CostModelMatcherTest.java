@@ -24,12 +24,18 @@
 package de.fosd.jdime.matcher.cost_model;
 
 import java.util.Optional;
+import java.util.Set;
 
 import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.artifact.Artifact;
 import de.fosd.jdime.artifact.TestArtifact;
+import de.fosd.jdime.artifact.ast.ASTNodeArtifact;
+import de.fosd.jdime.artifact.file.FileArtifact;
 import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.matcher.Matcher;
 import de.fosd.jdime.matcher.matching.Matching;
 import de.fosd.jdime.matcher.matching.Matchings;
+import de.fosd.jdime.util.Tuple;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -38,7 +44,10 @@
 import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
 import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
 import static de.fosd.jdime.stats.KeyEnums.Type.NODE;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class CostModelMatcherTest extends JDimeTest {
 
@@ -163,6 +172,233 @@ public void paperC() throws Exception {
         testCostModelMatching(expected, 1.0f, 1.0f, 0.5f, 0.5f, 0);
     }
 
+    @Test
+    public void multipleChains() throws Exception {
+        MergeContext context = new MergeContext();
+
+        context.setSeed(Optional.of(42L));
+        context.setCostModelIterations(100);
+
+        Matchings<TestArtifact> singleChain = matcher.match(context, left, right);
+
+        context.setCmChains(4);
+
+        Matchings<TestArtifact> first = matcher.match(context, left, right);
+        Matchings<TestArtifact> second = matcher.match(context, left, right);
+
+        assertEquals(first, second);
+        assertTrue(matcher.cost(context, first, left, right) <= matcher.cost(context, singleChain, left, right));
+    }
+
+    @Test
+    public void postProcessKeepsCrossRegionMatchings() throws Exception {
+        TestArtifact la = new TestArtifact(LEFT, "A", NODE);
+        TestArtifact lb = new TestArtifact(LEFT, "B", NODE);
+        TestArtifact lc = new TestArtifact(LEFT, "C", NODE);
+        TestArtifact lx = new TestArtifact(LEFT, "X", NODE);
+        TestArtifact ld = new TestArtifact(LEFT, "D", NODE);
+        TestArtifact le = new TestArtifact(LEFT, "E", NODE);
+        TestArtifact lz = new TestArtifact(LEFT, "Z", NODE);
+
+        la.addChild(lb);
+        la.addChild(ld);
+        lb.addChild(lc);
+        lb.addChild(lx);
+        ld.addChild(le);
+        ld.addChild(lz);
+
+        TestArtifact ra = new TestArtifact(RIGHT, "A", NODE);
+        TestArtifact rb = new TestArtifact(RIGHT, "B", NODE);
+        TestArtifact rc = new TestArtifact(RIGHT, "C", NODE);
+        TestArtifact ry = new TestArtifact(RIGHT, "Y", NODE);
+        TestArtifact rd = new TestArtifact(RIGHT, "D", NODE);
+        TestArtifact re = new TestArtifact(RIGHT, "E", NODE);
+        TestArtifact rx = new TestArtifact(RIGHT, "X", NODE);
+
+        ra.addChild(rb);
+        ra.addChild(rd);
+        rb.addChild(rc);
+        rb.addChild(ry);
+        rd.addChild(re);
+        rd.addChild(rx);
+
+        root(la).renumber();
+        root(ra).renumber();
+
+        // X was moved from B to D, the partially matched pairs (B, B) and (D, D) are post-processed separately
+        Matchings<TestArtifact> matchings = new Matchings<>();
+
+        matchings.add(new Matching<>(la, ra, 5));
+        matchings.add(new Matching<>(lb, rb, 2));
+        matchings.add(new Matching<>(lc, rc, 1));
+        matchings.add(new Matching<>(lx, rx, 1));
+        matchings.add(new Matching<>(ld, rd, 2));
+        matchings.add(new Matching<>(le, re, 1));
+
+        MergeContext context = new MergeContext();
+
+        context.setSeed(Optional.of(42L));
+        context.setCostModelIterations(100);
+
+        Matchings<TestArtifact> result = matcher.postProcess(context, la, ra, matchings);
+
+        assertTrue(result.get(lx, rx).isPresent());
+
+        for (TestArtifact artifact : new TestArtifact[] {lx, rx}) {
+            assertEquals(1, result.stream().filter(m -> m.getLeft() == artifact || m.getRight() == artifact).count());
+        }
+
+        for (Matching<TestArtifact> matching : matchings) {
+            assertTrue(result.get(matching.getLeft(), matching.getRight()).isPresent());
+        }
+    }
+
+    @Test
+    public void postProcessDoesNotMatchAcrossRegions() throws Exception {
+        TestArtifact la = new TestArtifact(LEFT, "A", NODE);
+        TestArtifact lb = new TestArtifact(LEFT, "B", NODE);
+        TestArtifact lc = new TestArtifact(LEFT, "C", NODE);
+        TestArtifact lx = new TestArtifact(LEFT, "X", NODE);
+        TestArtifact ld = new TestArtifact(LEFT, "D", NODE);
+        TestArtifact le = new TestArtifact(LEFT, "E", NODE);
+        TestArtifact lp = new TestArtifact(LEFT, "P", NODE);
+        TestArtifact lq = new TestArtifact(LEFT, "Q", NODE);
+
+        la.addChild(lb);
+        la.addChild(ld);
+        lb.addChild(lc);
+        lb.addChild(lx);
+        ld.addChild(le);
+        lx.addChild(lp);
+        lx.addChild(lq);
+
+        TestArtifact ra = new TestArtifact(RIGHT, "A", NODE);
+        TestArtifact rb = new TestArtifact(RIGHT, "B", NODE);
+        TestArtifact rc = new TestArtifact(RIGHT, "C", NODE);
+        TestArtifact rd = new TestArtifact(RIGHT, "D", NODE);
+        TestArtifact re = new TestArtifact(RIGHT, "E", NODE);
+        TestArtifact rx = new TestArtifact(RIGHT, "X", NODE);
+        TestArtifact rp = new TestArtifact(RIGHT, "P", NODE);
+        TestArtifact rq = new TestArtifact(RIGHT, "Q", NODE);
+
+        ra.addChild(rb);
+        ra.addChild(rd);
+        rb.addChild(rc);
+        rd.addChild(re);
+        rd.addChild(rx);
+        rx.addChild(rp);
+        rx.addChild(rq);
+
+        root(la).renumber();
+        root(ra).renumber();
+
+        // X was moved from B to D and not matched, (B, B) and (D, D) are the partially matched pairs
+        Matchings<TestArtifact> matchings = new Matchings<>();
+
+        matchings.add(new Matching<>(la, ra, 5));
+        matchings.add(new Matching<>(lb, rb, 2));
+        matchings.add(new Matching<>(lc, rc, 1));
+        matchings.add(new Matching<>(ld, rd, 2));
+        matchings.add(new Matching<>(le, re, 1));
+
+        MergeContext context = new MergeContext();
+
+        context.setSeed(Optional.of(42L));
+        context.setCostModelIterations(100);
+
+        Matchings<TestArtifact> whole = matcher.match(context, la, ra, matchings);
+        Matchings<TestArtifact> postProcessed = matcher.postProcess(context, la, ra, matchings);
+
+        // the cost model run on the whole trees matches the moved nodes, the post-processing of the pairs does not
+        assertTrue(whole.get(lp, rp).isPresent());
+        assertTrue(whole.get(lq, rq).isPresent());
+
+        for (TestArtifact artifact : new TestArtifact[] {lx, lp, lq, rx, rp, rq}) {
+            assertFalse(postProcessed.stream().anyMatch(m -> m.getLeft() == artifact || m.getRight() == artifact));
+        }
+
+        for (Matching<TestArtifact> matching : matchings) {
+            assertTrue(postProcessed.get(matching.getLeft(), matching.getRight()).isPresent());
+        }
+    }
+
+    @Test
+    public void postProcessMatchesWholeTree() throws Exception {
+        String path = "SimpleTests/ImportConflict.java";
+        ASTNodeArtifact astLeft = new ASTNodeArtifact(new FileArtifact(LEFT, file(leftDir, path)));
+        ASTNodeArtifact astRight = new ASTNodeArtifact(new FileArtifact(RIGHT, file(rightDir, path)));
+
+        MergeContext context = new MergeContext();
+        context.setSeed(Optional.of(42L));
+
+        CostModelMatcher<ASTNodeArtifact> cmMatcher = new CostModelMatcher<>();
+        Matchings<ASTNodeArtifact> matchings = new Matcher<>(astLeft, astRight).match(context);
+
+        Matchings<ASTNodeArtifact> whole = cmMatcher.match(context, astLeft, astRight, matchings);
+        Matchings<ASTNodeArtifact> postProcessed = cmMatcher.postProcess(context, astLeft, astRight, matchings);
+
+        assertEquals(pairs(whole), pairs(postProcessed));
+
+        for (Matching<ASTNodeArtifact> matching : postProcessed) {
+            ASTNodeArtifact l = matching.getLeft();
+            ASTNodeArtifact r = matching.getRight();
+            boolean parentsMatched = !l.isRoot() && postProcessed.get(l.getParent(), r.getParent()).isPresent();
+
+            assertFalse(parentsMatched && l.hasChildren() && !l.matches(r));
+        }
+    }
+
+    @Test
+    public void incrementalCost() throws Exception {
+        String path = "SimpleTests/ImportConflict.java";
+        ASTNodeArtifact astLeft = new ASTNodeArtifact(new FileArtifact(LEFT, file(leftDir, path)));
+        ASTNodeArtifact astRight = new ASTNodeArtifact(new FileArtifact(RIGHT, file(rightDir, path)));
+
+        for (long seed = 0; seed < 5; seed++) {
+            testIncrementalCost(matcher, left, right, seed);
+            testIncrementalCost(new CostModelMatcher<>(), astLeft, astRight, seed);
+        }
+    }
+
+    /**
+     * Checks that the incremental cost of seeded random proposals equals their full cost.
+     */
+    private static <T extends Artifact<T>> void testIncrementalCost(CostModelMatcher<T> matcher, T left, T right,
+                                                                    long seed) {
+        MergeContext context = new MergeContext();
+
+        context.setSeed(Optional.of(seed));
+        context.setCmMatcherFixRandomPercentage(true);
+
+        CMParameters<T> parameters = new CMParameters<>(context);
+        CMMatchings<T> preFixed = new CMMatchings<>(left, right);
+        CMMatchings<T> m = matcher.initialize(preFixed, parameters);
+
+        matcher.cost(m, parameters);
+
+        for (int i = 0; i < 50; i++) {
+            CMMatchings<T> mHat = matcher.propose(m, preFixed, parameters);
+            float incremental = matcher.cost(mHat, m, parameters);
+
+            CMMatchings<T> copy = new CMMatchings<>(left, right);
+            mHat.forEach(matching -> copy.add(new CMMatching<>(matching.m, matching.n)));
+
+            assertEquals(matcher.cost(copy, parameters), incremental, 0);
+
+            for (int j = 0; j < mHat.size(); j++) {
+                assertEquals(copy.get(j).getExactCost(), mHat.get(j).getExactCost(), 0);
+            }
+
+            if (parameters.rng.nextBoolean()) {
+                m = mHat;
+            }
+        }
+    }
+
+    private static <T extends Artifact<T>> Set<Tuple<T, T>> pairs(Matchings<T> matchings) {
+        return matchings.stream().map(m -> Tuple.of(m.getLeft(), m.getRight())).collect(toSet());
+    }
+
     private void testCostModelMatching(Matchings<TestArtifact> expected, float wr, float wn, float wa, float ws, float wo) throws Exception {
         MergeContext context = new MergeContext();
 
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.matcher.matching;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.fosd.jdime.artifact.TestArtifact;
+import org.junit.Before;
+import org.junit.Test;
+
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static de.fosd.jdime.stats.KeyEnums.Type.NODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the <code>Matchings</code> class.
+ */
+public class MatchingsTest {
+
+    private static final int SIZE = Matchings.INDEX_THRESHOLD * 2;
+
+    private List<TestArtifact> left;
+    private List<TestArtifact> right;
+    private Matchings<TestArtifact> matchings;
+
+    @Before
+    public void setUp() throws Exception {
+        left = new ArrayList<>();
+        right = new ArrayList<>();
+        matchings = new Matchings<>();
+
+        for (int i = 0; i < SIZE; i++) {
+            left.add(new TestArtifact(LEFT, "l" + i, NODE));
+            right.add(new TestArtifact(RIGHT, "r" + i, NODE));
+            matchings.add(new Matching<>(left.get(i), right.get(i), i));
+        }
+    }
+
+    @Test
+    public void testLookups() throws Exception {
+
+        for (int i = 0; i < SIZE; i++) {
+            TestArtifact l = left.get(i);
+            TestArtifact r = right.get(i);
+
+            assertEquals(i, matchings.get(l, r).get().getScore());
+            assertEquals(i, matchings.get(r, l).get().getScore());
+            assertSame(r, matchings.getLeft(l).get().getRight());
+            assertSame(l, matchings.getRight(r).get().getLeft());
+            assertFalse(matchings.getLeft(r).isPresent());
+        }
+
+        assertFalse(matchings.get(left.get(0), right.get(1)).isPresent());
+    }
+
+    @Test
+    public void testIndexConsistency() throws Exception {
+        matchings.get(left.get(0), right.get(0)); // builds the indexes
+
+        TestArtifact l = left.get(1);
+        TestArtifact r = right.get(1);
+
+        assertTrue(matchings.remove(new Matching<>(l, r, 0)));
+        assertFalse(matchings.get(l, r).isPresent());
+        assertFalse(matchings.getLeft(l).isPresent());
+        assertFalse(matchings.getRight(r).isPresent());
+
+        matchings.removeIf(m -> m.getLeft() == left.get(2));
+        assertFalse(matchings.getLeft(left.get(2)).isPresent());
+
+        Matchings<TestArtifact> other = new Matchings<>();
+        other.add(new Matching<>(l, right.get(3), 42));
+        matchings.addAll(other);
+
+        assertEquals(42, matchings.getLeft(l).get().getScore());
+        assertEquals(42, matchings.get(l, right.get(3)).get().getScore());
+        assertEquals(3, matchings.getRight(right.get(3)).get().getScore());
+
+        Matchings<TestArtifact> optimized = matchings.optimized();
+
+        for (Matching<TestArtifact> m : optimized) {
+            assertSame(m, optimized.get(m.getLeft(), m.getRight()).get());
+        }
+
+        matchings.clear();
+        assertFalse(matchings.getLeft(left.get(0)).isPresent());
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.merge;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.artifact.Artifacts;
+import de.fosd.jdime.artifact.ast.ASTNodeArtifact;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.config.merge.MergeScenario;
+import de.fosd.jdime.config.merge.MergeType;
+import de.fosd.jdime.config.merge.Revision;
+import de.fosd.jdime.operations.MergeOperation;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.MERGE;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that running the three diffs of a merge concurrently stores the same matchings as running them sequentially.
+ */
+public class ConcurrentDiffsTest extends JDimeTest {
+
+    private static final String DIRECTORY = "SimpleTests";
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Test
+    public void testSameMatchings() throws Exception {
+        Path leftPath = leftDir.toPath();
+        List<Path> paths;
+
+        try (Stream<Path> files = Files.walk(leftPath.resolve(DIRECTORY))) {
+            paths = files.filter(p -> p.toString().endsWith(".java"))
+                         .map(leftPath::relativize)
+                         .filter(p -> Files.exists(baseDir.toPath().resolve(p)))
+                         .filter(p -> Files.exists(rightDir.toPath().resolve(p)))
+                         .sorted()
+                         .collect(toList());
+        }
+
+        assertFalse(paths.isEmpty());
+
+        for (Path path : paths) {
+            List<String> sequential = diff(path, false);
+
+            assertFalse(path.toString(), sequential.isEmpty());
+            assertEquals(path.toString(), sequential, diff(path, true));
+        }
+    }
+
+    /**
+     * Parses the base, left and right versions of the file at {@code path} and diffs them without merging.
+     *
+     * @param path
+     *         the path of the file relative to the revision directories
+     * @param concurrent
+     *         whether to run the diffs concurrently
+     * @return the matchings stored in the three trees in depth-first order
+     */
+    private static List<String> diff(Path path, boolean concurrent) {
+        ASTNodeArtifact left = parse(leftDir, path, LEFT);
+        ASTNodeArtifact base = parse(baseDir, path, BASE);
+        ASTNodeArtifact right = parse(rightDir, path, RIGHT);
+
+        MergeContext context = new MergeContext();
+        context.setDiffOnly(true);
+        context.setConcurrentDiffs(concurrent);
+
+        MergeScenario<ASTNodeArtifact> scenario = new MergeScenario<>(MergeType.THREEWAY, left, base, right);
+        new Merge<ASTNodeArtifact>().merge(new MergeOperation<>(scenario, left.createEmptyArtifact(MERGE)), context);
+
+        return Stream.of(base, left, right)
+                     .flatMap(Artifacts::dfsStream)
+                     .flatMap(artifact -> artifact.getMatchings().stream().map(Object::toString).sorted())
+                     .collect(toList());
+    }
+
+    /**
+     * Parses the Java file at the given path below {@code dir} into an AST.
+     */
+    private static ASTNodeArtifact parse(File dir, Path path, Revision revision) {
+        return new ASTNodeArtifact(new FileArtifact(revision, dir.toPath().resolve(path).toFile()));
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.merge;
+
+import java.io.File;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.artifact.ArtifactList;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.strategy.MergeStrategy;
+import org.apache.commons.io.FileUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static de.fosd.jdime.artifact.file.FileArtifact.FileType.FILE;
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.MERGE;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests three-way structured merges that insert choice nodes instead of conflicts. The expected results in
+ * <code>results/conditional</code> are those of the merge before it supported the choice nodes of n-way merges.
+ */
+public class ConditionalMergeTest extends JDimeTest {
+
+    private static final String DIRECTORY = "SimpleTests";
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Test
+    public void testExpectedResults() throws Exception {
+        File[] expectedFiles = file(resultsDir, "conditional", DIRECTORY).listFiles();
+
+        assertNotNull(expectedFiles);
+        assertTrue(expectedFiles.length > 0);
+
+        for (File expectedFile : expectedFiles) {
+            String name = expectedFile.getName();
+            String expected = normalize(FileUtils.readFileToString(expectedFile, UTF_8));
+
+            assertEquals(name, expected, normalize(merge(name)));
+        }
+    }
+
+    /**
+     * Merges the file with the given name in the {@value DIRECTORY} directories below {@link #leftDir},
+     * {@link #baseDir} and {@link #rightDir} using the structured strategy and choice nodes.
+     *
+     * @param name
+     *         the name of the file
+     * @return the merged content
+     */
+    private static String merge(String name) {
+        MergeContext context = new MergeContext();
+        ArtifactList<FileArtifact> inputs = new ArtifactList<>();
+
+        inputs.add(new FileArtifact(LEFT, file(leftDir, DIRECTORY, name)));
+        inputs.add(new FileArtifact(BASE, file(baseDir, DIRECTORY, name)));
+        inputs.add(new FileArtifact(RIGHT, file(rightDir, DIRECTORY, name)));
+
+        context.setMergeStrategy(MergeStrategy.parse(MergeStrategy.STRUCTURED).get());
+        context.setConditionalMerge(true);
+        context.setInputFiles(inputs);
+        context.setOutputFile(new FileArtifact(MERGE, FILE));
+
+        Main.merge(context);
+
+        assertTrue(name, context.getCrashes().isEmpty());
+        return context.getOutputFile().getContent();
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.merge;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the line based three-way merge of {@link Diff3}. The expected results are those of
+ * <code>git merge-file -p -L left -L base -L right</code>.
+ */
+public class Diff3Test {
+
+    private static String merge(String left, String base, String right) {
+        return Diff3.merge(left, base, right, "left", "right", 7);
+    }
+
+    @Test
+    public void testCRLF() {
+        String base = "a\r\nb\r\nc\r\nd\r\ne\r\nf\r\n";
+        String left = "A\r\nb\r\nc\r\nd\r\ne\r\nf\r\n";
+        String right = "a\r\nb\r\nc\r\nd\r\ne\r\nF\r\n";
+
+        assertEquals("A\r\nb\r\nc\r\nd\r\ne\r\nF\r\n", merge(left, base, right));
+    }
+
+    @Test
+    public void testCRLFConflict() {
+        String base = "a\r\nb\r\nc\r\n";
+        String left = "a\r\nL\r\nc\r\n";
+        String right = "a\r\nR\r\nc\r\n";
+
+        String expected = "a\r\n" +
+                          "<<<<<<< left\r\n" +
+                          "L\r\n" +
+                          "=======\r\n" +
+                          "R\r\n" +
+                          ">>>>>>> right\r\n" +
+                          "c\r\n";
+
+        assertEquals(expected, merge(left, base, right));
+    }
+
+    @Test
+    public void testMissingFinalNewline() {
+        String base = "a\nb\nc\nd\ne\nf";
+        String left = "A\nb\nc\nd\ne\nf";
+        String right = "a\nb\nc\nd\ne\nf\ng";
+
+        assertEquals("A\nb\nc\nd\ne\nf\ng", merge(left, base, right));
+    }
+
+    @Test
+    public void testMissingFinalNewlineConflict() {
+        String base = "a\nb\nc";
+        String left = "a\nb\nc\n";
+        String right = "a\nb\nC";
+
+        String expected = "a\n" +
+                          "b\n" +
+                          "<<<<<<< left\n" +
+                          "c\n" +
+                          "=======\n" +
+                          "C\n" +
+                          ">>>>>>> right\n";
+
+        assertEquals(expected, merge(left, base, right));
+    }
+
+    @Test
+    public void testIdenticalChanges() {
+        String base = "a\nb\nc\nd\ne\n";
+        String changed = "a\nB\nc\nd\ne\n";
+
+        assertEquals(changed, merge(changed, base, changed));
+    }
+
+    @Test
+    public void testAdjacentHunks() {
+        String base = "a\nb\nc\nd\ne\n";
+        String left = "a\nB\nc\nd\ne\n";
+        String right = "a\nb\nC\nd\ne\n";
+
+        String expected = "a\n" +
+                          "<<<<<<< left\n" +
+                          "B\n" +
+                          "c\n" +
+                          "=======\n" +
+                          "b\n" +
+                          "C\n" +
+                          ">>>>>>> right\n" +
+                          "d\n" +
+                          "e\n";
+
+        assertEquals(expected, merge(left, base, right));
+    }
+
+    @Test
+    public void testJoinedConflicts() {
+        String base = "1\n2\n3\n4\n5\n6\n7\n8\n9\n";
+        String left = "1\nL2\n3\n4\n5\nL6\n7\n8\n9\n";
+        String right = "1\nR2\n3\n4\n5\nR6\n7\n8\n9\n";
+
+        String expected = "1\n" +
+                          "<<<<<<< left\n" +
+                          "L2\n3\n4\n5\nL6\n" +
+                          "=======\n" +
+                          "R2\n3\n4\n5\nR6\n" +
+                          ">>>>>>> right\n" +
+                          "7\n8\n9\n";
+
+        assertEquals(expected, merge(left, base, right));
+    }
+
+    @Test
+    public void testSeparateConflicts() {
+        String base = "1\n2\n3\n4\n5\n6\n7\n8\n9\n";
+        String left = "L1\n2\n3\n4\n5\n6\nL7\n8\n9\n";
+        String right = "R1\n2\n3\n4\n5\n6\nR7\n8\n9\n";
+
+        String expected = "<<<<<<< left\n" +
+                          "L1\n" +
+                          "=======\n" +
+                          "R1\n" +
+                          ">>>>>>> right\n" +
+                          "2\n3\n4\n5\n6\n" +
+                          "<<<<<<< left\n" +
+                          "L7\n" +
+                          "=======\n" +
+                          "R7\n" +
+                          ">>>>>>> right\n" +
+                          "8\n9\n";
+
+        assertEquals(expected, merge(left, base, right));
+    }
+
+    @Test
+    public void testDiff() {
+        assertArrayEquals(new int[] {1, 1, 1, 2}, Diff3.diff("a\nb\nc\n", "a\nx\ny\nc\n"));
+        assertArrayEquals(new int[0], Diff3.diff("a\nb\n", "a\nb\n"));
+    }
+}
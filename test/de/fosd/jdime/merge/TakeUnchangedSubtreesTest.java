@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.merge;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.stats.ElementStatistics;
+import de.fosd.jdime.stats.MergeScenarioStatistics;
+import de.fosd.jdime.stats.Statistics;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that taking unchanged subtrees as a whole does not change the results of <code>Merge</code>.
+ */
+public class TakeUnchangedSubtreesTest extends JDimeTest {
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Test
+    public void testSameResults() throws Exception {
+        for (boolean fastHash : new boolean[] { false, true }) {
+            Map<String, String> merged = mergeDirectory("SimpleTests", context -> {
+                context.setUseFastTreeHash(fastHash);
+            });
+            Map<String, String> taken = mergeDirectory("SimpleTests", context -> {
+                context.setUseFastTreeHash(fastHash);
+                context.setTakeUnchangedSubtrees(true);
+            });
+
+            assertFalse(merged.isEmpty());
+            assertEquals(merged, taken);
+        }
+    }
+
+    @Test
+    public void testSameStatistics() throws Exception {
+        MergeContext[] contexts = new MergeContext[2];
+
+        Map<String, String> merged = mergeDirectory("SimpleTests", context -> {
+            context.collectStatistics(true);
+            contexts[0] = context;
+        });
+        Map<String, String> taken = mergeDirectory("SimpleTests", context -> {
+            context.collectStatistics(true);
+            context.setTakeUnchangedSubtrees(true);
+            contexts[1] = context;
+        });
+
+        assertEquals(merged, taken);
+
+        Map<String, List<Integer>> mergedCounts = counts(contexts[0].getStatistics());
+
+        assertFalse(mergedCounts.isEmpty());
+        assertEquals(mergedCounts, counts(contexts[1].getStatistics()));
+    }
+
+    /**
+     * Sums up the element statistics of all scenarios in the given <code>Statistics</code> by revision and level or
+     * type.
+     *
+     * @param statistics
+     *         the <code>Statistics</code> to sum up
+     * @return the total, added, merged, deleted and conflicting elements
+     */
+    private static Map<String, List<Integer>> counts(Statistics statistics) {
+        Map<String, List<Integer>> counts = new TreeMap<>();
+
+        for (MergeScenarioStatistics scenario : statistics.getScenarioStatistics()) {
+            scenario.getLevelStatistics().forEach((rev, levels) -> levels.forEach((level, stats) -> {
+                add(counts, rev + " " + level, stats);
+            }));
+            scenario.getTypeStatistics().forEach((rev, types) -> types.forEach((type, stats) -> {
+                add(counts, rev + " " + type, stats);
+            }));
+        }
+
+        return counts;
+    }
+
+    /**
+     * Adds the counts of <code>stats</code> to those stored in <code>counts</code> under the given <code>key</code>.
+     *
+     * @param counts
+     *         the counts to add to
+     * @param key
+     *         the key to add the counts under
+     * @param stats
+     *         the statistics to add
+     */
+    private static void add(Map<String, List<Integer>> counts, String key, ElementStatistics stats) {
+        List<Integer> values = Arrays.asList(stats.getTotal(), stats.getNumAdded(), stats.getNumMerged(),
+                stats.getNumDeleted(), stats.getNumOccurInConflict());
+
+        counts.merge(key, values, (a, b) -> Arrays.asList(a.get(0) + b.get(0), a.get(1) + b.get(1),
+                a.get(2) + b.get(2), a.get(3) + b.get(3), a.get(4) + b.get(4)));
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.strategy;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.config.merge.MergeScenario;
+import de.fosd.jdime.config.merge.MergeType;
+import de.fosd.jdime.config.merge.Revision;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static de.fosd.jdime.strategy.MergeStrategy.SEMISTRUCTURED;
+import static de.fosd.jdime.strategy.MergeStrategy.STRUCTURED;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the choice of the <code>AdaptiveStrategy</code>.
+ */
+public class AdaptiveStrategyTest {
+
+    private static final String BASE_CONTENT = "a\nb\nc\nd\n";
+
+    private Path tmpDir;
+    private MergeContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = Files.createTempDirectory("AdaptiveStrategyTest");
+        context = new MergeContext();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tmpDir.toFile());
+    }
+
+    /**
+     * Returns the name of the strategy the <code>AdaptiveStrategy</code> chooses for a file of the given name.
+     */
+    private String choose(String name, String base, String left, String right) throws Exception {
+        MergeScenario<FileArtifact> scenario = new MergeScenario<>(MergeType.THREEWAY, file(LEFT, name, left),
+                file(BASE, name, base), file(RIGHT, name, right));
+
+        return AdaptiveStrategy.choose(scenario, new ChangeFeatures(scenario), context);
+    }
+
+    /**
+     * Writes the given content to a file of the given name in a directory for the given <code>Revision</code>.
+     */
+    private FileArtifact file(Revision revision, String name, String content) throws Exception {
+        Path file = Files.createDirectories(tmpDir.resolve(revision.getName())).resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+        return new FileArtifact(revision, file.toFile());
+    }
+
+    @Test
+    public void testNoOverlap() throws Exception {
+        String line = context.getLineMergeStrategyName();
+
+        assertEquals(line, choose("A.java", BASE_CONTENT, "x\nb\nc\nd\n", "a\nb\nc\ny\n"));
+        assertEquals(line, choose("A.java", BASE_CONTENT, BASE_CONTENT, "a\nb\nc\ny\n"));
+    }
+
+    @Test
+    public void testNonJavaFile() throws Exception {
+        assertEquals(context.getLineMergeStrategyName(),
+                     choose("A.txt", BASE_CONTENT, "a\nx\nc\nd\n", "a\nb\ny\nd\n"));
+    }
+
+    @Test
+    public void testMaxStructuredLines() throws Exception {
+        String left = "a\nx\nc\nd\n";
+        String right = "a\nb\ny\nd\n";
+
+        context.setAdaptiveMaxStructuredLines(4);
+        assertEquals(STRUCTURED, choose("A.java", BASE_CONTENT, left, right));
+
+        context.setAdaptiveMaxStructuredLines(3);
+        assertEquals(SEMISTRUCTURED, choose("A.java", BASE_CONTENT, left, right));
+    }
+
+    @Test
+    public void testInsertionsAtSameLine() throws Exception {
+        context.setAdaptiveMaxStructuredLines(4);
+        assertEquals(STRUCTURED, choose("A.java", BASE_CONTENT, "a\nx\nb\nc\nd\n", "a\ny\nb\nc\nd\n"));
+    }
+}
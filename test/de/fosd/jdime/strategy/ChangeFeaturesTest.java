@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.strategy;
+
+import de.fosd.jdime.merge.Diff3;
+import org.junit.Test;
+
+import static de.fosd.jdime.strategy.ChangeFeatures.overlapping;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the <code>ChangeFeatures</code> class.
+ */
+public class ChangeFeaturesTest {
+
+    @Test
+    public void testInsertionsAtSameLine() throws Exception {
+        assertEquals(1, overlapping(new int[] { 5, 0, 5, 2 }, new int[] { 5, 0, 5, 1 }));
+        assertEquals(0, overlapping(new int[] { 5, 0, 5, 2 }, new int[] { 7, 0, 7, 1 }));
+
+        String base = "a\nb\nc\n";
+        int[] left = Diff3.diff(base, "a\nx\nb\nc\n");
+        int[] right = Diff3.diff(base, "a\ny\nb\nc\n");
+
+        assertEquals(1, overlapping(left, right));
+        assertEquals(0, overlapping(left, Diff3.diff(base, "a\nb\nc\ny\n")));
+    }
+
+    @Test
+    public void testTouchingHunks() throws Exception {
+        int[] left = { 2, 3, 2, 3 };
+
+        // right starts at the line following the left hunk
+        assertEquals(1, overlapping(left, new int[] { 5, 1, 5, 1 }));
+        assertEquals(0, overlapping(left, new int[] { 6, 1, 6, 1 }));
+
+        // right ends at the first line of the left hunk
+        assertEquals(1, overlapping(left, new int[] { 0, 2, 0, 2 }));
+        assertEquals(0, overlapping(left, new int[] { 0, 1, 0, 1 }));
+
+        // an insertion right before or after the left hunk
+        assertEquals(1, overlapping(left, new int[] { 2, 0, 2, 1 }));
+        assertEquals(1, overlapping(left, new int[] { 5, 0, 5, 1 }));
+
+        String base = "a\nb\nc\nd\n";
+
+        assertEquals(1, overlapping(Diff3.diff(base, "a\nx\nc\nd\n"), Diff3.diff(base, "a\nb\ny\nd\n")));
+        assertEquals(0, overlapping(Diff3.diff(base, "x\nb\nc\nd\n"), Diff3.diff(base, "a\nb\nc\ny\n")));
+    }
+
+    @Test
+    public void testCountsLeftHunks() throws Exception {
+        int[] left = { 0, 1, 0, 1, 4, 1, 4, 1, 8, 1, 8, 1 };
+        int[] right = { 1, 3, 1, 3, 9, 0, 9, 2 };
+
+        assertEquals(3, overlapping(left, right));
+        assertEquals(2, overlapping(right, left));
+        assertEquals(0, overlapping(left, new int[0]));
+        assertEquals(0, overlapping(new int[0], right));
+    }
+}
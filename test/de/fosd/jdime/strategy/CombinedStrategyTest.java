@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.strategy;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.artifact.ArtifactList;
+import de.fosd.jdime.artifact.file.FileArtifact;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.execption.AbortException;
+import de.fosd.jdime.operations.MergeOperation;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static de.fosd.jdime.artifact.file.FileArtifact.FileType.FILE;
+import static de.fosd.jdime.config.merge.MergeScenario.BASE;
+import static de.fosd.jdime.config.merge.MergeScenario.LEFT;
+import static de.fosd.jdime.config.merge.MergeScenario.MERGE;
+import static de.fosd.jdime.config.merge.MergeScenario.RIGHT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the <code>CombinedStrategy</code>.
+ */
+public class CombinedStrategyTest extends JDimeTest {
+
+    private static final String PATH = "SimpleTests/VerySimple.java";
+
+    /**
+     * A <code>MergeStrategy</code> that blocks until it is interrupted.
+     */
+    private static class BlockingStrategy extends MergeStrategy<FileArtifact> {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void merge(MergeOperation<FileArtifact> operation, MergeContext context) {
+            started.countDown();
+
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }
+    }
+
+    /**
+     * A <code>MergeStrategy</code> that merges using another strategy once a <code>BlockingStrategy</code> started.
+     */
+    private static class AwaitingStrategy extends MergeStrategy<FileArtifact> {
+
+        private final MergeStrategy<FileArtifact> strategy;
+        private final BlockingStrategy blocking;
+
+        AwaitingStrategy(MergeStrategy<FileArtifact> strategy, BlockingStrategy blocking) {
+            this.strategy = strategy;
+            this.blocking = blocking;
+        }
+
+        @Override
+        public void merge(MergeOperation<FileArtifact> operation, MergeContext context) {
+
+            try {
+                assertTrue(blocking.started.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+
+            strategy.merge(operation, context);
+        }
+    }
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    /**
+     * Returns a <code>MergeContext</code> merging the {@link #PATH} scenario using the given strategy.
+     *
+     * @param strategy
+     *         the <code>MergeStrategy</code> to use
+     * @return the <code>MergeContext</code>
+     */
+    private static MergeContext context(MergeStrategy<FileArtifact> strategy) {
+        MergeContext context = new MergeContext();
+        ArtifactList<FileArtifact> inputs = new ArtifactList<>();
+
+        for (File file : Arrays.asList(file(leftDir, PATH), file(baseDir, PATH), file(rightDir, PATH))) {
+            FileArtifact input = new FileArtifact(inputs.isEmpty() ? LEFT : inputs.size() == 1 ? BASE : RIGHT, file);
+
+            input.getContent();
+            inputs.add(input);
+        }
+
+        context.setMergeStrategy(strategy);
+        context.setInputFiles(inputs);
+        context.setOutputFile(new FileArtifact(MERGE, FILE));
+
+        return context;
+    }
+
+    @Test
+    public void testSpeculativeStrategiesAreInterrupted() throws Exception {
+        BlockingStrategy blocking = new BlockingStrategy();
+        MergeStrategy<FileArtifact> diff3 = MergeStrategy.parse(MergeStrategy.DIFF3).get();
+        AwaitingStrategy awaiting = new AwaitingStrategy(diff3, blocking);
+        MergeContext context = context(new CombinedStrategy(Arrays.asList(awaiting, blocking)));
+        MergeContext expected = context(diff3);
+
+        context.setSpeculativeStrategies(true);
+
+        Main.merge(context);
+        Main.merge(expected);
+
+        assertEquals(expected.getOutputFile().getContent(), context.getOutputFile().getContent());
+        assertTrue(blocking.interrupted.await(10, TimeUnit.SECONDS));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testInterruptedStructuredMergeAborts() throws Exception {
+        MergeContext context = context(MergeStrategy.parse(MergeStrategy.STRUCTURED).get());
+
+        Thread.currentThread().interrupt();
+
+        try {
+            Main.merge(context);
+            fail("The interrupted merge did not abort.");
+        } catch (AbortException e) {
+            assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2013-2014 Olaf Lessenich
+ * Copyright (C) 2014-2018 University of Passau, Germany
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ *
+ * Contributors:
+ *     Olaf Lessenich <lessenic@fim.uni-passau.de>
+ *     Georg Seibt <seibt@fim.uni-passau.de>
+ */
+package de.fosd.jdime.strategy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import de.fosd.jdime.JDimeTest;
+import de.fosd.jdime.Main;
+import de.fosd.jdime.config.JDimeConfig;
+import de.fosd.jdime.config.merge.MergeContext;
+import de.fosd.jdime.config.merge.Revision;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the <code>NWayStrategy</code>.
+ */
+public class NWayStrategyTest extends JDimeTest {
+
+    private static final String FILE = "LinkedList.java";
+
+    /**
+     * Matches the lines of the choice nodes in the output of a conditional merge.
+     */
+    private static final Pattern DIRECTIVE = Pattern.compile("\\s*// #(ifdef|elif|endif)\\s*(.*)");
+
+    private File variants;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        JDimeConfig.setLogLevel("WARNING");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        variants = file("/nway/ListReplacement");
+    }
+
+    /**
+     * Merges the given variants using the <code>NWayStrategy</code>.
+     *
+     * @param tree
+     *         whether to merge the variants in a balanced binary tree instead of one after another
+     * @param files
+     *         the variants to merge
+     * @return the merged content
+     * @throws Exception
+     *         if the merge fails
+     */
+    private static String merge(boolean tree, File... files) throws Exception {
+        List<String> args = new ArrayList<>(Arrays.asList("--mode", "nway", "--pretend"));
+
+        if (tree) {
+            args.add("--nway-tree");
+        }
+
+        for (File file : files) {
+            args.add(file.getPath());
+        }
+
+        MergeContext context = new MergeContext();
+        context.configureFrom(new JDimeConfig(args.toArray(new String[args.size()])));
+
+        assertEquals(tree, context.isNWayTreeReduction());
+
+        Main.merge(context);
+
+        assertTrue(context.getCrashes().isEmpty());
+        return context.getOutputFile().getContent();
+    }
+
+    @Test
+    public void testTreeEqualsFold() throws Exception {
+        File a = file(variants, "A", FILE);
+        File b = file(variants, "B", FILE);
+        File c = file(variants, "C", FILE);
+
+        for (File[] files : Arrays.asList(new File[] { a, b, c }, new File[] { b, a, c }, new File[] { c, a, b })) {
+            String fold = merge(false, files);
+
+            assertFalse(fold.isEmpty());
+            assertEquals(fold, merge(true, files));
+        }
+    }
+
+    @Test
+    public void testTreeFourVariants() throws Exception {
+        testTree("A", "B", "C", "D");
+    }
+
+    @Test
+    public void testTreeFiveVariants() throws Exception {
+        testTree("A", "B", "C", "D", "E");
+    }
+
+    @Test
+    public void testFoldFourVariants() throws Exception {
+        File[] files = files("A", "B", "C", "D");
+        assertProjections(merge(false, files), files);
+    }
+
+    @Test
+    public void testFoldFiveVariants() throws Exception {
+        File[] files = files("B", "D", "A", "E", "C");
+        assertProjections(merge(false, files), files);
+    }
+
+    /**
+     * Merges the given variants in a tree and compares the result to the expected output in
+     * <code>results/nway/ListReplacement/tree</code>.
+     *
+     * @param names
+     *         the names of the variants to merge
+     * @throws Exception
+     *         if the merge fails
+     */
+    private void testTree(String... names) throws Exception {
+        File[] files = files(names);
+        File expectedFile = file(resultsDir, "nway", "ListReplacement", "tree", String.join("_", names), FILE);
+        String merged = merge(true, files);
+
+        assertEquals(normalize(FileUtils.readFileToString(expectedFile, UTF_8)), normalize(merged));
+        assertProjections(merged, files);
+    }
+
+    /**
+     * Returns the variant files with the given names.
+     *
+     * @param names
+     *         the names of the variants
+     * @return the files
+     */
+    private File[] files(String... names) {
+        return Arrays.stream(names).map(name -> file(variants, name, FILE)).toArray(File[]::new);
+    }
+
+    /**
+     * Asserts that selecting the code for every revision from the output of an n-way merge yields the variant the
+     * revision was named for. The revisions are named positionally, the first file is 'A', the second 'B' and so on.
+     * Whitespace is ignored.
+     *
+     * @param merged
+     *         the merged content
+     * @param files
+     *         the merged variants in the order they were given to the merge
+     * @throws IOException
+     *         if a variant can not be read
+     */
+    private static void assertProjections(String merged, File... files) throws IOException {
+        Revision.SuccessiveNameSupplier names = new Revision.SuccessiveNameSupplier();
+
+        for (File file : files) {
+            String revision = names.get();
+            String expected = FileUtils.readFileToString(file, UTF_8).replaceAll("\\s", "");
+
+            assertEquals(revision, expected, project(merged, revision).replaceAll("\\s", ""));
+        }
+    }
+
+    /**
+     * Returns the code of the given <code>revision</code> from the output of a conditional merge.
+     *
+     * @param merged
+     *         the merged content
+     * @param revision
+     *         the name of the revision
+     * @return the code of the revision
+     */
+    private static String project(String merged, String revision) {
+        StringBuilder code = new StringBuilder();
+
+        // for every open choice: whether the enclosing code is selected and whether a variant was selected already
+        Deque<boolean[]> choices = new ArrayDeque<>();
+        boolean selected = true;
+
+        for (String line : merged.split("\\R")) {
+            Matcher matcher = DIRECTIVE.matcher(line);
+
+            if (!matcher.matches()) {
+
+                if (selected) {
+                    code.append(line).append(System.lineSeparator());
+                }
+
+                continue;
+            }
+
+            String directive = matcher.group(1);
+
+            if (directive.equals("endif")) {
+                selected = choices.pop()[0];
+                continue;
+            }
+
+            if (directive.equals("ifdef")) {
+                choices.push(new boolean[] { selected, false });
+            }
+
+            boolean[] choice = choices.peek();
+            boolean holds = Arrays.asList(matcher.group(2).trim().split("\\s*\\|\\|\\s*")).contains(revision);
+
+            selected = choice[0] && !choice[1] && holds;
+            choice[1] |= holds;
+        }
+
+        assertTrue(choices.isEmpty());
+        return code.toString();
+    }
+}
@@ -0,0 +1,10 @@
+import java.util.List;
+import java.util.LinkedList;
+
+public class MyList {
+    List list = new LinkedList();
+    
+    Object getElement(int pos) {
+        return list.get(pos + 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+
+class DeletionInsertion {
+  void foo() {
+    int 
+// #ifdef left
+a1
+// #endif
+, 
+// #ifdef right
+a
+// #endif
+;
+    int 
+// #ifdef right
+b1
+// #endif
+, 
+// #ifdef left
+b
+// #endif
+;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+
+class Duplicate {
+  void n() {
+
+// #ifdef left
+int x = 0;
+// #endif
+
+    for (int i = 0; i < 10; i++) {
+    }
+
+// #ifdef right
+int x = 0;
+// #endif
+  }
+}
\ No newline at end of file
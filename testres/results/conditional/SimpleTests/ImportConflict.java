@@ -0,0 +1,29 @@
+import java.util.List;
+
+// #ifdef left
+import java.util.LinkedList;
+
+// #endif
+
+// #ifdef right
+import java.util.ArrayList;
+
+// #endif
+
+class Stack {
+  List<Integer> stack = new 
+// #ifdef left
+LinkedList
+// #elif right
+ArrayList
+// #endif
+<>();
+
+  public Integer pop() {
+    return stack.remove(stack.size() - 1);
+  }
+
+  public void push(Integer elem) {
+    stack.add(elem);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+
+class Foo implements A, 
+// #ifdef left
+B
+// #endif
+, 
+// #ifdef right
+C
+// #endif
+ {
+}
\ No newline at end of file
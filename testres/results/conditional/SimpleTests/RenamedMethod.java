@@ -0,0 +1,17 @@
+
+class Foo {
+
+// #ifdef left
+int getAnswer() {
+  return 42;
+}
+// #endif
+
+
+
+// #ifdef right
+int getResponse() {
+  return 42;
+}
+// #endif
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+
+public class SameStatement {
+  public void foo() {
+    int i = 2;
+  }
+}
\ No newline at end of file
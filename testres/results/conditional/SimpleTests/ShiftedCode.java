@@ -0,0 +1,31 @@
+import java.util.List;
+
+class Bar {
+  List<String> l;
+
+  int bar() {
+
+// #ifdef left
+if (l != null) {
+  String s = l.get(0);
+  return s.length();
+}
+// #endif
+
+
+// #ifdef right
+String s = l.get(0);
+// #endif
+
+
+// #ifdef right
+s = s.trim();
+// #endif
+
+    return 
+// #ifdef left
+0
+// #endif
+;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+
+public class SimpleConflict {
+  int i = 
+// #ifdef left
+42
+// #elif right
+23
+// #endif
+;
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+
+public class SWLoop {
+  public boolean isOnline() {
+    boolean online;
+
+// #ifdef left
+for (int i = 0; i < 10; i++) {
+  online = check();
+}
+// #elif right
+int i = 0;
+// #endif
+
+
+// #ifdef right
+while (i < 10) {
+  online = check();
+  i++;
+}
+// #endif
+
+    return online;
+  }
+
+  public boolean check() {
+    return true;
+  }
+}
\ No newline at end of file
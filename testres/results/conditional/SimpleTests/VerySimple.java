@@ -0,0 +1,10 @@
+
+public class VerySimple {
+  void foo() {
+    int i = 0;
+
+// #ifdef right
+i++;
+// #endif
+  }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+import java.util.List;
+
+// #ifdef A || C || D
+import java.util.ArrayList;
+
+// #endif
+
+// #ifdef B
+import java.util.LinkedList;
+
+// #endif
+
+public class MyList {
+  List list = new 
+// #ifdef A
+ArrayList
+// #elif B
+LinkedList
+// #elif C || D
+ArrayList
+// #endif
+();
+
+  Object getElement(
+// #ifdef A
+int position
+// #elif B
+int pos
+// #elif C || D
+int position
+// #endif
+) {
+    return list.get(
+// #ifdef A
+position
+// #elif B
+pos
+// #elif C
+position - 1
+// #elif D
+position + 1
+// #endif
+);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+import java.util.List;
+
+// #ifdef A || C
+import java.util.ArrayList;
+
+// #endif
+
+// #ifdef D
+import java.util.ArrayList;
+
+// #endif
+
+// #ifdef B
+import java.util.LinkedList;
+
+// #endif
+
+// #ifdef E
+import java.util.LinkedList;
+
+// #endif
+
+public class MyList {
+  List list = new 
+// #ifdef A
+ArrayList
+// #elif B
+LinkedList
+// #elif C
+ArrayList
+// #elif D
+ArrayList
+// #elif E
+LinkedList
+// #endif
+();
+
+  Object getElement(
+// #ifdef A
+int position
+// #elif B
+int pos
+// #elif C
+int position
+// #elif D
+int position
+// #elif E
+int pos
+// #endif
+) {
+    return list.get(
+// #ifdef A
+position
+// #elif B
+pos
+// #elif C
+position - 1
+// #elif D || E
+
+// #ifdef D
+position
+// #elif E
+pos
+// #endif
+ + 1
+// #endif
+);
+  }
+}
\ No newline at end of file